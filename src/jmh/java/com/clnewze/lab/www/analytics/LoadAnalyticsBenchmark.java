@@ -0,0 +1,96 @@
+package com.clnewze.lab.www.analytics;
+
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.meter.ReadingContext;
+import com.clnewze.lab.www.meter.UnitOfMeasure;
+import com.clnewze.lab.www.meter.ValueFormat;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 그룹 부하 집계 (충전기 10,000대, 그룹 100개, 1분 창 60개)
+ * ./gradlew jmh -Pjmh.includes=LoadAnalytics
+ *
+ * - onSample: 전력 샘플 1개 반영 (적분 + 창 샘플 수 + 분위수 스케치)
+ * - sketchAdd: 스케치에 값 1개 추가
+ * - sliding15m: 그룹 1개의 15분 슬라이딩 창 (창 15개 스케치 병합)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx1g"})
+public class LoadAnalyticsBenchmark {
+
+    private static final int CHARGERS = 10_000;
+    private static final int GROUPS = 100;
+
+    @State(Scope.Thread)
+    public static class Analytics {
+
+        final SampledValue[] values = new SampledValue[64];
+        final String[] ids = new String[CHARGERS];
+        LoadAnalytics analytics;
+        QuantileSketch sketch;
+        long now;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            for (int i = 0; i < values.length; i++) {
+                values[i] = SampledValue.of(1000 + i * 350, Measurand.POWER_ACTIVE_IMPORT, UnitOfMeasure.W,
+                        ReadingContext.SAMPLE_PERIODIC, Phase.NONE, Location.OUTLET, ValueFormat.RAW, null);
+            }
+            Map<String, String> groups = new HashMap<>(CHARGERS * 2);
+            for (int i = 0; i < CHARGERS; i++) {
+                ids[i] = String.format("CP%05d", i);
+                groups.put(ids[i], "site-" + i % GROUPS);
+            }
+            now = 1_700_000_000_000L;
+            analytics = new LoadAnalytics(new ChargePointGroups(groups, null), AnalyticsConfig.defaults(),
+                    () -> now);
+            sketch = new QuantileSketch();
+            // 1시간 분량 (충전기마다 1분에 1개)
+            for (int minute = 0; minute < 60; minute++) {
+                for (int i = 0; i < CHARGERS; i++) {
+                    sample();
+                }
+            }
+        }
+
+        void sample() {
+            int i = next++ % CHARGERS;
+            if (i == 0) {
+                now += 60_000L;
+            }
+            analytics.onSample(ids[i], 1, i + 1, now + i, values[next & 63]);
+        }
+    }
+
+    @Benchmark
+    public void onSample(Analytics state) {
+        state.sample();
+    }
+
+    @Benchmark
+    public void sketchAdd(Analytics state) {
+        state.sketch.add(state.values[state.next++ & 63].baseValue());
+    }
+
+    @Benchmark
+    public WindowStats sliding15m(Analytics state) {
+        return state.analytics.sliding("site-0", 15 * 60_000L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.clnewze.lab.www.auth;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 차단 목록 조회 (태그 N개, 조회 1024개 묶음)
+ * ./gradlew jmh -Pjmh.includes=IdTagBlacklist
+ *
+ * - blacklistMiss: 차단 아님 (대부분의 Authorize, Bloom 필터에서 끝남, 할당 없음)
+ * - blacklistHit: 차단 태그 (필터 + 정렬 키 이진 탐색)
+ * - hashSet*: 같은 태그를 HashSet<String>에 넣은 경우 (비교용)
+ * 메모리는 setup에서 출력 (off-heap bytes/entry)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class IdTagBlacklistBenchmark {
+
+    private static final int BATCH = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Lists {
+
+        @Param({"1000000"})
+        public int size;
+
+        IdTagBlacklist blacklist;
+        Set<String> hashSet;
+        String[] blocked = new String[BATCH];
+        String[] allowed = new String[BATCH];
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            List<String> tags = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tags.add(String.format("%08X%08X", i * 0x9E3779B1, i));
+            }
+            blacklist = IdTagBlacklist.of(tags, IdTagBlacklist.DEFAULT_BITS_PER_ENTRY);
+            hashSet = new HashSet<>(tags);
+            for (int i = 0; i < BATCH; i++) {
+                blocked[i] = tags.get((int) ((i * 7919L) % size));
+                allowed[i] = String.format("RFID%012d", i);
+            }
+            System.out.printf("%n%d entries: %.1f off-heap bytes/entry (%d KB)%n", blacklist.size(),
+                    (double) blacklist.offHeapBytes() / blacklist.size(), blacklist.offHeapBytes() / 1024);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int blacklistMiss(Lists lists) {
+        int found = 0;
+        for (String idTag : lists.allowed) {
+            if (lists.blacklist.contains(idTag)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int blacklistHit(Lists lists) {
+        int found = 0;
+        for (String idTag : lists.blocked) {
+            if (lists.blacklist.contains(idTag)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int hashSetMiss(Lists lists) {
+        int found = 0;
+        for (String idTag : lists.allowed) {
+            if (lists.hashSet.contains(idTag)) {
+                found++;
+            }
+        }
+        return found;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public int hashSetHit(Lists lists) {
+        int found = 0;
+        for (String idTag : lists.blocked) {
+            if (lists.hashSet.contains(idTag)) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,92 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.AuthorizationStatus;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 로컬 목록 차이 계산 (항목 N개, 버전마다 태그 10개 변경)
+ * ./gradlew jmh -Pjmh.includes=LocalListDiff
+ *
+ * - diffAfterChange: 변경 1건 후 100버전 뒤처진 충전기 1대의 차이 (메모 없음, 변경 수에 비례)
+ * - diffThousandChargers: 변경 1건 후 같은 버전의 충전기 1000대 (첫 대만 계산, 나머지는 메모 공유)
+ * - fullUpdate: 전체 목록 메시지 (비교용, 목록 크기에 비례)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class LocalListDiffBenchmark {
+
+    private static final int CHARGERS = 1000;
+
+    @State(Scope.Benchmark)
+    public static class Lists {
+
+        @Param({"100000"})
+        public int size;
+
+        LocalAuthorizationList list;
+        int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            list = new LocalAuthorizationList("bench");
+            Map<String, IdTagInfo> all = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                all.put(String.format("RFID%08d", i), IdTagInfo.ACCEPTED);
+            }
+            list.update(all);
+            for (int v = 0; v < 1000; v++) {
+                change();
+            }
+        }
+
+        void change() {
+            Map<String, IdTagInfo> changes = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                int tag = (int) ((next++ * 7919L) % size);
+                changes.put(String.format("RFID%08d", tag),
+                        next % 2 == 0 ? IdTagInfo.ACCEPTED : IdTagInfo.of(AuthorizationStatus.BLOCKED));
+            }
+            list.update(changes);
+        }
+    }
+
+    @Benchmark
+    public List<LocalListUpdate> diffAfterChange(Lists lists) {
+        lists.change();
+        return lists.list.updatesSince(lists.list.getVersion() - 100, 500);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(CHARGERS)
+    public int diffThousandChargers(Lists lists) {
+        lists.change();
+        int from = lists.list.getVersion() - 100;
+        int messages = 0;
+        for (int i = 0; i < CHARGERS; i++) {
+            messages += lists.list.updatesSince(from, 500).size();
+        }
+        return messages;
+    }
+
+    @Benchmark
+    public LocalListUpdate fullUpdate(Lists lists) {
+        return lists.list.fullUpdate();
+    }
+}
@@ -0,0 +1,101 @@
+package com.clnewze.lab.www.meter;
+
+import com.clnewze.lab.www.action.MeterValuesHandler;
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.protocol.BenchmarkPayloads;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.router.MessageRouter;
+import com.clnewze.lab.www.session.ChargePointSession;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * MeterJournal 저장 처리량 (임시 디렉터리, 세그먼트 64MB)
+ * ./gradlew jmh -Pjmh.includes=MeterJournal
+ *
+ * - append: 샘플 1개 (gc.alloc.rate.norm = 0이어야 함)
+ * - routeMeterValues: MeterValues 프레임 디코딩 + 저장 (측정 시점 N개 × sampledValue 8개)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class MeterJournalBenchmark {
+
+    private static final int APPEND_BATCH = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Journal {
+
+        Path dir;
+        MeterJournal journal;
+        long key;
+        long timestamp;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            dir = Files.createTempDirectory("meter-bench");
+            journal = new MeterJournal(dir, 64L * 1024 * 1024, 0);
+            key = MeterJournal.keyOf("CP-BENCH-001");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            journal.close();
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Router {
+
+        @Param({"1", "96"})
+        public int meterValueCount;
+
+        MessageRouter router;
+        ChargePointSession session;
+        String raw;
+
+        @Setup(Level.Trial)
+        public void setUp(Journal journal) {
+            router = new MessageRouter(null, new OcppMetrics());
+            router.register(new MeterValuesHandler(journal.journal));
+            session = new ChargePointSession("CP-BENCH-001", null);
+            raw = BenchmarkPayloads.meterValuesCall(meterValueCount);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(APPEND_BATCH)
+    public void append(Journal state) throws IOException {
+        MeterJournal journal = state.journal;
+        long timestamp = state.timestamp;
+        for (int i = 0; i < APPEND_BATCH; i++) {
+            journal.append(state.key, 1, 42, timestamp + i, Measurand.POWER_ACTIVE_IMPORT, 7400.0);
+        }
+        state.timestamp = timestamp + APPEND_BATCH;
+    }
+
+    @Benchmark
+    public OcppMessage routeMeterValues(Router router) {
+        return router.router.route(router.session, router.raw);
+    }
+}
@@ -0,0 +1,162 @@
+package com.clnewze.lab.www.meter;
+
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.google.gson.stream.JsonReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * sampledValue 문자열 보관 vs enum ordinal 압축 비교 (샘플 1개당)
+ * ./gradlew jmh -Pjmh.includes=SampledValue
+ *
+ * - decode*: JSON → 샘플 객체 (Gson이 토큰마다 만드는 임시 문자열은 양쪽 공통)
+ * - consume*: 저장 경로 (문자열 비교 + parseDouble vs ordinal/double 그대로)
+ * 보관 크기(샘플 1개, 압축 OOP 기준): 문자열 7개 레코드 ≈ 400B, SampledValue 32B
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class SampledValueBenchmark {
+
+    private static final int SAMPLES = 8;
+
+    /**
+     * 변경 전 형태: 필드를 문자열 그대로 보관
+     */
+    record LegacySample(String value, String context, String format, String measurand, String phase,
+                        String location, String unit) {
+
+        static LegacySample read(JsonReader in) throws IOException {
+            String value = null;
+            String context = null;
+            String format = null;
+            String measurand = null;
+            String phase = null;
+            String location = null;
+            String unit = null;
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "value" -> value = in.nextString();
+                    case "context" -> context = in.nextString();
+                    case "format" -> format = in.nextString();
+                    case "measurand" -> measurand = in.nextString();
+                    case "phase" -> phase = in.nextString();
+                    case "location" -> location = in.nextString();
+                    case "unit" -> unit = in.nextString();
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            return new LegacySample(value, context, format, measurand, phase, location, unit);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        String json;
+        List<LegacySample> legacy;
+        List<SampledValue> compact;
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            json = "["
+                    + sample("152340", "Energy.Active.Import.Register", "Wh", null)
+                    + "," + sample("11.0405", "Power.Active.Import", "kW", null)
+                    + "," + sample("229.8", "Voltage", "V", "L1-N")
+                    + "," + sample("230.4", "Voltage", "V", "L2-N")
+                    + "," + sample("231.1", "Voltage", "V", "L3-N")
+                    + "," + sample("16.02", "Current.Import", "A", "L1")
+                    + "," + sample("15.97", "Current.Import", "A", "L2")
+                    + "," + sample("16.05", "Current.Import", "A", "L3")
+                    + "]";
+            legacy = decodeLegacy(json);
+            compact = decodeCompact(json);
+        }
+
+        private static String sample(String value, String measurand, String unit, String phase) {
+            return "{\"value\":\"" + value + "\",\"context\":\"Sample.Periodic\",\"format\":\"Raw\","
+                    + "\"measurand\":\"" + measurand + "\","
+                    + (phase != null ? "\"phase\":\"" + phase + "\"," : "")
+                    + "\"location\":\"Outlet\",\"unit\":\"" + unit + "\"}";
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public List<LegacySample> decodeLegacy(Payload payload) throws IOException {
+        return decodeLegacy(payload.json);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public List<SampledValue> decodeCompact(Payload payload) throws IOException {
+        return decodeCompact(payload.json);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double consumeLegacy(Payload payload) {
+        double sum = 0;
+        for (LegacySample sample : payload.legacy) {
+            if ("SignedData".equals(sample.format())) {
+                continue;
+            }
+            double scale = switch (sample.unit() != null ? sample.unit() : "Wh") {
+                case "kWh", "kW", "kvarh", "kvar", "kVA" -> 1000;
+                default -> 1;
+            };
+            sum += Double.parseDouble(sample.value()) * scale + Measurand.fromValue(sample.measurand()).ordinal();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public double consumeCompact(Payload payload) {
+        double sum = 0;
+        for (SampledValue sample : payload.compact) {
+            if (sample.isNumeric()) {
+                sum += sample.baseValue() + sample.measurand().ordinal();
+            }
+        }
+        return sum;
+    }
+
+    private static List<LegacySample> decodeLegacy(String json) throws IOException {
+        JsonReader in = new JsonReader(new StringReader(json));
+        List<LegacySample> samples = new ArrayList<>(SAMPLES);
+        in.beginArray();
+        while (in.hasNext()) {
+            samples.add(LegacySample.read(in));
+        }
+        in.endArray();
+        return samples;
+    }
+
+    private static List<SampledValue> decodeCompact(String json) throws IOException {
+        JsonReader in = new JsonReader(new StringReader(json));
+        List<SampledValue> samples = new ArrayList<>(SAMPLES);
+        in.beginArray();
+        while (in.hasNext()) {
+            samples.add(SampledValue.read(in));
+        }
+        in.endArray();
+        return samples;
+    }
+}
@@ -0,0 +1,84 @@
+package com.clnewze.lab.www.protocol;
+
+/**
+ * 벤치마크용 실제 형태의 OCPP 1.6J 프레임
+ */
+public final class BenchmarkPayloads {
+
+    /** StopTransaction/MeterValues 프레임의 transactionId */
+    public static final int TRANSACTION_ID = 1001;
+
+    private static final String TIMESTAMP = "2024-01-15T10:00:00.000Z";
+
+    private BenchmarkPayloads() {
+    }
+
+    /**
+     * Action별 Call 프레임 (MeterValues는 측정 시점 1개)
+     */
+    public static String call(String action) {
+        String uniqueId = "\"b3b1f0c2-7d1e-4a57-9c34-5f8f6a0e2d11\"";
+        String payload = switch (action) {
+            case "BootNotification" -> "{\"chargePointVendor\":\"Clnewze\",\"chargePointModel\":\"AC-22K\","
+                    + "\"chargePointSerialNumber\":\"CN22K-000123\",\"chargeBoxSerialNumber\":\"CB-000123\","
+                    + "\"firmwareVersion\":\"1.8.3\",\"iccid\":\"8982300000000000001\",\"imsi\":\"450081234567890\","
+                    + "\"meterType\":\"DZG DVH4013\",\"meterSerialNumber\":\"MT-7788\"}";
+            case "Heartbeat" -> "{}";
+            case "StatusNotification" -> "{\"connectorId\":1,\"errorCode\":\"NoError\",\"status\":\"Available\","
+                    + "\"timestamp\":\"" + TIMESTAMP + "\",\"vendorErrorCode\":\"\"}";
+            case "Authorize" -> "{\"idTag\":\"04A2B3C4D5E6F7\"}";
+            case "StartTransaction" -> "{\"connectorId\":1,\"idTag\":\"04A2B3C4D5E6F7\",\"meterStart\":152340,"
+                    + "\"timestamp\":\"" + TIMESTAMP + "\"}";
+            case "StopTransaction" -> "{\"transactionId\":" + TRANSACTION_ID
+                    + ",\"idTag\":\"04A2B3C4D5E6F7\",\"meterStop\":171840,"
+                    + "\"timestamp\":\"" + TIMESTAMP + "\",\"reason\":\"Local\",\"transactionData\":["
+                    + meterValue(0) + "]}";
+            case "MeterValues" -> meterValues(1);
+            default -> throw new IllegalArgumentException("Unknown action: " + action);
+        };
+        return "[2," + uniqueId + ",\"" + action + "\"," + payload + "]";
+    }
+
+    /**
+     * 측정 시점 meterValueCount개를 담은 MeterValues 프레임 (오프라인 후 일괄 전송 등)
+     */
+    public static String meterValuesCall(int meterValueCount) {
+        return "[2,\"meter-batch-" + meterValueCount + "\",\"MeterValues\"," + meterValues(meterValueCount) + "]";
+    }
+
+    private static String meterValues(int meterValueCount) {
+        StringBuilder sb = new StringBuilder(meterValueCount * 900 + 64);
+        sb.append("{\"connectorId\":1,\"transactionId\":").append(TRANSACTION_ID).append(",\"meterValue\":[");
+        for (int i = 0; i < meterValueCount; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(meterValue(i));
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * 3상 AC 충전기의 주기 측정값 1개 (sampledValue 8개)
+     */
+    private static String meterValue(int index) {
+        String timestamp = String.format("2024-01-15T%02d:%02d:00.000Z", (index / 60) % 24, index % 60);
+        return "{\"timestamp\":\"" + timestamp + "\",\"sampledValue\":["
+                + sample(Integer.toString(152340 + index * 90), "Energy.Active.Import.Register", "Wh", null)
+                + "," + sample("11040.5", "Power.Active.Import", "W", null)
+                + "," + sample("229.8", "Voltage", "V", "L1-N")
+                + "," + sample("230.4", "Voltage", "V", "L2-N")
+                + "," + sample("231.1", "Voltage", "V", "L3-N")
+                + "," + sample("16.02", "Current.Import", "A", "L1")
+                + "," + sample("15.97", "Current.Import", "A", "L2")
+                + "," + sample("16.05", "Current.Import", "A", "L3")
+                + "]}";
+    }
+
+    private static String sample(String value, String measurand, String unit, String phase) {
+        return "{\"value\":\"" + value + "\",\"context\":\"Sample.Periodic\",\"format\":\"Raw\","
+                + "\"measurand\":\"" + measurand + "\","
+                + (phase != null ? "\"phase\":\"" + phase + "\"," : "")
+                + "\"location\":\"Outlet\",\"unit\":\"" + unit + "\"}";
+    }
+}
@@ -0,0 +1,74 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 프레임 디코딩 비교
+ * - treeParseTwice: 기존 MessageRouter.route 경로 (parseString + Call.fromJson 재파싱)
+ * - streamingDecode: OcppFrameDecoder 단일 패스 + payload 트리
+ * - streamingHeaderOnly: payload를 읽지 않는 경우 (Heartbeat 등)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class FrameDecodeBenchmark {
+
+    @Param({"Heartbeat", "MeterValues"})
+    public String action;
+
+    private String raw;
+
+    @Setup
+    public void setUp() {
+        raw = switch (action) {
+            case "Heartbeat" -> "[2,\"hb-001\",\"Heartbeat\",{}]";
+            default -> "[2,\"meter-001\",\"MeterValues\",{\"connectorId\":1,\"transactionId\":42,"
+                    + "\"meterValue\":[{\"timestamp\":\"2024-01-15T10:00:00Z\",\"sampledValue\":["
+                    + "{\"value\":\"5000\",\"measurand\":\"Energy.Active.Import.Register\",\"unit\":\"Wh\"},"
+                    + "{\"value\":\"230\",\"measurand\":\"Voltage\",\"unit\":\"V\"},"
+                    + "{\"value\":\"16\",\"measurand\":\"Current.Import\",\"unit\":\"A\"}]}]}]";
+        };
+    }
+
+    @Benchmark
+    public void treeParseTwice(Blackhole bh) {
+        JsonArray array = JsonParser.parseString(raw).getAsJsonArray();
+        bh.consume(array.get(0).getAsInt());
+
+        JsonArray again = JsonParser.parseString(raw).getAsJsonArray();
+        bh.consume(again.get(1).getAsString());
+        bh.consume(again.get(2).getAsString());
+        JsonObject payload = again.get(3).getAsJsonObject();
+        bh.consume(payload);
+    }
+
+    @Benchmark
+    public void streamingDecode(Blackhole bh) {
+        OcppFrame frame = OcppFrameDecoder.decode(raw);
+        bh.consume(frame.getUniqueId());
+        bh.consume(frame.getAction());
+        bh.consume(frame.getPayload());
+    }
+
+    @Benchmark
+    public void streamingHeaderOnly(Blackhole bh) {
+        OcppFrame frame = OcppFrameDecoder.decode(raw);
+        bh.consume(frame.getUniqueId());
+        bh.consume(frame.getAction());
+    }
+}
@@ -0,0 +1,79 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 메시지 파싱/직렬화 (Call.fromJson, CallResult.toJson, CallError.toJson)
+ * ./gradlew jmh -Pjmh.includes=MessageCodec  (기본으로 gc 프로파일러 → gc.alloc.rate.norm)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class MessageCodecBenchmark {
+
+    /**
+     * frame: Action 이름 또는 MeterValues:N (측정 시점 N개 × sampledValue 8개)
+     */
+    @State(Scope.Benchmark)
+    public static class Frames {
+
+        @Param({"Heartbeat", "BootNotification", "StopTransaction", "MeterValues:1", "MeterValues:96"})
+        public String frame;
+
+        String raw;
+
+        @Setup
+        public void setUp() {
+            raw = frame.startsWith("MeterValues:")
+                    ? BenchmarkPayloads.meterValuesCall(Integer.parseInt(frame.substring("MeterValues:".length())))
+                    : BenchmarkPayloads.call(frame);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Responses {
+
+        CallResult bootResult;
+        CallError callError;
+
+        @Setup
+        public void setUp() {
+            JsonObject payload = new JsonObject();
+            payload.addProperty("status", "Accepted");
+            payload.addProperty("currentTime", "2024-01-15T10:00:00.000Z");
+            payload.addProperty("interval", 300);
+            bootResult = new CallResult("b3b1f0c2-7d1e-4a57-9c34-5f8f6a0e2d11", payload);
+
+            JsonObject details = new JsonObject();
+            details.addProperty("field", "connectorId");
+            callError = new CallError("b3b1f0c2-7d1e-4a57-9c34-5f8f6a0e2d11", ErrorCode.FORMATION_VIOLATION,
+                    "connectorId must be an integer", details);
+        }
+    }
+
+    @Benchmark
+    public Call callFromJson(Frames frames) {
+        return Call.fromJson(frames.raw);
+    }
+
+    @Benchmark
+    public String callResultToJson(Responses responses) {
+        return responses.bootResult.toJson();
+    }
+
+    @Benchmark
+    public String callErrorToJson(Responses responses) {
+        return responses.callError.toJson();
+    }
+}
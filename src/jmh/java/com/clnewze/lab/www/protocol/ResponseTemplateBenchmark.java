@@ -0,0 +1,63 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heartbeat / 빈 응답 생성 비교
+ * 메시지당 할당 바이트는 gc 프로파일러로 확인:
+ * ./gradlew jmh -Pjmh.includes=ResponseTemplate -Pjmh.prof=gc  (gc.alloc.rate.norm)
+ *
+ * - legacy*: JsonObject + CallResult + JsonArray + toString + getBytes (기존 경로)
+ * - template*: ResponseTemplates + 바이트 조각 조립
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class ResponseTemplateBenchmark {
+
+    private final String uniqueId = "b3b1f0c2-7d1e-4a57-9c34-5f8f6a0e2d11";
+
+    @Benchmark
+    public byte[] legacyHeartbeat() {
+        JsonObject response = new JsonObject();
+        response.addProperty("currentTime", Instant.now().toString());
+        return legacyEncode(new CallResult(uniqueId, response).getPayload());
+    }
+
+    @Benchmark
+    public ByteBuffer templateHeartbeat() {
+        return OcppFrameEncoder.encode(ResponseTemplates.heartbeat(uniqueId));
+    }
+
+    @Benchmark
+    public byte[] legacyEmptyAck() {
+        return legacyEncode(new CallResult(uniqueId, new JsonObject()).getPayload());
+    }
+
+    @Benchmark
+    public ByteBuffer templateEmptyAck() {
+        return OcppFrameEncoder.encode(ResponseTemplates.emptyAck(uniqueId));
+    }
+
+    private byte[] legacyEncode(JsonObject payload) {
+        JsonArray array = new JsonArray();
+        array.add(MessageType.CALL_RESULT.getId());
+        array.add(uniqueId);
+        array.add(payload);
+        return array.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
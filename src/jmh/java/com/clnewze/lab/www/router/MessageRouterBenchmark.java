@@ -0,0 +1,99 @@
+package com.clnewze.lab.www.router;
+
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.protocol.BenchmarkPayloads;
+import com.clnewze.lab.www.protocol.OcppFrameEncoder;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MessageRouter.route 처리량 (디코딩 + 핸들러 + 메트릭 기록, 동기 완료 경로)
+ * ./gradlew jmh -Pjmh.includes=MessageRouter  (기본으로 gc 프로파일러 → gc.alloc.rate.norm)
+ *
+ * - route: Action 7개 각각
+ * - routeMeterValuesBatch: 측정 시점 N개 × sampledValue 8개
+ * - routeAndEncode: 응답 바이트 생성까지 (전송 직전)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+public class MessageRouterBenchmark {
+
+    @State(Scope.Thread)
+    public static class Router {
+
+        MessageRouter router;
+        ChargePointSession session;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            session = new ChargePointSession("CP-BENCH-001", null);
+            // 프레임의 transactionId를 열어 둠 (모르는 ID면 StopTransaction이 op마다 경고 로그를 남김)
+            InMemoryTransactionStore transactions = new InMemoryTransactionStore();
+            int transactionId;
+            do {
+                transactionId = transactions.start(session.getChargePointId(), 1, "04A2B3C4D5E6F7", 152340, 0L)
+                        .transactionId();
+            } while (transactionId < BenchmarkPayloads.TRANSACTION_ID);
+            router = new MessageRouter(null, new OcppMetrics(), transactions);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Actions {
+
+        @Param({"BootNotification", "Heartbeat", "StatusNotification", "Authorize",
+                "StartTransaction", "StopTransaction", "MeterValues"})
+        public String action;
+
+        String raw;
+
+        @Setup
+        public void setUp() {
+            raw = BenchmarkPayloads.call(action);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class MeterValuesBatch {
+
+        @Param({"1", "24", "96", "480"})
+        public int meterValueCount;
+
+        String raw;
+
+        @Setup
+        public void setUp() {
+            raw = BenchmarkPayloads.meterValuesCall(meterValueCount);
+        }
+    }
+
+    @Benchmark
+    public OcppMessage route(Router router, Actions actions) {
+        return router.router.route(router.session, actions.raw);
+    }
+
+    @Benchmark
+    public ByteBuffer routeAndEncode(Router router, Actions actions) {
+        return OcppFrameEncoder.encode(router.router.route(router.session, actions.raw));
+    }
+
+    @Benchmark
+    public OcppMessage routeMeterValuesBatch(Router router, MeterValuesBatch batch) {
+        return router.router.route(router.session, batch.raw);
+    }
+}
@@ -1,35 +1,377 @@
 package com.clnewze.lab.www;
 
+import com.clnewze.lab.www.action.BootNotificationHandler;
+import com.clnewze.lab.www.action.MeterValuesHandler;
+import com.clnewze.lab.www.analytics.AnalyticsConfig;
+import com.clnewze.lab.www.analytics.ChargePointGroups;
+import com.clnewze.lab.www.analytics.LoadAnalytics;
+import com.clnewze.lab.www.auth.FileIdTagBackend;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.clnewze.lab.www.auth.IdTagAuthorizationService;
+import com.clnewze.lab.www.auth.IdTagBackend;
+import com.clnewze.lab.www.auth.PrefixIdTagBackend;
+import com.clnewze.lab.www.auth.ReloadableIdTagBlacklist;
+import com.clnewze.lab.www.billing.EnergyAggregator;
+import com.clnewze.lab.www.billing.FlatTariff;
+import com.clnewze.lab.www.command.AdminHttpServer;
+import com.clnewze.lab.www.command.BulkCommandHttpHandler;
+import com.clnewze.lab.www.command.BulkCommandService;
+import com.clnewze.lab.www.dispatch.DispatcherConfig;
+import com.clnewze.lab.www.dispatch.ExecutionMode;
+import com.clnewze.lab.www.dispatch.MessageDispatcher;
+import com.clnewze.lab.www.locallist.BlacklistFilteredSource;
+import com.clnewze.lab.www.locallist.LocalListSyncService;
+import com.clnewze.lab.www.locallist.LocalListVersions;
+import com.clnewze.lab.www.meter.MeterJournal;
+import com.clnewze.lab.www.metrics.MetricsHttpServer;
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.pending.PendingRequestManager;
 import com.clnewze.lab.www.router.MessageRouter;
 import com.clnewze.lab.www.session.SessionManager;
+import com.clnewze.lab.www.state.StateTransition;
+import com.clnewze.lab.www.transaction.FileTransactionJournal;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import com.clnewze.lab.www.transaction.TransactionStore;
+import com.clnewze.lab.www.transaction.WriteBehindTransactionStore;
 import com.clnewze.lab.www.transport.websocket.OcppWebSocketServer;
+import com.clnewze.lab.www.transport.websocket.WebSocketResponseSender;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
 
 /**
  * OCPP 서버 진입점
  */
 public class Main {
 
-    public static void main(String[] args) {
+    private static final Logger log = LoggerFactory.getLogger(Main.class);
+
+    private static final String LOCAL_LIST_GROUP = "default";
+    private static final int LOCAL_LIST_SYNC_CONCURRENCY = 64;
+
+    public static void main(String[] args) throws IOException {
         int port = 8081;
 
         // 컴포넌트 생성
         SessionManager sessionManager = new SessionManager();
-        MessageRouter router = new MessageRouter();
+        OcppMetrics metrics = new OcppMetrics();
+        WebSocketResponseSender sender = new WebSocketResponseSender(metrics);
+        PendingRequestManager pendingRequests = new PendingRequestManager(sender);
+        TransactionStore transactions = openTransactionStore();
+        ReloadableIdTagBlacklist blacklist = openBlacklist();
+        IdTagBackend idTagBackend = openIdTagBackend();
+        IdTagAuthorizationService authorization = openAuthorization(idTagBackend, blacklist);
+        EnergyAggregator energy = openEnergyAggregator(transactions);
+        MessageRouter router = new MessageRouter(pendingRequests, metrics, transactions, authorization, energy);
+        MeterJournal meterJournal = openMeterJournal();
+        LoadAnalytics loadAnalytics = openLoadAnalytics();
+        router.register(new MeterValuesHandler(meterJournal, List.of(energy, loadAnalytics)));
+        LocalListSyncService localLists = openLocalLists(sessionManager, pendingRequests, idTagBackend, blacklist);
+        if (localLists != null) {
+            router.register(new BootNotificationHandler(localLists::syncAfterBoot));
+        }
+        DispatcherConfig config = DispatcherConfig.fromSystemProperties();
+        MessageDispatcher dispatcher = new MessageDispatcher(router, config, sender);
 
         // 서버 생성 및 시작
-        OcppWebSocketServer server = new OcppWebSocketServer(port, sessionManager, router);
+        OcppWebSocketServer server = new OcppWebSocketServer(port, sessionManager, dispatcher, pendingRequests);
         server.start();
 
-        System.out.println("Press Ctrl+C to stop the server");
+        registerGauges(metrics, sessionManager, dispatcher, pendingRequests, transactions);
+        registerAuthorizationGauges(metrics, authorization);
+        registerEnergyGauges(metrics, energy);
+        registerLoadGauges(metrics, loadAnalytics);
+        if (blacklist != null) {
+            metrics.registerGauge("ocpp_idtag_blacklist_entries", "Blocked idTags in the blacklist",
+                    () -> blacklist.current().size());
+        }
+        if (meterJournal != null) {
+            metrics.registerGauge("ocpp_meter_records", "Meter samples stored in the journal",
+                    meterJournal::getRecordCount);
+        }
+        MetricsHttpServer metricsServer = startMetricsServer(metrics);
+        BulkCommandService bulkCommands = openBulkCommands(sessionManager, pendingRequests);
+        AdminHttpServer adminServer = bulkCommands != null ? startAdminServer(bulkCommands) : null;
+
+        if (config.mode() == ExecutionMode.VIRTUAL) {
+            log.info("Executor: virtual threads, max queued frames: {}", config.maxQueuedFrames());
+        } else {
+            log.info("Executor: {} worker threads, max queued frames: {}", config.poolSize(),
+                    config.maxQueuedFrames());
+        }
+
+        log.info("Press Ctrl+C to stop the server");
 
         // Shutdown hook
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-            System.out.println("\nShutting down...");
+            log.info("Shutting down...");
             try {
                 server.stop(1000);
+                if (metricsServer != null) {
+                    metricsServer.stop();
+                }
+                if (adminServer != null) {
+                    adminServer.stop();
+                }
+                dispatcher.shutdown();
+                if (bulkCommands != null) {
+                    bulkCommands.shutdown();
+                }
+                if (localLists != null) {
+                    localLists.shutdown();
+                }
+                pendingRequests.shutdown();
+                if (transactions instanceof WriteBehindTransactionStore store) {
+                    store.close();
+                }
+                if (meterJournal != null) {
+                    meterJournal.close();
+                }
+                if (blacklist != null) {
+                    blacklist.close();
+                }
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
+            } catch (IOException e) {
+                log.warn("Failed to close journal: {}", e.getMessage());
             }
         }));
     }
-}
\ No newline at end of file
+
+    private static void registerGauges(OcppMetrics metrics, SessionManager sessionManager,
+                                       MessageDispatcher dispatcher, PendingRequestManager pendingRequests,
+                                       TransactionStore transactions) {
+        metrics.registerGauge("ocpp_sessions", "Connected charge point sessions", sessionManager::getSessionCount);
+        metrics.registerGauge("ocpp_session_state", "Connected sessions by charge point state", "state", () -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            sessionManager.getStateCounts().forEach((state, count) -> counts.put(state.name(), count));
+            return counts;
+        });
+        metrics.registerGauge("ocpp_dispatch_queued_frames", "Frames waiting in session lanes",
+                dispatcher::getQueuedFrames);
+        metrics.registerCounter("ocpp_dispatch_completed_frames_total", "Frames processed since start",
+                dispatcher::getCompletedFrames);
+        metrics.registerCounter("ocpp_dispatch_rejected_frames_total", "Frames rejected by back-pressure since start",
+                dispatcher::getRejectedFrames);
+        metrics.registerGauge("ocpp_pending_requests", "CS to CP calls awaiting a response",
+                pendingRequests::getPendingCount);
+        metrics.registerCounter("ocpp_invalid_transitions_total", "State transitions rejected since start",
+                StateTransition::getRejectedTotal);
+        metrics.registerCounter("ocpp_unexpected_connector_transitions_total",
+                "Connector transitions outside the transition table, applied as reported",
+                StateTransition::getUnexpectedTotal);
+        metrics.registerGauge("ocpp_open_transactions", "Transactions started and not yet stopped",
+                transactions::getOpenCount);
+        if (transactions instanceof WriteBehindTransactionStore store) {
+            metrics.registerGauge("ocpp_transaction_journal_pending", "Transaction changes not yet written",
+                    store::getPendingRecords);
+            metrics.registerCounter("ocpp_transaction_journal_failed_total", "Transaction changes that failed to write",
+                    store::getFailedRecords);
+        }
+    }
+
+    private static void registerAuthorizationGauges(OcppMetrics metrics, IdTagAuthorizationService authorization) {
+        metrics.registerGauge("ocpp_idtag_cache_entries", "IdTags held in the authorization cache",
+                authorization::getSize);
+        metrics.registerCounter("ocpp_idtag_cache_events_total", "Authorization cache events since start",
+                "event", () -> {
+                    Map<String, Long> counts = new LinkedHashMap<>();
+                    counts.put("hit", authorization.getHits());
+                    counts.put("miss", authorization.getMisses());
+                    counts.put("eviction", authorization.getEvictions());
+                    counts.put("expiration", authorization.getExpirations());
+                    counts.put("coalesced", authorization.getCoalesced());
+                    counts.put("backend_call", authorization.getBackendCalls());
+                    counts.put("backend_failure", authorization.getBackendFailures());
+                    counts.put("blacklisted", authorization.getBlacklisted());
+                    return counts;
+                });
+    }
+
+    private static void registerEnergyGauges(OcppMetrics metrics, EnergyAggregator energy) {
+        metrics.registerGauge("ocpp_energy_open_transactions", "Transactions with live usage aggregation",
+                energy::getOpenCount);
+        metrics.registerCounter("ocpp_energy_anomalies_total", "Meter register anomalies since start", "kind", () -> {
+            Map<String, Long> counts = new LinkedHashMap<>();
+            counts.put("regression", energy.getRegressions());
+            counts.put("gap", energy.getGaps());
+            counts.put("late", energy.getLateSamples());
+            counts.put("orphan", energy.getOrphanSamples());
+            counts.put("future", energy.getFutureSamples());
+            return counts;
+        });
+    }
+
+    private static void registerLoadGauges(OcppMetrics metrics, LoadAnalytics loadAnalytics) {
+        metrics.registerGauge("ocpp_group_power_watts", "Average load per group over the last complete window",
+                "group", loadAnalytics::lastWindowPower);
+        metrics.registerGauge("ocpp_group_session_power_p95_watts",
+                "95th percentile of session power per group over the last 15 minutes", "group",
+                () -> loadAnalytics.slidingQuantile(15 * 60 * 1000L, 0.95));
+        metrics.registerCounter("ocpp_group_power_discarded_samples_total", "Power samples not counted since start",
+                "reason", () -> {
+                    Map<String, Long> counts = new LinkedHashMap<>();
+                    counts.put("late", loadAnalytics.getLateSamples());
+                    counts.put("group_limit", loadAnalytics.getDroppedSamples());
+                    counts.put("future", loadAnalytics.getFutureSamples());
+                    return counts;
+                });
+    }
+
+    /**
+     * -Docpp.analytics.groupFile=경로 가 있으면 chargePointId,group 목록, 없으면 모든 충전기가 default 그룹
+     */
+    private static LoadAnalytics openLoadAnalytics() throws IOException {
+        String file = System.getProperty("ocpp.analytics.groupFile", "");
+        ChargePointGroups groups = file.isBlank()
+                ? new ChargePointGroups(Map.of(), ChargePointGroups.DEFAULT_GROUP)
+                : ChargePointGroups.load(Path.of(file));
+        return new LoadAnalytics(groups, AnalyticsConfig.fromSystemProperties(), System::currentTimeMillis);
+    }
+
+    /**
+     * -Docpp.tariff.* 고정 단가 요금제로 트랜잭션 사용량/비용 집계
+     */
+    private static EnergyAggregator openEnergyAggregator(TransactionStore transactions) {
+        FlatTariff tariff = new FlatTariff(
+                Double.parseDouble(System.getProperty("ocpp.tariff.pricePerKwh", "0")),
+                Double.parseDouble(System.getProperty("ocpp.tariff.sessionFee", "0")),
+                Double.parseDouble(System.getProperty("ocpp.tariff.pricePerHour", "0")));
+        long gapMillis = Long.getLong("ocpp.energy.gapMillis", EnergyAggregator.DEFAULT_GAP_MILLIS);
+        return new EnergyAggregator(transactions, tariff, gapMillis, EnergyAggregator.DEFAULT_MAX_FINISHED);
+    }
+
+    /**
+     * -Docpp.auth.file=경로 가 있으면 파일의 idTag 목록, 없으면 연습용 접두사 규칙
+     */
+    private static IdTagBackend openIdTagBackend() throws IOException {
+        String file = System.getProperty("ocpp.auth.file", "");
+        return file.isBlank() ? new PrefixIdTagBackend() : new FileIdTagBackend(Path.of(file));
+    }
+
+    private static IdTagAuthorizationService openAuthorization(IdTagBackend backend,
+                                                               ReloadableIdTagBlacklist blacklist) {
+        int cacheSize = Integer.getInteger("ocpp.auth.cacheSize", IdTagAuthorizationService.DEFAULT_MAX_ENTRIES);
+        long ttlMillis = Long.getLong("ocpp.auth.ttlMillis", IdTagAuthorizationService.DEFAULT_TTL_MILLIS);
+        long negativeTtlMillis = Long.getLong("ocpp.auth.negativeTtlMillis",
+                IdTagAuthorizationService.DEFAULT_NEGATIVE_TTL_MILLIS);
+        return new IdTagAuthorizationService(backend, cacheSize, ttlMillis, negativeTtlMillis,
+                System::currentTimeMillis, blacklist);
+    }
+
+    /**
+     * idTag 파일이 있으면 충전기 로컬 목록으로 배포 (그룹 1개, 파일이 바뀌면 연결된 충전기 전체, BootNotification마다 1대)
+     * 차단 목록의 태그는 Blocked로 배포하고, 차단 목록이 다시 읽히면 다시 동기화
+     * -Docpp.localList.versionFile= (빈 값)이면 배포하지 않음
+     */
+    private static LocalListSyncService openLocalLists(SessionManager sessionManager,
+                                                       PendingRequestManager pendingRequests,
+                                                       IdTagBackend backend,
+                                                       ReloadableIdTagBlacklist blacklist) throws IOException {
+        String versionFile = System.getProperty("ocpp.localList.versionFile", "data/local-list.version");
+        if (!(backend instanceof FileIdTagBackend file) || versionFile.isBlank()) {
+            return null;
+        }
+        int maxEntries = Integer.getInteger("ocpp.localList.maxEntries",
+                LocalListSyncService.DEFAULT_MAX_ENTRIES_PER_MESSAGE);
+        LocalListSyncService localLists = new LocalListSyncService(sessionManager, pendingRequests,
+                session -> LOCAL_LIST_GROUP, maxEntries, LocalListVersions.open(Path.of(versionFile)));
+        Callable<Map<String, IdTagInfo>> source = () -> {
+            file.reloadIfModified();
+            return file.snapshot();
+        };
+        if (blacklist != null) {
+            source = new BlacklistFilteredSource(source, blacklist::current);
+        }
+        localLists.follow(LOCAL_LIST_GROUP, source, Long.getLong("ocpp.localList.reloadMillis", 10_000L),
+                LOCAL_LIST_SYNC_CONCURRENCY);
+        return localLists;
+    }
+
+    /**
+     * -Docpp.auth.blacklist=경로 가 있으면 차단 목록을 읽고 변경을 감시 (없으면 null)
+     */
+    private static ReloadableIdTagBlacklist openBlacklist() throws IOException {
+        String file = System.getProperty("ocpp.auth.blacklist", "");
+        if (file.isBlank()) {
+            return null;
+        }
+        ReloadableIdTagBlacklist blacklist = new ReloadableIdTagBlacklist(Path.of(file));
+        blacklist.watch(Long.getLong("ocpp.auth.blacklistReloadMillis", 10_000L));
+        return blacklist;
+    }
+
+    /**
+     * -Docpp.meter.dir= (빈 값)이면 MeterValues를 저장하지 않음
+     */
+    private static MeterJournal openMeterJournal() throws IOException {
+        String dir = System.getProperty("ocpp.meter.dir", "data/meter");
+        if (dir.isBlank()) {
+            return null;
+        }
+        long segmentBytes = Long.getLong("ocpp.meter.segmentBytes", MeterJournal.DEFAULT_SEGMENT_BYTES);
+        long rollMillis = Long.getLong("ocpp.meter.rollMillis", MeterJournal.DEFAULT_ROLL_MILLIS);
+        return new MeterJournal(Path.of(dir), segmentBytes, rollMillis);
+    }
+
+    /**
+     * -Docpp.transactions.journal= (빈 값)이면 메모리에만 보관
+     */
+    private static TransactionStore openTransactionStore() throws IOException {
+        String journal = System.getProperty("ocpp.transactions.journal", "data/transactions.journal");
+        if (journal.isBlank()) {
+            return new InMemoryTransactionStore();
+        }
+        return new WriteBehindTransactionStore(new FileTransactionJournal(Path.of(journal)));
+    }
+
+    /**
+     * -Docpp.admin.commands=true 일 때만 일괄 명령 서비스 생성, -Docpp.admin.maxInFlightPerChargePoint=1
+     */
+    private static BulkCommandService openBulkCommands(SessionManager sessionManager,
+                                                       PendingRequestManager pendingRequests) {
+        if (!Boolean.getBoolean("ocpp.admin.commands")) {
+            return null;
+        }
+        return new BulkCommandService(sessionManager, pendingRequests,
+                Integer.getInteger("ocpp.admin.maxInFlightPerChargePoint", 1));
+    }
+
+    /**
+     * 일괄 명령 API(/commands)를 메트릭과 별도 포트로 열기 (토큰 필수)
+     * -Docpp.admin.port=9465, -Docpp.admin.host=127.0.0.1, -Docpp.admin.token=...
+     */
+    private static AdminHttpServer startAdminServer(BulkCommandService bulkCommands) throws IOException {
+        String token = System.getProperty("ocpp.admin.token", "");
+        if (token.isBlank()) {
+            throw new IllegalStateException("ocpp.admin.commands=true requires -Docpp.admin.token");
+        }
+        String host = System.getProperty("ocpp.admin.host", "127.0.0.1");
+        int port = Integer.getInteger("ocpp.admin.port", 9465);
+        AdminHttpServer adminServer = new AdminHttpServer(new InetSocketAddress(host, port));
+        adminServer.addHandler("/commands", new BulkCommandHttpHandler(bulkCommands, token));
+        adminServer.start();
+        return adminServer;
+    }
+
+    /**
+     * -Docpp.metrics.port=0 이하이면 엔드포인트를 열지 않음
+     */
+    private static MetricsHttpServer startMetricsServer(OcppMetrics metrics) throws IOException {
+        int port = Integer.getInteger("ocpp.metrics.port", 9464);
+        if (port <= 0) {
+            return null;
+        }
+        String host = System.getProperty("ocpp.metrics.host", "127.0.0.1");
+        MetricsHttpServer metricsServer = new MetricsHttpServer(new InetSocketAddress(host, port), metrics);
+        metricsServer.start();
+        return metricsServer;
+    }
+}
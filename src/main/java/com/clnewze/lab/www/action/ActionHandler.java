@@ -1,7 +1,6 @@
 package com.clnewze.lab.www.action;
 
 import com.clnewze.lab.www.protocol.OcppMessage;
-import com.clnewze.lab.www.session.ChargePointSession;
 import com.google.gson.JsonObject;
 
 /**
@@ -18,9 +17,9 @@ public interface ActionHandler {
 
     /**
      * Action 처리
-     * @param session 충전기 세션
+     * @param context 요청 컨텍스트 (세션, uniqueId 등)
      * @param payload 요청 데이터
      * @return 응답 메시지 (CallResult 또는 CallError)
      */
-    OcppMessage handle(ChargePointSession session, JsonObject payload);
+    OcppMessage handle(CallContext context, JsonObject payload);
 }
\ No newline at end of file
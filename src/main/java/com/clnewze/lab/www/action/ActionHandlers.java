@@ -0,0 +1,84 @@
+package com.clnewze.lab.www.action;
+
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.google.gson.JsonObject;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 동기 핸들러 → 비동기 핸들러 어댑터
+ */
+public final class ActionHandlers {
+
+    private ActionHandlers() {
+    }
+
+    /**
+     * 동기 핸들러를 비동기 SPI로 감싸기
+     * 호출 스레드에서 바로 실행하고 완료된 stage를 돌려준다.
+     * (TypedActionHandler는 타입 리더를 그대로 사용)
+     */
+    public static AsyncActionHandler<?> async(ActionHandler handler) {
+        if (handler instanceof TypedActionHandler<?> typed) {
+            return new TypedAdapter<>(typed);
+        }
+        return new UntypedAdapter(handler);
+    }
+
+    private static final class TypedAdapter<T> implements AsyncActionHandler<T> {
+
+        private final TypedActionHandler<T> handler;
+
+        TypedAdapter(TypedActionHandler<T> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public String getAction() {
+            return handler.getAction();
+        }
+
+        @Override
+        public PayloadReader<T> getPayloadReader() {
+            return handler.getPayloadReader();
+        }
+
+        @Override
+        public CompletionStage<OcppMessage> handleAsync(CallContext context, T request) {
+            try {
+                return CompletableFuture.completedFuture(handler.handle(context, request));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    private static final class UntypedAdapter implements AsyncActionHandler<JsonObject> {
+
+        private final ActionHandler handler;
+
+        UntypedAdapter(ActionHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public String getAction() {
+            return handler.getAction();
+        }
+
+        @Override
+        public PayloadReader<JsonObject> getPayloadReader() {
+            return PayloadReader.JSON_OBJECT;
+        }
+
+        @Override
+        public CompletionStage<OcppMessage> handleAsync(CallContext context, JsonObject request) {
+            try {
+                return CompletableFuture.completedFuture(handler.handle(context, request));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
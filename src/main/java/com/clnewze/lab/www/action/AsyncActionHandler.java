@@ -0,0 +1,43 @@
+package com.clnewze.lab.www.action;
+
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.google.gson.stream.JsonReader;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 비동기 Action 핸들러
+ * 저장소/인증 서버 응답을 기다리는 동안 처리 스레드를 붙잡지 않는다.
+ * Router는 stage가 끝나면 응답을 보내고, Action별 처리 기한을 넘기면 INTERNAL_ERROR로 응답한다.
+ *
+ * 기존 동기 핸들러는 {@link ActionHandlers#async(ActionHandler)}로 감싸서 사용
+ *
+ * @param <T> 요청 타입 (타입 없는 핸들러는 JsonObject)
+ */
+public interface AsyncActionHandler<T> {
+
+    /**
+     * 처리할 Action 이름 반환
+     */
+    String getAction();
+
+    /**
+     * 요청 payload 리더
+     */
+    PayloadReader<T> getPayloadReader();
+
+    /**
+     * Action 비동기 처리
+     * @param context 요청 컨텍스트
+     * @param request 요청 데이터
+     * @return 응답 메시지(CallResult 또는 CallError)로 완료되는 stage
+     */
+    CompletionStage<OcppMessage> handleAsync(CallContext context, T request);
+
+    /**
+     * 스트림에서 요청 읽기 (형식 오류 → FORMATION_VIOLATION / TYPE_CONSTRAINT_VIOLATION)
+     */
+    default T read(JsonReader in) {
+        return PayloadReader.read(getPayloadReader(), getAction(), in);
+    }
+}
@@ -1,15 +1,37 @@
 package com.clnewze.lab.www.action;
 
+import com.clnewze.lab.www.action.request.AuthorizeRequest;
+import com.clnewze.lab.www.auth.IdTagAuthorizationService;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.clnewze.lab.www.auth.PrefixIdTagBackend;
 import com.clnewze.lab.www.protocol.CallResult;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.session.ChargePointSession;
 import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Authorize 핸들러
  * RFID 태그 인증 요청 처리
+ * 저장소 장애면 RuntimeException → INTERNAL_ERROR (충전기는 로컬 인증 정책으로 판단)
  */
-public class AuthorizeHandler implements ActionHandler {
+public class AuthorizeHandler implements TypedActionHandler<AuthorizeRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthorizeHandler.class);
+
+    private final IdTagAuthorizationService authorization;
+
+    /**
+     * 연습용 접두사 규칙 (PrefixIdTagBackend)
+     */
+    public AuthorizeHandler() {
+        this(new IdTagAuthorizationService(new PrefixIdTagBackend()));
+    }
+
+    public AuthorizeHandler(IdTagAuthorizationService authorization) {
+        this.authorization = authorization;
+    }
 
     @Override
     public String getAction() {
@@ -17,45 +39,23 @@ public class AuthorizeHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
-        String idTag = payload.get("idTag").getAsString();
+    public PayloadReader<AuthorizeRequest> getPayloadReader() {
+        return AuthorizeRequest::read;
+    }
+
+    @Override
+    public OcppMessage handle(CallContext context, AuthorizeRequest request) {
+        ChargePointSession session = context.session();
+        String idTag = request.idTag();
 
-        System.out.println("[Authorize] " + session.getChargePointId() +
-                " - IdTag: " + idTag);
+        log.info("Authorize {} - IdTag: {}", session.getChargePointId(), idTag);
 
-        // 실제로는 DB에서 idTag 검증
-        // 연습용이므로 무조건 Accepted
-        String status = validateIdTag(idTag);
+        IdTagInfo idTagInfo = authorization.authorize(idTag);
 
         // 응답 생성
-        JsonObject idTagInfo = new JsonObject();
-        idTagInfo.addProperty("status", status);
-        // 선택: expiryDate, parentIdTag
-
         JsonObject response = new JsonObject();
-        response.add("idTagInfo", idTagInfo);
+        response.add("idTagInfo", idTagInfo.toJson());
 
-        return new CallResult(session.getCurrentUniqueId(), response);
-    }
-
-    /**
-     * IdTag 검증 (연습용: 무조건 Accepted)
-     * 실제로는 DB 조회
-     */
-    private String validateIdTag(String idTag) {
-        // 테스트용: "BLOCKED"로 시작하면 차단
-        if (idTag.startsWith("BLOCKED")) {
-            return "Blocked";
-        }
-        // 테스트용: "EXPIRED"로 시작하면 만료
-        if (idTag.startsWith("EXPIRED")) {
-            return "Expired";
-        }
-        // 테스트용: "INVALID"로 시작하면 유효하지 않음
-        if (idTag.startsWith("INVALID")) {
-            return "Invalid";
-        }
-        // 그 외: 승인
-        return "Accepted";
+        return new CallResult(context.uniqueId(), response);
     }
 }
\ No newline at end of file
@@ -1,18 +1,37 @@
 package com.clnewze.lab.www.action;
 
+import com.clnewze.lab.www.action.request.BootNotificationRequest;
 import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.ClockCache;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.session.ChargePointSession;
 import com.clnewze.lab.www.state.ChargePointState;
 import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.time.Instant;
+import java.util.function.Consumer;
 
 /**
  * BootNotification 핸들러
  * 충전기가 부팅 후 서버에 등록 요청
  */
-public class BootNotificationHandler implements ActionHandler {
+public class BootNotificationHandler implements TypedActionHandler<BootNotificationRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(BootNotificationHandler.class);
+
+    private final Consumer<ChargePointSession> onAccepted;
+
+    public BootNotificationHandler() {
+        this(session -> { });
+    }
+
+    /**
+     * @param onAccepted Accepted 응답 직전 호출 (로컬 목록 동기화 예약 등, 응답 전송 전이므로 CS→CP 요청은 지연시켜야 함)
+     */
+    public BootNotificationHandler(Consumer<ChargePointSession> onAccepted) {
+        this.onAccepted = onAccepted;
+    }
 
     @Override
     public String getAction() {
@@ -20,25 +39,31 @@ public class BootNotificationHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
+    public PayloadReader<BootNotificationRequest> getPayloadReader() {
+        return BootNotificationRequest::read;
+    }
+
+    @Override
+    public OcppMessage handle(CallContext context, BootNotificationRequest request) {
+        ChargePointSession session = context.session();
         // 충전기 정보 추출
-        String vendor = payload.get("chargePointVendor").getAsString();
-        String model = payload.get("chargePointModel").getAsString();
+        String vendor = request.chargePointVendor();
+        String model = request.chargePointModel();
 
         // 세션에 정보 저장
         session.setVendor(vendor);
         session.setModel(model);
-        session.setState(ChargePointState.AVAILABLE);
+        session.transitionTo(ChargePointState.AVAILABLE);
 
-        System.out.println("[BootNotification] " + session.getChargePointId() +
-                " - Vendor: " + vendor + ", Model: " + model);
+        log.info("BootNotification {} - Vendor: {}, Model: {}", session.getChargePointId(), vendor, model);
+        onAccepted.accept(session);
 
         // 응답 생성
         JsonObject response = new JsonObject();
         response.addProperty("status", "Accepted");
-        response.addProperty("currentTime", Instant.now().toString());
+        response.addProperty("currentTime", ClockCache.currentTime());
         response.addProperty("interval", 300);  // 5분마다 Heartbeat
 
-        return new CallResult(session.getCurrentUniqueId(), response);
+        return new CallResult(context.uniqueId(), response);
     }
 }
\ No newline at end of file
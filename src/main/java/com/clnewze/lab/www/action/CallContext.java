@@ -0,0 +1,40 @@
+package com.clnewze.lab.www.action;
+
+import com.clnewze.lab.www.session.ChargePointSession;
+
+/**
+ * Call 1건의 처리 컨텍스트 (불변)
+ * uniqueId를 세션에 저장하지 않고 핸들러로 직접 넘겨서
+ * 같은 충전기의 요청을 동시/비동기로 처리해도 응답 uniqueId가 섞이지 않게 한다.
+ *
+ * @param session 충전기 세션
+ * @param uniqueId 요청 uniqueId (응답에 그대로 사용)
+ * @param action Action 이름
+ * @param receivedAtMillis 수신 시각 (epoch ms)
+ * @param receivedNanos 수신 시각 (System.nanoTime, 처리 시간 측정용)
+ */
+public record CallContext(
+        ChargePointSession session,
+        String uniqueId,
+        String action,
+        long receivedAtMillis,
+        long receivedNanos) {
+
+    /**
+     * 지금 수신한 Call의 컨텍스트
+     */
+    public static CallContext of(ChargePointSession session, String uniqueId, String action) {
+        return new CallContext(session, uniqueId, action, System.currentTimeMillis(), System.nanoTime());
+    }
+
+    public String chargePointId() {
+        return session.getChargePointId();
+    }
+
+    /**
+     * 수신 후 경과 시간 (ns)
+     */
+    public long elapsedNanos() {
+        return System.nanoTime() - receivedNanos;
+    }
+}
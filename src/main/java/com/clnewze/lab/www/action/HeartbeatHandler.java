@@ -1,17 +1,19 @@
 package com.clnewze.lab.www.action;
 
-import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.action.request.HeartbeatRequest;
 import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.protocol.ResponseTemplates;
 import com.clnewze.lab.www.session.ChargePointSession;
-import com.google.gson.JsonObject;
-
-import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Heartbeat 핸들러
  * 충전기가 주기적으로 연결 유지 확인
  */
-public class HeartbeatHandler implements ActionHandler {
+public class HeartbeatHandler implements TypedActionHandler<HeartbeatRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(HeartbeatHandler.class);
 
     @Override
     public String getAction() {
@@ -19,13 +21,16 @@ public class HeartbeatHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
-        System.out.println("[Heartbeat] " + session.getChargePointId());
+    public PayloadReader<HeartbeatRequest> getPayloadReader() {
+        return HeartbeatRequest::read;
+    }
 
-        // 응답: 현재 시간만 반환
-        JsonObject response = new JsonObject();
-        response.addProperty("currentTime", Instant.now().toString());
+    @Override
+    public OcppMessage handle(CallContext context, HeartbeatRequest request) {
+        ChargePointSession session = context.session();
+        log.debug("Heartbeat {}", session.getChargePointId());
 
-        return new CallResult(session.getCurrentUniqueId(), response);
+        // 응답: 현재 시간만 반환 (사전 인코딩 템플릿 + 시각 캐시)
+        return ResponseTemplates.heartbeat(context.uniqueId());
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.clnewze.lab.www.action;
+
+import com.clnewze.lab.www.action.request.SampledValue;
+
+/**
+ * MeterValues 샘플 수신 콜백 (MeterValuesHandler가 숫자 샘플마다 호출)
+ * 핸들러 스레드에서 호출되므로 샘플당 O(1)로 끝내고 블로킹하지 않아야 한다.
+ */
+@FunctionalInterface
+public interface MeterSampleListener {
+
+    /**
+     * @param transactionId 트랜잭션 ID (없으면 0)
+     * @param timestamp 측정 시각 (epoch millis)
+     * @param sample 샘플 (isNumeric()인 것만 전달)
+     */
+    void onSample(String chargePointId, int connectorId, int transactionId, long timestamp, SampledValue sample);
+}
@@ -1,16 +1,56 @@
 package com.clnewze.lab.www.action;
 
-import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.action.request.MeterValue;
+import com.clnewze.lab.www.action.request.MeterValuesRequest;
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.clnewze.lab.www.meter.MeterBatch;
+import com.clnewze.lab.www.meter.MeterJournal;
 import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.protocol.ResponseTemplates;
 import com.clnewze.lab.www.session.ChargePointSession;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 /**
  * MeterValues 핸들러
  * 충전 중 계량 데이터 수신
+ *
+ * 저널이 있으면 샘플을 MeterJournal에 추가하고, 등록된 MeterSampleListener(집계 등)에 차례로 전달한다.
+ * 요청 1건의 샘플은 MeterBatch로 한 번에 기록 (전부 또는 전무) → 기록에 실패하면 리스너도 호출하지 않고
+ * InternalError로 응답하므로, 충전기가 재전송해도 일부 샘플만 중복 저장되지 않는다.
+ * 샘플은 파싱 단계에서 이미 enum ordinal + double로 바뀌어 있어 문자열 비교가 없다. (SampledValue)
+ * - 단위는 기본 단위로 환산 (kWh → Wh, kW → W, kvarh → varh, kvar → var)
+ * - SignedData, 숫자가 아닌 값은 건너뜀
  */
-public class MeterValuesHandler implements ActionHandler {
+public class MeterValuesHandler implements TypedActionHandler<MeterValuesRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterValuesHandler.class);
+
+    private final MeterJournal journal;
+    private final MeterSampleListener[] listeners;
+
+    public MeterValuesHandler() {
+        this(null);
+    }
+
+    /**
+     * @param journal 샘플 저장 (null이면 저장 안 함)
+     */
+    public MeterValuesHandler(MeterJournal journal) {
+        this(journal, List.of());
+    }
+
+    /**
+     * @param listeners 숫자 샘플마다 호출 (저널 기록 뒤, 목록 순서대로)
+     */
+    public MeterValuesHandler(MeterJournal journal, List<MeterSampleListener> listeners) {
+        this.journal = journal;
+        this.listeners = listeners.toArray(new MeterSampleListener[0]);
+    }
 
     @Override
     public String getAction() {
@@ -18,46 +58,88 @@ public class MeterValuesHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
-        int connectorId = payload.get("connectorId").getAsInt();
+    public PayloadReader<MeterValuesRequest> getPayloadReader() {
+        return MeterValuesRequest::read;
+    }
+
+    @Override
+    public OcppMessage handle(CallContext context, MeterValuesRequest request) {
+        ChargePointSession session = context.session();
+        int connectorId = request.connectorId();
 
         // transactionId는 선택
-        Integer transactionId = payload.has("transactionId")
-                ? payload.get("transactionId").getAsInt()
-                : null;
+        Integer transactionId = request.transactionId();
 
         // meterValue 배열 처리
-        JsonArray meterValues = payload.getAsJsonArray("meterValue");
-
-        System.out.println("[MeterValues] " + session.getChargePointId() +
-                " - Connector: " + connectorId +
-                ", TransactionId: " + transactionId +
-                ", Values: " + meterValues.size() + "개");
-
-        // 상세 로깅 (연습용)
-        for (int i = 0; i < meterValues.size(); i++) {
-            JsonObject meterValue = meterValues.get(i).getAsJsonObject();
-            String timestamp = meterValue.has("timestamp")
-                    ? meterValue.get("timestamp").getAsString()
-                    : "";
-
-            JsonArray sampledValues = meterValue.getAsJsonArray("sampledValue");
-            for (int j = 0; j < sampledValues.size(); j++) {
-                JsonObject sample = sampledValues.get(j).getAsJsonObject();
-                String value = sample.get("value").getAsString();
-                String measurand = sample.has("measurand")
-                        ? sample.get("measurand").getAsString()
-                        : "Energy.Active.Import.Register";
-                String unit = sample.has("unit")
-                        ? sample.get("unit").getAsString()
-                        : "Wh";
-
-                System.out.println("  - " + measurand + ": " + value + " " + unit +
-                        " (" + timestamp + ")");
-            }
+        List<MeterValue> meterValues = request.meterValue();
+
+        if (log.isDebugEnabled()) {
+            log.debug("MeterValues {} - Connector: {}, TransactionId: {}, Values: {}",
+                    session.getChargePointId(), connectorId, transactionId, meterValues.size());
+        }
+
+        // 샘플별 상세 로그는 TRACE에서만 (샘플 수만큼 줄이 늘어남)
+        if (log.isTraceEnabled()) {
+            traceSamples(meterValues);
+        }
+
+        if (journal != null || listeners.length > 0) {
+            store(session.getChargePointId(), connectorId, transactionId != null ? transactionId : 0, meterValues);
         }
 
         // 응답: 빈 객체
-        return new CallResult(session.getCurrentUniqueId(), new JsonObject());
+        return ResponseTemplates.emptyAck(context.uniqueId());
+    }
+
+    private void store(String chargePointId, int connectorId, int transactionId, List<MeterValue> meterValues) {
+        long[] timestamps = new long[meterValues.size()];
+        for (int i = 0; i < timestamps.length; i++) {
+            timestamps[i] = Timestamps.toEpochMillis(meterValues.get(i).timestamp());
+        }
+
+        // 1. 저널: 요청 전체를 한 번에 (실패하면 아무것도 남지 않음)
+        if (journal != null) {
+            MeterBatch batch = new MeterBatch();
+            for (int i = 0; i < timestamps.length; i++) {
+                for (SampledValue sample : meterValues.get(i).sampledValue()) {
+                    if (sample.isNumeric()) {
+                        batch.add(timestamps[i], sample.measurand(), sample.baseValue());
+                    }
+                }
+            }
+            try {
+                journal.append(MeterJournal.keyOf(chargePointId), connectorId, transactionId, batch);
+            } catch (IOException e) {
+                // InternalError 응답 → 충전기가 같은 요청을 재전송
+                throw new UncheckedIOException("Failed to store meter values", e);
+            }
+        }
+
+        // 2. 리스너: 저장이 끝난 요청만
+        if (listeners.length == 0) {
+            return;
+        }
+        for (int i = 0; i < timestamps.length; i++) {
+            for (SampledValue sample : meterValues.get(i).sampledValue()) {
+                if (!sample.isNumeric()) {
+                    continue;
+                }
+                for (MeterSampleListener listener : listeners) {
+                    listener.onSample(chargePointId, connectorId, transactionId, timestamps[i], sample);
+                }
+            }
+        }
+    }
+
+    private void traceSamples(List<MeterValue> meterValues) {
+        for (MeterValue meterValue : meterValues) {
+            String timestamp = meterValue.timestamp() != null ? meterValue.timestamp() : "";
+
+            for (SampledValue sample : meterValue.sampledValue()) {
+                Object value = sample.signedData() != null ? sample.signedData() : sample.value();
+                log.trace("  - {}: {} {} ({})", sample.measurand().getValue(), value, sample.unit().getValue(),
+                        timestamp);
+            }
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.clnewze.lab.www.action;
+
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * payload 스트림 → 요청 객체 변환기
+ * reflection 없이 토큰을 직접 읽어 요청 record를 채운다.
+ */
+@FunctionalInterface
+public interface PayloadReader<T> {
+
+    /**
+     * payload를 JsonObject 트리로 읽는 리더 (타입 없는 핸들러용)
+     */
+    PayloadReader<JsonObject> JSON_OBJECT = in -> JsonParser.parseReader(in).getAsJsonObject();
+
+    /**
+     * payload 객체 하나를 읽어 요청 객체 생성
+     * @param in payload 시작({) 위치의 reader
+     */
+    T read(JsonReader in) throws IOException;
+
+    /**
+     * 읽기 + 오류 변환
+     * 형식 오류는 FORMATION_VIOLATION으로, 리더가 던진 OcppException은 그대로 전달
+     */
+    static <T> T read(PayloadReader<T> reader, String action, JsonReader in) {
+        try {
+            return reader.read(in);
+        } catch (OcppException e) {
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            throw new OcppException(ErrorCode.FORMATION_VIOLATION,
+                    "Malformed " + action + " payload: " + e.getMessage(), e);
+        }
+    }
+}
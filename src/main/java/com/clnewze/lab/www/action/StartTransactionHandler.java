@@ -1,21 +1,48 @@
 package com.clnewze.lab.www.action;
 
+import com.clnewze.lab.www.action.request.StartTransactionRequest;
+import com.clnewze.lab.www.auth.IdTagAuthorizationService;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.clnewze.lab.www.auth.PrefixIdTagBackend;
 import com.clnewze.lab.www.protocol.CallResult;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.session.ChargePointSession;
-import com.clnewze.lab.www.state.ChargePointState;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import com.clnewze.lab.www.transaction.Transaction;
+import com.clnewze.lab.www.transaction.TransactionStore;
 import com.google.gson.JsonObject;
-
-import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * StartTransaction 핸들러
  * 충전 시작 요청 처리
  */
-public class StartTransactionHandler implements ActionHandler {
+public class StartTransactionHandler implements TypedActionHandler<StartTransactionRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(StartTransactionHandler.class);
+
+    private final TransactionStore transactions;
+    private final IdTagAuthorizationService authorization;
 
-    // 트랜잭션 ID 생성기 (실제로는 DB에서 관리)
-    private static final AtomicInteger transactionIdGenerator = new AtomicInteger(1);
+    public StartTransactionHandler() {
+        this(new InMemoryTransactionStore());
+    }
+
+    /**
+     * @param transactions 트랜잭션 ID 발급/기록
+     */
+    public StartTransactionHandler(TransactionStore transactions) {
+        this(transactions, new IdTagAuthorizationService(new PrefixIdTagBackend()));
+    }
+
+    /**
+     * @param authorization idTagInfo 결정 (AuthorizeHandler와 같은 캐시)
+     */
+    public StartTransactionHandler(TransactionStore transactions, IdTagAuthorizationService authorization) {
+        this.transactions = transactions;
+        this.authorization = authorization;
+    }
 
     @Override
     public String getAction() {
@@ -23,32 +50,37 @@ public class StartTransactionHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
-        int connectorId = payload.get("connectorId").getAsInt();
-        String idTag = payload.get("idTag").getAsString();
-        int meterStart = payload.get("meterStart").getAsInt();
-        String timestamp = payload.has("timestamp") ? payload.get("timestamp").getAsString() : "";
+    public PayloadReader<StartTransactionRequest> getPayloadReader() {
+        return StartTransactionRequest::read;
+    }
+
+    @Override
+    public OcppMessage handle(CallContext context, StartTransactionRequest request) {
+        ChargePointSession session = context.session();
+        int connectorId = request.connectorId();
+        String idTag = request.idTag();
+        int meterStart = request.meterStart();
 
-        // 트랜잭션 ID 생성
-        int transactionId = transactionIdGenerator.getAndIncrement();
+        // 트랜잭션 기록 (ID 발급)
+        Transaction transaction = transactions.start(session.getChargePointId(), connectorId, idTag, meterStart,
+                Timestamps.toEpochMillis(request.timestamp()));
+        int transactionId = transaction.transactionId();
 
-        System.out.println("[StartTransaction] " + session.getChargePointId() +
-                " - Connector: " + connectorId +
-                ", IdTag: " + idTag +
-                ", MeterStart: " + meterStart +
-                ", TransactionId: " + transactionId);
+        if (log.isInfoEnabled()) {
+            log.info("StartTransaction {} - Connector: {}, IdTag: {}, MeterStart: {}, TransactionId: {}",
+                    session.getChargePointId(), connectorId, idTag, meterStart, transactionId);
+        }
 
-        // 상태 변경: CHARGING
-        session.setState(ChargePointState.CHARGING);
+        // 커넥터 상태 변경: CHARGING
+        session.startTransaction(connectorId, transactionId);
 
-        // 응답 생성
-        JsonObject idTagInfo = new JsonObject();
-        idTagInfo.addProperty("status", "Accepted");
+        // 응답 생성 (충전은 이미 시작됨 → 저장소 장애면 Accepted)
+        IdTagInfo idTagInfo = authorization.authorizeOrDefault(idTag, IdTagInfo.ACCEPTED);
 
         JsonObject response = new JsonObject();
         response.addProperty("transactionId", transactionId);
-        response.add("idTagInfo", idTagInfo);
+        response.add("idTagInfo", idTagInfo.toJson());
 
-        return new CallResult(session.getCurrentUniqueId(), response);
+        return new CallResult(context.uniqueId(), response);
     }
 }
\ No newline at end of file
@@ -1,16 +1,20 @@
 package com.clnewze.lab.www.action;
 
-import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.action.request.StatusNotificationRequest;
 import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.protocol.ResponseTemplates;
 import com.clnewze.lab.www.session.ChargePointSession;
 import com.clnewze.lab.www.state.ChargePointState;
-import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * StatusNotification 핸들러
  * 충전기가 상태 변경을 서버에 알림
  */
-public class StatusNotificationHandler implements ActionHandler {
+public class StatusNotificationHandler implements TypedActionHandler<StatusNotificationRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(StatusNotificationHandler.class);
 
     @Override
     public String getAction() {
@@ -18,24 +22,28 @@ public class StatusNotificationHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
-        int connectorId = payload.get("connectorId").getAsInt();
-        String errorCode = payload.get("errorCode").getAsString();
-        String status = payload.get("status").getAsString();
+    public PayloadReader<StatusNotificationRequest> getPayloadReader() {
+        return StatusNotificationRequest::read;
+    }
+
+    @Override
+    public OcppMessage handle(CallContext context, StatusNotificationRequest request) {
+        ChargePointSession session = context.session();
+        int connectorId = request.connectorId();
+        String errorCode = request.errorCode();
+        String status = request.status();
 
-        System.out.println("[StatusNotification] " + session.getChargePointId() +
-                " - Connector: " + connectorId +
-                ", Status: " + status +
-                ", ErrorCode: " + errorCode);
+        log.info("StatusNotification {} - Connector: {}, Status: {}, ErrorCode: {}",
+                session.getChargePointId(), connectorId, status, errorCode);
 
-        // 상태 매핑 및 업데이트
+        // 상태 매핑 및 커넥터 상태 업데이트 (충전기 상태는 커넥터 상태에서 계산)
         ChargePointState newState = mapStatus(status);
         if (newState != null) {
-            session.setState(newState);
+            session.setConnectorState(connectorId, newState);
         }
 
         // 응답: 빈 객체
-        return new CallResult(session.getCurrentUniqueId(), new JsonObject());
+        return ResponseTemplates.emptyAck(context.uniqueId());
     }
 
     /**
@@ -1,16 +1,60 @@
 package com.clnewze.lab.www.action;
 
+import com.clnewze.lab.www.action.request.StopTransactionRequest;
+import com.clnewze.lab.www.auth.IdTagAuthorizationService;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.clnewze.lab.www.auth.PrefixIdTagBackend;
+import com.clnewze.lab.www.billing.EnergyAggregator;
 import com.clnewze.lab.www.protocol.CallResult;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.session.ChargePointSession;
 import com.clnewze.lab.www.state.ChargePointState;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import com.clnewze.lab.www.transaction.Transaction;
+import com.clnewze.lab.www.transaction.TransactionStore;
 import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * StopTransaction 핸들러
  * 충전 종료 요청 처리
  */
-public class StopTransactionHandler implements ActionHandler {
+public class StopTransactionHandler implements TypedActionHandler<StopTransactionRequest> {
+
+    private static final Logger log = LoggerFactory.getLogger(StopTransactionHandler.class);
+
+    private final TransactionStore transactions;
+    private final IdTagAuthorizationService authorization;
+    private final EnergyAggregator energy;
+
+    public StopTransactionHandler() {
+        this(new InMemoryTransactionStore());
+    }
+
+    /**
+     * @param transactions 트랜잭션 종료 기록 (StartTransactionHandler와 같은 저장소)
+     */
+    public StopTransactionHandler(TransactionStore transactions) {
+        this(transactions, new IdTagAuthorizationService(new PrefixIdTagBackend()));
+    }
+
+    /**
+     * @param authorization idTagInfo 결정 (AuthorizeHandler와 같은 캐시)
+     */
+    public StopTransactionHandler(TransactionStore transactions, IdTagAuthorizationService authorization) {
+        this(transactions, authorization, null);
+    }
+
+    /**
+     * @param energy 트랜잭션 사용량/비용 확정 (null이면 집계 안 함)
+     */
+    public StopTransactionHandler(TransactionStore transactions, IdTagAuthorizationService authorization,
+                                  EnergyAggregator energy) {
+        this.transactions = transactions;
+        this.authorization = authorization;
+        this.energy = energy;
+    }
 
     @Override
     public String getAction() {
@@ -18,33 +62,47 @@ public class StopTransactionHandler implements ActionHandler {
     }
 
     @Override
-    public OcppMessage handle(ChargePointSession session, JsonObject payload) {
-        int transactionId = payload.get("transactionId").getAsInt();
-        int meterStop = payload.get("meterStop").getAsInt();
-        String timestamp = payload.has("timestamp") ? payload.get("timestamp").getAsString() : "";
+    public PayloadReader<StopTransactionRequest> getPayloadReader() {
+        return StopTransactionRequest::read;
+    }
+
+    @Override
+    public OcppMessage handle(CallContext context, StopTransactionRequest request) {
+        ChargePointSession session = context.session();
+        int transactionId = request.transactionId();
+        int meterStop = request.meterStop();
 
         // 선택: idTag, reason
-        String idTag = payload.has("idTag") ? payload.get("idTag").getAsString() : "";
-        String reason = payload.has("reason") ? payload.get("reason").getAsString() : "Local";
+        String idTag = request.idTag() != null ? request.idTag() : "";
+        String reason = request.reason() != null ? request.reason() : "Local";
+
+        log.info("StopTransaction {} - TransactionId: {}, MeterStop: {}, Reason: {}",
+                session.getChargePointId(), transactionId, meterStop, reason);
 
-        System.out.println("[StopTransaction] " + session.getChargePointId() +
-                " - TransactionId: " + transactionId +
-                ", MeterStop: " + meterStop +
-                ", Reason: " + reason);
+        // 트랜잭션 종료 기록
+        // 모르는 트랜잭션이어도 CallResult로 응답 (CallError면 충전기가 같은 메시지를 계속 재전송)
+        Transaction transaction = transactions.stop(session.getChargePointId(), transactionId, meterStop,
+                Timestamps.toEpochMillis(request.timestamp()), reason);
+        if (transaction == null) {
+            log.warn("StopTransaction {} - unknown transactionId {}", session.getChargePointId(), transactionId);
+        } else if (energy != null) {
+            energy.finish(transaction);
+        }
 
-        // 상태 변경: FINISHING → AVAILABLE
-        session.setState(ChargePointState.AVAILABLE);
+        // 트랜잭션이 있던 커넥터 → AVAILABLE
+        // 커넥터 정보가 없으면 (서버 재시작 후 연결 등) 충전기 단위로 처리
+        if (session.stopTransaction(transactionId) < 0 && session.getConnectorCount() == 0) {
+            session.transitionTo(ChargePointState.AVAILABLE);
+        }
 
         // 응답 생성
         JsonObject response = new JsonObject();
 
-        // idTagInfo는 선택 (idTag가 있을 때만)
+        // idTagInfo는 선택 (idTag가 있을 때만, 저장소 장애면 Accepted)
         if (!idTag.isEmpty()) {
-            JsonObject idTagInfo = new JsonObject();
-            idTagInfo.addProperty("status", "Accepted");
-            response.add("idTagInfo", idTagInfo);
+            response.add("idTagInfo", authorization.authorizeOrDefault(idTag, IdTagInfo.ACCEPTED).toJson());
         }
 
-        return new CallResult(session.getCurrentUniqueId(), response);
+        return new CallResult(context.uniqueId(), response);
     }
 }
\ No newline at end of file
@@ -0,0 +1,124 @@
+package com.clnewze.lab.www.action;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * OCPP 시각 문자열 → epoch millis
+ *
+ * 충전기가 보내는 일반 형식(yyyy-MM-ddTHH:mm:ss[.SSS...](Z|±HH:mm))은 할당 없이 직접 계산하고,
+ * 그 외 형식이나 직접 계산이 거절한 값(없는 날짜 등)은 OffsetDateTime으로 파싱한다. (MeterValues는 샘플마다 timestamp가 있음)
+ */
+final class Timestamps {
+
+    private Timestamps() {
+    }
+
+    /**
+     * ISO-8601 시각 (없거나 형식이 틀리면 서버 현재 시각)
+     */
+    static long toEpochMillis(String timestamp) {
+        if (timestamp != null) {
+            long millis = parseFast(timestamp);
+            if (millis != Long.MIN_VALUE) {
+                return millis;
+            }
+            try {
+                return OffsetDateTime.parse(timestamp).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                // 서버 시각 사용
+            }
+        }
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * ASCII 숫자와 실제 있는 날짜만 받음 (판단이 애매하면 OffsetDateTime.parse에 맡김)
+     * @return epoch millis (형식이 다르거나 날짜/오프셋이 범위를 벗어나면 Long.MIN_VALUE)
+     */
+    static long parseFast(String s) {
+        int length = s.length();
+        if (length < 20 || s.charAt(4) != '-' || s.charAt(7) != '-' || s.charAt(10) != 'T'
+                || s.charAt(13) != ':' || s.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int year = digits(s, 0, 4);
+        int month = digits(s, 5, 2);
+        int day = digits(s, 8, 2);
+        int hour = digits(s, 11, 2);
+        int minute = digits(s, 14, 2);
+        int second = digits(s, 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month) || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+
+        int i = 19;
+        int millis = 0;
+        if (s.charAt(i) == '.') {
+            int scale = 100;
+            i++;
+            int start = i;
+            char c;
+            while (i < length && (c = s.charAt(i)) >= '0' && c <= '9') {
+                millis += (c - '0') * scale;
+                scale /= 10;
+                i++;
+            }
+            // 소수부는 1~9자리 (나노초까지)
+            if (i == start || i - start > 9) {
+                return Long.MIN_VALUE;
+            }
+        }
+
+        int offsetSeconds;
+        if (i == length - 1 && s.charAt(i) == 'Z') {
+            offsetSeconds = 0;
+        } else if (i == length - 6 && (s.charAt(i) == '+' || s.charAt(i) == '-') && s.charAt(i + 3) == ':') {
+            int offsetHours = digits(s, i + 1, 2);
+            int offsetMinutes = digits(s, i + 4, 2);
+            if (offsetHours < 0 || offsetMinutes < 0 || offsetMinutes > 59 || offsetHours * 60 + offsetMinutes > 18 * 60) {
+                return Long.MIN_VALUE;
+            }
+            offsetSeconds = (offsetHours * 3600 + offsetMinutes * 60) * (s.charAt(i) == '-' ? -1 : 1);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        long epochSeconds = epochDay(year, month, day) * 86_400L + hour * 3600L + minute * 60L + second
+                - offsetSeconds;
+        return epochSeconds * 1000L + millis;
+    }
+
+    private static int digits(String s, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    /**
+     * 그레고리력 날짜 → 1970-01-01부터의 일 수
+     */
+    private static long epochDay(int year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097 + dayOfEra - 719_468;
+    }
+}
@@ -0,0 +1,46 @@
+package com.clnewze.lab.www.action;
+
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+
+import java.io.StringReader;
+
+/**
+ * 타입 지정 Action 핸들러
+ * JsonObject 트리 대신 OCPP 1.6 요청 record를 받는다.
+ * Router는 {@link #read(JsonReader)}로 토큰 스트림에서 바로 요청을 만든다.
+ *
+ * @param <T> 요청 타입 (예: BootNotificationRequest)
+ */
+public interface TypedActionHandler<T> extends ActionHandler {
+
+    /**
+     * 요청 payload 리더
+     */
+    PayloadReader<T> getPayloadReader();
+
+    /**
+     * Action 처리
+     * @param context 요청 컨텍스트 (세션, uniqueId 등)
+     * @param request 요청 데이터
+     * @return 응답 메시지 (CallResult 또는 CallError)
+     */
+    OcppMessage handle(CallContext context, T request);
+
+    /**
+     * 스트림에서 요청 읽기
+     * 형식 오류는 FORMATION_VIOLATION / TYPE_CONSTRAINT_VIOLATION으로 변환
+     */
+    default T read(JsonReader in) {
+        return PayloadReader.read(getPayloadReader(), getAction(), in);
+    }
+
+    /**
+     * JsonObject payload 호환 경로 (기존 호출부/테스트용)
+     */
+    @Override
+    default OcppMessage handle(CallContext context, JsonObject payload) {
+        return handle(context, read(new JsonReader(new StringReader(payload.toString()))));
+    }
+}
@@ -0,0 +1,26 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Authorize.req
+ */
+public record AuthorizeRequest(String idTag) {
+
+    public static AuthorizeRequest read(JsonReader in) throws IOException {
+        String idTag = null;
+
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            switch (in.nextName()) {
+                case "idTag" -> idTag = JsonFields.readString(in, "idTag");
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new AuthorizeRequest(JsonFields.require(idTag, "idTag"));
+    }
+}
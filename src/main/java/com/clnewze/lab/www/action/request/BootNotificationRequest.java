@@ -0,0 +1,57 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * BootNotification.req
+ * 필수: chargePointVendor, chargePointModel
+ */
+public record BootNotificationRequest(
+        String chargePointVendor,
+        String chargePointModel,
+        String chargePointSerialNumber,
+        String chargeBoxSerialNumber,
+        String firmwareVersion,
+        String iccid,
+        String imsi,
+        String meterType,
+        String meterSerialNumber) {
+
+    public static BootNotificationRequest read(JsonReader in) throws IOException {
+        String vendor = null;
+        String model = null;
+        String chargePointSerialNumber = null;
+        String chargeBoxSerialNumber = null;
+        String firmwareVersion = null;
+        String iccid = null;
+        String imsi = null;
+        String meterType = null;
+        String meterSerialNumber = null;
+
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "chargePointVendor" -> vendor = JsonFields.readString(in, name);
+                case "chargePointModel" -> model = JsonFields.readString(in, name);
+                case "chargePointSerialNumber" -> chargePointSerialNumber = JsonFields.readString(in, name);
+                case "chargeBoxSerialNumber" -> chargeBoxSerialNumber = JsonFields.readString(in, name);
+                case "firmwareVersion" -> firmwareVersion = JsonFields.readString(in, name);
+                case "iccid" -> iccid = JsonFields.readString(in, name);
+                case "imsi" -> imsi = JsonFields.readString(in, name);
+                case "meterType" -> meterType = JsonFields.readString(in, name);
+                case "meterSerialNumber" -> meterSerialNumber = JsonFields.readString(in, name);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new BootNotificationRequest(
+                JsonFields.require(vendor, "chargePointVendor"),
+                JsonFields.require(model, "chargePointModel"),
+                chargePointSerialNumber, chargeBoxSerialNumber, firmwareVersion,
+                iccid, imsi, meterType, meterSerialNumber);
+    }
+}
@@ -0,0 +1,23 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * Heartbeat.req (필드 없음)
+ */
+public record HeartbeatRequest() {
+
+    public static final HeartbeatRequest INSTANCE = new HeartbeatRequest();
+
+    public static HeartbeatRequest read(JsonReader in) throws IOException {
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            in.nextName();
+            in.skipValue();
+        }
+        in.endObject();
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,106 @@
+package com.clnewze.lab.www.action.request;
+
+import com.clnewze.lab.www.action.PayloadReader;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 요청 record 리더 공용 필드 읽기 헬퍼
+ * - 누락된 필수 필드 → FORMATION_VIOLATION
+ * - 타입 불일치 → TYPE_CONSTRAINT_VIOLATION
+ * - JSON null은 필드 없음으로 취급
+ */
+final class JsonFields {
+
+    private JsonFields() {
+    }
+
+    static String readString(JsonReader in, String field) throws IOException {
+        JsonToken token = in.peek();
+        switch (token) {
+            case NULL -> {
+                in.nextNull();
+                return null;
+            }
+            case STRING, NUMBER -> {
+                return in.nextString();
+            }
+            default -> throw typeViolation(field, "string", token);
+        }
+    }
+
+    static boolean isNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    static int readInt(JsonReader in, String field) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.NUMBER) {
+            throw typeViolation(field, "integer", token);
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new OcppException(ErrorCode.TYPE_CONSTRAINT_VIOLATION,
+                    "Field '" + field + "' must be an integer");
+        }
+    }
+
+    static <T> List<T> readArray(JsonReader in, String field, PayloadReader<T> element) throws IOException {
+        JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token != JsonToken.BEGIN_ARRAY) {
+            throw typeViolation(field, "array", token);
+        }
+        List<T> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext()) {
+            list.add(element.read(in));
+        }
+        in.endArray();
+        return list;
+    }
+
+    static void beginObject(JsonReader in, String name) throws IOException {
+        JsonToken token = in.peek();
+        if (token != JsonToken.BEGIN_OBJECT) {
+            throw typeViolation(name, "object", token);
+        }
+        in.beginObject();
+    }
+
+    static <T> T require(T value, String field) {
+        if (value == null) {
+            throw missing(field);
+        }
+        return value;
+    }
+
+    static void require(boolean present, String field) {
+        if (!present) {
+            throw missing(field);
+        }
+    }
+
+    private static OcppException missing(String field) {
+        return new OcppException(ErrorCode.FORMATION_VIOLATION, "Missing required field: " + field);
+    }
+
+    private static OcppException typeViolation(String field, String expected, JsonToken actual) {
+        return new OcppException(ErrorCode.TYPE_CONSTRAINT_VIOLATION,
+                "Field '" + field + "' must be " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,32 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * MeterValues.req / StopTransaction.req의 meterValue 항목
+ * 필수: timestamp, sampledValue
+ * (timestamp는 기존 클라이언트 호환을 위해 선택으로 받음)
+ */
+public record MeterValue(String timestamp, List<SampledValue> sampledValue) {
+
+    public static MeterValue read(JsonReader in) throws IOException {
+        String timestamp = null;
+        List<SampledValue> sampledValue = null;
+
+        JsonFields.beginObject(in, "meterValue");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "timestamp" -> timestamp = JsonFields.readString(in, name);
+                case "sampledValue" -> sampledValue = JsonFields.readArray(in, name, SampledValue::read);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        return new MeterValue(timestamp, JsonFields.require(sampledValue, "meterValue.sampledValue"));
+    }
+}
@@ -0,0 +1,41 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * MeterValues.req
+ * 필수: connectorId, meterValue
+ */
+public record MeterValuesRequest(
+        int connectorId,
+        Integer transactionId,
+        List<MeterValue> meterValue) {
+
+    public static MeterValuesRequest read(JsonReader in) throws IOException {
+        int connectorId = 0;
+        boolean hasConnectorId = false;
+        Integer transactionId = null;
+        List<MeterValue> meterValue = null;
+
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "connectorId" -> {
+                    connectorId = JsonFields.readInt(in, name);
+                    hasConnectorId = true;
+                }
+                case "transactionId" -> transactionId = JsonFields.isNull(in) ? null : JsonFields.readInt(in, name);
+                case "meterValue" -> meterValue = JsonFields.readArray(in, name, MeterValue::read);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        JsonFields.require(hasConnectorId, "connectorId");
+        return new MeterValuesRequest(connectorId, transactionId, JsonFields.require(meterValue, "meterValue"));
+    }
+}
@@ -0,0 +1,139 @@
+package com.clnewze.lab.www.action.request;
+
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.meter.ReadingContext;
+import com.clnewze.lab.www.meter.UnitOfMeasure;
+import com.clnewze.lab.www.meter.ValueFormat;
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * MeterValue.sampledValue 항목 (압축 형태)
+ * 필수: value
+ *
+ * 파싱하면서 measurand/unit/context/phase/location/format 문자열을 바로 enum ordinal로 바꿔
+ * int 하나(codes, 항목당 5비트)에 담고, value는 double로 보관한다. (스펙 기본값은 파싱 시 적용)
+ * - 숫자가 아닌 value는 NaN, SignedData면 원문을 signedData에 보관
+ *
+ * @param value 측정값 (unit 단위 그대로, 숫자가 아니면 NaN)
+ * @param codes enum ordinal 묶음 (접근은 measurand() 등)
+ * @param signedData format이 SignedData일 때 원문 (그 외 null)
+ */
+public record SampledValue(double value, int codes, String signedData) {
+
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+
+    /**
+     * enum 값으로 생성
+     */
+    public static SampledValue of(double value, Measurand measurand, UnitOfMeasure unit, ReadingContext context,
+                                  Phase phase, Location location, ValueFormat format, String signedData) {
+        int codes = measurand.ordinal()
+                | unit.ordinal() << BITS
+                | context.ordinal() << BITS * 2
+                | phase.ordinal() << BITS * 3
+                | location.ordinal() << BITS * 4
+                | format.ordinal() << BITS * 5;
+        return new SampledValue(value, codes, signedData);
+    }
+
+    public Measurand measurand() {
+        return Measurand.fromOrdinal(codes & MASK);
+    }
+
+    public UnitOfMeasure unit() {
+        return UnitOfMeasure.fromOrdinal(codes >>> BITS & MASK);
+    }
+
+    public ReadingContext context() {
+        return ReadingContext.fromOrdinal(codes >>> BITS * 2 & MASK);
+    }
+
+    public Phase phase() {
+        return Phase.fromOrdinal(codes >>> BITS * 3 & MASK);
+    }
+
+    public Location location() {
+        return Location.fromOrdinal(codes >>> BITS * 4 & MASK);
+    }
+
+    public ValueFormat format() {
+        return ValueFormat.fromOrdinal(codes >>> BITS * 5 & MASK);
+    }
+
+    /**
+     * 기본 단위로 환산한 값 (kWh → Wh, kW → W ...)
+     */
+    public double baseValue() {
+        return value * unit().scale();
+    }
+
+    public boolean isNumeric() {
+        return !Double.isNaN(value);
+    }
+
+    public static SampledValue read(JsonReader in) throws IOException {
+        String value = null;
+        Measurand measurand = Measurand.fromValue(null);
+        UnitOfMeasure unit = UnitOfMeasure.fromValue(null);
+        ReadingContext context = ReadingContext.fromValue(null);
+        Phase phase = Phase.fromValue(null);
+        Location location = Location.fromValue(null);
+        ValueFormat format = ValueFormat.fromValue(null);
+
+        JsonFields.beginObject(in, "sampledValue");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "value" -> value = JsonFields.readString(in, name);
+                case "context" -> context = ReadingContext.fromValue(JsonFields.readString(in, name));
+                case "format" -> format = ValueFormat.fromValue(JsonFields.readString(in, name));
+                case "measurand" -> measurand = Measurand.fromValue(JsonFields.readString(in, name));
+                case "phase" -> phase = Phase.fromValue(JsonFields.readString(in, name));
+                case "location" -> location = Location.fromValue(JsonFields.readString(in, name));
+                case "unit" -> unit = UnitOfMeasure.fromValue(JsonFields.readString(in, name));
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        JsonFields.require(value, "sampledValue.value");
+        if (format == ValueFormat.SIGNED_DATA) {
+            return of(Double.NaN, measurand, unit, context, phase, location, format, value);
+        }
+        return of(parse(value), measurand, unit, context, phase, location, format, null);
+    }
+
+    /**
+     * OCPP 십진수 형식([+-]숫자[.숫자])만 숫자로 인정
+     * (Double.parseDouble이 받는 NaN/Infinity/16진수/지수/d·f 접미사/공백은 NaN, 범위를 넘어 무한대가 돼도 NaN)
+     */
+    private static double parse(String value) {
+        int length = value.length();
+        int i = 0;
+        if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+            i++;
+        }
+        int digits = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else {
+                return Double.NaN;
+            }
+        }
+        if (digits == 0) {
+            return Double.NaN;
+        }
+        double parsed = Double.parseDouble(value);
+        return Double.isFinite(parsed) ? parsed : Double.NaN;
+    }
+}
@@ -0,0 +1,53 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * StartTransaction.req
+ * 필수: connectorId, idTag, meterStart
+ * (timestamp는 스펙상 필수지만 기존 클라이언트 호환을 위해 선택으로 받음)
+ */
+public record StartTransactionRequest(
+        int connectorId,
+        String idTag,
+        int meterStart,
+        Integer reservationId,
+        String timestamp) {
+
+    public static StartTransactionRequest read(JsonReader in) throws IOException {
+        int connectorId = 0;
+        boolean hasConnectorId = false;
+        String idTag = null;
+        int meterStart = 0;
+        boolean hasMeterStart = false;
+        Integer reservationId = null;
+        String timestamp = null;
+
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "connectorId" -> {
+                    connectorId = JsonFields.readInt(in, name);
+                    hasConnectorId = true;
+                }
+                case "idTag" -> idTag = JsonFields.readString(in, name);
+                case "meterStart" -> {
+                    meterStart = JsonFields.readInt(in, name);
+                    hasMeterStart = true;
+                }
+                case "reservationId" -> reservationId = JsonFields.isNull(in) ? null : JsonFields.readInt(in, name);
+                case "timestamp" -> timestamp = JsonFields.readString(in, name);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        JsonFields.require(hasConnectorId, "connectorId");
+        JsonFields.require(idTag, "idTag");
+        JsonFields.require(hasMeterStart, "meterStart");
+        return new StartTransactionRequest(connectorId, idTag, meterStart, reservationId, timestamp);
+    }
+}
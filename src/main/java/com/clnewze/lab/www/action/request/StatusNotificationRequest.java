@@ -0,0 +1,55 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+
+/**
+ * StatusNotification.req
+ * 필수: connectorId, errorCode, status
+ */
+public record StatusNotificationRequest(
+        int connectorId,
+        String errorCode,
+        String info,
+        String status,
+        String timestamp,
+        String vendorId,
+        String vendorErrorCode) {
+
+    public static StatusNotificationRequest read(JsonReader in) throws IOException {
+        int connectorId = 0;
+        boolean hasConnectorId = false;
+        String errorCode = null;
+        String info = null;
+        String status = null;
+        String timestamp = null;
+        String vendorId = null;
+        String vendorErrorCode = null;
+
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "connectorId" -> {
+                    connectorId = JsonFields.readInt(in, name);
+                    hasConnectorId = true;
+                }
+                case "errorCode" -> errorCode = JsonFields.readString(in, name);
+                case "info" -> info = JsonFields.readString(in, name);
+                case "status" -> status = JsonFields.readString(in, name);
+                case "timestamp" -> timestamp = JsonFields.readString(in, name);
+                case "vendorId" -> vendorId = JsonFields.readString(in, name);
+                case "vendorErrorCode" -> vendorErrorCode = JsonFields.readString(in, name);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        JsonFields.require(hasConnectorId, "connectorId");
+        return new StatusNotificationRequest(connectorId,
+                JsonFields.require(errorCode, "errorCode"), info,
+                JsonFields.require(status, "status"),
+                timestamp, vendorId, vendorErrorCode);
+    }
+}
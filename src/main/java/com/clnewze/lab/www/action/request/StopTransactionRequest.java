@@ -0,0 +1,56 @@
+package com.clnewze.lab.www.action.request;
+
+import com.google.gson.stream.JsonReader;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * StopTransaction.req
+ * 필수: meterStop, transactionId
+ * (timestamp는 기존 클라이언트 호환을 위해 선택으로 받음)
+ */
+public record StopTransactionRequest(
+        String idTag,
+        int meterStop,
+        String timestamp,
+        int transactionId,
+        String reason,
+        List<MeterValue> transactionData) {
+
+    public static StopTransactionRequest read(JsonReader in) throws IOException {
+        String idTag = null;
+        int meterStop = 0;
+        boolean hasMeterStop = false;
+        String timestamp = null;
+        int transactionId = 0;
+        boolean hasTransactionId = false;
+        String reason = null;
+        List<MeterValue> transactionData = null;
+
+        JsonFields.beginObject(in, "payload");
+        while (in.hasNext()) {
+            String name = in.nextName();
+            switch (name) {
+                case "idTag" -> idTag = JsonFields.readString(in, name);
+                case "meterStop" -> {
+                    meterStop = JsonFields.readInt(in, name);
+                    hasMeterStop = true;
+                }
+                case "timestamp" -> timestamp = JsonFields.readString(in, name);
+                case "transactionId" -> {
+                    transactionId = JsonFields.readInt(in, name);
+                    hasTransactionId = true;
+                }
+                case "reason" -> reason = JsonFields.readString(in, name);
+                case "transactionData" -> transactionData = JsonFields.readArray(in, name, MeterValue::read);
+                default -> in.skipValue();
+            }
+        }
+        in.endObject();
+
+        JsonFields.require(hasMeterStop, "meterStop");
+        JsonFields.require(hasTransactionId, "transactionId");
+        return new StopTransactionRequest(idTag, meterStop, timestamp, transactionId, reason, transactionData);
+    }
+}
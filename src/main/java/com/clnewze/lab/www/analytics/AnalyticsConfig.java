@@ -0,0 +1,50 @@
+package com.clnewze.lab.www.analytics;
+
+/**
+ * 부하 분석 설정
+ * 그룹 1개의 메모리 ≈ windows × (4바이트 × sketchBuckets + 64바이트)
+ *
+ * @param windowMillis 텀블링 창 길이
+ * @param windows 그룹마다 보관할 창 수 (보관 기간 = windowMillis × windows, 지난 창은 덮어씀)
+ * @param maxHoldMillis 전력값을 다음 샘플까지 유지하는 최대 시간 (샘플이 끊기면 여기까지만 부하로 계산)
+ * @param relativeAccuracy 세션 전력 분위수 상대 오차
+ * @param sketchBuckets 창 1개의 분위수 스케치 버킷 수
+ * @param maxGroups 그룹 수 상한 (넘는 그룹의 샘플은 버림)
+ * @param maxSkewMillis 서버 시각보다 앞선 샘플 시각의 허용 범위 (넘으면 버림, 창 만료는 서버 시각 기준)
+ */
+public record AnalyticsConfig(long windowMillis, int windows, long maxHoldMillis, double relativeAccuracy,
+                              int sketchBuckets, int maxGroups, long maxSkewMillis) {
+
+    public AnalyticsConfig {
+        if (windowMillis < 1 || windows < 1 || maxHoldMillis < 0 || sketchBuckets < 2 || maxGroups < 1
+                || maxSkewMillis < 0) {
+            throw new IllegalArgumentException("Analytics limits must be positive");
+        }
+    }
+
+    /**
+     * 1분 창 60개 (1시간), 전력 유지 5분, 분위수 오차 1%, 그룹 256개, 시계 오차 1분
+     */
+    public static AnalyticsConfig defaults() {
+        return new AnalyticsConfig(60_000L, 60, 300_000L, QuantileSketch.DEFAULT_RELATIVE_ACCURACY,
+                QuantileSketch.DEFAULT_MAX_BUCKETS, 256, 60_000L);
+    }
+
+    /**
+     * 시스템 프로퍼티에서 읽기
+     * -Docpp.analytics.windowMillis, -Docpp.analytics.windows, -Docpp.analytics.maxHoldMillis,
+     * -Docpp.analytics.maxGroups, -Docpp.analytics.maxSkewMillis
+     */
+    public static AnalyticsConfig fromSystemProperties() {
+        AnalyticsConfig defaults = defaults();
+        return new AnalyticsConfig(
+                Long.getLong("ocpp.analytics.windowMillis", defaults.windowMillis()),
+                Integer.getInteger("ocpp.analytics.windows", defaults.windows()),
+                Long.getLong("ocpp.analytics.maxHoldMillis", defaults.maxHoldMillis()),
+                defaults.relativeAccuracy(),
+                defaults.sketchBuckets(),
+                Integer.getInteger("ocpp.analytics.maxGroups", defaults.maxGroups()),
+                Long.getLong("ocpp.analytics.maxSkewMillis", defaults.maxSkewMillis())
+        );
+    }
+}
@@ -0,0 +1,61 @@
+package com.clnewze.lab.www.analytics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 충전기 ID → 그룹(사이트) 이름
+ *
+ * 파일 형식: 한 줄에 chargePointId,group (빈 줄과 #으로 시작하는 줄은 무시)
+ * 목록에 없는 충전기는 기본 그룹
+ */
+public class ChargePointGroups implements Function<String, String> {
+
+    private static final Logger log = LoggerFactory.getLogger(ChargePointGroups.class);
+
+    public static final String DEFAULT_GROUP = "default";
+
+    private final Map<String, String> groups;
+    private final String defaultGroup;
+
+    /**
+     * @param defaultGroup 목록에 없는 충전기의 그룹 (null이면 집계 안 함)
+     */
+    public ChargePointGroups(Map<String, String> groups, String defaultGroup) {
+        this.groups = Map.copyOf(groups);
+        this.defaultGroup = defaultGroup;
+    }
+
+    public static ChargePointGroups load(Path path) throws IOException {
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        Map<String, String> groups = new HashMap<>(lines.size() * 2);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            if (fields.length != 2 || fields[0].isBlank() || fields[1].isBlank()) {
+                log.warn("Skipping malformed group line {}:{}", path, i + 1);
+                continue;
+            }
+            groups.put(fields[0].trim(), fields[1].trim());
+        }
+        log.info("Loaded {} charge point groups from {}", groups.size(), path);
+        return new ChargePointGroups(groups, DEFAULT_GROUP);
+    }
+
+    @Override
+    public String apply(String chargePointId) {
+        return groups.getOrDefault(chargePointId, defaultGroup);
+    }
+}
@@ -0,0 +1,406 @@
+package com.clnewze.lab.www.analytics;
+
+import com.clnewze.lab.www.action.MeterSampleListener;
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.session.ChargePointSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * 그룹(사이트)별 실시간 부하 분석 (MeterValues의 Power.Active.Import)
+ *
+ * - 그룹마다 텀블링 창 고리(ring) 1개: 창 시작 시각으로 칸을 정하고, 지난 창은 새 창이 덮어씀 (자동 만료)
+ * - 슬라이딩 창 = 최근 텀블링 창 여러 개를 합친 값 (분위수 스케치도 병합)
+ * - 부하: 충전기(커넥터)별 마지막 전력값을 다음 샘플까지 (최대 maxHoldMillis) 유지한 것으로 보고 창에 적분
+ *   → 샘플 주기가 달라도 "그룹 전체 kW"가 맞게 나온다.
+ * - 세션 전력 분위수: 트랜잭션 중 샘플의 전력을 창별 QuantileSketch에 추가 (고정 메모리)
+ * - 창 시각은 샘플 시각 기준, 보관 기간보다 오래된 샘플과 커넥터의 이전 샘플보다 앞선 샘플은 버림
+ * - 창 만료는 서버 시각(clock) 기준: 충전기 시계가 틀려 서버 시각 + maxSkewMillis보다 늦은 샘플은 버림
+ *
+ * 메모리: 그룹 수(maxGroups) × 창 수 × 스케치 크기 + 전력을 보고 중인 커넥터 수 (샘플 수와 무관)
+ * 샘플을 보내지 않는 커넥터의 상태는 창 길이마다 한 번씩 정리한다.
+ * Phase 없는(합계) 전력값만 사용한다.
+ */
+public class LoadAnalytics implements MeterSampleListener {
+
+    private final Function<String, String> groupOf;
+    private final AnalyticsConfig config;
+    private final LongSupplier clock;
+
+    private final Map<String, GroupSeries> groups = new ConcurrentHashMap<>();
+    private final Map<String, ConnectorState[]> connectors = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+
+    private final LongAdder lateSamples = new LongAdder();
+    private final LongAdder droppedSamples = new LongAdder();
+    private final LongAdder futureSamples = new LongAdder();
+
+    public LoadAnalytics(Function<String, String> groupOf) {
+        this(groupOf, AnalyticsConfig.defaults(), System::currentTimeMillis);
+    }
+
+    /**
+     * @param groupOf 충전기 ID → 그룹 이름 (null이면 집계 안 함)
+     * @param clock 조회/정리 기준 시각 (epoch millis)
+     */
+    public LoadAnalytics(Function<String, String> groupOf, AnalyticsConfig config, LongSupplier clock) {
+        this.groupOf = groupOf;
+        this.config = config;
+        this.clock = clock;
+        this.lastSweep.set(clock.getAsLong());
+    }
+
+    @Override
+    public void onSample(String chargePointId, int connectorId, int transactionId, long timestamp,
+                         SampledValue sample) {
+        if (sample.measurand() != Measurand.POWER_ACTIVE_IMPORT || sample.phase() != Phase.NONE
+                || sample.location() != Location.OUTLET
+                || connectorId < 0 || connectorId > ChargePointSession.MAX_CONNECTOR_ID) {
+            return;
+        }
+        String groupName = groupOf.apply(chargePointId);
+        if (groupName == null) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (timestamp > now + config.maxSkewMillis()) {
+            futureSamples.increment();
+            return;
+        }
+        GroupSeries group = groupFor(groupName);
+        if (group == null) {
+            droppedSamples.increment();
+            return;
+        }
+        double powerW = Math.max(0, sample.baseValue());
+        ConnectorState[] states = connectors.computeIfAbsent(chargePointId,
+                id -> new ConnectorState[ChargePointSession.MAX_CONNECTOR_ID + 1]);
+        boolean accepted;
+        synchronized (states) {
+            ConnectorState state = states[connectorId];
+            if (state == null) {
+                state = new ConnectorState();
+                states[connectorId] = state;
+            }
+            synchronized (group) {
+                accepted = group.add(state, timestamp, powerW, transactionId > 0, now);
+            }
+        }
+        if (!accepted) {
+            lateSamples.increment();
+        }
+        sweepIfDue(now);
+    }
+
+    /**
+     * 끝난 텀블링 창 (오래된 것부터, 최대 count개, 데이터가 없던 창은 제외)
+     * 마지막 전력값의 유지 구간은 다음 샘플이 와야 반영되므로 끝난 뒤 maxHoldMillis 동안은 값이 늘 수 있다.
+     */
+    public List<WindowStats> tumbling(String group, int count) {
+        GroupSeries series = groups.get(group);
+        if (series == null) {
+            return List.of();
+        }
+        long now = clock.getAsLong();
+        synchronized (series) {
+            TreeMap<Long, WindowStats> completed = new TreeMap<>();
+            long oldest = series.oldestLiveStart(now);
+            for (Window window : series.ring) {
+                if (window != null && window.start >= oldest && window.start + config.windowMillis() <= now) {
+                    completed.put(window.start, series.stats(window.start, window.start + config.windowMillis(),
+                            config.windowMillis(), List.of(window)));
+                }
+            }
+            List<WindowStats> result = new ArrayList<>(completed.values());
+            return result.subList(Math.max(0, result.size() - count), result.size());
+        }
+    }
+
+    /**
+     * 최근 spanMillis 슬라이딩 창 (창 단위로 올림, 진행 중인 창 포함, 없으면 null)
+     */
+    public WindowStats sliding(String group, long spanMillis) {
+        GroupSeries series = groups.get(group);
+        if (series == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        long windowMillis = config.windowMillis();
+        long panes = Math.max(1, Math.min(config.windows(), (spanMillis + windowMillis - 1) / windowMillis));
+        long from = Math.floorDiv(now, windowMillis) * windowMillis - (panes - 1) * windowMillis;
+        synchronized (series) {
+            List<Window> selected = new ArrayList<>();
+            for (Window window : series.ring) {
+                if (window != null && window.start >= from && window.start <= now) {
+                    selected.add(window);
+                }
+            }
+            return series.stats(from, now, Math.max(1, now - from), selected);
+        }
+    }
+
+    /**
+     * 데이터가 있는 그룹 이름 (정렬)
+     */
+    public List<String> getGroups() {
+        return new ArrayList<>(new TreeSet<>(groups.keySet()));
+    }
+
+    /**
+     * 그룹별 마지막으로 끝난 창의 평균 부하 (W, 메트릭용)
+     */
+    public Map<String, Long> lastWindowPower() {
+        Map<String, Long> result = new TreeMap<>();
+        for (String group : groups.keySet()) {
+            List<WindowStats> last = tumbling(group, 1);
+            if (!last.isEmpty()) {
+                result.put(group, Math.round(last.get(0).averagePowerW()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 그룹별 슬라이딩 창의 세션 전력 분위수 (W, 메트릭용, 샘플이 없는 그룹 제외)
+     */
+    public Map<String, Long> slidingQuantile(long spanMillis, double q) {
+        Map<String, Long> result = new TreeMap<>();
+        for (String group : groups.keySet()) {
+            WindowStats stats = sliding(group, spanMillis);
+            double value = stats != null ? stats.quantile(q) : Double.NaN;
+            if (!Double.isNaN(value)) {
+                result.put(group, Math.round(value));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 보관 기간을 넘었거나 커넥터의 이전 샘플보다 앞선 샘플 수
+     */
+    public long getLateSamples() {
+        return lateSamples.sum();
+    }
+
+    /**
+     * 서버 시각 + maxSkewMillis보다 늦은 시각이라 버린 샘플 수
+     */
+    public long getFutureSamples() {
+        return futureSamples.sum();
+    }
+
+    /**
+     * 그룹 수 상한을 넘어 버린 샘플 수
+     */
+    public long getDroppedSamples() {
+        return droppedSamples.sum();
+    }
+
+    /**
+     * 상태를 보관 중인 커넥터를 가진 충전기 수
+     */
+    public int getTrackedChargePoints() {
+        return connectors.size();
+    }
+
+    /**
+     * 샘플이 maxHoldMillis 이상 없는 커넥터 상태 정리 (창 길이마다 한 번, 남은 유지 구간은 창에 반영)
+     */
+    void sweep(long now) {
+        long expiredBefore = now - config.maxHoldMillis();
+        connectors.forEach((chargePointId, states) -> {
+            String groupName = groupOf.apply(chargePointId);
+            GroupSeries group = groupName != null ? groups.get(groupName) : null;
+            boolean active = false;
+            synchronized (states) {
+                for (int i = 0; i < states.length; i++) {
+                    ConnectorState state = states[i];
+                    if (state == null) {
+                        continue;
+                    }
+                    if (state.lastTimestamp >= expiredBefore) {
+                        active = true;
+                        continue;
+                    }
+                    if (group != null) {
+                        synchronized (group) {
+                            group.integrate(state.lastTimestamp, state.lastTimestamp + config.maxHoldMillis(),
+                                    state.lastPowerW, now);
+                        }
+                    }
+                    states[i] = null;
+                }
+                if (!active) {
+                    connectors.remove(chargePointId, states);
+                }
+            }
+        });
+    }
+
+    private void sweepIfDue(long now) {
+        long last = lastSweep.get();
+        if (now - last >= config.windowMillis() && lastSweep.compareAndSet(last, now)) {
+            sweep(now);
+        }
+    }
+
+    private GroupSeries groupFor(String name) {
+        GroupSeries group = groups.get(name);
+        if (group != null) {
+            return group;
+        }
+        if (groups.size() >= config.maxGroups()) {
+            return null;
+        }
+        return groups.computeIfAbsent(name, n -> new GroupSeries(n, config));
+    }
+
+    /**
+     * 커넥터 1개의 마지막 전력값 (states 배열 락)
+     */
+    private static final class ConnectorState {
+        long lastTimestamp = Long.MIN_VALUE;
+        double lastPowerW;
+    }
+
+    /**
+     * 텀블링 창 1개
+     */
+    private static final class Window {
+        long start;
+        double energyWms;
+        long samples;
+        QuantileSketch sessionPower;
+
+        void reset(long start) {
+            this.start = start;
+            energyWms = 0;
+            samples = 0;
+            if (sessionPower != null) {
+                sessionPower.clear();
+            }
+        }
+    }
+
+    /**
+     * 그룹 1개의 창 고리 (this 락)
+     */
+    private static final class GroupSeries {
+
+        final String name;
+        final AnalyticsConfig config;
+        final Window[] ring;
+
+        GroupSeries(String name, AnalyticsConfig config) {
+            this.name = name;
+            this.config = config;
+            this.ring = new Window[config.windows()];
+        }
+
+        /**
+         * @return false면 버린 샘플 (늦게 도착)
+         */
+        boolean add(ConnectorState state, long timestamp, double powerW, boolean inTransaction, long now) {
+            if (timestamp < state.lastTimestamp) {
+                return false;
+            }
+            if (state.lastTimestamp != Long.MIN_VALUE && timestamp > state.lastTimestamp) {
+                integrate(state.lastTimestamp, Math.min(timestamp, state.lastTimestamp + config.maxHoldMillis()),
+                        state.lastPowerW, now);
+            }
+            state.lastTimestamp = timestamp;
+            state.lastPowerW = powerW;
+
+            Window window = window(startOf(timestamp), now);
+            if (window == null) {
+                return false;
+            }
+            window.samples++;
+            if (inTransaction) {
+                if (window.sessionPower == null) {
+                    window.sessionPower = new QuantileSketch(config.relativeAccuracy(), config.sketchBuckets());
+                }
+                window.sessionPower.add(powerW);
+            }
+            return true;
+        }
+
+        /**
+         * powerW를 [from, to) 동안 유지한 부하를 겹치는 창에 나눠 더함
+         */
+        void integrate(long from, long to, double powerW, long now) {
+            if (powerW <= 0) {
+                return;
+            }
+            long windowMillis = config.windowMillis();
+            for (long start = startOf(from); from < to; start += windowMillis) {
+                long end = Math.min(to, start + windowMillis);
+                Window window = window(start, now);
+                if (window != null) {
+                    window.energyWms += powerW * (end - from);
+                }
+                from = end;
+            }
+        }
+
+        /**
+         * 창 시작 시각의 창 (서버 시각 기준 보관 범위 밖이면 null, 칸의 지난 창은 비우고 재사용)
+         */
+        Window window(long start, long now) {
+            if (start < oldestLiveStart(now) || start > now + config.maxSkewMillis()) {
+                return null;
+            }
+            int index = (int) Math.floorMod(Math.floorDiv(start, config.windowMillis()), (long) ring.length);
+            Window window = ring[index];
+            if (window == null) {
+                window = new Window();
+                window.reset(start);
+                ring[index] = window;
+            } else if (window.start != start) {
+                if (window.start > start) {
+                    return null;
+                }
+                window.reset(start);
+            }
+            return window;
+        }
+
+        /**
+         * 보관 중인 가장 오래된 창 시작 (허용 오차만큼 앞선 창까지 고리에 들어가도록 창 수만큼 거슬러 올라감)
+         */
+        long oldestLiveStart(long now) {
+            return startOf(now + config.maxSkewMillis()) - (ring.length - 1) * config.windowMillis();
+        }
+
+        long startOf(long timestamp) {
+            return Math.floorDiv(timestamp, config.windowMillis()) * config.windowMillis();
+        }
+
+        WindowStats stats(long from, long to, long lengthMillis, List<Window> windows) {
+            QuantileSketch merged = new QuantileSketch(config.relativeAccuracy(), config.sketchBuckets());
+            double energyWms = 0;
+            long samples = 0;
+            for (Window window : windows) {
+                energyWms += window.energyWms;
+                samples += window.samples;
+                if (window.sessionPower != null) {
+                    merged.merge(window.sessionPower);
+                }
+            }
+            return new WindowStats(name, from, to, energyWms / lengthMillis, energyWms / 3_600_000.0, samples,
+                    merged);
+        }
+    }
+}
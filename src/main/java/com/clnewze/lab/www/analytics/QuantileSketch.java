@@ -0,0 +1,209 @@
+package com.clnewze.lab.www.analytics;
+
+import java.util.Arrays;
+
+/**
+ * 고정 메모리 분위수 스케치 (DDSketch 방식)
+ *
+ * 양수 값 x를 로그 버킷 ceil(log_γ x)에 세고, 버킷 대표값 2γ^k/(γ+1)로 분위수를 돌려준다.
+ * (γ = (1+α)/(1-α) → 상대 오차 α 이내)
+ * - 0 이하 값은 zero 버킷
+ * - 버킷 배열 크기는 고정, 값 범위가 배열보다 넓어지면 가장 낮은 버킷들을 하나로 합침
+ *   (낮은 분위수의 정확도만 떨어지고 높은 분위수는 유지)
+ * - 같은 설정의 스케치끼리 병합 가능 (슬라이딩 창 = 텀블링 창 병합)
+ *
+ * 스레드 안전하지 않다. (호출자가 락)
+ */
+public final class QuantileSketch {
+
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    public static final int DEFAULT_MAX_BUCKETS = 1024;
+
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int[] counts;
+
+    // 버킷 키 = offset + 배열 인덱스, 사용 중인 키 범위 [minKey, maxKey]
+    private int offset;
+    private int minKey = Integer.MAX_VALUE;
+    private int maxKey = Integer.MIN_VALUE;
+
+    private long zeroCount;
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public QuantileSketch() {
+        this(DEFAULT_RELATIVE_ACCURACY, DEFAULT_MAX_BUCKETS);
+    }
+
+    /**
+     * @param relativeAccuracy 분위수 상대 오차 (0~1)
+     * @param maxBuckets 버킷 수 (메모리 = 4바이트 × maxBuckets)
+     */
+    public QuantileSketch(double relativeAccuracy, int maxBuckets) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1 || maxBuckets < 2) {
+            throw new IllegalArgumentException("Invalid sketch parameters");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.counts = new int[maxBuckets];
+    }
+
+    public void add(double value) {
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+        if (value > 0) {
+            addKey((int) Math.ceil(Math.log(value) / logGamma), 1);
+        } else {
+            zeroCount++;
+        }
+    }
+
+    /**
+     * 다른 스케치의 값 추가 (상대 오차와 버킷 수가 같아야 함)
+     */
+    public void merge(QuantileSketch other) {
+        if (other.gamma != gamma || other.counts.length != counts.length) {
+            throw new IllegalArgumentException("Sketch parameters differ");
+        }
+        if (other.count == 0) {
+            return;
+        }
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        zeroCount += other.zeroCount;
+        for (int key = other.minKey; key <= other.maxKey; key++) {
+            int n = other.counts[key - other.offset];
+            if (n > 0) {
+                addKey(key, n);
+            }
+        }
+    }
+
+    /**
+     * 분위수 (값이 없으면 NaN)
+     * @param q 0~1
+     */
+    public double quantile(double q) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        double rank = Math.max(0, Math.min(1, q)) * (count - 1);
+        long seen = zeroCount;
+        if (rank < seen) {
+            return Math.max(min, Math.min(0, max));
+        }
+        for (int key = minKey; key <= maxKey; key++) {
+            seen += counts[key - offset];
+            if (rank < seen) {
+                double value = 2 * Math.pow(gamma, key) / (gamma + 1);
+                return Math.max(min, Math.min(max, value));
+            }
+        }
+        return max;
+    }
+
+    public QuantileSketch copy() {
+        QuantileSketch copy = new QuantileSketch(relativeAccuracy, counts.length);
+        copy.merge(this);
+        return copy;
+    }
+
+    public void clear() {
+        Arrays.fill(counts, 0);
+        minKey = Integer.MAX_VALUE;
+        maxKey = Integer.MIN_VALUE;
+        zeroCount = 0;
+        count = 0;
+        sum = 0;
+        min = Double.POSITIVE_INFINITY;
+        max = Double.NEGATIVE_INFINITY;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * 최솟값 (값이 없으면 NaN)
+     */
+    public double min() {
+        return count > 0 ? min : Double.NaN;
+    }
+
+    /**
+     * 최댓값 (값이 없으면 NaN)
+     */
+    public double max() {
+        return count > 0 ? max : Double.NaN;
+    }
+
+    public double relativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    public int maxBuckets() {
+        return counts.length;
+    }
+
+    private void addKey(int key, int n) {
+        int length = counts.length;
+        if (minKey > maxKey) {
+            // 첫 값: 위아래로 여유를 두고 배치
+            offset = key - length / 2;
+            minKey = key;
+            maxKey = key;
+        } else if (key < offset) {
+            // 아래로 넓힘 (배열을 넘으면 key를 가장 낮은 버킷에 합침)
+            relocate(Math.max(maxKey - length + 1, key - (length - (maxKey - key + 1)) / 2));
+        } else if (key >= offset + length) {
+            // 위로 넓힘 (배열을 넘으면 낮은 버킷들을 합침)
+            relocate(key - minKey < length
+                    ? minKey - (length - (key - minKey + 1)) / 2
+                    : key - length + 1);
+        }
+        key = Math.max(key, offset);
+        counts[key - offset] += n;
+        minKey = Math.min(minKey, key);
+        maxKey = Math.max(maxKey, key);
+    }
+
+    /**
+     * 배열 시작 키를 newOffset으로 옮김 (그보다 낮은 키는 가장 낮은 버킷에 합침)
+     */
+    private void relocate(int newOffset) {
+        int length = counts.length;
+        int shift = newOffset - offset;
+        if (shift > 0) {
+            long collapsed = 0;
+            for (int i = 0; i < Math.min(shift, length); i++) {
+                collapsed += counts[i];
+            }
+            if (shift < length) {
+                System.arraycopy(counts, shift, counts, 0, length - shift);
+                Arrays.fill(counts, length - shift, length, 0);
+            } else {
+                Arrays.fill(counts, 0);
+            }
+            counts[0] += (int) collapsed;
+        } else if (shift < 0) {
+            System.arraycopy(counts, 0, counts, -shift, length + shift);
+            Arrays.fill(counts, 0, -shift, 0);
+        }
+        offset = newOffset;
+        minKey = Math.max(minKey, newOffset);
+        maxKey = Math.max(maxKey, newOffset);
+    }
+}
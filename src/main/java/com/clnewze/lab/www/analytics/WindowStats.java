@@ -0,0 +1,29 @@
+package com.clnewze.lab.www.analytics;
+
+/**
+ * 그룹 1개의 창 집계 (텀블링 창 1개 또는 여러 창을 합친 슬라이딩 창)
+ *
+ * @param startMillis 창 시작 (포함)
+ * @param endMillis 창 끝 (제외, 진행 중인 슬라이딩 창이면 조회 시각)
+ * @param averagePowerW 그룹 전체 평균 부하 (W, 충전기별 전력 × 유지 시간의 합 / 창 길이)
+ * @param energyWh 그룹 전체 사용량 (Wh, 전력 × 유지 시간의 합)
+ * @param samples 전력 샘플 수
+ * @param sessionPower 트랜잭션 중 샘플의 전력 분포 (W, 조회 시점 사본)
+ */
+public record WindowStats(String group, long startMillis, long endMillis, double averagePowerW, double energyWh,
+                          long samples, QuantileSketch sessionPower) {
+
+    /**
+     * 세션 전력 분위수 (W, 샘플이 없으면 NaN)
+     */
+    public double quantile(double q) {
+        return sessionPower.quantile(q);
+    }
+
+    /**
+     * 세션 전력 최댓값 (W, 샘플이 없으면 NaN)
+     */
+    public double maxSessionPowerW() {
+        return sessionPower.max();
+    }
+}
@@ -0,0 +1,34 @@
+package com.clnewze.lab.www.auth;
+
+/**
+ * OCPP 1.6 AuthorizationStatus
+ */
+public enum AuthorizationStatus {
+    ACCEPTED("Accepted"),
+    BLOCKED("Blocked"),
+    EXPIRED("Expired"),
+    INVALID("Invalid"),
+    CONCURRENT_TX("ConcurrentTx");
+
+    private final String value;
+
+    AuthorizationStatus(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 문자열 → AuthorizationStatus (모르는 값이면 null)
+     */
+    public static AuthorizationStatus fromValue(String value) {
+        for (AuthorizationStatus status : values()) {
+            if (status.value.equals(value)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.clnewze.lab.www.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 로컬 파일 저장소
+ *
+ * 한 줄에 태그 하나: idTag,status[,expiryDate[,parentIdTag]]
+ * - status는 OCPP 값 (Accepted, Blocked, Expired, Invalid)
+ * - expiryDate는 ISO-8601 (비워 두면 없음)
+ * - 빈 줄과 #으로 시작하는 줄은 무시, 형식이 틀린 줄은 경고 후 건너뜀
+ *
+ * 조회할 때 파일 수정 시각이 바뀌었으면 다시 읽는다. (맵 전체를 새로 만들어 교체)
+ */
+public class FileIdTagBackend implements IdTagBackend {
+
+    private static final Logger log = LoggerFactory.getLogger(FileIdTagBackend.class);
+
+    private final Path path;
+    private volatile Map<String, IdTagInfo> tags = Map.of();
+    private volatile FileTime loadedModified;
+
+    public FileIdTagBackend(Path path) throws IOException {
+        this.path = path;
+        reload();
+    }
+
+    @Override
+    public IdTagInfo lookup(String idTag) throws IOException {
+        reloadIfModified();
+        return tags.get(idTag);
+    }
+
+    /**
+     * 파일 수정 시각이 바뀌었으면 다시 읽기
+     * @return 다시 읽었으면 true
+     */
+    public boolean reloadIfModified() throws IOException {
+        if (Files.getLastModifiedTime(path).equals(loadedModified)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * 파일 다시 읽기
+     */
+    public synchronized void reload() throws IOException {
+        FileTime modified = Files.getLastModifiedTime(path);
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        Map<String, IdTagInfo> loaded = new HashMap<>(lines.size() * 2);
+        for (int i = 0; i < lines.size(); i++) {
+            String line = lines.get(i).trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] fields = line.split(",", -1);
+            IdTagInfo info = fields.length >= 2 && fields.length <= 4 ? parse(fields) : null;
+            if (info == null || fields[0].isBlank()) {
+                log.warn("Skipping malformed idTag line {}:{}", path, i + 1);
+                continue;
+            }
+            loaded.put(fields[0].trim(), info);
+        }
+        tags = Collections.unmodifiableMap(loaded);
+        loadedModified = modified;
+        log.info("Loaded {} idTags from {}", loaded.size(), path);
+    }
+
+    public int size() {
+        return tags.size();
+    }
+
+    /**
+     * 마지막으로 읽은 전체 태그 (읽기 전용, 로컬 목록 동기화용, 다시 읽기 전까지 같은 인스턴스)
+     */
+    public Map<String, IdTagInfo> snapshot() {
+        return tags;
+    }
+
+    private static IdTagInfo parse(String[] fields) {
+        AuthorizationStatus status = AuthorizationStatus.fromValue(fields[1].trim());
+        if (status == null) {
+            return null;
+        }
+        long expiryDate = 0;
+        if (fields.length >= 3 && !fields[2].isBlank()) {
+            try {
+                expiryDate = OffsetDateTime.parse(fields[2].trim()).toInstant().toEpochMilli();
+            } catch (DateTimeParseException e) {
+                return null;
+            }
+        }
+        String parentIdTag = fields.length == 4 && !fields[3].isBlank() ? fields[3].trim() : null;
+        return new IdTagInfo(status, expiryDate, parentIdTag);
+    }
+}
@@ -0,0 +1,333 @@
+package com.clnewze.lab.www.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * idTag 인증 (캐시 + 저장소)
+ *
+ * Authorize, StartTransaction, StopTransaction이 같은 태그를 연달아 조회하므로 결과를 메모리에 캐시한다.
+ * - 크기 제한: idTag 해시로 나눈 세그먼트마다 LRU (세그먼트 락)
+ * - 만료: Accepted는 ttl, Invalid/Blocked/Expired는 negativeTtl (부정 캐시)
+ *   expiryDate가 더 빠르면 그 시각에 만료, ConcurrentTx는 캐시하지 않음
+ * - expiryDate가 지난 Accepted는 캐시/반환 전에 Expired로 바꿈
+ * - 요청 합치기: 같은 태그를 동시에 조회하면 저장소 호출은 1번, 나머지는 그 결과를 기다림
+ * - 무효화: 진행 중인 조회는 결과를 캐시하지 않고, 이후 요청은 저장소를 새로 조회 (세그먼트 세대 번호)
+ * - 저장소 장애(IOException)는 캐시하지 않고 UncheckedIOException으로 전달
+ * - 차단 목록이 있으면 캐시보다 먼저 확인 → 목록에 있으면 저장소 조회 없이 Blocked
+ */
+public class IdTagAuthorizationService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdTagAuthorizationService.class);
+
+    public static final int DEFAULT_MAX_ENTRIES = 10_000;
+    public static final long DEFAULT_TTL_MILLIS = 5 * 60 * 1000L;
+    public static final long DEFAULT_NEGATIVE_TTL_MILLIS = 60 * 1000L;
+
+    private static final int SEGMENTS = 16;
+
+    private final IdTagBackend backend;
+    private final long ttlMillis;
+    private final long negativeTtlMillis;
+    private final LongSupplier clock;
+    private final ReloadableIdTagBlacklist blacklist;
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final Map<String, CompletableFuture<IdTagInfo>> inflight = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder backendCalls = new LongAdder();
+    private final LongAdder backendFailures = new LongAdder();
+    private final LongAdder blacklisted = new LongAdder();
+
+    public IdTagAuthorizationService(IdTagBackend backend) {
+        this(backend, DEFAULT_MAX_ENTRIES, DEFAULT_TTL_MILLIS, DEFAULT_NEGATIVE_TTL_MILLIS,
+                System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxEntries 캐시 최대 항목 수 (세그먼트에 나눠 적용)
+     * @param ttlMillis Accepted 보관 시간 (0 이하면 캐시 안 함)
+     * @param negativeTtlMillis Invalid/Blocked/Expired 보관 시간 (0 이하면 캐시 안 함)
+     * @param clock 현재 시각 (epoch millis)
+     */
+    public IdTagAuthorizationService(IdTagBackend backend, int maxEntries, long ttlMillis, long negativeTtlMillis,
+                                     LongSupplier clock) {
+        this(backend, maxEntries, ttlMillis, negativeTtlMillis, clock, null);
+    }
+
+    /**
+     * @param blacklist 차단 목록 (null이면 확인 안 함)
+     */
+    public IdTagAuthorizationService(IdTagBackend backend, int maxEntries, long ttlMillis, long negativeTtlMillis,
+                                     LongSupplier clock, ReloadableIdTagBlacklist blacklist) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        this.backend = backend;
+        this.ttlMillis = ttlMillis;
+        this.negativeTtlMillis = negativeTtlMillis;
+        this.clock = clock;
+        this.blacklist = blacklist;
+        int perSegment = (maxEntries + SEGMENTS - 1) / SEGMENTS;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(perSegment);
+        }
+    }
+
+    /**
+     * 태그 인증 (캐시에 없으면 저장소 조회, 모르는 태그는 Invalid)
+     * @throws UncheckedIOException 저장소 장애
+     */
+    public IdTagInfo authorize(String idTag) {
+        if (blacklist != null && blacklist.contains(idTag)) {
+            blacklisted.increment();
+            return IdTagInfo.BLOCKED;
+        }
+        Segment segment = segmentFor(idTag);
+        IdTagInfo cached = segment.get(idTag, clock.getAsLong());
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+
+        CompletableFuture<IdTagInfo> mine = new CompletableFuture<>();
+        CompletableFuture<IdTagInfo> running = inflight.putIfAbsent(idTag, mine);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        try {
+            // 조회 중에 무효화되면 세대가 바뀌어 결과를 캐시하지 않음
+            long generation = segment.generation();
+            // 앞선 조회가 방금 끝났으면 캐시에 있음
+            IdTagInfo info = segment.get(idTag, clock.getAsLong());
+            if (info == null) {
+                info = load(idTag);
+                cache(segment, idTag, info, generation);
+            }
+            mine.complete(info);
+            return info;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(idTag, mine);
+        }
+    }
+
+    /**
+     * 태그 인증 (저장소 장애면 fallback)
+     * 이미 일어난 충전 시작/종료처럼 거절할 수 없는 요청에 사용
+     */
+    public IdTagInfo authorizeOrDefault(String idTag, IdTagInfo fallback) {
+        try {
+            return authorize(idTag);
+        } catch (UncheckedIOException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * 캐시에서 제거 (태그 정보가 바뀌었을 때)
+     * 진행 중인 조회 결과도 캐시되지 않고, 이후 요청은 그 조회에 합쳐지지 않음
+     */
+    public void invalidate(String idTag) {
+        segmentFor(idTag).remove(idTag);
+        inflight.remove(idTag);
+    }
+
+    public void invalidateAll() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+        inflight.clear();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * 크기 제한으로 밀려난 항목 수
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * 만료되어 제거된 항목 수
+     */
+    public long getExpirations() {
+        return expirations.sum();
+    }
+
+    /**
+     * 진행 중인 조회에 합쳐진 요청 수
+     */
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getBackendCalls() {
+        return backendCalls.sum();
+    }
+
+    public long getBackendFailures() {
+        return backendFailures.sum();
+    }
+
+    /**
+     * 차단 목록에서 바로 거절한 요청 수
+     */
+    public long getBlacklisted() {
+        return blacklisted.sum();
+    }
+
+    public long getSize() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count();
+        }
+        return size;
+    }
+
+    private IdTagInfo load(String idTag) {
+        backendCalls.increment();
+        try {
+            IdTagInfo info = backend.lookup(idTag);
+            if (info == null) {
+                return IdTagInfo.INVALID;
+            }
+            if (info.isAccepted() && info.expiryDate() > 0 && info.expiryDate() <= clock.getAsLong()) {
+                return new IdTagInfo(AuthorizationStatus.EXPIRED, info.expiryDate(), info.parentIdTag());
+            }
+            return info;
+        } catch (IOException e) {
+            backendFailures.increment();
+            log.warn("IdTag lookup failed for {}: {}", idTag, e.getMessage());
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            backendFailures.increment();
+            throw e;
+        }
+    }
+
+    private void cache(Segment segment, String idTag, IdTagInfo info, long generation) {
+        if (info.status() == AuthorizationStatus.CONCURRENT_TX) {
+            return;
+        }
+        long ttl = info.isAccepted() ? ttlMillis : negativeTtlMillis;
+        if (ttl <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        long expiresAt = now + ttl;
+        if (info.isAccepted() && info.expiryDate() > 0) {
+            expiresAt = Math.min(expiresAt, info.expiryDate());
+        }
+        if (expiresAt > now) {
+            segment.put(idTag, info, expiresAt, generation);
+        }
+    }
+
+    private static IdTagInfo await(CompletableFuture<IdTagInfo> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private Segment segmentFor(String idTag) {
+        int h = idTag.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(IdTagInfo info, long expiresAt) {
+    }
+
+    /**
+     * 세그먼트: 접근 순서 LinkedHashMap (this 락)
+     * generation은 무효화마다 증가 (태그별로 두지 않고 세그먼트 단위 → 다른 태그 무효화와 겹친 조회도 캐시를 건너뜀)
+     */
+    private final class Segment {
+
+        private final Map<String, Entry> entries;
+        private long generation;
+
+        Segment(int maxEntries) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > maxEntries) {
+                        evictions.increment();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized IdTagInfo get(String idTag, long now) {
+            Entry entry = entries.get(idTag);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.expiresAt() <= now) {
+                entries.remove(idTag);
+                expirations.increment();
+                return null;
+            }
+            return entry.info();
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        /**
+         * generation 이후 무효화가 없었을 때만 저장
+         */
+        synchronized void put(String idTag, IdTagInfo info, long expiresAt, long generation) {
+            if (generation == this.generation) {
+                entries.put(idTag, new Entry(info, expiresAt));
+            }
+        }
+
+        synchronized void remove(String idTag) {
+            entries.remove(idTag);
+            generation++;
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            generation++;
+        }
+
+        synchronized int count() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.clnewze.lab.www.auth;
+
+import java.io.IOException;
+
+/**
+ * idTag 원본 저장소 (DB, 파일, 외부 인증 서버 ...)
+ * IdTagAuthorizationService가 캐시에 없을 때만 호출한다.
+ */
+@FunctionalInterface
+public interface IdTagBackend {
+
+    /**
+     * @return 인증 정보 (모르는 태그면 null → Invalid)
+     * @throws IOException 저장소 장애 (결과를 캐시하지 않음)
+     */
+    IdTagInfo lookup(String idTag) throws IOException;
+}
@@ -0,0 +1,249 @@
+package com.clnewze.lab.www.auth;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 차단 idTag 목록 (변경 불가 스냅샷, 힙 밖 메모리)
+ *
+ * - Bloom 필터: 대부분의 태그(차단 아님)는 비트 몇 개만 보고 바로 false, 할당 없음
+ *   비트 k개를 64바이트 블록 하나에 모아서 조회당 캐시 라인 1개만 읽는다. (blocked Bloom filter)
+ * - 정확한 확인: 필터를 통과한 태그만 키 블록에서 확인 (오탐 제거)
+ *   키는 64비트 해시 순으로 정렬, 항목 = [해시 8][data 위치 4][길이 4] + UTF-8 바이트(data)
+ *   해시 상위 비트 버킷(평균 8개)의 시작 위치로 범위를 바로 찾고, 해시가 같을 때만 바이트 비교
+ *   (이진 탐색처럼 단계마다 캐시 미스가 나지 않음)
+ * 태그 100만 개(16바이트, 10비트/태그) ≈ 34MB, 힙 사용 없음 (IdTagBlacklistBenchmark)
+ *
+ * 모든 필드가 생성 후 바뀌지 않으므로 락 없이 여러 스레드에서 조회한다.
+ * 목록 교체는 ReloadableIdTagBlacklist가 새 스냅샷을 만들어 참조만 바꾼다.
+ */
+public final class IdTagBlacklist {
+
+    public static final int DEFAULT_BITS_PER_ENTRY = 10;
+
+    private static final int ENTRIES_PER_BUCKET = 8;
+    private static final int ENTRY_BYTES = 16;
+    private static final int BLOCK_BYTES = 64;
+
+    private static final IdTagBlacklist EMPTY = of(List.of(), DEFAULT_BITS_PER_ENTRY);
+
+    private final ByteBuffer bits;
+    private final long blockCount;
+    private final int hashes;
+    private final ByteBuffer entries;
+    private final ByteBuffer data;
+    private final ByteBuffer buckets;
+    private final int bucketShift;
+    private final int size;
+
+    private IdTagBlacklist(ByteBuffer bits, long blockCount, int hashes, ByteBuffer entries, ByteBuffer data,
+                           ByteBuffer buckets, int bucketShift, int size) {
+        this.bits = bits;
+        this.blockCount = blockCount;
+        this.hashes = hashes;
+        this.entries = entries;
+        this.data = data;
+        this.buckets = buckets;
+        this.bucketShift = bucketShift;
+        this.size = size;
+    }
+
+    public static IdTagBlacklist empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @param idTags 차단 태그 (중복 허용)
+     * @param bitsPerEntry 태그당 필터 비트 수 (10이면 오탐 약 1%)
+     */
+    public static IdTagBlacklist of(Collection<String> idTags, int bitsPerEntry) {
+        if (bitsPerEntry <= 0) {
+            throw new IllegalArgumentException("bitsPerEntry must be positive");
+        }
+        Key[] keys = new Key[idTags.size()];
+        int n = 0;
+        for (String idTag : idTags) {
+            keys[n++] = new Key(hash(idTag), idTag.getBytes(StandardCharsets.UTF_8));
+        }
+        Arrays.sort(keys);
+
+        // 중복 제거하면서 키 블록 크기 계산
+        int unique = 0;
+        long dataBytes = 0;
+        for (int i = 0; i < n; i++) {
+            if (unique == 0 || keys[unique - 1].compareTo(keys[i]) != 0) {
+                keys[unique++] = keys[i];
+                dataBytes += keys[i].bytes.length;
+            }
+        }
+        if (dataBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Blacklist too large: " + dataBytes + " bytes");
+        }
+
+        // 버킷 수 = 2의 거듭제곱 (해시 상위 bucketBits 비트)
+        int bucketBits = 0;
+        while (bucketBits < 30 && (1 << bucketBits) * ENTRIES_PER_BUCKET < unique) {
+            bucketBits++;
+        }
+        int bucketShift = 64 - bucketBits;
+        ByteBuffer buckets = ByteBuffer.allocateDirect(((1 << bucketBits) + 1) * Integer.BYTES)
+                .order(ByteOrder.nativeOrder());
+        ByteBuffer entries = ByteBuffer.allocateDirect(unique * ENTRY_BYTES).order(ByteOrder.nativeOrder());
+        ByteBuffer data = ByteBuffer.allocateDirect((int) dataBytes);
+        int bucket = 0;
+        for (int i = 0; i < unique; i++) {
+            int keyBucket = bucketOf(keys[i].hash, bucketShift);
+            while (bucket <= keyBucket) {
+                buckets.putInt(bucket++ * Integer.BYTES, i);
+            }
+            int entry = i * ENTRY_BYTES;
+            entries.putLong(entry, keys[i].hash);
+            entries.putInt(entry + 8, data.position());
+            entries.putInt(entry + 12, keys[i].bytes.length);
+            data.put(keys[i].bytes);
+        }
+        while (bucket <= 1 << bucketBits) {
+            buckets.putInt(bucket++ * Integer.BYTES, unique);
+        }
+
+        long blockCount = Math.max(1, ((long) unique * bitsPerEntry + BLOCK_BYTES * 8 - 1) / (BLOCK_BYTES * 8));
+        if (blockCount * BLOCK_BYTES > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Blacklist too large: " + unique + " entries");
+        }
+        ByteBuffer bits = ByteBuffer.allocateDirect((int) (blockCount * BLOCK_BYTES)).order(ByteOrder.nativeOrder());
+        int hashes = Math.max(1, (int) Math.round(bitsPerEntry * Math.log(2)));
+        IdTagBlacklist blacklist = new IdTagBlacklist(bits, blockCount, hashes, entries, data, buckets,
+                bucketShift, unique);
+        for (int i = 0; i < unique; i++) {
+            blacklist.add(keys[i].hash);
+        }
+        return blacklist;
+    }
+
+    /**
+     * 차단 여부 (오탐 없음)
+     */
+    public boolean contains(String idTag) {
+        long hash = hash(idTag);
+        return mightContain(hash) && indexOf(hash, idTag) >= 0;
+    }
+
+    /**
+     * Bloom 필터만 확인 (false면 확실히 없음, true면 오탐 가능)
+     */
+    public boolean mightContain(String idTag) {
+        return mightContain(hash(idTag));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 힙 밖 메모리 사용량 (필터 + 키 블록)
+     */
+    public long offHeapBytes() {
+        return (long) bits.capacity() + entries.capacity() + data.capacity() + buckets.capacity();
+    }
+
+    /**
+     * 블록 = 해시 하위 32비트로 선택, 블록 안 비트 위치(9비트씩) = 상위 32비트에서 이중 해싱
+     */
+    private boolean mightContain(long hash) {
+        int block = (int) ((hash & 0xFFFFFFFFL) * blockCount >>> 32) * BLOCK_BYTES;
+        int h1 = (int) (hash >>> 32);
+        int h2 = (h1 >>> 16) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BYTES * 8 - 1);
+            if ((bits.getLong(block + (bit >>> 6 << 3)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(long hash) {
+        int block = (int) ((hash & 0xFFFFFFFFL) * blockCount >>> 32) * BLOCK_BYTES;
+        int h1 = (int) (hash >>> 32);
+        int h2 = (h1 >>> 16) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & (BLOCK_BYTES * 8 - 1);
+            int index = block + (bit >>> 6 << 3);
+            bits.putLong(index, bits.getLong(index) | (1L << bit));
+        }
+    }
+
+    /**
+     * 버킷 범위에서 해시가 같은 키를 찾고 바이트 비교 (해시 충돌이 없으면 할당도 1번)
+     */
+    private int indexOf(long hash, String idTag) {
+        int bucket = bucketOf(hash, bucketShift);
+        int end = buckets.getInt((bucket + 1) * Integer.BYTES);
+        byte[] key = null;
+        for (int i = buckets.getInt(bucket * Integer.BYTES); i < end; i++) {
+            long keyHash = entries.getLong(i * ENTRY_BYTES);
+            if (keyHash == hash) {
+                if (key == null) {
+                    key = idTag.getBytes(StandardCharsets.UTF_8);
+                }
+                if (equalsAt(i, key)) {
+                    return i;
+                }
+            } else if (Long.compareUnsigned(keyHash, hash) > 0) {
+                break;
+            }
+        }
+        return -1;
+    }
+
+    private boolean equalsAt(int index, byte[] key) {
+        int entry = index * ENTRY_BYTES;
+        if (entries.getInt(entry + 12) != key.length) {
+            return false;
+        }
+        int start = entries.getInt(entry + 8);
+        for (int i = 0; i < key.length; i++) {
+            if (data.get(start + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int bucketOf(long hash, int bucketShift) {
+        return bucketShift == 64 ? 0 : (int) (hash >>> bucketShift);
+    }
+
+    /**
+     * 문자 단위 64비트 해시 (FNV-1a + 최종 섞기), 조회 시 할당 없음
+     */
+    private static long hash(String idTag) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < idTag.length(); i++) {
+            h ^= idTag.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    /**
+     * 빌드용 키 (해시 → 바이트 순)
+     */
+    private record Key(long hash, byte[] bytes) implements Comparable<Key> {
+
+        @Override
+        public int compareTo(Key other) {
+            int cmp = Long.compareUnsigned(hash, other.hash);
+            return cmp != 0 ? cmp : Arrays.compareUnsigned(bytes, other.bytes);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.clnewze.lab.www.auth;
+
+import com.google.gson.JsonObject;
+
+import java.time.Instant;
+
+/**
+ * OCPP 1.6 IdTagInfo
+ *
+ * @param status 인증 결과
+ * @param expiryDate 충전기 캐시에서 지워야 하는 시각 (epoch millis, 0이면 없음)
+ * @param parentIdTag 그룹 태그 (없으면 null)
+ */
+public record IdTagInfo(AuthorizationStatus status, long expiryDate, String parentIdTag) {
+
+    public static final IdTagInfo ACCEPTED = new IdTagInfo(AuthorizationStatus.ACCEPTED, 0, null);
+    public static final IdTagInfo INVALID = new IdTagInfo(AuthorizationStatus.INVALID, 0, null);
+    public static final IdTagInfo BLOCKED = new IdTagInfo(AuthorizationStatus.BLOCKED, 0, null);
+
+    public static IdTagInfo of(AuthorizationStatus status) {
+        return new IdTagInfo(status, 0, null);
+    }
+
+    public boolean isAccepted() {
+        return status == AuthorizationStatus.ACCEPTED;
+    }
+
+    /**
+     * 응답용 idTagInfo 객체
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("status", status.getValue());
+        if (expiryDate > 0) {
+            json.addProperty("expiryDate", Instant.ofEpochMilli(expiryDate).toString());
+        }
+        if (parentIdTag != null) {
+            json.addProperty("parentIdTag", parentIdTag);
+        }
+        return json;
+    }
+}
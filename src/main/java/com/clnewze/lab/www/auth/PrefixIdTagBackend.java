@@ -0,0 +1,27 @@
+package com.clnewze.lab.www.auth;
+
+/**
+ * 연습용 기본 저장소: 접두사로 결과 결정
+ * - BLOCKED... → Blocked
+ * - EXPIRED... → Expired
+ * - INVALID... → Invalid
+ * - 그 외 → Accepted
+ */
+public class PrefixIdTagBackend implements IdTagBackend {
+
+    private static final IdTagInfo EXPIRED = IdTagInfo.of(AuthorizationStatus.EXPIRED);
+
+    @Override
+    public IdTagInfo lookup(String idTag) {
+        if (idTag.startsWith("BLOCKED")) {
+            return IdTagInfo.BLOCKED;
+        }
+        if (idTag.startsWith("EXPIRED")) {
+            return EXPIRED;
+        }
+        if (idTag.startsWith("INVALID")) {
+            return IdTagInfo.INVALID;
+        }
+        return IdTagInfo.ACCEPTED;
+    }
+}
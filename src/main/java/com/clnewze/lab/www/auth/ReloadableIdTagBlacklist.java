@@ -0,0 +1,119 @@
+package com.clnewze.lab.www.auth;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 파일에서 읽는 차단 목록 (한 줄에 idTag 하나, 빈 줄과 #으로 시작하는 줄은 무시)
+ *
+ * 다시 읽을 때는 새 IdTagBlacklist를 다 만든 뒤 volatile 참조만 바꾼다.
+ * → 조회(contains)는 락도 대기도 없고, 교체 중에는 이전 목록으로 답한다.
+ * watch()를 호출하면 별도 스레드가 수정 시각을 주기적으로 확인해서 다시 읽는다.
+ */
+public class ReloadableIdTagBlacklist implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReloadableIdTagBlacklist.class);
+
+    private final Path path;
+    private final int bitsPerEntry;
+    private volatile IdTagBlacklist current = IdTagBlacklist.empty();
+    private FileTime loadedModified;
+    private ScheduledExecutorService watcher;
+
+    public ReloadableIdTagBlacklist(Path path) throws IOException {
+        this(path, IdTagBlacklist.DEFAULT_BITS_PER_ENTRY);
+    }
+
+    public ReloadableIdTagBlacklist(Path path, int bitsPerEntry) throws IOException {
+        this.path = path;
+        this.bitsPerEntry = bitsPerEntry;
+        reload();
+    }
+
+    public boolean contains(String idTag) {
+        return current.contains(idTag);
+    }
+
+    /**
+     * 현재 스냅샷
+     */
+    public IdTagBlacklist current() {
+        return current;
+    }
+
+    /**
+     * 파일 다시 읽기 (읽는 동안 조회는 이전 목록 사용)
+     */
+    public synchronized void reload() throws IOException {
+        long started = System.nanoTime();
+        FileTime modified = Files.getLastModifiedTime(path);
+        List<String> idTags = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (!line.isEmpty() && !line.startsWith("#")) {
+                    idTags.add(line);
+                }
+            }
+        }
+        IdTagBlacklist loaded = IdTagBlacklist.of(idTags, bitsPerEntry);
+        current = loaded;
+        loadedModified = modified;
+        log.info("Loaded {} blocked idTags from {} ({} KB off-heap, {} ms)", loaded.size(), path,
+                loaded.offHeapBytes() / 1024, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * 수정 시각이 바뀌었으면 다시 읽기
+     * @return 다시 읽었으면 true
+     */
+    public synchronized boolean reloadIfModified() throws IOException {
+        if (Files.getLastModifiedTime(path).equals(loadedModified)) {
+            return false;
+        }
+        reload();
+        return true;
+    }
+
+    /**
+     * 주기적으로 파일 변경 확인 (데몬 스레드)
+     */
+    public synchronized void watch(long intervalMillis) {
+        if (watcher != null) {
+            return;
+        }
+        watcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ocpp-blacklist-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watcher.scheduleWithFixedDelay(() -> {
+            try {
+                reloadIfModified();
+            } catch (IOException | RuntimeException e) {
+                log.warn("Failed to reload blacklist {}: {}", path, e.getMessage());
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watcher != null) {
+            watcher.shutdownNow();
+            watcher = null;
+        }
+    }
+}
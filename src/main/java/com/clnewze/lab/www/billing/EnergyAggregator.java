@@ -0,0 +1,405 @@
+package com.clnewze.lab.www.billing;
+
+import com.clnewze.lab.www.action.MeterSampleListener;
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.transaction.Transaction;
+import com.clnewze.lab.www.transaction.TransactionStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 트랜잭션별 사용량/비용 실시간 집계 (MeterValues → StopTransaction)
+ *
+ * 원시 샘플은 보관하지 않고 트랜잭션마다 누적값 몇 개만 갱신한다. (샘플당 O(1))
+ * - Energy.Active.Import.Register: 직전 적산값과의 차이를 사용량에 더하고 요금제로 비용 누적
+ * - Power.Active.Import: 최대 전력 (상별 값은 같은 시각끼리 합산)
+ * - Location이 Outlet인 샘플만 사용 (Inlet/EV 측 계량은 제외)
+ *
+ * 이상 감지 (트랜잭션별 + 전체 카운터)
+ * - 역행: 적산값이 줄어듦 → 사용량에 넣지 않고 새 값을 기준으로 다시 시작 (계량기 교체/리셋)
+ * - 공백: 적산값 간격이 gapMillis보다 김 (사용량은 그대로 반영)
+ * - 지연: 직전 적산값보다 시각이 앞선 샘플, 종료된 트랜잭션의 샘플 → 무시
+ * - 미래: 서버 시각 + maxSkewMillis보다 늦은 샘플 → 무시 (충전기 시계 오류가 이후 샘플을 모두 지연으로 만들지 않게)
+ *
+ * 집계 상태는 첫 샘플이 올 때 TransactionStore의 시작 기록(meterStart)으로 만들고,
+ * StopTransaction의 meterStop을 시각과 상관없이 마지막 적산값으로 반영해 확정한다.
+ * 같은 커넥터에 새 트랜잭션이 오면 이전 집계는 meterStop 없이 확정한다. (진행 중 상태는 커넥터당 1건)
+ */
+public class EnergyAggregator implements MeterSampleListener {
+
+    private static final Logger log = LoggerFactory.getLogger(EnergyAggregator.class);
+
+    /** 적산값 공백 기본 기준 (15분) */
+    public static final long DEFAULT_GAP_MILLIS = 15 * 60 * 1000L;
+
+    /** 확정된 사용량 기본 보관 수 */
+    public static final int DEFAULT_MAX_FINISHED = 10_000;
+
+    /** 서버 시각보다 앞서도 받아들이는 기본 시계 오차 (1분) */
+    public static final long DEFAULT_MAX_SKEW_MILLIS = 60_000L;
+
+    /** 역행으로 보지 않는 감소폭 (Wh, kWh 소수점 반올림 대비) */
+    private static final double REGRESSION_TOLERANCE_WH = 1.0;
+
+    private static final int REGRESSION = 1;
+    private static final int GAP = 2;
+    private static final int LATE = 4;
+
+    private final TransactionStore transactions;
+    private final Tariff tariff;
+    private final long gapMillis;
+    private final long maxSkewMillis;
+    private final LongSupplier clock;
+
+    private final Map<Integer, Meter> open = new ConcurrentHashMap<>();
+    private final Map<String, Meter> openByConnector = new ConcurrentHashMap<>();
+    private final Map<Integer, TransactionUsage> finished;
+
+    private final LongAdder regressions = new LongAdder();
+    private final LongAdder gaps = new LongAdder();
+    private final LongAdder lateSamples = new LongAdder();
+    private final LongAdder orphanSamples = new LongAdder();
+    private final LongAdder futureSamples = new LongAdder();
+
+    public EnergyAggregator(TransactionStore transactions) {
+        this(transactions, Tariff.FREE, DEFAULT_GAP_MILLIS, DEFAULT_MAX_FINISHED);
+    }
+
+    /**
+     * @param transactions 트랜잭션 시작 기록 조회 (meterStart, 시작 시각)
+     * @param tariff 비용 계산
+     * @param gapMillis 적산값 간격이 이보다 길면 공백으로 기록
+     * @param maxFinished 메모리에 보관할 확정 사용량 수 (오래된 것부터 버림)
+     */
+    public EnergyAggregator(TransactionStore transactions, Tariff tariff, long gapMillis, int maxFinished) {
+        this(transactions, tariff, gapMillis, maxFinished, DEFAULT_MAX_SKEW_MILLIS, System::currentTimeMillis);
+    }
+
+    /**
+     * @param maxSkewMillis 샘플 시각이 서버 시각보다 이만큼까지 앞서도 받아들임
+     * @param clock 서버 시각 (epoch ms)
+     */
+    public EnergyAggregator(TransactionStore transactions, Tariff tariff, long gapMillis, int maxFinished,
+                            long maxSkewMillis, LongSupplier clock) {
+        if (maxSkewMillis < 0) {
+            throw new IllegalArgumentException("maxSkewMillis must not be negative");
+        }
+        this.transactions = transactions;
+        this.tariff = tariff;
+        this.gapMillis = gapMillis;
+        this.maxSkewMillis = maxSkewMillis;
+        this.clock = clock;
+        this.finished = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, TransactionUsage> eldest) {
+                return size() > maxFinished;
+            }
+        };
+    }
+
+    @Override
+    public void onSample(String chargePointId, int connectorId, int transactionId, long timestamp,
+                         SampledValue sample) {
+        Measurand measurand = sample.measurand();
+        if (transactionId <= 0
+                || measurand != Measurand.ENERGY_ACTIVE_IMPORT_REGISTER && measurand != Measurand.POWER_ACTIVE_IMPORT
+                || sample.location() != Location.OUTLET) {
+            return;
+        }
+        if (timestamp > clock.getAsLong() + maxSkewMillis) {
+            futureSamples.increment();
+            return;
+        }
+        Meter meter = meterFor(chargePointId, transactionId);
+        if (meter == null) {
+            return;
+        }
+        int events;
+        synchronized (meter) {
+            if (meter.closed) {
+                events = LATE;
+            } else if (measurand == Measurand.ENERGY_ACTIVE_IMPORT_REGISTER) {
+                events = meter.register(timestamp, sample.baseValue());
+            } else {
+                meter.power(timestamp, sample.baseValue(), sample.phase());
+                events = 0;
+            }
+        }
+        count(meter, events);
+    }
+
+    /**
+     * StopTransaction 확정 (meterStop을 마지막 적산값으로 반영, 종료 시각은 서버 시각 + maxSkewMillis까지만 인정)
+     * 이미 확정된 트랜잭션이면 기존 결과를 그대로 반환
+     */
+    public TransactionUsage finish(Transaction stopped) {
+        int transactionId = stopped.transactionId();
+        Meter meter = open.remove(transactionId);
+        if (meter == null) {
+            TransactionUsage done = getFinished(transactionId);
+            if (done != null) {
+                return done;
+            }
+            // MeterValues 없이 끝난 트랜잭션
+            meter = new Meter(stopped, tariff, gapMillis);
+        } else {
+            openByConnector.remove(connectorKey(stopped.chargePointId(), stopped.connectorId()), meter);
+        }
+        long stopTimestamp = Math.min(stopped.stopTimestamp(), clock.getAsLong() + maxSkewMillis);
+        return close(meter, stopTimestamp, stopped.meterStop());
+    }
+
+    /**
+     * 진행 중이거나 보관 중인 트랜잭션의 사용량 (없으면 null)
+     */
+    public TransactionUsage getUsage(int transactionId) {
+        Meter meter = open.get(transactionId);
+        if (meter != null) {
+            synchronized (meter) {
+                return meter.usage();
+            }
+        }
+        return getFinished(transactionId);
+    }
+
+    /**
+     * 진행 중 트랜잭션 사용량 목록 (스냅샷)
+     */
+    public Collection<TransactionUsage> getOpenUsages() {
+        List<TransactionUsage> usages = new ArrayList<>(open.size());
+        for (Meter meter : open.values()) {
+            synchronized (meter) {
+                usages.add(meter.usage());
+            }
+        }
+        return usages;
+    }
+
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    public long getRegressions() {
+        return regressions.sum();
+    }
+
+    public long getGaps() {
+        return gaps.sum();
+    }
+
+    public long getLateSamples() {
+        return lateSamples.sum();
+    }
+
+    /**
+     * 서버 시각보다 maxSkewMillis 넘게 앞서 버린 샘플 수
+     */
+    public long getFutureSamples() {
+        return futureSamples.sum();
+    }
+
+    /**
+     * 모르는 트랜잭션 (다른 충전기의 ID 포함) 샘플 수
+     */
+    public long getOrphanSamples() {
+        return orphanSamples.sum();
+    }
+
+    private Meter meterFor(String chargePointId, int transactionId) {
+        Meter meter = open.get(transactionId);
+        if (meter != null) {
+            return meter.chargePointId.equals(chargePointId) ? meter : orphan();
+        }
+        Transaction transaction = transactions.get(transactionId);
+        if (transaction == null || !transaction.chargePointId().equals(chargePointId)) {
+            return orphan();
+        }
+        if (!transaction.isOpen()) {
+            lateSamples.increment();
+            return null;
+        }
+        Meter created = new Meter(transaction, tariff, gapMillis);
+        Meter existing = open.putIfAbsent(transactionId, created);
+        if (existing != null) {
+            return existing;
+        }
+        Meter previous = openByConnector.put(connectorKey(chargePointId, transaction.connectorId()), created);
+        if (previous != null && open.remove(previous.transactionId, previous)) {
+            // StopTransaction을 못 받은 이전 트랜잭션
+            close(previous, previous.lastTimestamp, Double.NaN);
+        }
+        return created;
+    }
+
+    private Meter orphan() {
+        orphanSamples.increment();
+        return null;
+    }
+
+    private TransactionUsage close(Meter meter, long stopTimestamp, double meterStop) {
+        TransactionUsage usage;
+        int events;
+        synchronized (meter) {
+            events = meter.close(stopTimestamp, meterStop);
+            usage = meter.usage();
+        }
+        count(meter, events);
+        synchronized (finished) {
+            finished.put(usage.transactionId(), usage);
+        }
+        if (log.isInfoEnabled()) {
+            log.info("Transaction {} usage: {} Wh, peak {} W, cost {}, samples {} (regressions {}, gaps {}, late {})",
+                    usage.transactionId(), Math.round(usage.energyWh()), Math.round(usage.peakPowerW()),
+                    String.format("%.2f", usage.cost()), usage.sampleCount(), usage.regressions(), usage.gaps(),
+                    usage.lateSamples());
+        }
+        return usage;
+    }
+
+    private TransactionUsage getFinished(int transactionId) {
+        synchronized (finished) {
+            return finished.get(transactionId);
+        }
+    }
+
+    private void count(Meter meter, int events) {
+        if (events == 0) {
+            return;
+        }
+        if ((events & REGRESSION) != 0) {
+            regressions.increment();
+            log.warn("Transaction {} meter register went backwards, rebased at {} Wh", meter.transactionId,
+                    meter.lastRegisterWh);
+        }
+        if ((events & GAP) != 0) {
+            gaps.increment();
+        }
+        if ((events & LATE) != 0) {
+            lateSamples.increment();
+        }
+    }
+
+    private static String connectorKey(String chargePointId, int connectorId) {
+        return chargePointId + '#' + connectorId;
+    }
+
+    /**
+     * 트랜잭션 1건의 누적 상태 (this 락)
+     */
+    private static final class Meter {
+
+        final int transactionId;
+        final String chargePointId;
+        final int connectorId;
+        final long startTimestamp;
+        final Tariff tariff;
+        final long gapMillis;
+
+        double lastRegisterWh;
+        long lastRegisterTimestamp;
+        long lastTimestamp;
+        double energyWh;
+        double energyCost;
+        double peakPowerW;
+        long phaseTimestamp = Long.MIN_VALUE;
+        double phaseSumW;
+        long sampleCount;
+        int regressions;
+        int gaps;
+        int lateSamples;
+        boolean closed;
+
+        Meter(Transaction transaction, Tariff tariff, long gapMillis) {
+            this.transactionId = transaction.transactionId();
+            this.chargePointId = transaction.chargePointId();
+            this.connectorId = transaction.connectorId();
+            this.startTimestamp = transaction.startTimestamp();
+            this.tariff = tariff;
+            this.gapMillis = gapMillis;
+            this.lastRegisterWh = transaction.meterStart();
+            this.lastRegisterTimestamp = startTimestamp;
+            this.lastTimestamp = startTimestamp;
+        }
+
+        /**
+         * @return 감지한 이상 (REGRESSION | GAP | LATE)
+         */
+        int register(long timestamp, double registerWh) {
+            if (timestamp < lastRegisterTimestamp) {
+                lateSamples++;
+                return LATE;
+            }
+            sampleCount++;
+            return apply(timestamp, registerWh);
+        }
+
+        /**
+         * 적산값 반영 (시각 검사 없음, timestamp는 lastRegisterTimestamp 이상)
+         */
+        private int apply(long timestamp, double registerWh) {
+            int events = 0;
+            if (timestamp - lastRegisterTimestamp > gapMillis) {
+                gaps++;
+                events |= GAP;
+            }
+            double delta = registerWh - lastRegisterWh;
+            if (delta < -REGRESSION_TOLERANCE_WH) {
+                regressions++;
+                events |= REGRESSION;
+                lastRegisterWh = registerWh;
+            } else if (delta > 0) {
+                energyWh += delta;
+                energyCost += tariff.energyCost(delta, lastRegisterTimestamp, timestamp);
+                lastRegisterWh = registerWh;
+            }
+            lastRegisterTimestamp = timestamp;
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            return events;
+        }
+
+        void power(long timestamp, double powerW, Phase phase) {
+            if (phase == Phase.NONE) {
+                peakPowerW = Math.max(peakPowerW, powerW);
+            } else if (phase != Phase.N) {
+                if (timestamp != phaseTimestamp) {
+                    phaseTimestamp = timestamp;
+                    phaseSumW = 0;
+                }
+                phaseSumW += powerW;
+                peakPowerW = Math.max(peakPowerW, phaseSumW);
+            }
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            sampleCount++;
+        }
+
+        /**
+         * @param meterStop 종료 적산값 (NaN이면 없음, 앞선 샘플보다 시각이 이르더라도 최종값으로 반영)
+         */
+        int close(long stopTimestamp, double meterStop) {
+            int events = Double.isNaN(meterStop) ? 0
+                    : apply(Math.max(stopTimestamp, lastRegisterTimestamp), meterStop);
+            lastTimestamp = Math.max(lastTimestamp, stopTimestamp);
+            closed = true;
+            return events;
+        }
+
+        TransactionUsage usage() {
+            double cost = energyCost + tariff.sessionCost(lastTimestamp - startTimestamp);
+            return new TransactionUsage(transactionId, chargePointId, connectorId, startTimestamp, lastTimestamp,
+                    energyWh, peakPowerW, lastRegisterWh, sampleCount, cost, regressions, gaps, lateSamples,
+                    closed);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.clnewze.lab.www.billing;
+
+/**
+ * 고정 단가 요금제
+ *
+ * @param pricePerKwh kWh당 요금
+ * @param sessionFee 세션당 기본요금
+ * @param pricePerHour 충전 시간 1시간당 요금 (점유 요금)
+ */
+public record FlatTariff(double pricePerKwh, double sessionFee, double pricePerHour) implements Tariff {
+
+    public static FlatTariff perKwh(double pricePerKwh) {
+        return new FlatTariff(pricePerKwh, 0, 0);
+    }
+
+    @Override
+    public double energyCost(double energyWh, long fromMillis, long toMillis) {
+        return energyWh / 1000.0 * pricePerKwh;
+    }
+
+    @Override
+    public double sessionCost(long durationMillis) {
+        return sessionFee + durationMillis / 3_600_000.0 * pricePerHour;
+    }
+}
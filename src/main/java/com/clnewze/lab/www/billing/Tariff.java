@@ -0,0 +1,28 @@
+package com.clnewze.lab.www.billing;
+
+/**
+ * 요금제
+ * EnergyAggregator가 계량값이 들어올 때마다 구간 사용량으로 호출하므로 O(1)이어야 한다.
+ * 금액 단위는 요금제가 정한다. (원, 센트 ...)
+ */
+public interface Tariff {
+
+    /** 무료 (비용 0) */
+    Tariff FREE = (energyWh, fromMillis, toMillis) -> 0;
+
+    /**
+     * 구간 사용량의 비용 (시간대별 요금이면 구간 시각으로 단가를 고른다)
+     * @param energyWh 구간 사용량 (Wh, 0 이상)
+     * @param fromMillis 구간 시작 (이전 계량 시각)
+     * @param toMillis 구간 끝 (이번 계량 시각)
+     */
+    double energyCost(double energyWh, long fromMillis, long toMillis);
+
+    /**
+     * 사용량과 무관한 세션 비용 (기본요금, 시간 요금)
+     * @param durationMillis 시작부터 마지막 계량(종료 후에는 종료)까지
+     */
+    default double sessionCost(long durationMillis) {
+        return 0;
+    }
+}
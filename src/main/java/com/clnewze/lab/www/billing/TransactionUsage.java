@@ -0,0 +1,22 @@
+package com.clnewze.lab.www.billing;
+
+/**
+ * 트랜잭션 1건의 사용량/비용 스냅샷
+ *
+ * @param startTimestamp 시작 시각 (epoch millis)
+ * @param lastTimestamp 마지막 계량 시각 (종료 후에는 종료 시각)
+ * @param energyWh 누적 사용량 (Wh, 역행 구간 제외)
+ * @param peakPowerW 최대 유효전력 (W, Power.Active.Import가 없으면 0)
+ * @param lastRegisterWh 마지막 적산값 (Wh)
+ * @param sampleCount 반영한 샘플 수
+ * @param cost 사용량 비용 + 세션 비용
+ * @param regressions 적산값이 줄어든 횟수 (계량기 교체/리셋)
+ * @param gaps 적산값 간격이 기준보다 길었던 횟수
+ * @param lateSamples 이전 적산값보다 늦게 도착한 (시각이 앞선) 샘플 수
+ * @param closed StopTransaction으로 확정되었는지
+ */
+public record TransactionUsage(int transactionId, String chargePointId, int connectorId, long startTimestamp,
+                               long lastTimestamp, double energyWh, double peakPowerW, double lastRegisterWh,
+                               long sampleCount, double cost, int regressions, int gaps, int lateSamples,
+                               boolean closed) {
+}
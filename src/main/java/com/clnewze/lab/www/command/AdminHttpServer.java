@@ -0,0 +1,59 @@
+package com.clnewze.lab.www.command;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 관리 API 전용 HTTP 엔드포인트 (JDK 내장 HttpServer, 스레드 1개)
+ * 메트릭 수집 포트와 분리해서, 메트릭을 외부에 열어도 명령 API는 열리지 않게 한다.
+ *
+ * 기본은 로컬(127.0.0.1)에만 바인딩: -Docpp.admin.port=9465, -Docpp.admin.host=127.0.0.1
+ */
+public class AdminHttpServer {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminHttpServer.class);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public AdminHttpServer(InetSocketAddress address) throws IOException {
+        this.server = HttpServer.create(address, 16);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ocpp-admin-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+    }
+
+    /**
+     * 경로 추가 (같은 스레드 1개에서 처리)
+     */
+    public void addHandler(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Admin endpoint: http://{}:{}", server.getAddress().getHostString(), getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * 실제 바인딩된 포트 (0으로 생성한 경우 확인용)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+}
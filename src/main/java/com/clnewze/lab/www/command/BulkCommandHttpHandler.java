@@ -0,0 +1,251 @@
+package com.clnewze.lab.www.command;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 일괄 명령 관리 API (AdminHttpServer에 /commands로 등록)
+ *
+ * 모든 요청에 Authorization: Bearer {token} 필요 (없거나 다르면 401)
+ * 브라우저에서 다른 사이트가 보내는 요청(CSRF)을 막기 위해
+ * Origin 헤더가 있는 요청은 403, POST의 Content-Type이 application/json이 아니면 415로 거절한다.
+ *
+ * - POST /commands/{Action}?chargePoints=CP1,CP2&maxConcurrency=200&rate=100
+ *   body: 요청 payload (JSON 객체, 비우면 {}), chargePoints를 생략하면 연결된 충전기 전체
+ *   → 202 {"jobId":1,"total":2}
+ * - GET /commands → 최근 작업 진행 상황 목록
+ * - GET /commands/{jobId} → 작업 1건 진행 상황
+ * - DELETE /commands/{jobId} → 아직 보내지 않은 대상 취소
+ */
+public class BulkCommandHttpHandler implements HttpHandler {
+
+    /** 조회용으로 보관하는 최근 작업 수 */
+    static final int MAX_JOBS = 100;
+
+    private static final String CONTENT_TYPE = "application/json; charset=utf-8";
+
+    private final BulkCommandService service;
+    private final byte[] expectedAuthorization;
+    private final Map<Long, BulkCommandJob> jobs = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, BulkCommandJob> eldest) {
+            return size() > MAX_JOBS;
+        }
+    };
+
+    /**
+     * @param token 관리 API 토큰 (비어 있으면 안 됨)
+     */
+    public BulkCommandHttpHandler(BulkCommandService service, String token) {
+        if (token == null || token.isBlank()) {
+            throw new IllegalArgumentException("admin token must not be blank");
+        }
+        this.service = service;
+        this.expectedAuthorization = ("Bearer " + token).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String name = path.replaceFirst("^.*/commands/?", "");
+            // 응답 전에 본문을 끝까지 읽음 (남기면 keep-alive 연결이 끊겨 다음 요청이 실패)
+            String body = readBody(exchange);
+            if (!authorized(exchange)) {
+                exchange.getResponseHeaders().set("WWW-Authenticate", "Bearer");
+                exchange.sendResponseHeaders(401, -1);
+                return;
+            }
+            if (exchange.getRequestHeaders().containsKey("Origin")) {
+                exchange.sendResponseHeaders(403, -1);
+                return;
+            }
+            if ("POST".equals(exchange.getRequestMethod()) && !isJson(exchange)) {
+                exchange.sendResponseHeaders(415, -1);
+                return;
+            }
+            try {
+                switch (exchange.getRequestMethod()) {
+                    case "POST" -> submit(exchange, name, body);
+                    case "GET" -> get(exchange, name);
+                    case "DELETE" -> cancel(exchange, name);
+                    default -> exchange.sendResponseHeaders(405, -1);
+                }
+            } catch (IllegalArgumentException | JsonParseException e) {
+                JsonObject error = new JsonObject();
+                error.addProperty("error", e.getMessage());
+                respond(exchange, 400, error.toString());
+            }
+        }
+    }
+
+    private void submit(HttpExchange exchange, String action, String body) throws IOException {
+        if (action.isEmpty() || action.contains("/")) {
+            throw new IllegalArgumentException("POST /commands/{Action}");
+        }
+        Map<String, String> query = query(exchange.getRequestURI().getRawQuery());
+        BulkOptions defaults = BulkOptions.defaults();
+        BulkOptions options = new BulkOptions(
+                Integer.parseInt(query.getOrDefault("maxConcurrency", Integer.toString(defaults.maxConcurrency()))),
+                Double.parseDouble(query.getOrDefault("rate", Double.toString(defaults.permitsPerSecond()))));
+        RemoteCommand command = new RemoteCommand(action, payload(body));
+        String chargePoints = query.get("chargePoints");
+        BulkCommandJob job = chargePoints == null
+                ? service.submit(command, session -> true, options)
+                : service.submit(command, List.of(chargePoints.split(",")), options);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+        }
+        JsonObject result = new JsonObject();
+        result.addProperty("jobId", job.getId());
+        result.addProperty("total", job.getProgress().total());
+        respond(exchange, 202, result.toString());
+    }
+
+    private void get(HttpExchange exchange, String id) throws IOException {
+        if (id.isEmpty()) {
+            JsonArray list = new JsonArray();
+            synchronized (jobs) {
+                jobs.values().forEach(job -> list.add(toJson(job)));
+            }
+            respond(exchange, 200, list.toString());
+            return;
+        }
+        BulkCommandJob job = find(id);
+        if (job == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        JsonObject body = toJson(job);
+        JsonArray outcomes = new JsonArray();
+        for (CommandOutcome outcome : job.getOutcomes()) {
+            JsonObject item = new JsonObject();
+            item.addProperty("chargePointId", outcome.chargePointId());
+            item.addProperty("status", outcome.status().name());
+            item.addProperty("detail", outcome.detail());
+            item.addProperty("latencyMillis", outcome.latencyMillis());
+            outcomes.add(item);
+        }
+        body.add("outcomes", outcomes);
+        respond(exchange, 200, body.toString());
+    }
+
+    private void cancel(HttpExchange exchange, String id) throws IOException {
+        BulkCommandJob job = find(id);
+        if (job == null) {
+            exchange.sendResponseHeaders(404, -1);
+            return;
+        }
+        job.cancel();
+        respond(exchange, 202, toJson(job).toString());
+    }
+
+    private BulkCommandJob find(String id) {
+        long jobId;
+        try {
+            jobId = Long.parseLong(id);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        synchronized (jobs) {
+            return jobs.get(jobId);
+        }
+    }
+
+    private static JsonObject toJson(BulkCommandJob job) {
+        BulkProgress progress = job.getProgress();
+        JsonObject json = new JsonObject();
+        json.addProperty("jobId", job.getId());
+        json.addProperty("action", job.getCommand().action());
+        json.addProperty("done", job.isDone());
+        json.addProperty("total", progress.total());
+        json.addProperty("inFlight", progress.inFlight());
+        json.addProperty("completed", progress.completed());
+        json.addProperty("accepted", progress.accepted());
+        json.addProperty("rejected", progress.rejected());
+        json.addProperty("callErrors", progress.callErrors());
+        json.addProperty("timeouts", progress.timeouts());
+        json.addProperty("failed", progress.failed());
+        json.addProperty("cancelled", progress.cancelled());
+        return json;
+    }
+
+    /**
+     * 토큰 비교 (길이가 같으면 내용과 관계없이 같은 시간)
+     */
+    private boolean authorized(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        return header != null
+                && MessageDigest.isEqual(expectedAuthorization, header.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Content-Type이 application/json인지 (form/text 같은 단순 요청은 브라우저가 다른 사이트에서도 보낼 수 있음)
+     */
+    private static boolean isJson(HttpExchange exchange) {
+        String type = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (type == null) {
+            return false;
+        }
+        int semicolon = type.indexOf(';');
+        String mediaType = (semicolon < 0 ? type : type.substring(0, semicolon)).trim();
+        return mediaType.equalsIgnoreCase("application/json");
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static JsonObject payload(String text) {
+        if (text.isBlank()) {
+            return new JsonObject();
+        }
+        JsonElement element = JsonParser.parseString(text);
+        if (!element.isJsonObject()) {
+            throw new IllegalArgumentException("payload must be a JSON object");
+        }
+        return element.getAsJsonObject();
+    }
+
+    private static Map<String, String> query(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return params;
+        }
+        Arrays.stream(rawQuery.split("&")).forEach(pair -> {
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.put(key, value);
+        });
+        return params;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.clnewze.lab.www.command;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 일괄 명령 작업 1건
+ * 대상 큐와 동시 실행 수는 BulkCommandService 스케줄러 스레드에서만 변경하고,
+ * 진행 상황/결과 조회는 어느 스레드에서나 가능하다.
+ */
+public class BulkCommandJob {
+
+    private final long id;
+    private final RemoteCommand command;
+    private final BulkOptions options;
+    private final int total;
+
+    // 스케줄러 스레드 전용
+    final ArrayDeque<String> queue;
+    final Set<String> blocked = new LinkedHashSet<>();  // 충전기별 상한에 걸려 대기
+    final TokenBucket tokens;
+    int inFlight;
+    boolean pumpScheduled;
+
+    private volatile boolean cancelled;
+    private final AtomicInteger inFlightView = new AtomicInteger();
+    private final Map<CommandStatus, AtomicInteger> counts = new EnumMap<>(CommandStatus.class);
+    private final Map<String, CommandOutcome> outcomes = new ConcurrentHashMap<>();
+    private final CompletableFuture<List<CommandOutcome>> completion = new CompletableFuture<>();
+
+    BulkCommandJob(long id, RemoteCommand command, BulkOptions options, Collection<String> chargePointIds,
+                   long nowNanos) {
+        this.id = id;
+        this.command = command;
+        this.options = options;
+        this.queue = new ArrayDeque<>(chargePointIds);
+        this.total = queue.size();
+        this.tokens = new TokenBucket(options.permitsPerSecond(), nowNanos);
+        for (CommandStatus status : CommandStatus.values()) {
+            counts.put(status, new AtomicInteger());
+        }
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public RemoteCommand getCommand() {
+        return command;
+    }
+
+    public BulkOptions getOptions() {
+        return options;
+    }
+
+    /**
+     * 진행 상황 스냅샷
+     */
+    public BulkProgress getProgress() {
+        return new BulkProgress(total, inFlightView.get(), outcomes.size(),
+                count(CommandStatus.ACCEPTED), count(CommandStatus.REJECTED), count(CommandStatus.CALL_ERROR),
+                count(CommandStatus.TIMEOUT), count(CommandStatus.FAILED), count(CommandStatus.CANCELLED));
+    }
+
+    /**
+     * 충전기 1대의 결과 (아직 없으면 null)
+     */
+    public CommandOutcome getOutcome(String chargePointId) {
+        return outcomes.get(chargePointId);
+    }
+
+    /**
+     * 지금까지 나온 결과 목록
+     */
+    public List<CommandOutcome> getOutcomes() {
+        return new ArrayList<>(outcomes.values());
+    }
+
+    /**
+     * 모든 대상의 결과가 나오면 완료
+     */
+    public CompletableFuture<List<CommandOutcome>> completion() {
+        return completion;
+    }
+
+    /**
+     * 아직 전송하지 않은 대상은 CANCELLED 처리 (응답 대기 중인 명령은 그대로 둠)
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isDone() {
+        return completion.isDone();
+    }
+
+    void sent() {
+        inFlight++;
+        inFlightView.incrementAndGet();
+    }
+
+    void received() {
+        inFlight--;
+        inFlightView.decrementAndGet();
+    }
+
+    void record(CommandOutcome outcome) {
+        if (outcomes.putIfAbsent(outcome.chargePointId(), outcome) == null) {
+            counts.get(outcome.status()).incrementAndGet();
+        }
+    }
+
+    /**
+     * 남은 대상/대기 명령이 없으면 완료 처리
+     */
+    boolean finishIfDone() {
+        if (!queue.isEmpty() || !blocked.isEmpty() || inFlight > 0) {
+            return false;
+        }
+        return completion.complete(getOutcomes());
+    }
+
+    private int count(CommandStatus status) {
+        return counts.get(status).get();
+    }
+}
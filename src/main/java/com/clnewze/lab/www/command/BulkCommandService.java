@@ -0,0 +1,272 @@
+package com.clnewze.lab.www.command;
+
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.session.SessionManager;
+import com.google.gson.JsonElement;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * 일괄 원격 명령 (Reset / ChangeConfiguration / RemoteStartTransaction 등)
+ * 선택한 충전기들에 같은 명령을 보내고 결과를 비동기로 모은다.
+ *
+ * - 작업별 동시 응답 대기 상한 + 초당 전송 상한
+ * - 충전기 1대당 동시 명령 상한 (PendingRequestManager의 응답 대기 수 기준 → 로컬 목록 동기화 등 다른 요청 포함)
+ * - 상한에 걸린 대상은 충전기별 대기 목록에 두고, 그 충전기의 명령이 끝나면 기다리던 작업만 다시 진행
+ *   (다른 요청 때문에 막혔으면 BLOCKED_RETRY_MILLIS 뒤 다시 확인)
+ * - 모든 상태 변경은 전용 스케줄러 스레드 1개에서 처리 → WebSocket/워커 스레드를 막지 않음
+ * - 응답 매칭과 타임아웃은 PendingRequestManager에 위임
+ */
+public class BulkCommandService {
+
+    private static final Logger log = LoggerFactory.getLogger(BulkCommandService.class);
+
+    /** 다른 요청 때문에 상한에 걸린 충전기를 다시 확인하는 간격 */
+    static final long BLOCKED_RETRY_MILLIS = 100;
+
+    private final SessionManager sessionManager;
+    private final PendingRequestManager pendingRequests;
+    private final int maxInFlightPerChargePoint;
+    private final ScheduledExecutorService scheduler;
+
+    // 스케줄러 스레드 전용
+    private final Map<String, Integer> inFlightByChargePoint = new HashMap<>();  // 이 서비스가 보낸 명령만
+    private final Map<String, Set<BulkCommandJob>> waitingByChargePoint = new HashMap<>();
+    private final Set<String> retryScheduled = new HashSet<>();
+    private final Set<BulkCommandJob> activeJobs = new LinkedHashSet<>();
+
+    private final AtomicLong jobSequence = new AtomicLong();
+
+    public BulkCommandService(SessionManager sessionManager, PendingRequestManager pendingRequests) {
+        this(sessionManager, pendingRequests, 1);
+    }
+
+    /**
+     * @param maxInFlightPerChargePoint 충전기 1대당 동시에 응답을 기다리는 명령 수 상한
+     */
+    public BulkCommandService(SessionManager sessionManager, PendingRequestManager pendingRequests,
+                              int maxInFlightPerChargePoint) {
+        if (maxInFlightPerChargePoint <= 0) {
+            throw new IllegalArgumentException("maxInFlightPerChargePoint must be positive");
+        }
+        this.sessionManager = sessionManager;
+        this.pendingRequests = pendingRequests;
+        this.maxInFlightPerChargePoint = maxInFlightPerChargePoint;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ocpp-bulk-command");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 조건에 맞는 연결 세션 전체에 명령 전송
+     */
+    public BulkCommandJob submit(RemoteCommand command, Predicate<ChargePointSession> selector, BulkOptions options) {
+        List<String> targets = new ArrayList<>();
+        sessionManager.forEach(session -> {
+            if (selector.test(session)) {
+                targets.add(session.getChargePointId());
+            }
+        });
+        return submit(command, targets, options);
+    }
+
+    /**
+     * 지정한 충전기들에 명령 전송 (중복 ID는 1번만)
+     */
+    public BulkCommandJob submit(RemoteCommand command, Collection<String> chargePointIds, BulkOptions options) {
+        BulkCommandJob job = new BulkCommandJob(jobSequence.incrementAndGet(), command, options,
+                new LinkedHashSet<>(chargePointIds), System.nanoTime());
+        log.info("Bulk job {} {} → {} charge points", job.getId(), command.action(), job.getProgress().total());
+        scheduler.execute(() -> {
+            activeJobs.add(job);
+            pump(job);
+        });
+        return job;
+    }
+
+    /**
+     * 충전기 1대에 이 서비스가 보내고 응답을 기다리는 명령 수
+     */
+    public int getInFlight(String chargePointId) {
+        try {
+            return scheduler.submit(() -> inFlightByChargePoint.getOrDefault(chargePointId, 0)).get();
+        } catch (Exception e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 스케줄러 종료 (응답 대기 중인 명령은 PendingRequestManager 타임아웃으로 정리됨)
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 동시 실행/속도/충전기별 상한 안에서 가능한 만큼 전송
+     */
+    private void pump(BulkCommandJob job) {
+        job.pumpScheduled = false;
+        if (job.isCancelled()) {
+            cancelRemaining(job);
+        }
+
+        int scan = job.queue.size();
+        while (scan-- > 0 && job.inFlight < job.getOptions().maxConcurrency()) {
+            String chargePointId = job.queue.peek();
+            if (pendingRequests.getPendingCount(chargePointId) >= maxInFlightPerChargePoint) {
+                block(job, job.queue.poll());
+                continue;
+            }
+            long waitNanos = job.tokens.tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                schedulePump(job, waitNanos);
+                break;
+            }
+            job.queue.poll();
+            send(job, chargePointId);
+        }
+        finishIfDone(job);
+    }
+
+    private void send(BulkCommandJob job, String chargePointId) {
+        ChargePointSession session = sessionManager.getSession(chargePointId);
+        if (session == null) {
+            job.record(new CommandOutcome(chargePointId, CommandStatus.FAILED, "Not connected", 0));
+            return;
+        }
+        inFlightByChargePoint.merge(chargePointId, 1, Integer::sum);
+        job.sent();
+        long startNanos = System.nanoTime();
+        RemoteCommand command = job.getCommand();
+        pendingRequests.call(session, command.action(), command.payload())
+                .whenCompleteAsync((response, error) -> onComplete(job, chargePointId, startNanos, response, error),
+                        scheduler)
+                .exceptionally(e -> null);  // 스케줄러 종료 후 도착한 응답은 버림
+    }
+
+    private void onComplete(BulkCommandJob job, String chargePointId, long startNanos,
+                            OcppMessage response, Throwable error) {
+        long latencyMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        job.received();
+        job.record(toOutcome(chargePointId, latencyMillis, response, error));
+        inFlightByChargePoint.computeIfPresent(chargePointId, (id, count) -> count > 1 ? count - 1 : null);
+
+        // 이 충전기를 기다리던 작업 + 동시 실행 자리가 빈 이 작업만 다시 진행
+        wake(chargePointId);
+        if (!job.pumpScheduled && activeJobs.contains(job)) {
+            pump(job);
+        }
+    }
+
+    /**
+     * 충전기별 상한에 걸린 대상을 그 충전기의 대기 목록에 등록
+     * 이 서비스의 명령이 없으면 완료 알림이 오지 않으므로 재확인 예약
+     */
+    private void block(BulkCommandJob job, String chargePointId) {
+        job.blocked.add(chargePointId);
+        waitingByChargePoint.computeIfAbsent(chargePointId, id -> new LinkedHashSet<>()).add(job);
+        if (!inFlightByChargePoint.containsKey(chargePointId) && retryScheduled.add(chargePointId)) {
+            try {
+                scheduler.schedule(() -> {
+                    retryScheduled.remove(chargePointId);
+                    wake(chargePointId);
+                }, BLOCKED_RETRY_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                retryScheduled.remove(chargePointId);
+            }
+        }
+    }
+
+    /**
+     * 충전기를 기다리던 작업들의 대상을 큐로 되돌리고 진행
+     */
+    private void wake(String chargePointId) {
+        Set<BulkCommandJob> waiting = waitingByChargePoint.remove(chargePointId);
+        if (waiting == null) {
+            return;
+        }
+        for (BulkCommandJob job : waiting) {
+            if (job.blocked.remove(chargePointId)) {
+                job.queue.add(chargePointId);
+            }
+            if (!job.pumpScheduled && activeJobs.contains(job)) {
+                pump(job);
+            }
+        }
+    }
+
+    private void schedulePump(BulkCommandJob job, long delayNanos) {
+        job.pumpScheduled = true;
+        try {
+            scheduler.schedule(() -> pump(job), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            job.pumpScheduled = false;
+        }
+    }
+
+    private void cancelRemaining(BulkCommandJob job) {
+        job.queue.addAll(job.blocked);
+        job.blocked.clear();
+        String chargePointId;
+        while ((chargePointId = job.queue.poll()) != null) {
+            job.record(new CommandOutcome(chargePointId, CommandStatus.CANCELLED, "Job cancelled", 0));
+        }
+    }
+
+    private void finishIfDone(BulkCommandJob job) {
+        if (job.finishIfDone()) {
+            activeJobs.remove(job);
+            BulkProgress progress = job.getProgress();
+            log.info("Bulk job {} {} done: {}", job.getId(), job.getCommand().action(), progress);
+        }
+    }
+
+    /**
+     * 응답 → 결과 분류
+     */
+    static CommandOutcome toOutcome(String chargePointId, long latencyMillis, OcppMessage response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause()
+                    : error;
+            CommandStatus status = cause instanceof TimeoutException ? CommandStatus.TIMEOUT : CommandStatus.FAILED;
+            return new CommandOutcome(chargePointId, status, cause.getMessage(), latencyMillis);
+        }
+        if (response instanceof CallError callError) {
+            return new CommandOutcome(chargePointId, CommandStatus.CALL_ERROR,
+                    callError.getErrorCode().getValue() + ": " + callError.getErrorDescription(), latencyMillis);
+        }
+        String status = null;
+        if (response instanceof CallResult result && result.getPayload() != null) {
+            JsonElement element = result.getPayload().get("status");
+            status = element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+        }
+        boolean accepted = "Accepted".equals(status) || "RebootRequired".equals(status);
+        return new CommandOutcome(chargePointId, accepted ? CommandStatus.ACCEPTED : CommandStatus.REJECTED,
+                status, latencyMillis);
+    }
+}
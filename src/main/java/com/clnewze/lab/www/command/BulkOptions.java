@@ -0,0 +1,22 @@
+package com.clnewze.lab.www.command;
+
+/**
+ * 일괄 명령 실행 옵션
+ * @param maxConcurrency 작업 전체의 동시 응답 대기 상한
+ * @param permitsPerSecond 초당 전송 상한 (0 이하면 제한 없음)
+ */
+public record BulkOptions(int maxConcurrency, double permitsPerSecond) {
+
+    public BulkOptions {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+    }
+
+    /**
+     * 기본값: 동시 200건, 초당 100건
+     */
+    public static BulkOptions defaults() {
+        return new BulkOptions(200, 100);
+    }
+}
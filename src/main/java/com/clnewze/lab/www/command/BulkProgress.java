@@ -0,0 +1,16 @@
+package com.clnewze.lab.www.command;
+
+/**
+ * 일괄 명령 진행 상황 스냅샷
+ */
+public record BulkProgress(int total, int inFlight, int completed,
+                           int accepted, int rejected, int callErrors, int timeouts, int failed, int cancelled) {
+
+    public boolean isDone() {
+        return completed == total;
+    }
+
+    public int remaining() {
+        return total - completed;
+    }
+}
@@ -0,0 +1,11 @@
+package com.clnewze.lab.www.command;
+
+/**
+ * 충전기 1대의 명령 결과
+ * @param chargePointId 충전기 ID
+ * @param status 결과 분류
+ * @param detail 응답 status 값, 에러 코드 또는 실패 사유
+ * @param latencyMillis 전송부터 결과까지 걸린 시간 (전송하지 않았으면 0)
+ */
+public record CommandOutcome(String chargePointId, CommandStatus status, String detail, long latencyMillis) {
+}
@@ -0,0 +1,19 @@
+package com.clnewze.lab.www.command;
+
+/**
+ * 충전기 1대의 명령 처리 결과
+ */
+public enum CommandStatus {
+    /** CallResult status = Accepted (ChangeConfiguration의 RebootRequired 포함) */
+    ACCEPTED,
+    /** CallResult status = Rejected / NotSupported 등 */
+    REJECTED,
+    /** 충전기가 CallError로 응답 */
+    CALL_ERROR,
+    /** 응답 대기 시간 초과 */
+    TIMEOUT,
+    /** 미연결, 전송 실패, 응답 전 연결 종료 */
+    FAILED,
+    /** 작업 취소로 전송하지 않음 */
+    CANCELLED
+}
@@ -0,0 +1,42 @@
+package com.clnewze.lab.www.command;
+
+import com.google.gson.JsonObject;
+
+/**
+ * 서버 → 충전기 명령 (CS → CP Call)
+ * @param action Action 이름
+ * @param payload 요청 payload (여러 충전기에 공유되므로 전송 후 수정하지 않는다)
+ */
+public record RemoteCommand(String action, JsonObject payload) {
+
+    /**
+     * Reset (type: Hard / Soft)
+     */
+    public static RemoteCommand reset(String type) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("type", type);
+        return new RemoteCommand("Reset", payload);
+    }
+
+    /**
+     * ChangeConfiguration
+     */
+    public static RemoteCommand changeConfiguration(String key, String value) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("key", key);
+        payload.addProperty("value", value);
+        return new RemoteCommand("ChangeConfiguration", payload);
+    }
+
+    /**
+     * RemoteStartTransaction (connectorId는 생략 가능)
+     */
+    public static RemoteCommand remoteStartTransaction(String idTag, Integer connectorId) {
+        JsonObject payload = new JsonObject();
+        if (connectorId != null) {
+            payload.addProperty("connectorId", connectorId);
+        }
+        payload.addProperty("idTag", idTag);
+        return new RemoteCommand("RemoteStartTransaction", payload);
+    }
+}
@@ -0,0 +1,39 @@
+package com.clnewze.lab.www.command;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 전송 속도 제한 (토큰 버킷, 스케줄러 스레드 전용)
+ * 버스트는 0.1초 분량까지 허용
+ */
+final class TokenBucket {
+
+    private final double permitsPerNano;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    TokenBucket(double permitsPerSecond, long nowNanos) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1.0, permitsPerSecond / 10);
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * 토큰 1개 획득 시도
+     * @return 0이면 획득, 아니면 다음 토큰까지 남은 나노초
+     */
+    long tryAcquire(long nowNanos) {
+        if (permitsPerNano <= 0) {
+            return 0;
+        }
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = nowNanos;
+        if (tokens >= 1.0) {
+            tokens -= 1.0;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1.0 - tokens) / permitsPerNano));
+    }
+}
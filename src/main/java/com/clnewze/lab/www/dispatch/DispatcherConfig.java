@@ -0,0 +1,30 @@
+package com.clnewze.lab.www.dispatch;
+
+/**
+ * 디스패처 설정
+ * @param mode 실행 방식 (워커 풀 / 가상 스레드)
+ * @param poolSize 워커 스레드 수 (VIRTUAL 모드에서는 사용하지 않음)
+ * @param maxQueuedFrames 전체 대기 프레임 상한 (초과 시 CallError로 거절)
+ * @param maxQueuedPerSession 충전기 1대당 대기 프레임 상한
+ */
+public record DispatcherConfig(ExecutionMode mode, int poolSize, int maxQueuedFrames, int maxQueuedPerSession) {
+
+    public DispatcherConfig {
+        if (poolSize < 1 || maxQueuedFrames < 1 || maxQueuedPerSession < 1) {
+            throw new IllegalArgumentException("Dispatcher limits must be positive");
+        }
+    }
+
+    /**
+     * 시스템 프로퍼티에서 읽기
+     * -Docpp.executor, -Docpp.workers, -Docpp.maxQueuedFrames, -Docpp.maxQueuedPerSession
+     */
+    public static DispatcherConfig fromSystemProperties() {
+        return new DispatcherConfig(
+                ExecutionMode.fromSystemProperties(),
+                Integer.getInteger("ocpp.workers", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("ocpp.maxQueuedFrames", 100_000),
+                Integer.getInteger("ocpp.maxQueuedPerSession", 64)
+        );
+    }
+}
@@ -0,0 +1,23 @@
+package com.clnewze.lab.www.dispatch;
+
+/**
+ * 핸들러 실행 방식
+ * - PLATFORM: 고정 크기 워커 풀 (기본)
+ * - VIRTUAL: 가상 스레드 (Java 21+, 블로킹 I/O 핸들러용)
+ */
+public enum ExecutionMode {
+    PLATFORM,
+    VIRTUAL;
+
+    /**
+     * -Docpp.executor=platform|virtual
+     */
+    public static ExecutionMode fromSystemProperties() {
+        String value = System.getProperty("ocpp.executor", "platform");
+        return switch (value.toLowerCase()) {
+            case "platform" -> PLATFORM;
+            case "virtual" -> VIRTUAL;
+            default -> throw new IllegalArgumentException("Unknown ocpp.executor: " + value);
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package com.clnewze.lab.www.dispatch;
+
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.MessageType;
+import com.clnewze.lab.www.protocol.OcppFrame;
+import com.clnewze.lab.www.protocol.OcppFrameDecoder;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.router.MessageRouter;
+import com.clnewze.lab.www.session.ChargePointSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 메시지 디스패처
+ * WebSocket 스레드에서 받은 프레임을 워커 풀로 넘겨 처리한다.
+ *
+ * - 충전기별 직렬 큐(SessionLane)로 chargePointId 단위 FIFO 보장
+ * - 서로 다른 충전기는 워커 풀(또는 가상 스레드)에서 병렬 처리
+ * - 대기 프레임이 상한을 넘으면 버리지 않고 CallError로 즉시 응답
+ * - CallResult/CallError는 lane을 거치지 않음 (lane을 점유한 비동기 핸들러가 그 응답을 기다릴 수 있음)
+ *   대신 같은 대기 프레임 수에 포함되어 상한을 넘으면 버림 (응답을 보낼 수 없으므로 요청 쪽은 타임아웃)
+ */
+public class MessageDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(MessageDispatcher.class);
+
+    private final MessageRouter router;
+    private final ExecutorService executor;
+    private final ResponseSender sender;
+    private final int poolSize;
+    private final int maxQueuedFrames;
+    private final int maxQueuedPerSession;
+
+    private final Map<String, SessionLane> lanes = new ConcurrentHashMap<>();
+
+    // 메트릭
+    private final AtomicInteger queuedFrames = new AtomicInteger();
+    private final AtomicInteger peakQueuedFrames = new AtomicInteger();
+    private final AtomicLong completedFrames = new AtomicLong();
+    private final AtomicLong rejectedFrames = new AtomicLong();
+
+    public MessageDispatcher(MessageRouter router, DispatcherConfig config, ResponseSender sender) {
+        this(router, newExecutor(config), config.mode() == ExecutionMode.VIRTUAL ? 0 : config.poolSize(),
+                config.maxQueuedFrames(), config.maxQueuedPerSession(), sender);
+    }
+
+    /**
+     * 실행기를 직접 지정 (예: 가상 스레드 실행기)
+     */
+    public MessageDispatcher(MessageRouter router, ExecutorService executor, int poolSize,
+                             int maxQueuedFrames, int maxQueuedPerSession, ResponseSender sender) {
+        this.router = router;
+        this.executor = executor;
+        this.poolSize = poolSize;
+        this.maxQueuedFrames = maxQueuedFrames;
+        this.maxQueuedPerSession = maxQueuedPerSession;
+        this.sender = sender;
+    }
+
+    /**
+     * 프레임 처리 요청 (WebSocket 스레드에서 호출, 블로킹 없음)
+     */
+    public void dispatch(ChargePointSession session, String rawMessage) {
+        dispatch(session, rawMessage, System.currentTimeMillis(), System.nanoTime());
+    }
+
+    /**
+     * 프레임 처리 요청 (수신 시각 지정)
+     * 수신 시각은 CallContext까지 그대로 전달 → 처리 시간에 lane 대기 시간도 포함
+     * @param receivedAtMillis 수신 시각 (epoch ms)
+     * @param receivedNanos 수신 시각 (System.nanoTime)
+     */
+    public void dispatch(ChargePointSession session, String rawMessage, long receivedAtMillis, long receivedNanos) {
+        boolean response = isResponseFrame(rawMessage);
+        if (queuedFrames.incrementAndGet() > maxQueuedFrames) {
+            queuedFrames.decrementAndGet();
+            reject(session, rawMessage, "Server busy: dispatch queue full");
+            return;
+        }
+        updatePeak();
+        if (response) {
+            dispatchResponse(session, rawMessage);
+            return;
+        }
+
+        boolean accepted;
+        try {
+            accepted = offer(session, rawMessage, receivedAtMillis, receivedNanos);
+        } catch (RejectedExecutionException e) {
+            accepted = false;
+        }
+        if (!accepted) {
+            queuedFrames.decrementAndGet();
+            reject(session, rawMessage, "Server busy: too many pending messages for " + session.getChargePointId());
+        }
+    }
+
+    /**
+     * 충전기 lane에 추가 (퇴역한 lane이면 맵에서 빼고 새 lane으로 다시)
+     */
+    private boolean offer(ChargePointSession session, String rawMessage, long receivedAtMillis, long receivedNanos) {
+        String chargePointId = session.getChargePointId();
+        while (true) {
+            SessionLane lane = lanes.computeIfAbsent(chargePointId, id -> new SessionLane(executor));
+            if (lane.offer(() -> process(session, rawMessage, receivedAtMillis, receivedNanos), maxQueuedPerSession)) {
+                return true;
+            }
+            if (!lane.isRetired()) {
+                return false;
+            }
+            lanes.remove(chargePointId, lane);
+        }
+    }
+
+    /**
+     * 서버 요청에 대한 응답 프레임은 순서 보장 없이 바로 처리 (queuedFrames에 이미 포함된 상태로 호출)
+     */
+    private void dispatchResponse(ChargePointSession session, String rawMessage) {
+        try {
+            executor.execute(() -> {
+                queuedFrames.decrementAndGet();
+                try {
+                    router.routeAsync(session, rawMessage);
+                } catch (RuntimeException e) {
+                    log.warn("Response frame from {} failed", session.getChargePointId(), e);
+                } finally {
+                    completedFrames.incrementAndGet();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            queuedFrames.decrementAndGet();
+            reject(session, rawMessage, "Server busy: executor rejected response frame");
+        }
+    }
+
+    /**
+     * 세션 종료 시 lane 정리 (대기 중인 프레임은 폐기)
+     * 처리 중인 프레임이 있으면 끝날 때까지 lane을 남겨 둠 → 그 사이 재연결한 충전기의 프레임도 그 뒤에 처리
+     */
+    public void removeSession(String chargePointId) {
+        SessionLane lane = lanes.get(chargePointId);
+        if (lane != null) {
+            int dropped = lane.clear();
+            queuedFrames.addAndGet(-dropped);
+            lane.retireWhenIdle(() -> lanes.remove(chargePointId, lane));
+        }
+    }
+
+    /**
+     * 워커 풀 종료
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 프레임 1개 처리 (lane 스레드)
+     * 응답은 핸들러 stage가 끝난 시점에 전송된다.
+     */
+    private CompletableFuture<?> process(ChargePointSession session, String rawMessage,
+                                         long receivedAtMillis, long receivedNanos) {
+        queuedFrames.decrementAndGet();
+        CompletableFuture<OcppMessage> result;
+        try {
+            result = router.routeAsync(session, rawMessage, receivedAtMillis, receivedNanos);
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((response, error) -> {
+            try {
+                if (error != null) {
+                    log.warn("Frame from {} failed", session.getChargePointId(), error);
+                } else if (response != null) {
+                    sender.send(session, response);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Send to {} failed: {}", session.getChargePointId(), e.getMessage());
+            } finally {
+                completedFrames.incrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * 거절된 프레임에 CallError 응답 (Call이 아니면 응답 없음)
+     */
+    private void reject(ChargePointSession session, String rawMessage, String reason) {
+        rejectedFrames.incrementAndGet();
+        log.warn("Rejected frame from {}: {}", session.getChargePointId(), reason);
+        try {
+            OcppFrame frame = OcppFrameDecoder.decode(rawMessage);
+            if (frame.getType() == MessageType.CALL) {
+                sender.send(session, new CallError(frame.getUniqueId(), ErrorCode.INTERNAL_ERROR, reason));
+            }
+        } catch (RuntimeException e) {
+            // 헤더도 읽을 수 없는 프레임은 응답할 uniqueId가 없음
+        }
+    }
+
+    /**
+     * 헤더만 보고 CallResult(3)/CallError(4) 여부 판단 (디코딩 없음)
+     */
+    static boolean isResponseFrame(String rawMessage) {
+        int i = skipWhitespace(rawMessage, 0);
+        if (i >= rawMessage.length() || rawMessage.charAt(i) != '[') {
+            return false;
+        }
+        i = skipWhitespace(rawMessage, i + 1);
+        if (i >= rawMessage.length()) {
+            return false;
+        }
+        char type = rawMessage.charAt(i);
+        int next = i + 1;
+        boolean singleDigit = next >= rawMessage.length() || !Character.isDigit(rawMessage.charAt(next));
+        return singleDigit && (type == '3' || type == '4');
+    }
+
+    private static int skipWhitespace(String s, int i) {
+        while (i < s.length() && Character.isWhitespace(s.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private void updatePeak() {
+        int current = queuedFrames.get();
+        int peak;
+        while (current > (peak = peakQueuedFrames.get())) {
+            if (peakQueuedFrames.compareAndSet(peak, current)) {
+                break;
+            }
+        }
+    }
+
+    private static ExecutorService newExecutor(DispatcherConfig config) {
+        // VIRTUAL: lane이 스케줄될 때마다 가상 스레드에서 실행 (lane 단위 직렬성은 그대로)
+        return config.mode() == ExecutionMode.VIRTUAL
+                ? VirtualThreads.newPerTaskExecutor()
+                : newWorkerPool(config.poolSize());
+    }
+
+    private static ExecutorService newWorkerPool(int poolSize) {
+        AtomicInteger threadNumber = new AtomicInteger(1);
+        ThreadFactory factory = r -> {
+            Thread t = new Thread(r, "ocpp-worker-" + threadNumber.getAndIncrement());
+            t.setDaemon(true);
+            return t;
+        };
+        // 큐에는 lane(충전기당 최대 1개)과 응답 프레임만 들어감
+        // 응답 프레임은 queuedFrames로 maxQueuedFrames 안에서 제한되므로 큐 길이는 충전기 수 + maxQueuedFrames 이하
+        return new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), factory);
+    }
+
+    // 메트릭 조회
+
+    /**
+     * 현재 대기 중인 전체 프레임 수
+     */
+    public int getQueuedFrames() {
+        return queuedFrames.get();
+    }
+
+    /**
+     * 관측된 최대 대기 프레임 수
+     */
+    public int getPeakQueuedFrames() {
+        return peakQueuedFrames.get();
+    }
+
+    /**
+     * 충전기 1대의 대기 프레임 수
+     */
+    public int getQueuedFrames(String chargePointId) {
+        SessionLane lane = lanes.get(chargePointId);
+        return lane != null ? lane.depth() : 0;
+    }
+
+    public int getLaneCount() {
+        return lanes.size();
+    }
+
+    public long getCompletedFrames() {
+        return completedFrames.get();
+    }
+
+    public long getRejectedFrames() {
+        return rejectedFrames.get();
+    }
+
+    /**
+     * 워커 스레드 수 (가상 스레드 모드는 0)
+     */
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getMaxQueuedFrames() {
+        return maxQueuedFrames;
+    }
+}
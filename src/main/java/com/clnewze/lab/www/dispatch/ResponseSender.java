@@ -0,0 +1,13 @@
+package com.clnewze.lab.www.dispatch;
+
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+
+/**
+ * 처리 결과(CallResult/CallError)를 충전기로 보내는 방법
+ */
+@FunctionalInterface
+public interface ResponseSender {
+
+    void send(ChargePointSession session, OcppMessage response);
+}
@@ -0,0 +1,142 @@
+package com.clnewze.lab.www.dispatch;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * 충전기 1대의 직렬 실행 큐
+ * 같은 chargePointId의 프레임은 도착 순서대로 한 번에 하나씩 실행되고,
+ * 서로 다른 충전기의 lane은 워커 풀에서 병렬로 실행된다.
+ *
+ * 작업이 미완료 future를 돌려주면 (비동기 핸들러) 완료될 때까지 다음 작업을 시작하지 않고,
+ * 스레드는 반납한 뒤 완료 시점에 다시 스케줄된다.
+ *
+ * 세션이 끝나면 retireWhenIdle: 실행 중인 작업이 끝나 비는 순간 퇴역 (이후 offer는 false, isRetired true)
+ * → 그 전에 재연결한 충전기의 프레임은 같은 lane 뒤에 줄을 서므로 연결이 바뀌어도 순서가 유지된다.
+ */
+final class SessionLane implements Runnable {
+
+    /** 한 번 스케줄될 때 연속 처리할 최대 프레임 수 (다른 lane과의 공정성) */
+    private static final int BATCH = 16;
+
+    private final Executor executor;
+    private final Queue<Supplier<CompletableFuture<?>>> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    // 퇴역 판단은 this 락 (offer의 추가와 원자적으로)
+    private boolean retired;
+    private Runnable onRetired;
+
+    SessionLane(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * 작업 추가
+     * @return 상한 초과로 넣지 못하면 false
+     */
+    boolean offer(Supplier<CompletableFuture<?>> task, int limit) {
+        synchronized (this) {
+            if (retired) {
+                return false;
+            }
+            if (depth.incrementAndGet() > limit) {
+                depth.decrementAndGet();
+                return false;
+            }
+            tasks.add(task);
+        }
+        schedule();
+        return true;
+    }
+
+    /**
+     * 퇴역해서 더 받지 않음 (호출한 쪽은 새 lane을 만들어야 함)
+     */
+    synchronized boolean isRetired() {
+        return retired;
+    }
+
+    /**
+     * 실행 중인 작업이 없으면 바로, 있으면 끝난 뒤 퇴역하고 onRetired 실행
+     */
+    void retireWhenIdle(Runnable onRetired) {
+        synchronized (this) {
+            this.onRetired = onRetired;
+        }
+        tryRetire();
+    }
+
+    int depth() {
+        return depth.get();
+    }
+
+    /**
+     * 대기 중인 작업 폐기 (세션 종료 시)
+     * @return 폐기한 작업 수
+     */
+    int clear() {
+        int dropped = 0;
+        while (tasks.poll() != null) {
+            depth.decrementAndGet();
+            dropped++;
+        }
+        return dropped;
+    }
+
+    private void schedule() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < BATCH; i++) {
+            Supplier<CompletableFuture<?>> task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            depth.decrementAndGet();
+            CompletableFuture<?> pending = task.get();
+            if (pending != null && !pending.isDone()) {
+                // 완료될 때까지 lane 점유 유지 (scheduled = true)
+                pending.whenComplete((result, error) -> release());
+                return;
+            }
+        }
+        release();
+    }
+
+    private void release() {
+        scheduled.set(false);
+        if (!tasks.isEmpty()) {
+            schedule();
+        } else {
+            tryRetire();
+        }
+    }
+
+    private void tryRetire() {
+        Runnable callback;
+        synchronized (this) {
+            if (retired || onRetired == null || scheduled.get() || !tasks.isEmpty()) {
+                return;
+            }
+            retired = true;
+            callback = onRetired;
+        }
+        callback.run();
+    }
+}
@@ -0,0 +1,52 @@
+package com.clnewze.lab.www.dispatch;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 가상 스레드 실행기 생성
+ * 기본 빌드는 Java 17이므로 Java 21 API는 런타임에 찾아서 호출한다.
+ * (Java 21 런타임: ./gradlew runVirtual)
+ */
+public final class VirtualThreads {
+
+    private static final MethodHandle NEW_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 현재 런타임이 가상 스레드를 지원하는지
+     */
+    public static boolean isSupported() {
+        return NEW_EXECUTOR != null;
+    }
+
+    /**
+     * 작업마다 가상 스레드를 만드는 실행기
+     * @throws UnsupportedOperationException Java 21 미만 런타임
+     */
+    public static ExecutorService newPerTaskExecutor() {
+        if (NEW_EXECUTOR == null) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads require Java 21+, running on " + Runtime.version());
+        }
+        try {
+            return (ExecutorService) NEW_EXECUTOR.invokeExact();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Cannot create virtual thread executor", e);
+        }
+    }
+
+    private static MethodHandle lookup() {
+        try {
+            return MethodHandles.publicLookup().findStatic(Executors.class,
+                    "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+}
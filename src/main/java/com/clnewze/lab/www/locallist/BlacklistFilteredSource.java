@@ -0,0 +1,58 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagBlacklist;
+import com.clnewze.lab.www.auth.IdTagInfo;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 로컬 목록 원본에 차단 목록 적용 (LocalListSyncService.follow용)
+ *
+ * 로컬 목록은 충전기가 서버에 묻지 않고 (오프라인이면 서버 없이) 인증하는 데 쓰므로
+ * 원본에서 Accepted여도 차단된 태그는 Blocked로 덮어써서 배포한다.
+ * - 원본 스냅샷과 차단 목록 스냅샷이 둘 다 그대로면 같은 인스턴스를 반환 → follow가 비교를 건너뜀
+ * - 차단 목록이 다시 읽히면 새 인스턴스 → follow가 목록을 교체하고 충전기에 다시 동기화
+ * - 원본에 없는 차단 태그는 넣지 않음 (로컬 목록에 없으면 충전기가 서버에 물어봄)
+ */
+public class BlacklistFilteredSource implements Callable<Map<String, IdTagInfo>> {
+
+    private final Callable<Map<String, IdTagInfo>> source;
+    private final Supplier<IdTagBlacklist> blacklist;
+
+    private Map<String, IdTagInfo> lastSource;
+    private IdTagBlacklist lastBlacklist;
+    private Map<String, IdTagInfo> last;
+
+    /**
+     * @param source 원본 태그 (내용이 그대로면 같은 인스턴스)
+     * @param blacklist 현재 차단 목록 스냅샷 (다시 읽으면 새 인스턴스)
+     */
+    public BlacklistFilteredSource(Callable<Map<String, IdTagInfo>> source, Supplier<IdTagBlacklist> blacklist) {
+        this.source = source;
+        this.blacklist = blacklist;
+    }
+
+    @Override
+    public synchronized Map<String, IdTagInfo> call() throws Exception {
+        Map<String, IdTagInfo> tags = source.call();
+        IdTagBlacklist blocked = blacklist.get();
+        if (tags == lastSource && blocked == lastBlacklist) {
+            return last;
+        }
+        Map<String, IdTagInfo> filtered = new HashMap<>(tags);
+        if (blocked.size() > 0) {
+            tags.forEach((idTag, info) -> {
+                if (blocked.contains(idTag)) {
+                    filtered.put(idTag, IdTagInfo.BLOCKED);
+                }
+            });
+        }
+        lastSource = tags;
+        lastBlacklist = blocked;
+        last = Map.copyOf(filtered);
+        return last;
+    }
+}
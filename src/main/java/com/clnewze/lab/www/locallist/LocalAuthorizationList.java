@@ -0,0 +1,368 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagInfo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 충전기 그룹 1개의 로컬 인증 목록 (버전 + 변경 로그)
+ *
+ * - 변경 묶음(update)마다 버전 +1, 변경 로그에 (버전, idTag)를 순서대로 추가
+ * - 삭제는 톰스톤으로 남겨 Differential 업데이트에서 "idTagInfo 없음"으로 전달
+ * - 버전 v인 충전기의 차이 = 로그에서 v 이후 구간만 훑음 → 목록 크기가 아니라 변경 수에 비례
+ *   (같은 태그가 여러 번 바뀌었으면 마지막 변경만)
+ * - 메시지는 항목 maxEntries개씩 자름 (충전기의 SendLocalListMaxLength, 한 버전의 변경이 많아도 넘지 않음)
+ *   · 충전기는 현재 버전 이하의 Differential을 VersionMismatch로 거절하므로 조각마다 새 버전을 예약해 붙임
+ *     (현재 버전 + 1 ... + 조각 수, 마지막 조각 버전이 새 현재 버전 → 내용은 그대로고 버전만 올라감)
+ *   · Full은 첫 조각만 Full, 나머지는 Differential
+ *   · 중간 조각 버전은 "완료되지 않은 버전"으로 기록 → 그 버전을 보고한 충전기는 남은 조각부터 (모르면 Full)
+ * - 같은 버전에서 출발하는 차이는 메모해 두고 공유 (수천 대 동기화 시 충전기마다 다시 계산하지 않음)
+ * - 로그가 항목 수의 2배를 넘으면 마지막 변경만 남기고 압축, 톰스톤이 많으면 오래된 것부터 버림
+ *   (버린 삭제보다 오래된 버전의 충전기는 Full 업데이트)
+ * - 버전은 LocalListVersions의 base부터 시작 → 재시작 전 실행의 버전을 보고한 충전기는 Full 업데이트
+ *
+ * 모든 메서드는 this 락.
+ */
+public class LocalAuthorizationList {
+
+    public static final int DEFAULT_MAX_TOMBSTONES = 100_000;
+
+    private static final int MAX_MEMO = 1024;
+
+    private final String group;
+    private final int maxTombstones;
+    private final LocalListVersions versions;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private int tombstones;
+    private int version;
+    private int fullBelow;
+
+    // 변경 로그 (버전 오름차순)
+    private int[] logVersions = new int[64];
+    private String[] logTags = new String[64];
+    private int logSize;
+
+    private final Map<Long, List<LocalListUpdate>> memo = new HashMap<>();
+
+    // 목록 상태와 일치하는 버전 (bit = 버전 - base), 나머지는 조각 중간 버전
+    private final BitSet complete = new BitSet();
+    // 중간 버전 → 그 버전이 속한 조각 목록 (이어 보내기용)
+    private final Map<Integer, List<LocalListUpdate>> partials = new HashMap<>();
+
+    public LocalAuthorizationList(String group) {
+        this(group, DEFAULT_MAX_TOMBSTONES);
+    }
+
+    /**
+     * @param maxTombstones 보관할 삭제 기록 수 (넘으면 오래된 것부터 버림)
+     */
+    public LocalAuthorizationList(String group, int maxTombstones) {
+        this(group, maxTombstones, LocalListVersions.inMemory());
+    }
+
+    /**
+     * @param versions 버전 세대 (시작 버전 = versions.base(), 올리기 전에 예약)
+     */
+    public LocalAuthorizationList(String group, int maxTombstones, LocalListVersions versions) {
+        this.group = group;
+        this.maxTombstones = maxTombstones;
+        this.versions = versions;
+        this.version = versions.base();
+        this.fullBelow = versions.base();
+        complete.set(0);
+    }
+
+    public String getGroup() {
+        return group;
+    }
+
+    /**
+     * 변경 묶음 적용 (값이 null이면 삭제)
+     * @return 적용 후 버전 (실제로 바뀐 항목이 없으면 그대로)
+     */
+    public synchronized int update(Map<String, IdTagInfo> changes) {
+        int next = version + 1;
+        versions.reserve(next);
+        boolean changed = false;
+        for (Map.Entry<String, IdTagInfo> change : changes.entrySet()) {
+            String idTag = change.getKey();
+            IdTagInfo info = change.getValue();
+            Entry previous = entries.get(idTag);
+            if (previous == null ? info == null : Objects.equals(previous.info, info)) {
+                continue;
+            }
+            if (previous != null && previous.info == null) {
+                tombstones--;
+            }
+            if (info == null) {
+                tombstones++;
+            }
+            entries.put(idTag, new Entry(info, next));
+            append(next, idTag);
+            changed = true;
+        }
+        if (!changed) {
+            return version;
+        }
+        version = next;
+        complete.set(version - versions.base());
+        memo.clear();
+        if (logSize > 2 * entries.size() + 64) {
+            compact();
+        }
+        return version;
+    }
+
+    /**
+     * 목록을 주어진 태그 전체로 교체 (빠진 태그는 삭제, 달라진 태그만 변경 로그에 기록)
+     * @return 적용 후 버전
+     */
+    public synchronized int replaceAll(Map<String, IdTagInfo> tags) {
+        Map<String, IdTagInfo> changes = new HashMap<>();
+        entries.forEach((idTag, entry) -> {
+            if (entry.info != null && !tags.containsKey(idTag)) {
+                changes.put(idTag, null);
+            }
+        });
+        tags.forEach((idTag, info) -> {
+            Entry entry = entries.get(idTag);
+            if (entry == null || !Objects.equals(entry.info, info)) {
+                changes.put(idTag, info);
+            }
+        });
+        return update(changes);
+    }
+
+    public int put(String idTag, IdTagInfo info) {
+        return update(Collections.singletonMap(idTag, Objects.requireNonNull(info)));
+    }
+
+    public int remove(String idTag) {
+        return update(Collections.singletonMap(idTag, null));
+    }
+
+    public synchronized int getVersion() {
+        return version;
+    }
+
+    /**
+     * 현재 항목 수 (삭제 제외)
+     */
+    public synchronized int size() {
+        return entries.size() - tombstones;
+    }
+
+    public synchronized IdTagInfo get(String idTag) {
+        Entry entry = entries.get(idTag);
+        return entry != null ? entry.info : null;
+    }
+
+    /**
+     * 변경 로그 길이 (압축 확인용)
+     */
+    public synchronized int getLogSize() {
+        return logSize;
+    }
+
+    /**
+     * 버전 fromVersion인 충전기를 현재 버전으로 맞추는 SendLocalList 메시지들
+     * - 같은 버전이거나 그 뒤로 내용이 바뀌지 않았으면 빈 목록
+     * - Differential로 맞출 수 없으면 (버전이 더 높거나 삭제 기록을 버린 구간) Full 조각부터
+     * @param maxEntries 메시지 1개당 최대 항목 수
+     */
+    public synchronized List<LocalListUpdate> updatesSince(int fromVersion, int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (fromVersion == version) {
+            return List.of();
+        }
+        if (isPartial(fromVersion)) {
+            return resume(fromVersion, maxEntries);
+        }
+        long key = (long) fromVersion << 32 | maxEntries;
+        List<LocalListUpdate> updates = memo.get(key);
+        if (updates == null) {
+            updates = fromVersion < fullBelow || fromVersion > version || fromVersion < 0
+                    ? fullUpdates(maxEntries)
+                    : differential(fromVersion, maxEntries);
+            if (memo.size() >= MAX_MEMO) {
+                memo.clear();
+            }
+            memo.put(key, updates);
+        }
+        return updates;
+    }
+
+    /**
+     * 전체 목록을 메시지 1개로 (Full 업데이트, 크기 제한 없음)
+     */
+    public synchronized LocalListUpdate fullUpdate() {
+        return LocalListUpdate.of(version, UpdateType.FULL, liveEntries());
+    }
+
+    /**
+     * 전체 목록을 maxEntries개씩: Full 1개 + Differential
+     */
+    private List<LocalListUpdate> fullUpdates(int maxEntries) {
+        List<LocalListEntry> list = liveEntries();
+        if (list.size() <= maxEntries) {
+            return List.of(LocalListUpdate.of(version, UpdateType.FULL, list));
+        }
+        List<List<LocalListEntry>> chunks = new ArrayList<>(list.size() / maxEntries + 1);
+        for (int from = 0; from < list.size(); from += maxEntries) {
+            chunks.add(list.subList(from, Math.min(list.size(), from + maxEntries)));
+        }
+        return numbered(chunks, UpdateType.FULL);
+    }
+
+    /**
+     * 조각마다 현재 버전 다음부터 새 버전을 붙임 (조각이 1개면 현재 버전 그대로)
+     * 마지막 조각 버전이 새 현재 버전, 중간 버전은 이어 보내기용으로 기록
+     */
+    private List<LocalListUpdate> numbered(List<List<LocalListEntry>> chunks, UpdateType firstType) {
+        if (chunks.size() == 1) {
+            return List.of(LocalListUpdate.of(version, firstType, chunks.get(0)));
+        }
+        int first = version + 1;
+        int last = version + chunks.size();
+        versions.reserve(last);
+        List<LocalListUpdate> updates = new ArrayList<>(chunks.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            updates.add(LocalListUpdate.of(first + i, i == 0 ? firstType : UpdateType.DIFFERENTIAL, chunks.get(i)));
+        }
+        updates = List.copyOf(updates);
+        version = last;
+        complete.set(last - versions.base());
+        if (partials.size() + chunks.size() > MAX_MEMO) {
+            partials.clear();  // 잊은 중간 버전의 충전기는 Full
+        }
+        for (int v = first; v < last; v++) {
+            partials.put(v, updates);
+        }
+        return updates;
+    }
+
+    /**
+     * 조각 중간 버전 (현재 실행에서 만든 버전 중 목록 상태와 일치하지 않는 버전)
+     */
+    private boolean isPartial(int fromVersion) {
+        int base = versions.base();
+        return fromVersion > base && fromVersion < version && !complete.get(fromVersion - base);
+    }
+
+    /**
+     * 중간 버전에서 끊긴 충전기: 같은 조각 목록의 남은 조각 (목록을 잊었으면 Full)
+     */
+    private List<LocalListUpdate> resume(int fromVersion, int maxEntries) {
+        List<LocalListUpdate> updates = partials.get(fromVersion);
+        if (updates == null || updates.get(0).entries().size() > maxEntries) {
+            return fullUpdates(maxEntries);
+        }
+        for (int i = 0; i < updates.size(); i++) {
+            if (updates.get(i).listVersion() > fromVersion) {
+                return updates.subList(i, updates.size());
+            }
+        }
+        return fullUpdates(maxEntries);
+    }
+
+    private List<LocalListEntry> liveEntries() {
+        List<LocalListEntry> list = new ArrayList<>(entries.size() - tombstones);
+        entries.forEach((idTag, entry) -> {
+            if (entry.info != null) {
+                list.add(new LocalListEntry(idTag, entry.info));
+            }
+        });
+        return list;
+    }
+
+    private List<LocalListUpdate> differential(int fromVersion, int maxEntries) {
+        List<List<LocalListEntry>> chunks = new ArrayList<>();
+        List<LocalListEntry> chunk = new ArrayList<>();
+        for (int i = firstAfter(fromVersion); i < logSize; i++) {
+            int logVersion = logVersions[i];
+            String idTag = logTags[i];
+            Entry entry = entries.get(idTag);
+            if (entry.version != logVersion) {
+                continue;
+            }
+            if (chunk.size() == maxEntries) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>();
+            }
+            chunk.add(new LocalListEntry(idTag, entry.info));
+        }
+        if (chunk.isEmpty() && chunks.isEmpty()) {
+            // 그 뒤로 조각 버전만 올라갔고 내용은 같음 → 보낼 것 없음
+            return List.of();
+        }
+        chunks.add(chunk);
+        return numbered(chunks, UpdateType.DIFFERENTIAL);
+    }
+
+    /**
+     * 로그에서 버전이 fromVersion보다 큰 첫 위치 (이진 탐색)
+     */
+    private int firstAfter(int fromVersion) {
+        int low = 0;
+        int high = logSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (logVersions[mid] <= fromVersion) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private void append(int logVersion, String idTag) {
+        if (logSize == logVersions.length) {
+            logVersions = Arrays.copyOf(logVersions, logSize * 2);
+            logTags = Arrays.copyOf(logTags, logSize * 2);
+        }
+        logVersions[logSize] = logVersion;
+        logTags[logSize] = idTag;
+        logSize++;
+    }
+
+    /**
+     * 태그마다 마지막 변경만 남기기 (+ 톰스톤 상한 초과분은 오래된 것부터 삭제)
+     */
+    private void compact() {
+        int dropTombstones = tombstones > maxTombstones ? tombstones - maxTombstones / 2 : 0;
+        int size = 0;
+        for (int i = 0; i < logSize; i++) {
+            String idTag = logTags[i];
+            Entry entry = entries.get(idTag);
+            if (entry.version != logVersions[i]) {
+                continue;
+            }
+            if (entry.info == null && dropTombstones > 0) {
+                entries.remove(idTag);
+                tombstones--;
+                dropTombstones--;
+                fullBelow = logVersions[i];
+                continue;
+            }
+            logVersions[size] = logVersions[i];
+            logTags[size] = idTag;
+            size++;
+        }
+        Arrays.fill(logTags, size, logSize, null);
+        logSize = size;
+    }
+
+    private record Entry(IdTagInfo info, int version) {
+    }
+}
@@ -0,0 +1,26 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.google.gson.JsonObject;
+
+/**
+ * SendLocalList.localAuthorizationList 항목
+ *
+ * @param idTag 태그
+ * @param idTagInfo 인증 정보 (null이면 Differential 업데이트에서 삭제)
+ */
+public record LocalListEntry(String idTag, IdTagInfo idTagInfo) {
+
+    public boolean isRemoval() {
+        return idTagInfo == null;
+    }
+
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("idTag", idTag);
+        if (idTagInfo != null) {
+            json.add("idTagInfo", idTagInfo.toJson());
+        }
+        return json;
+    }
+}
@@ -0,0 +1,15 @@
+package com.clnewze.lab.www.locallist;
+
+/**
+ * 충전기 1대의 동기화 결과
+ * @param chargePointId 충전기 ID
+ * @param group 충전기 그룹 (없으면 null)
+ * @param status 결과 분류
+ * @param fromVersion 동기화 전 충전기 버전 (모르면 -1)
+ * @param toVersion 동기화 후 충전기 버전 (실패하면 마지막으로 Accepted된 버전)
+ * @param messages 보낸 SendLocalList 수
+ * @param detail 실패 사유 또는 응답 status
+ */
+public record LocalListSyncResult(String chargePointId, String group, SyncStatus status, int fromVersion,
+                                  int toVersion, int messages, String detail) {
+}
@@ -0,0 +1,390 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.session.SessionManager;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * 충전기 그룹별 로컬 인증 목록 동기화 (GetLocalListVersion → SendLocalList)
+ *
+ * - 그룹마다 LocalAuthorizationList 1개, 충전기 → 그룹은 groupOf 함수로 결정
+ * - 충전기 버전을 먼저 묻고 그 이후 변경만 Differential로 전송 (같은 버전이면 전송 없음)
+ * - 그룹이 바뀐 충전기, Differential이 VersionMismatch/Failed로 거절된 충전기는 Full로 1번 더
+ * - 이번 실행 이전의 버전(LocalListVersions.base 미만)을 보고한 충전기는 Full (충전기별 그룹 기록도 메모리에만 있음)
+ * - 같은 충전기의 동기화가 진행 중이면 새 요청은 진행 중인 결과를 공유
+ * - 모든 상태 변경은 전용 스레드 1개에서 처리 → Full 목록 생성이 WebSocket/타이머 스레드를 막지 않음
+ * - 응답 매칭과 타임아웃은 PendingRequestManager에 위임
+ * - BootNotification 후 자동 동기화 (syncAfterBoot), 원본(idTag 파일 등)이 바뀌면 목록 교체 후 그룹 전체 동기화 (follow)
+ */
+public class LocalListSyncService {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalListSyncService.class);
+
+    public static final int DEFAULT_MAX_ENTRIES_PER_MESSAGE = 500;
+
+    /** BootNotification 응답이 먼저 나가도록 동기화를 미루는 시간 */
+    public static final long BOOT_SYNC_DELAY_MILLIS = 1000;
+
+    private final SessionManager sessionManager;
+    private final PendingRequestManager pendingRequests;
+    private final Function<ChargePointSession, String> groupOf;
+    private final int maxEntriesPerMessage;
+    private final LocalListVersions versions;
+    private final ScheduledExecutorService executor;
+
+    private final Map<String, LocalAuthorizationList> lists = new ConcurrentHashMap<>();
+
+    // 실행 스레드 전용
+    private final Map<String, String> syncedGroups = new HashMap<>();
+    private final Map<String, CompletableFuture<LocalListSyncResult>> inProgress = new HashMap<>();
+    private final Map<String, Map<String, IdTagInfo>> followed = new HashMap<>();
+
+    public LocalListSyncService(SessionManager sessionManager, PendingRequestManager pendingRequests,
+                                Function<ChargePointSession, String> groupOf) {
+        this(sessionManager, pendingRequests, groupOf, DEFAULT_MAX_ENTRIES_PER_MESSAGE);
+    }
+
+    public LocalListSyncService(SessionManager sessionManager, PendingRequestManager pendingRequests,
+                                Function<ChargePointSession, String> groupOf, int maxEntriesPerMessage) {
+        this(sessionManager, pendingRequests, groupOf, maxEntriesPerMessage, LocalListVersions.inMemory());
+    }
+
+    /**
+     * @param groupOf 충전기 → 그룹 이름 (null이면 동기화 대상 아님)
+     * @param maxEntriesPerMessage SendLocalList 1개당 최대 항목 수, Full 포함 (충전기의 SendLocalListMaxLength)
+     * @param versions 목록 버전 세대 (재시작 후 이전 버전을 구분)
+     */
+    public LocalListSyncService(SessionManager sessionManager, PendingRequestManager pendingRequests,
+                                Function<ChargePointSession, String> groupOf, int maxEntriesPerMessage,
+                                LocalListVersions versions) {
+        if (maxEntriesPerMessage <= 0) {
+            throw new IllegalArgumentException("maxEntriesPerMessage must be positive");
+        }
+        this.sessionManager = sessionManager;
+        this.pendingRequests = pendingRequests;
+        this.groupOf = groupOf;
+        this.maxEntriesPerMessage = maxEntriesPerMessage;
+        this.versions = versions;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "ocpp-local-list");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 그룹의 목록 (없으면 빈 목록 생성)
+     */
+    public LocalAuthorizationList list(String group) {
+        return lists.computeIfAbsent(group,
+                g -> new LocalAuthorizationList(g, LocalAuthorizationList.DEFAULT_MAX_TOMBSTONES, versions));
+    }
+
+    /**
+     * 충전기 1대 동기화
+     */
+    public CompletableFuture<LocalListSyncResult> sync(ChargePointSession session) {
+        CompletableFuture<LocalListSyncResult> result = new CompletableFuture<>();
+        try {
+            executor.execute(() -> start(session).whenComplete((r, e) -> {
+                if (e != null) {
+                    result.completeExceptionally(e);
+                } else {
+                    result.complete(r);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * BootNotification 후 동기화 예약 (응답이 먼저 나가도록 BOOT_SYNC_DELAY_MILLIS 뒤, 그 사이 재연결했으면 건너뜀)
+     */
+    public void syncAfterBoot(ChargePointSession session) {
+        try {
+            executor.schedule(() -> {
+                if (sessionManager.getSession(session.getChargePointId()) == session) {
+                    start(session);
+                }
+            }, BOOT_SYNC_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("Local list sync after boot skipped: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 그룹 목록을 원본에 맞춰 유지: intervalMillis마다 원본을 읽어 바뀌었으면 replaceAll 후 그룹의 연결 충전기 동기화
+     * @param source 전체 태그 (내용이 그대로면 같은 인스턴스를 돌려주면 비교를 건너뜀)
+     */
+    public void follow(String group, Callable<Map<String, IdTagInfo>> source, long intervalMillis,
+                       int maxConcurrency) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                Map<String, IdTagInfo> tags = source.call();
+                if (tags == followed.get(group)) {
+                    return;
+                }
+                followed.put(group, tags);
+                LocalAuthorizationList list = list(group);
+                int before = list.getVersion();
+                int after = list.replaceAll(tags);
+                if (after != before) {
+                    log.info("Local list {} v{} → v{} ({} idTags)", group, before, after, list.size());
+                    syncAll(session -> group.equals(groupOf.apply(session)), maxConcurrency);
+                }
+            } catch (Exception e) {
+                log.warn("Failed to refresh local list {}: {}", group, e.getMessage());
+            }
+        }, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 조건에 맞는 연결 세션 전체 동기화 (동시에 maxConcurrency대까지)
+     */
+    public CompletableFuture<List<LocalListSyncResult>> syncAll(Predicate<ChargePointSession> selector,
+                                                                int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        Queue<ChargePointSession> targets = new ArrayDeque<>();
+        sessionManager.forEach(session -> {
+            if (selector.test(session)) {
+                targets.add(session);
+            }
+        });
+        log.info("Local list sync → {} charge points", targets.size());
+        BatchSync batch = new BatchSync(targets, maxConcurrency);
+        try {
+            executor.execute(batch::pump);
+        } catch (RejectedExecutionException e) {
+            batch.completion.completeExceptionally(e);
+        }
+        return batch.completion;
+    }
+
+    /**
+     * 실행 스레드 종료 (응답 대기 중인 요청은 PendingRequestManager 타임아웃으로 정리됨)
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<LocalListSyncResult> start(ChargePointSession session) {
+        String chargePointId = session.getChargePointId();
+        CompletableFuture<LocalListSyncResult> running = inProgress.get(chargePointId);
+        if (running != null) {
+            return running;
+        }
+        String group = groupOf.apply(session);
+        if (group == null) {
+            return CompletableFuture.completedFuture(
+                    new LocalListSyncResult(chargePointId, null, SyncStatus.SKIPPED, -1, -1, 0, "No group"));
+        }
+        ChargePointSync sync = new ChargePointSync(session, group, list(group));
+        inProgress.put(chargePointId, sync.result);
+        sync.start();
+        return sync.result;
+    }
+
+    /**
+     * 충전기 1대의 동기화 진행 상태 (실행 스레드 전용)
+     */
+    private final class ChargePointSync {
+
+        final ChargePointSession session;
+        final String group;
+        final LocalAuthorizationList list;
+        final CompletableFuture<LocalListSyncResult> result = new CompletableFuture<>();
+
+        int fromVersion = -1;
+        int currentVersion = -1;
+        int messages;
+        boolean fullRetried;
+        List<LocalListUpdate> updates;
+        int next;
+
+        ChargePointSync(ChargePointSession session, String group, LocalAuthorizationList list) {
+            this.session = session;
+            this.group = group;
+            this.list = list;
+        }
+
+        void start() {
+            call("GetLocalListVersion", new JsonObject(), this::onVersion);
+        }
+
+        void onVersion(OcppMessage response, Throwable error) {
+            if (error != null) {
+                finish(SyncStatus.FAILED, causeOf(error).getMessage());
+                return;
+            }
+            if (response instanceof CallError callError) {
+                finishCallError(callError);
+                return;
+            }
+            JsonElement element = payloadOf(response).get("listVersion");
+            if (element == null || !element.isJsonPrimitive()) {
+                finish(SyncStatus.FAILED, "Missing listVersion");
+                return;
+            }
+            int reported = element.getAsInt();
+            if (reported < 0) {
+                finish(SyncStatus.NOT_SUPPORTED, "listVersion " + reported);
+                return;
+            }
+            fromVersion = reported;
+            currentVersion = reported;
+            String syncedGroup = syncedGroups.get(session.getChargePointId());
+            // 다른 그룹 목록의 버전은 비교할 수 없으므로 Full
+            int since = syncedGroup != null && !syncedGroup.equals(group) ? -1 : reported;
+            updates = list.updatesSince(since, maxEntriesPerMessage);
+            if (updates.isEmpty()) {
+                syncedGroups.put(session.getChargePointId(), group);
+                finish(SyncStatus.UP_TO_DATE, null);
+                return;
+            }
+            sendNext();
+        }
+
+        void sendNext() {
+            if (next == updates.size()) {
+                syncedGroups.put(session.getChargePointId(), group);
+                finish(SyncStatus.UPDATED, "Accepted");
+                return;
+            }
+            LocalListUpdate update = updates.get(next);
+            messages++;
+            call("SendLocalList", update.payload(), (response, error) -> onSent(update, response, error));
+        }
+
+        void onSent(LocalListUpdate update, OcppMessage response, Throwable error) {
+            if (error != null) {
+                finish(SyncStatus.FAILED, causeOf(error).getMessage());
+                return;
+            }
+            if (response instanceof CallError callError) {
+                finishCallError(callError);
+                return;
+            }
+            JsonElement element = payloadOf(response).get("status");
+            String status = element != null && element.isJsonPrimitive() ? element.getAsString() : null;
+            if ("Accepted".equals(status)) {
+                // 일부만 보낸 상태에서 끊겨도 다음 동기화가 이 그룹 기준으로 이어감
+                syncedGroups.put(session.getChargePointId(), group);
+                currentVersion = update.listVersion();
+                next++;
+                sendNext();
+            } else if ("NotSupported".equals(status)) {
+                finish(SyncStatus.NOT_SUPPORTED, status);
+            } else if (update.updateType() == UpdateType.DIFFERENTIAL && !fullRetried) {
+                log.warn("[{}] SendLocalList v{} {} → retrying with Full", session.getChargePointId(),
+                        update.listVersion(), status);
+                fullRetried = true;
+                updates = list.updatesSince(-1, maxEntriesPerMessage);
+                next = 0;
+                sendNext();
+            } else {
+                finish(SyncStatus.FAILED, status);
+            }
+        }
+
+        void call(String action, JsonObject payload, BiConsumer<OcppMessage, Throwable> callback) {
+            pendingRequests.call(session, action, payload)
+                    .whenCompleteAsync(callback, executor)
+                    .exceptionally(e -> null);  // 실행 스레드 종료 후 도착한 응답은 버림
+        }
+
+        void finishCallError(CallError callError) {
+            ErrorCode code = callError.getErrorCode();
+            SyncStatus status = code == ErrorCode.NOT_IMPLEMENTED || code == ErrorCode.NOT_SUPPORTED
+                    ? SyncStatus.NOT_SUPPORTED
+                    : SyncStatus.FAILED;
+            finish(status, code.getValue() + ": " + callError.getErrorDescription());
+        }
+
+        void finish(SyncStatus status, String detail) {
+            String chargePointId = session.getChargePointId();
+            inProgress.remove(chargePointId);
+            if (status == SyncStatus.FAILED) {
+                log.warn("[{}] Local list sync failed at v{}: {}", chargePointId, currentVersion, detail);
+            }
+            result.complete(new LocalListSyncResult(chargePointId, group, status, fromVersion, currentVersion,
+                    messages, detail));
+        }
+    }
+
+    /**
+     * syncAll 1건 (실행 스레드 전용)
+     */
+    private final class BatchSync {
+
+        final Queue<ChargePointSession> queue;
+        final int maxConcurrency;
+        final List<LocalListSyncResult> results;
+        final CompletableFuture<List<LocalListSyncResult>> completion = new CompletableFuture<>();
+        int running;
+
+        BatchSync(Queue<ChargePointSession> queue, int maxConcurrency) {
+            this.queue = queue;
+            this.maxConcurrency = maxConcurrency;
+            this.results = new ArrayList<>(queue.size());
+        }
+
+        void pump() {
+            while (running < maxConcurrency && !queue.isEmpty()) {
+                running++;
+                start(queue.poll()).whenCompleteAsync((result, error) -> {
+                    running--;
+                    if (result != null) {
+                        results.add(result);
+                    }
+                    pump();
+                }, executor);
+            }
+            if (running == 0 && queue.isEmpty() && !completion.isDone()) {
+                log.info("Local list sync done: {} charge points", results.size());
+                completion.complete(List.copyOf(results));
+            }
+        }
+    }
+
+    private static JsonObject payloadOf(OcppMessage response) {
+        if (response instanceof CallResult result && result.getPayload() != null) {
+            return result.getPayload();
+        }
+        return new JsonObject();
+    }
+
+    private static Throwable causeOf(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
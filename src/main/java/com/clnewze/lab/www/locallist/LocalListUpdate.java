@@ -0,0 +1,31 @@
+package com.clnewze.lab.www.locallist;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+import java.util.List;
+
+/**
+ * SendLocalList 메시지 1개
+ * payload는 같은 버전의 충전기들이 공유하므로 만든 뒤 수정하지 않는다.
+ *
+ * @param listVersion 적용 후 충전기의 목록 버전
+ * @param updateType Differential 또는 Full
+ * @param entries 변경 항목 (Full이면 전체 목록)
+ * @param payload SendLocalList 요청 payload
+ */
+public record LocalListUpdate(int listVersion, UpdateType updateType, List<LocalListEntry> entries,
+                              JsonObject payload) {
+
+    public static LocalListUpdate of(int listVersion, UpdateType updateType, List<LocalListEntry> entries) {
+        JsonArray list = new JsonArray(entries.size());
+        for (LocalListEntry entry : entries) {
+            list.add(entry.toJson());
+        }
+        JsonObject payload = new JsonObject();
+        payload.addProperty("listVersion", listVersion);
+        payload.add("localAuthorizationList", list);
+        payload.addProperty("updateType", updateType.getValue());
+        return new LocalListUpdate(listVersion, updateType, List.copyOf(entries), payload);
+    }
+}
@@ -0,0 +1,108 @@
+package com.clnewze.lab.www.locallist;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 로컬 목록 버전 세대 (재시작해도 이전 실행의 버전과 겹치지 않게)
+ *
+ * 목록과 변경 로그는 메모리에만 있으므로 재시작 전 v37과 재시작 후 v37은 다른 목록이다.
+ * - 실행마다 시작 버전(base)을 이전 실행이 쓸 수 있었던 어떤 버전보다 크게 잡음
+ * - 파일에는 이번 실행이 쓸 수 있는 버전 상한만 기록 (블록 단위로 미리 예약 → 변경마다 쓰지 않음)
+ * - 충전기 버전이 base보다 작으면 이전 실행(또는 알 수 없는 출처)의 목록 → LocalAuthorizationList가 Full로 보냄
+ */
+public class LocalListVersions {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalListVersions.class);
+
+    public static final int DEFAULT_BLOCK = 1000;
+
+    private final Path file;
+    private final int block;
+    private final int base;
+    private int reserved;
+
+    private LocalListVersions(Path file, int block, int base, int reserved) {
+        this.file = file;
+        this.block = block;
+        this.base = base;
+        this.reserved = reserved;
+    }
+
+    /**
+     * 저장하지 않는 버전 (0부터, 재시작하면 충전기 목록과 버전이 어긋날 수 있음 → 테스트/단일 실행용)
+     */
+    public static LocalListVersions inMemory() {
+        return new LocalListVersions(null, 0, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * 예약 파일을 읽어 이번 실행의 시작 버전을 정하고 첫 블록 예약 (파일이 없으면 1부터)
+     */
+    public static LocalListVersions open(Path file) throws IOException {
+        return open(file, DEFAULT_BLOCK);
+    }
+
+    public static LocalListVersions open(Path file, int block) throws IOException {
+        if (block <= 0) {
+            throw new IllegalArgumentException("block must be positive");
+        }
+        int previous = 0;
+        if (Files.exists(file)) {
+            String text = Files.readString(file, StandardCharsets.UTF_8).trim();
+            try {
+                previous = Integer.parseInt(text);
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed local list version file " + file + ": " + text, e);
+            }
+        }
+        if (previous < 0 || previous == Integer.MAX_VALUE) {
+            throw new IOException("Local list versions exhausted in " + file);
+        }
+        LocalListVersions versions = new LocalListVersions(file, block, previous + 1, previous);
+        try {
+            versions.reserve(versions.base);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        log.info("Local list versions start at {} ({})", versions.base, file);
+        return versions;
+    }
+
+    /**
+     * 이번 실행의 시작 버전 (이보다 작은 버전은 이번 실행에서 만든 적이 없음)
+     */
+    public int base() {
+        return base;
+    }
+
+    /**
+     * version까지 쓸 수 있도록 예약 (예약 범위 안이면 바로 반환)
+     * @throws UncheckedIOException 예약을 기록하지 못하면 (호출한 쪽은 버전을 올리지 않아야 함)
+     */
+    public synchronized void reserve(int version) {
+        if (version <= reserved) {
+            return;
+        }
+        int next = version > Integer.MAX_VALUE - block ? Integer.MAX_VALUE : version + block;
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(tmp, Integer.toString(next), StandardCharsets.UTF_8);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to reserve local list versions in " + file, e);
+        }
+        reserved = next;
+    }
+}
@@ -0,0 +1,17 @@
+package com.clnewze.lab.www.locallist;
+
+/**
+ * 충전기 1대의 로컬 목록 동기화 결과
+ */
+public enum SyncStatus {
+    /** 충전기 버전 = 서버 버전 */
+    UP_TO_DATE,
+    /** SendLocalList 전송 후 모두 Accepted */
+    UPDATED,
+    /** 충전기가 로컬 목록을 지원하지 않음 (listVersion -1, NotSupported, NotImplemented) */
+    NOT_SUPPORTED,
+    /** 그룹이 없는 충전기 */
+    SKIPPED,
+    /** 거절, CallError, 타임아웃, 연결 종료 */
+    FAILED
+}
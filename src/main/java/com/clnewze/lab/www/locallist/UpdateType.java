@@ -0,0 +1,19 @@
+package com.clnewze.lab.www.locallist;
+
+/**
+ * OCPP 1.6 SendLocalList updateType
+ */
+public enum UpdateType {
+    DIFFERENTIAL("Differential"),
+    FULL("Full");
+
+    private final String value;
+
+    UpdateType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,44 @@
+package com.clnewze.lab.www.logging;
+
+import com.clnewze.lab.www.action.CallContext;
+import org.slf4j.MDC;
+
+/**
+ * 요청 처리 중 로그에 붙는 MDC 필드
+ * logback 패턴에서 %X{chargePointId} 등으로 출력
+ *
+ * MDC는 스레드 로컬이므로 비동기 핸들러의 후속 스레드에는 전파되지 않는다.
+ */
+public final class CallMdc {
+
+    public static final String CHARGE_POINT_ID = "chargePointId";
+    public static final String UNIQUE_ID = "uniqueId";
+    public static final String ACTION = "action";
+    public static final String LATENCY_US = "latencyUs";
+
+    private CallMdc() {
+    }
+
+    /**
+     * 요청 식별 필드 설정
+     */
+    public static void put(CallContext context) {
+        MDC.put(CHARGE_POINT_ID, context.chargePointId());
+        MDC.put(UNIQUE_ID, context.uniqueId());
+        MDC.put(ACTION, context.action());
+    }
+
+    /**
+     * 수신 시점부터 지금까지의 처리 시간 설정 (마이크로초)
+     */
+    public static void putLatency(CallContext context) {
+        MDC.put(LATENCY_US, Long.toString(context.elapsedNanos() / 1_000));
+    }
+
+    public static void clear() {
+        MDC.remove(CHARGE_POINT_ID);
+        MDC.remove(UNIQUE_ID);
+        MDC.remove(ACTION);
+        MDC.remove(LATENCY_US);
+    }
+}
@@ -0,0 +1,104 @@
+package com.clnewze.lab.www.logging;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 원본 프레임 로그 (logger: ocpp.frames)
+ * 모든 프레임을 찍으면 처리량이 떨어지므로 아래 경우에만 기록한다.
+ *
+ * - ocpp.frames 레벨이 DEBUG: 전체 프레임
+ * - 추적 대상 충전기: 해당 충전기의 전체 프레임 (런타임에 추가/제거)
+ * - 샘플링: N개 중 1개 (-Docpp.frameLog.sampleEvery=N, 0이면 끔)
+ *
+ * 시작 시 추적 대상: -Docpp.frameLog.chargePoints=CP001,CP002
+ */
+public final class FrameLog {
+
+    private static final Logger log = LoggerFactory.getLogger("ocpp.frames");
+
+    private static final Set<String> traced = ConcurrentHashMap.newKeySet();
+    private static volatile int sampleEvery = Integer.getInteger("ocpp.frameLog.sampleEvery", 0);
+
+    static {
+        String initial = System.getProperty("ocpp.frameLog.chargePoints", "");
+        for (String chargePointId : initial.split(",")) {
+            if (!chargePointId.isBlank()) {
+                traced.add(chargePointId.trim());
+            }
+        }
+    }
+
+    private FrameLog() {
+    }
+
+    /**
+     * 충전기 프레임 추적 시작
+     */
+    public static void enable(String chargePointId) {
+        traced.add(chargePointId);
+    }
+
+    /**
+     * 충전기 프레임 추적 중지
+     */
+    public static void disable(String chargePointId) {
+        traced.remove(chargePointId);
+    }
+
+    public static boolean isTraced(String chargePointId) {
+        return traced.contains(chargePointId);
+    }
+
+    /**
+     * 샘플링 비율 변경 (N개 중 1개, 0이면 끔)
+     */
+    public static void setSampleEvery(int every) {
+        sampleEvery = Math.max(0, every);
+    }
+
+    public static int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * 이 프레임을 기록할지 결정 (문자열 생성 전에 호출)
+     */
+    public static boolean shouldLog(String chargePointId) {
+        if (!log.isInfoEnabled()) {
+            return false;
+        }
+        if (log.isDebugEnabled()) {
+            return true;
+        }
+        if (!traced.isEmpty() && traced.contains(chargePointId)) {
+            return true;
+        }
+        int every = sampleEvery;
+        return every > 0 && (every == 1 || ThreadLocalRandom.current().nextInt(every) == 0);
+    }
+
+    /**
+     * 수신 프레임
+     */
+    public static void inbound(String chargePointId, String raw) {
+        if (shouldLog(chargePointId)) {
+            log.info("<< {} {}", chargePointId, raw);
+        }
+    }
+
+    /**
+     * 송신 프레임 (UTF-8 바이트는 기록할 때만 디코딩)
+     */
+    public static void outbound(String chargePointId, ByteBuffer utf8) {
+        if (utf8 != null && shouldLog(chargePointId)) {
+            log.info(">> {} {}", chargePointId, StandardCharsets.UTF_8.decode(utf8.duplicate()));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * OCPP 1.6 Location
+ * 순서를 바꾸면 안 된다. (새 항목은 끝에 추가)
+ */
+public enum Location {
+    UNKNOWN(""),
+    BODY("Body"),
+    CABLE("Cable"),
+    EV("EV"),
+    INLET("Inlet"),
+    OUTLET("Outlet");
+
+    private static final Vocabulary<Location> VOCABULARY = new Vocabulary<>(values(), Location::getValue);
+
+    private final String value;
+
+    Location(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 문자열 → Location (값이 없으면 스펙 기본값 OUTLET, 모르는 값은 UNKNOWN)
+     */
+    public static Location fromValue(String value) {
+        return VOCABULARY.lookup(value, OUTLET, UNKNOWN);
+    }
+
+    public static Location fromOrdinal(int ordinal) {
+        return VOCABULARY.fromOrdinal(ordinal, UNKNOWN);
+    }
+}
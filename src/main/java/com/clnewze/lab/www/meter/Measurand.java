@@ -0,0 +1,57 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * OCPP 1.6 Measurand
+ * 저널에는 ordinal을 저장하므로 순서를 바꾸면 안 된다. (새 항목은 끝에 추가)
+ */
+public enum Measurand {
+    UNKNOWN(""),
+    CURRENT_EXPORT("Current.Export"),
+    CURRENT_IMPORT("Current.Import"),
+    CURRENT_OFFERED("Current.Offered"),
+    ENERGY_ACTIVE_EXPORT_REGISTER("Energy.Active.Export.Register"),
+    ENERGY_ACTIVE_IMPORT_REGISTER("Energy.Active.Import.Register"),
+    ENERGY_REACTIVE_EXPORT_REGISTER("Energy.Reactive.Export.Register"),
+    ENERGY_REACTIVE_IMPORT_REGISTER("Energy.Reactive.Import.Register"),
+    ENERGY_ACTIVE_EXPORT_INTERVAL("Energy.Active.Export.Interval"),
+    ENERGY_ACTIVE_IMPORT_INTERVAL("Energy.Active.Import.Interval"),
+    ENERGY_REACTIVE_EXPORT_INTERVAL("Energy.Reactive.Export.Interval"),
+    ENERGY_REACTIVE_IMPORT_INTERVAL("Energy.Reactive.Import.Interval"),
+    FREQUENCY("Frequency"),
+    POWER_ACTIVE_EXPORT("Power.Active.Export"),
+    POWER_ACTIVE_IMPORT("Power.Active.Import"),
+    POWER_FACTOR("Power.Factor"),
+    POWER_OFFERED("Power.Offered"),
+    POWER_REACTIVE_EXPORT("Power.Reactive.Export"),
+    POWER_REACTIVE_IMPORT("Power.Reactive.Import"),
+    RPM("RPM"),
+    SOC("SoC"),
+    TEMPERATURE("Temperature"),
+    VOLTAGE("Voltage");
+
+    private static final Vocabulary<Measurand> VOCABULARY = new Vocabulary<>(values(), Measurand::getValue);
+
+    private final String value;
+
+    Measurand(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 문자열 → Measurand (null이면 스펙 기본값 Energy.Active.Import.Register, 모르는 값은 UNKNOWN)
+     */
+    public static Measurand fromValue(String value) {
+        return VOCABULARY.lookup(value, ENERGY_ACTIVE_IMPORT_REGISTER, UNKNOWN);
+    }
+
+    /**
+     * 저장된 ordinal → Measurand (범위 밖이면 UNKNOWN)
+     */
+    public static Measurand fromOrdinal(int ordinal) {
+        return VOCABULARY.fromOrdinal(ordinal, UNKNOWN);
+    }
+}
@@ -0,0 +1,59 @@
+package com.clnewze.lab.www.meter;
+
+import java.util.Arrays;
+
+/**
+ * 한 번에 저장할 샘플 묶음 (MeterValues 요청 1건)
+ * MeterJournal.append(key, connectorId, transactionId, batch)로 전부 기록되거나 하나도 기록되지 않는다.
+ */
+public final class MeterBatch {
+
+    private long[] timestamps;
+    private double[] values;
+    private Measurand[] measurands;
+    private int size;
+
+    public MeterBatch() {
+        this(16);
+    }
+
+    public MeterBatch(int initialCapacity) {
+        int capacity = Math.max(1, initialCapacity);
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+        this.measurands = new Measurand[capacity];
+    }
+
+    /**
+     * 샘플 1개 추가
+     * @param timestamp 측정 시각 (epoch millis)
+     */
+    public void add(long timestamp, Measurand measurand, double value) {
+        if (size == timestamps.length) {
+            int capacity = size * 2;
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            values = Arrays.copyOf(values, capacity);
+            measurands = Arrays.copyOf(measurands, capacity);
+        }
+        timestamps[size] = timestamp;
+        values[size] = value;
+        measurands[size] = measurand;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    double value(int index) {
+        return values[index];
+    }
+
+    Measurand measurand(int index) {
+        return measurands[index];
+    }
+}
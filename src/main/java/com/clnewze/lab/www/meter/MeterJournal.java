@@ -0,0 +1,198 @@
+package com.clnewze.lab.www.meter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * MeterValues 시계열 저널 (추가 전용, 세그먼트 메모리 맵 파일)
+ *
+ * - 샘플 1개 = 32바이트 고정 레코드 (MeterSegment 참고), 추가 시 할당 없음
+ * - 세그먼트 크기(기본 256MB) 또는 시간(기본 1시간)을 넘으면 새 세그먼트로 교체
+ * - 재시작하면 기존 세그먼트는 읽기 전용, 새 세그먼트부터 기록 (쓰다 죽은 세그먼트도 공개된 레코드 수까지는 유효)
+ * - MeterBatch는 한 세그먼트에 몰아서 쓰고 레코드 수를 한 번만 공개 → 전부 기록되거나 하나도 기록되지 않음
+ * - 범위 조회는 세그먼트 헤더의 최소/최대 timestamp로 건너뛰고, 레코드는 콜백으로 흘려보냄
+ *
+ * 추가는 this 락, 조회는 락 없음 (세그먼트 목록 스냅샷).
+ */
+public class MeterJournal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MeterJournal.class);
+
+    public static final long DEFAULT_SEGMENT_BYTES = 256L * 1024 * 1024;
+    public static final long DEFAULT_ROLL_MILLIS = 60 * 60 * 1000L;
+
+    private static final String PREFIX = "meter-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int segmentCapacity;
+    private final long rollMillis;
+    private final List<MeterSegment> segments = new CopyOnWriteArrayList<>();
+    private MeterSegment active;
+    private long nextSequence;
+    private boolean closed;
+
+    public MeterJournal(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_ROLL_MILLIS);
+    }
+
+    /**
+     * @param segmentBytes 세그먼트 최대 크기 (헤더 포함)
+     * @param rollMillis 세그먼트 최대 사용 시간 (0 이하면 크기로만 교체)
+     */
+    public MeterJournal(Path directory, long segmentBytes, long rollMillis) throws IOException {
+        long capacity = (segmentBytes - MeterSegment.HEADER_BYTES) / MeterSegment.RECORD_BYTES;
+        if (capacity <= 0 || capacity > Integer.MAX_VALUE / MeterSegment.RECORD_BYTES) {
+            throw new IllegalArgumentException("segmentBytes out of range: " + segmentBytes);
+        }
+        this.directory = directory;
+        this.segmentCapacity = (int) capacity;
+        this.rollMillis = rollMillis;
+        Files.createDirectories(directory);
+        loadSegments();
+    }
+
+    /**
+     * chargePointId → 저장용 64비트 키 (FNV-1a)
+     */
+    public static long keyOf(String chargePointId) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < chargePointId.length(); i++) {
+            hash ^= chargePointId.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash != 0 ? hash : 1;  // 0은 조회 시 "전체"
+    }
+
+    /**
+     * 샘플 1개 추가
+     * @param timestamp 측정 시각 (epoch millis)
+     */
+    public synchronized void append(long chargePointKey, int connectorId, int transactionId, long timestamp,
+                                    Measurand measurand, double value) throws IOException {
+        MeterSegment segment = segmentFor(1);
+        segment.append(chargePointKey, timestamp, value, transactionId, connectorId, measurand.ordinal());
+        segment.publish();
+    }
+
+    /**
+     * 샘플 묶음 추가 (전부 기록되거나 하나도 기록되지 않음)
+     * 남은 자리가 모자라면 먼저 새 세그먼트로 교체하고, 다 쓴 뒤 레코드 수를 한 번만 공개한다.
+     * @throws IOException 닫혔거나, 세그먼트를 만들 수 없거나, 묶음이 세그먼트 하나보다 큰 경우 (아무것도 기록하지 않음)
+     */
+    public synchronized void append(long chargePointKey, int connectorId, int transactionId,
+                                    MeterBatch batch) throws IOException {
+        int size = batch.size();
+        if (size == 0) {
+            return;
+        }
+        if (size > segmentCapacity) {
+            throw new IOException("Meter batch of " + size + " samples exceeds segment capacity " + segmentCapacity);
+        }
+        MeterSegment segment = segmentFor(size);
+        for (int i = 0; i < size; i++) {
+            segment.append(chargePointKey, batch.timestamp(i), batch.value(i), transactionId, connectorId,
+                    batch.measurand(i).ordinal());
+        }
+        segment.publish();
+    }
+
+    /**
+     * 범위 조회 (저장 순서대로 전달)
+     * @param chargePointKey keyOf(chargePointId), 0이면 전체 충전기
+     * @return 전달한 레코드 수
+     */
+    public long scan(long chargePointKey, long fromInclusive, long toExclusive, MeterRecordVisitor visitor) {
+        long visited = 0;
+        for (MeterSegment segment : segments) {
+            visited += segment.scan(chargePointKey, fromInclusive, toExclusive, visitor);
+        }
+        return visited;
+    }
+
+    /**
+     * 저장된 전체 레코드 수
+     */
+    public long getRecordCount() {
+        long total = 0;
+        for (MeterSegment segment : segments) {
+            total += segment.recordCount();
+        }
+        return total;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (active != null) {
+            active.seal();
+            active = null;
+        }
+    }
+
+    /**
+     * records개를 쓸 자리가 있는 세그먼트 (없거나, 모자라거나, 오래됐으면 교체)
+     */
+    private MeterSegment segmentFor(int records) throws IOException {
+        if (closed) {
+            throw new IOException("Meter journal closed");
+        }
+        MeterSegment segment = active;
+        if (segment == null || segment.remaining() < records
+                || (rollMillis > 0 && System.currentTimeMillis() - segment.createdMillis() >= rollMillis)) {
+            segment = roll();
+        }
+        return segment;
+    }
+
+    private MeterSegment roll() throws IOException {
+        if (active != null) {
+            active.seal();
+        }
+        Path path = directory.resolve(String.format("%s%012d%s", PREFIX, nextSequence++, SUFFIX));
+        active = MeterSegment.create(path, segmentCapacity, System.currentTimeMillis());
+        segments.add(active);
+        log.debug("Started meter segment {}", path);
+        return active;
+    }
+
+    private void loadSegments() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX)) {
+            stream.forEach(paths::add);
+        }
+        paths.sort(null);
+        for (Path path : paths) {
+            String name = path.getFileName().toString();
+            try {
+                long sequence = Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+                nextSequence = Math.max(nextSequence, sequence + 1);
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            MeterSegment segment = MeterSegment.openReadOnly(path);
+            if (segment == null) {
+                log.warn("Skipping unreadable meter segment {}", path);
+                continue;
+            }
+            segments.add(segment);
+        }
+        log.info("Opened meter journal {} ({} segments, {} records)", directory, segments.size(),
+                getRecordCount());
+    }
+}
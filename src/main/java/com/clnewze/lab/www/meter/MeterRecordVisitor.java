@@ -0,0 +1,11 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * 저널 레코드 순회 콜백 (레코드 객체를 만들지 않도록 필드를 그대로 전달)
+ */
+@FunctionalInterface
+public interface MeterRecordVisitor {
+
+    void visit(long chargePointKey, long timestamp, int connectorId, int transactionId,
+               Measurand measurand, double value);
+}
@@ -0,0 +1,179 @@
+package com.clnewze.lab.www.meter;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 저널 세그먼트 파일 1개 (메모리 맵)
+ *
+ * 헤더 64바이트 + 32바이트 고정 레코드
+ * - 헤더: magic int, version int, 레코드 수 long, 최소/최대 timestamp long, 생성 시각 long
+ * - 레코드: chargePointKey long, timestamp long, value double, transactionId int, connectorId short, measurand short
+ * 레코드를 다 쓴 뒤 publish()에서 레코드 수를 release로 기록 → 읽는 쪽은 acquire로 읽은 개수까지만 본다.
+ * (여러 레코드를 쓰고 한 번만 publish하면 묶음 전체가 한꺼번에 보임)
+ * 쓰기는 MeterJournal 락 안에서만.
+ */
+final class MeterSegment {
+
+    static final int HEADER_BYTES = 64;
+    static final int RECORD_BYTES = 32;
+
+    private static final int MAGIC = 0x4F4D5631;  // "OMV1"
+    private static final int VERSION = 1;
+    private static final int COUNT_OFFSET = 8;
+    private static final int MIN_TS_OFFSET = 16;
+    private static final int MAX_TS_OFFSET = 24;
+    private static final int CREATED_OFFSET = 32;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final FileChannel channel;     // 쓰기 중인 세그먼트만
+    private final int capacity;
+    private int count;
+    private long minTimestamp = Long.MAX_VALUE;
+    private long maxTimestamp = Long.MIN_VALUE;
+
+    private MeterSegment(Path path, ByteBuffer buffer, FileChannel channel, int capacity) {
+        this.path = path;
+        this.buffer = buffer;
+        this.channel = channel;
+        this.capacity = capacity;
+    }
+
+    /**
+     * 새 세그먼트 생성 (파일 크기를 capacity만큼 미리 잡고 맵)
+     */
+    static MeterSegment create(Path path, int capacity, long createdMillis) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_BYTES + (long) capacity * RECORD_BYTES);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putLong(MIN_TS_OFFSET, Long.MAX_VALUE);
+        buffer.putLong(MAX_TS_OFFSET, Long.MIN_VALUE);
+        buffer.putLong(CREATED_OFFSET, createdMillis);
+        return new MeterSegment(path, buffer, channel, capacity);
+    }
+
+    /**
+     * 기존 세그먼트 읽기 전용으로 열기 (형식이 다르면 null)
+     */
+    static MeterSegment openReadOnly(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                return null;
+            }
+            int capacity = (int) ((size - HEADER_BYTES) / RECORD_BYTES);
+            MeterSegment segment = new MeterSegment(path, buffer, null, capacity);
+            segment.count = (int) Math.min(capacity, Math.max(0, (long) LONGS.getAcquire(buffer, COUNT_OFFSET)));
+            segment.minTimestamp = buffer.getLong(MIN_TS_OFFSET);
+            segment.maxTimestamp = buffer.getLong(MAX_TS_OFFSET);
+            return segment;
+        }
+    }
+
+    /**
+     * 남은 레코드 자리
+     */
+    int remaining() {
+        return capacity - count;
+    }
+
+    long createdMillis() {
+        return buffer.getLong(CREATED_OFFSET);
+    }
+
+    Path path() {
+        return path;
+    }
+
+    /**
+     * 레코드 추가 (할당 없음, 남은 자리는 호출 전에 확인)
+     * publish() 전까지는 읽는 쪽과 재시작 후에 보이지 않음
+     */
+    void append(long chargePointKey, long timestamp, double value, int transactionId, int connectorId,
+                int measurand) {
+        int offset = HEADER_BYTES + count * RECORD_BYTES;
+        buffer.putLong(offset, chargePointKey);
+        buffer.putLong(offset + 8, timestamp);
+        buffer.putDouble(offset + 16, value);
+        buffer.putInt(offset + 24, transactionId);
+        buffer.putShort(offset + 28, (short) connectorId);
+        buffer.putShort(offset + 30, (short) measurand);
+        if (timestamp < minTimestamp) {
+            minTimestamp = timestamp;
+            buffer.putLong(MIN_TS_OFFSET, timestamp);
+        }
+        if (timestamp > maxTimestamp) {
+            maxTimestamp = timestamp;
+            buffer.putLong(MAX_TS_OFFSET, timestamp);
+        }
+        count++;
+    }
+
+    /**
+     * 지금까지 추가한 레코드 공개
+     */
+    void publish() {
+        LONGS.setRelease(buffer, COUNT_OFFSET, (long) count);
+    }
+
+    /**
+     * 범위 순회 (다른 스레드가 쓰는 중이어도 안전: 공개된 레코드 수까지만 읽음)
+     * @param chargePointKey 0이면 전체 충전기
+     * @return 전달한 레코드 수
+     */
+    long scan(long chargePointKey, long fromInclusive, long toExclusive, MeterRecordVisitor visitor) {
+        int published = (int) (long) LONGS.getAcquire(buffer, COUNT_OFFSET);
+        if (published == 0
+                || buffer.getLong(MAX_TS_OFFSET) < fromInclusive
+                || buffer.getLong(MIN_TS_OFFSET) >= toExclusive) {
+            return 0;
+        }
+        long visited = 0;
+        int offset = HEADER_BYTES;
+        for (int i = 0; i < published; i++, offset += RECORD_BYTES) {
+            long key = buffer.getLong(offset);
+            long timestamp = buffer.getLong(offset + 8);
+            if ((chargePointKey != 0 && key != chargePointKey) || timestamp < fromInclusive
+                    || timestamp >= toExclusive) {
+                continue;
+            }
+            visitor.visit(key, timestamp, buffer.getShort(offset + 28), buffer.getInt(offset + 24),
+                    Measurand.fromOrdinal(buffer.getShort(offset + 30)), buffer.getDouble(offset + 16));
+            visited++;
+        }
+        return visited;
+    }
+
+    int recordCount() {
+        return (int) (long) LONGS.getAcquire(buffer, COUNT_OFFSET);
+    }
+
+    /**
+     * 쓰기 종료: 디스크 반영 후 사용한 크기로 파일 자르기 (맵은 읽기용으로 계속 유효)
+     */
+    void seal() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        ((MappedByteBuffer) buffer).force();
+        channel.truncate(HEADER_BYTES + (long) count * RECORD_BYTES);
+        channel.close();
+    }
+}
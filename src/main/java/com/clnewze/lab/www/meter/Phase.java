@@ -0,0 +1,42 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * OCPP 1.6 Phase (NONE = 값 없음)
+ * 순서를 바꾸면 안 된다. (새 항목은 끝에 추가)
+ */
+public enum Phase {
+    NONE(""),
+    L1("L1"),
+    L2("L2"),
+    L3("L3"),
+    N("N"),
+    L1_N("L1-N"),
+    L2_N("L2-N"),
+    L3_N("L3-N"),
+    L1_L2("L1-L2"),
+    L2_L3("L2-L3"),
+    L3_L1("L3-L1");
+
+    private static final Vocabulary<Phase> VOCABULARY = new Vocabulary<>(values(), Phase::getValue);
+
+    private final String value;
+
+    Phase(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 문자열 → Phase (없거나 모르는 값은 NONE)
+     */
+    public static Phase fromValue(String value) {
+        return VOCABULARY.lookup(value, NONE, NONE);
+    }
+
+    public static Phase fromOrdinal(int ordinal) {
+        return VOCABULARY.fromOrdinal(ordinal, NONE);
+    }
+}
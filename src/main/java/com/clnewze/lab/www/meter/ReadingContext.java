@@ -0,0 +1,40 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * OCPP 1.6 ReadingContext
+ * 순서를 바꾸면 안 된다. (새 항목은 끝에 추가)
+ */
+public enum ReadingContext {
+    UNKNOWN(""),
+    INTERRUPTION_BEGIN("Interruption.Begin"),
+    INTERRUPTION_END("Interruption.End"),
+    OTHER("Other"),
+    SAMPLE_CLOCK("Sample.Clock"),
+    SAMPLE_PERIODIC("Sample.Periodic"),
+    TRANSACTION_BEGIN("Transaction.Begin"),
+    TRANSACTION_END("Transaction.End"),
+    TRIGGER("Trigger");
+
+    private static final Vocabulary<ReadingContext> VOCABULARY = new Vocabulary<>(values(), ReadingContext::getValue);
+
+    private final String value;
+
+    ReadingContext(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 문자열 → ReadingContext (값이 없으면 스펙 기본값 SAMPLE_PERIODIC, 모르는 값은 UNKNOWN)
+     */
+    public static ReadingContext fromValue(String value) {
+        return VOCABULARY.lookup(value, SAMPLE_PERIODIC, UNKNOWN);
+    }
+
+    public static ReadingContext fromOrdinal(int ordinal) {
+        return VOCABULARY.fromOrdinal(ordinal, UNKNOWN);
+    }
+}
@@ -0,0 +1,58 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * OCPP 1.6 UnitOfMeasure (k 단위는 기본 단위 배율 포함)
+ * 순서를 바꾸면 안 된다. (새 항목은 끝에 추가)
+ */
+public enum UnitOfMeasure {
+    UNKNOWN("", 1),
+    WH("Wh", 1),
+    KWH("kWh", 1000),
+    VARH("varh", 1),
+    KVARH("kvarh", 1000),
+    W("W", 1),
+    KW("kW", 1000),
+    VA("VA", 1),
+    KVA("kVA", 1000),
+    VAR("var", 1),
+    KVAR("kvar", 1000),
+    A("A", 1),
+    V("V", 1),
+    K("K", 1),
+    CELCIUS("Celcius", 1),
+    CELSIUS("Celsius", 1),
+    FAHRENHEIT("Fahrenheit", 1),
+    PERCENT("Percent", 1);
+
+    private static final Vocabulary<UnitOfMeasure> VOCABULARY = new Vocabulary<>(values(), UnitOfMeasure::getValue);
+
+    private final String value;
+    private final double scale;
+
+    UnitOfMeasure(String value, double scale) {
+        this.value = value;
+        this.scale = scale;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 기본 단위 배율 (kWh → Wh면 1000)
+     */
+    public double scale() {
+        return scale;
+    }
+
+    /**
+     * 문자열 → UnitOfMeasure (값이 없으면 스펙 기본값 WH, 모르는 값은 UNKNOWN)
+     */
+    public static UnitOfMeasure fromValue(String value) {
+        return VOCABULARY.lookup(value, WH, UNKNOWN);
+    }
+
+    public static UnitOfMeasure fromOrdinal(int ordinal) {
+        return VOCABULARY.fromOrdinal(ordinal, UNKNOWN);
+    }
+}
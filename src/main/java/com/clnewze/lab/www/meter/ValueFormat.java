@@ -0,0 +1,34 @@
+package com.clnewze.lab.www.meter;
+
+/**
+ * OCPP 1.6 ValueFormat
+ * 순서를 바꾸면 안 된다. (새 항목은 끝에 추가)
+ */
+public enum ValueFormat {
+    UNKNOWN(""),
+    RAW("Raw"),
+    SIGNED_DATA("SignedData");
+
+    private static final Vocabulary<ValueFormat> VOCABULARY = new Vocabulary<>(values(), ValueFormat::getValue);
+
+    private final String value;
+
+    ValueFormat(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 문자열 → ValueFormat (값이 없으면 스펙 기본값 RAW, 모르는 값은 UNKNOWN)
+     */
+    public static ValueFormat fromValue(String value) {
+        return VOCABULARY.lookup(value, RAW, UNKNOWN);
+    }
+
+    public static ValueFormat fromOrdinal(int ordinal) {
+        return VOCABULARY.fromOrdinal(ordinal, UNKNOWN);
+    }
+}
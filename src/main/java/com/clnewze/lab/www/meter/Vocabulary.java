@@ -0,0 +1,45 @@
+package com.clnewze.lab.www.meter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * OCPP 고정 어휘(문자열) ↔ enum 사전
+ * 파싱한 문자열을 바로 enum(ordinal)으로 바꿔서, 이후에는 문자열을 들고 다니거나 비교하지 않게 한다.
+ */
+final class Vocabulary<E extends Enum<E>> {
+
+    private final E[] byOrdinal;
+    private final Map<String, E> byValue;
+
+    Vocabulary(E[] values, Function<E, String> value) {
+        this.byOrdinal = values;
+        this.byValue = new HashMap<>(values.length * 2);
+        for (E e : values) {
+            String key = value.apply(e);
+            if (!key.isEmpty()) {
+                byValue.put(key, e);
+            }
+        }
+    }
+
+    /**
+     * @param absent 값이 없을 때 (스펙 기본값)
+     * @param unknown 사전에 없는 값일 때
+     */
+    E lookup(String value, E absent, E unknown) {
+        if (value == null) {
+            return absent;
+        }
+        E e = byValue.get(value);
+        return e != null ? e : unknown;
+    }
+
+    /**
+     * ordinal → enum (범위 밖이면 unknown)
+     */
+    E fromOrdinal(int ordinal, E unknown) {
+        return ordinal >= 0 && ordinal < byOrdinal.length ? byOrdinal[ordinal] : unknown;
+    }
+}
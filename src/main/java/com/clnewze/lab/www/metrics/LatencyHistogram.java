@@ -0,0 +1,146 @@
+package com.clnewze.lab.www.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 지연 시간 히스토그램 (HdrHistogram 방식의 로그-선형 버킷, 락 없음)
+ *
+ * 2의 거듭제곱 구간마다 16개의 균등 버킷 → 상대 오차 약 6%
+ * 기록은 배열 원소 1개 증가 + 합계 1회 덧셈이며 할당이 없다.
+ * 범위: 0ns ~ 2^40ns(약 18분), 넘는 값은 마지막 버킷에 기록
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40;
+    static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder sumNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * 값 기록 (나노초)
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts.incrementAndGet(indexOf(value));
+        sumNanos.add(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * 현재 값 스냅샷 (기록과 동시에 호출해도 되며, 버킷 합계와 count가 항상 일치)
+     */
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new Snapshot(copy, count, sumNanos.sum(), maxNanos.get());
+    }
+
+    static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * 버킷에 들어가는 가장 큰 값 (나노초, 마지막 버킷은 범위 초과 값도 포함)
+     */
+    static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        if (index == BUCKET_COUNT - 1) {
+            return Long.MAX_VALUE;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int sub = index % SUB_BUCKETS;
+        long width = 1L << (exponent - SUB_BUCKET_BITS);
+        return ((long) (SUB_BUCKETS + sub) << (exponent - SUB_BUCKET_BITS)) + width - 1;
+    }
+
+    /**
+     * nanos가 들어가는 버킷의 상한 (nanos 이상인 가장 가까운 버킷 경계, 누적 버킷 출력 경계용)
+     */
+    static long bucketUpperBound(long nanos) {
+        return upperBoundOf(indexOf(Math.max(0, nanos)));
+    }
+
+    /**
+     * 히스토그램 스냅샷
+     */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long count;
+        private final long sumNanos;
+        private final long maxNanos;
+
+        private Snapshot(long[] counts, long count, long sumNanos, long maxNanos) {
+            this.counts = counts;
+            this.count = count;
+            this.sumNanos = sumNanos;
+            this.maxNanos = maxNanos;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long sumNanos() {
+            return sumNanos;
+        }
+
+        public long maxNanos() {
+            return maxNanos;
+        }
+
+        /**
+         * 분위수 (예: 0.99) → 나노초 (해당 버킷 상한, 최대값을 넘지 않음)
+         */
+        public long quantile(double q) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(q * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(upperBoundOf(i), maxNanos);
+                }
+            }
+            return maxNanos;
+        }
+
+        /**
+         * 상한이 limitNanos 이하인 버킷의 기록 수 (Prometheus 누적 버킷용)
+         * limitNanos가 버킷 경계(bucketUpperBound)일 때만 "값 ≤ limitNanos"와 정확히 같고,
+         * 경계 사이 값이면 그 값에 걸친 버킷은 빠진다.
+         */
+        public long countAtOrBelow(long limitNanos) {
+            long seen = 0;
+            for (int i = 0; i < counts.length && upperBoundOf(i) <= limitNanos; i++) {
+                seen += counts[i];
+            }
+            return seen;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.clnewze.lab.www.metrics;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Prometheus 수집용 HTTP 엔드포인트 (JDK 내장 HttpServer, 스레드 1개)
+ * GET /metrics → 텍스트 형식 (addHandler로 경로 추가 가능, 관리 API는 AdminHttpServer)
+ *
+ * 기본은 로컬(127.0.0.1)에만 바인딩: -Docpp.metrics.port=9464, -Docpp.metrics.host=0.0.0.0
+ */
+public class MetricsHttpServer {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsHttpServer.class);
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final OcppMetrics metrics;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public MetricsHttpServer(InetSocketAddress address, OcppMetrics metrics) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(address, 16);
+        this.executor = Executors.newSingleThreadExecutor(r -> {
+            Thread t = new Thread(r, "ocpp-metrics-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+    }
+
+    public void start() {
+        server.start();
+        log.info("Metrics endpoint: http://{}:{}/metrics", server.getAddress().getHostString(), getPort());
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * 경로 추가 (같은 스레드 1개에서 처리)
+     */
+    public void addHandler(String path, HttpHandler handler) {
+        server.createContext(path, handler);
+    }
+
+    /**
+     * 실제 바인딩된 포트 (0으로 생성한 경우 확인용)
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            byte[] body = PrometheusFormatter.format(metrics).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}
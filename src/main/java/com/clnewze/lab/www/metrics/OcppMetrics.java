@@ -0,0 +1,131 @@
+package com.clnewze.lab.www.metrics;
+
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.MessageType;
+import com.clnewze.lab.www.protocol.OcppMessage;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * 서버 메트릭 (처리 경로에서 기록, /metrics에서 Prometheus 형식으로 출력)
+ *
+ * - Action별 처리 시간 히스토그램 (수신 → 응답 생성)
+ * - 수신/송신 프레임 수 (메시지 타입별)
+ * - 송신한 CallError 수 (ErrorCode별)
+ * - 게이지: 등록한 supplier를 수집 시점에 호출 (세션 수, 상태별 세션 수, 큐 길이 등)
+ * - 카운터: 게이지와 같지만 시작 후 누적값 (처리/거절 프레임 수, 캐시 이벤트 수 등, TYPE counter로 출력)
+ *
+ * 기록 메서드는 모두 락과 할당이 없다. (Action 히스토그램은 최초 1회만 생성)
+ */
+public class OcppMetrics {
+
+    private final Map<String, LatencyHistogram> actionLatency = new ConcurrentHashMap<>();
+    private final LongAdder[] inboundFrames = newAdders(MessageType.values().length);
+    private final LongAdder[] outboundFrames = newAdders(MessageType.values().length);
+    private final LongAdder[] callErrors = newAdders(ErrorCode.values().length);
+
+    private final List<SuppliedMetric> supplied = new CopyOnWriteArrayList<>();
+
+    /**
+     * 수신 프레임 1개
+     */
+    public void recordInbound(MessageType type) {
+        inboundFrames[type.ordinal()].increment();
+    }
+
+    /**
+     * 송신 메시지 1개 (CallError면 ErrorCode별로도 집계)
+     */
+    public void recordOutbound(OcppMessage message) {
+        outboundFrames[message.getType().ordinal()].increment();
+        if (message instanceof CallError error) {
+            callErrors[error.getErrorCode().ordinal()].increment();
+        }
+    }
+
+    /**
+     * Action 처리 시간 기록
+     */
+    public void recordLatency(String action, long nanos) {
+        LatencyHistogram histogram = actionLatency.get(action);
+        if (histogram == null) {
+            histogram = actionLatency.computeIfAbsent(action, a -> new LatencyHistogram());
+        }
+        histogram.record(nanos);
+    }
+
+    /**
+     * 단일 값 게이지 등록
+     */
+    public void registerGauge(String name, String help, LongSupplier value) {
+        supplied.add(new SuppliedMetric(name, help, "gauge", null, () -> Map.of("", value.getAsLong())));
+    }
+
+    /**
+     * 라벨별 게이지 등록 (예: 상태별 세션 수)
+     */
+    public void registerGauge(String name, String help, String label, Supplier<Map<String, Long>> values) {
+        supplied.add(new SuppliedMetric(name, help, "gauge", label, values));
+    }
+
+    /**
+     * 단일 값 카운터 등록 (시작 후 줄지 않는 누적값, 이름은 _total로 끝냄)
+     */
+    public void registerCounter(String name, String help, LongSupplier value) {
+        supplied.add(new SuppliedMetric(name, help, "counter", null, () -> Map.of("", value.getAsLong())));
+    }
+
+    /**
+     * 라벨별 카운터 등록 (예: 종류별 이상 수)
+     */
+    public void registerCounter(String name, String help, String label, Supplier<Map<String, Long>> values) {
+        supplied.add(new SuppliedMetric(name, help, "counter", label, values));
+    }
+
+    // 조회
+
+    public LatencyHistogram getLatency(String action) {
+        return actionLatency.get(action);
+    }
+
+    Map<String, LatencyHistogram> getActionLatency() {
+        return actionLatency;
+    }
+
+    public long getInboundFrames(MessageType type) {
+        return inboundFrames[type.ordinal()].sum();
+    }
+
+    public long getOutboundFrames(MessageType type) {
+        return outboundFrames[type.ordinal()].sum();
+    }
+
+    public long getCallErrors(ErrorCode code) {
+        return callErrors[code.ordinal()].sum();
+    }
+
+    List<SuppliedMetric> getSuppliedMetrics() {
+        return supplied;
+    }
+
+    private static LongAdder[] newAdders(int size) {
+        LongAdder[] adders = new LongAdder[size];
+        for (int i = 0; i < size; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * 수집 시점에 값을 읽는 게이지/카운터 (type은 "gauge" 또는 "counter", label이 null이면 라벨 없음)
+     */
+    record SuppliedMetric(String name, String help, String type, String label, Supplier<Map<String, Long>> values) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.clnewze.lab.www.metrics;
+
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.MessageType;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * OcppMetrics → Prometheus 텍스트 형식 (exposition format 0.0.4)
+ */
+public final class PrometheusFormatter {
+
+    /** 히스토그램 누적 버킷 목표 경계 (초) */
+    private static final double[] LATENCY_BUCKETS = {
+            0.00005, 0.0001, 0.00025, 0.0005, 0.001, 0.0025, 0.005, 0.01,
+            0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30
+    };
+    /**
+     * 실제 출력 경계 (ns): 목표 경계를 포함하는 LatencyHistogram 버킷의 상한
+     * 버킷 중간에서 자르면 걸친 버킷을 le 안/밖 어느 쪽에도 정확히 넣을 수 없으므로 버킷 경계에 맞춤
+     * (예: 0.005 → 0.005242879)
+     */
+    private static final long[] LATENCY_BUCKET_NANOS = new long[LATENCY_BUCKETS.length];
+    private static final String[] LATENCY_BUCKET_LABELS = new String[LATENCY_BUCKETS.length];
+
+    static {
+        for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+            LATENCY_BUCKET_NANOS[i] = LatencyHistogram.bucketUpperBound((long) (LATENCY_BUCKETS[i] * 1e9));
+            LATENCY_BUCKET_LABELS[i] = BigDecimal.valueOf(LATENCY_BUCKET_NANOS[i], 9)
+                    .stripTrailingZeros().toPlainString();
+        }
+    }
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private PrometheusFormatter() {
+    }
+
+    public static String format(OcppMetrics metrics) {
+        StringBuilder sb = new StringBuilder(4096);
+        writeFrames(sb, metrics);
+        writeCallErrors(sb, metrics);
+        writeLatency(sb, metrics);
+        writeSupplied(sb, metrics);
+        return sb.toString();
+    }
+
+    private static void writeFrames(StringBuilder sb, OcppMetrics metrics) {
+        header(sb, "ocpp_frames_total", "OCPP frames by direction and message type", "counter");
+        for (MessageType type : MessageType.values()) {
+            sample(sb, "ocpp_frames_total", "direction=\"inbound\",type=\"" + typeName(type) + "\"",
+                    metrics.getInboundFrames(type));
+        }
+        for (MessageType type : MessageType.values()) {
+            sample(sb, "ocpp_frames_total", "direction=\"outbound\",type=\"" + typeName(type) + "\"",
+                    metrics.getOutboundFrames(type));
+        }
+    }
+
+    private static void writeCallErrors(StringBuilder sb, OcppMetrics metrics) {
+        header(sb, "ocpp_call_errors_total", "CallError responses sent, by error code", "counter");
+        for (ErrorCode code : ErrorCode.values()) {
+            sample(sb, "ocpp_call_errors_total", "code=\"" + code.getValue() + "\"", metrics.getCallErrors(code));
+        }
+    }
+
+    private static void writeLatency(StringBuilder sb, OcppMetrics metrics) {
+        Map<String, LatencyHistogram.Snapshot> snapshots = new TreeMap<>();
+        metrics.getActionLatency().forEach((action, histogram) -> snapshots.put(action, histogram.snapshot()));
+
+        header(sb, "ocpp_action_latency_seconds", "Time from frame receipt to response, by action", "histogram");
+        snapshots.forEach((action, snapshot) -> {
+            String actionLabel = "action=\"" + escape(action) + "\"";
+            for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+                long count = snapshot.countAtOrBelow(LATENCY_BUCKET_NANOS[i]);
+                sample(sb, "ocpp_action_latency_seconds_bucket",
+                        actionLabel + ",le=\"" + LATENCY_BUCKET_LABELS[i] + "\"", count);
+            }
+            sample(sb, "ocpp_action_latency_seconds_bucket", actionLabel + ",le=\"+Inf\"", snapshot.count());
+            sample(sb, "ocpp_action_latency_seconds_sum", actionLabel, snapshot.sumNanos() / 1e9);
+            sample(sb, "ocpp_action_latency_seconds_count", actionLabel, snapshot.count());
+        });
+
+        header(sb, "ocpp_action_latency_quantile_seconds", "Latency quantiles since start, by action", "gauge");
+        snapshots.forEach((action, snapshot) -> {
+            for (double q : QUANTILES) {
+                sample(sb, "ocpp_action_latency_quantile_seconds",
+                        "action=\"" + escape(action) + "\",quantile=\"" + q + "\"", snapshot.quantile(q) / 1e9);
+            }
+        });
+    }
+
+    private static void writeSupplied(StringBuilder sb, OcppMetrics metrics) {
+        for (OcppMetrics.SuppliedMetric metric : metrics.getSuppliedMetrics()) {
+            header(sb, metric.name(), metric.help(), metric.type());
+            Map<String, Long> values;
+            try {
+                values = metric.values().get();
+            } catch (RuntimeException e) {
+                continue;  // 메트릭 1개 실패로 전체 수집을 막지 않음
+            }
+            if (metric.label() == null) {
+                values.values().forEach(value -> sample(sb, metric.name(), null, value));
+            } else {
+                new TreeMap<>(values).forEach((key, value) ->
+                        sample(sb, metric.name(), metric.label() + "=\"" + escape(key) + "\"", value));
+            }
+        }
+    }
+
+    private static void header(StringBuilder sb, String name, String help, String type) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, long value) {
+        appendName(sb, name, labels).append(value).append('\n');
+    }
+
+    private static void sample(StringBuilder sb, String name, String labels, double value) {
+        appendName(sb, name, labels).append(value).append('\n');
+    }
+
+    private static StringBuilder appendName(StringBuilder sb, String name, String labels) {
+        sb.append(name);
+        if (labels != null) {
+            sb.append('{').append(labels).append('}');
+        }
+        return sb.append(' ');
+    }
+
+    private static String typeName(MessageType type) {
+        return switch (type) {
+            case CALL -> "Call";
+            case CALL_RESULT -> "CallResult";
+            case CALL_ERROR -> "CallError";
+        };
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+}
@@ -0,0 +1,253 @@
+package com.clnewze.lab.www.pending;
+
+import com.clnewze.lab.www.dispatch.ResponseSender;
+import com.clnewze.lab.www.protocol.Call;
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.MessageType;
+import com.clnewze.lab.www.protocol.OcppException;
+import com.clnewze.lab.www.protocol.OcppFrame;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 서버 → 충전기 요청(CS → CP Call) 관리
+ * Call 전송 → pending map 저장 → 응답(CallResult/CallError) 매칭 또는 타임아웃
+ *
+ * - 충전기별 uniqueId → future 맵
+ * - 타임아웃은 HashedWheelTimer 1개로 처리 (요청마다 스케줄 작업을 만들지 않음)
+ * - 응답/타임아웃/연결 종료 중 하나가 먼저 오면 맵과 타이머에서 모두 제거
+ *
+ * 반환 future는 CallResult 또는 CallError로 완료되고,
+ * 타임아웃은 TimeoutException, 연결 종료는 OcppException으로 실패한다.
+ * (타임아웃 콜백은 타이머 스레드에서 실행되므로 후속 작업은 짧게 유지)
+ */
+public class PendingRequestManager {
+
+    private static final Logger log = LoggerFactory.getLogger(PendingRequestManager.class);
+
+    public static final long DEFAULT_TIMEOUT_MILLIS = 30_000L;
+
+    private final ResponseSender sender;
+    private final HashedWheelTimer timer;
+    private final long timeoutMillis;
+
+    private final Map<String, Map<String, PendingRequest>> sessions = new ConcurrentHashMap<>();
+
+    // uniqueId = 기동 시각(36진수) + 일련번호 → 재시작 후에도 겹치지 않음
+    private final String idPrefix = Long.toString(System.currentTimeMillis(), 36) + "-";
+    private final AtomicLong sequence = new AtomicLong();
+
+    // 메트릭
+    private final AtomicInteger pending = new AtomicInteger();
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+    private final AtomicLong unmatched = new AtomicLong();
+
+    public PendingRequestManager(ResponseSender sender) {
+        this(sender, new HashedWheelTimer(100, TimeUnit.MILLISECONDS, 512), DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public PendingRequestManager(ResponseSender sender, HashedWheelTimer timer, long timeoutMillis) {
+        this.sender = sender;
+        this.timer = timer;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 충전기로 Call 전송 후 응답 대기
+     * @param session 대상 충전기 세션
+     * @param action Action 이름 (예: Reset)
+     * @param payload 요청 payload
+     * @return CallResult 또는 CallError로 완료되는 future
+     */
+    public CompletableFuture<OcppMessage> call(ChargePointSession session, String action, JsonObject payload) {
+        String chargePointId = session.getChargePointId();
+        String uniqueId = idPrefix + sequence.incrementAndGet();
+        PendingRequest request = new PendingRequest(chargePointId, uniqueId, action);
+
+        // 응답이 전송 직후 도착할 수 있으므로 전송 전에 등록
+        pending.incrementAndGet();
+        sessions.compute(chargePointId, (id, requests) -> {
+            Map<String, PendingRequest> map = requests != null ? requests : new ConcurrentHashMap<>();
+            map.put(uniqueId, request);
+            return map;
+        });
+        request.timeout = timer.schedule(() -> expire(request), timeoutMillis, TimeUnit.MILLISECONDS);
+        if (request.finished) {
+            request.timeout.cancel();  // 타이머 등록 전에 이미 응답이 옴
+        }
+
+        try {
+            sender.send(session, new Call(uniqueId, action, payload));
+        } catch (RuntimeException e) {
+            if (remove(request)) {
+                request.future.completeExceptionally(e);
+            }
+        }
+        return request.future;
+    }
+
+    /**
+     * 충전기 응답 프레임 처리 (CallResult/CallError)
+     * @return 대기 중인 요청과 매칭됐으면 true
+     */
+    public boolean complete(String chargePointId, OcppFrame frame) {
+        Map<String, PendingRequest> requests = sessions.get(chargePointId);
+        PendingRequest request = requests != null ? requests.get(frame.getUniqueId()) : null;
+        if (request == null || !remove(request)) {
+            unmatched.incrementAndGet();
+            log.warn("Unmatched response from {}: {}", chargePointId, frame.getUniqueId());
+            return false;
+        }
+        completed.incrementAndGet();
+
+        OcppMessage response;
+        try {
+            response = frame.getType() == MessageType.CALL_RESULT
+                    ? new CallResult(frame.getUniqueId(), frame.getPayload())
+                    : new CallError(frame.getUniqueId(), ErrorCode.fromValue(frame.getErrorCode()),
+                            frame.getErrorDescription(), frame.getPayload());
+        } catch (RuntimeException e) {
+            // 이미 대기 목록에서 뺐으므로 타임아웃을 기다리지 않고 바로 실패 처리
+            request.future.completeExceptionally(e);
+            throw e;
+        }
+        request.future.complete(response);
+        return true;
+    }
+
+    /**
+     * 연결 종료 시 해당 충전기의 대기 요청 모두 실패 처리
+     * @return 정리한 요청 수
+     */
+    public int removeSession(String chargePointId) {
+        Map<String, PendingRequest> requests = sessions.remove(chargePointId);
+        if (requests == null) {
+            return 0;
+        }
+        int removed = 0;
+        for (PendingRequest request : requests.values()) {
+            if (requests.remove(request.uniqueId, request)) {
+                finish(request);
+                request.future.completeExceptionally(new OcppException(ErrorCode.GENERIC_ERROR,
+                        "Connection closed before response: " + chargePointId));
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 타이머 종료 및 전체 대기 요청 정리
+     */
+    public void shutdown() {
+        for (String chargePointId : sessions.keySet()) {
+            removeSession(chargePointId);
+        }
+        timer.stop();
+    }
+
+    private void expire(PendingRequest request) {
+        if (!remove(request)) {
+            return;
+        }
+        timedOut.incrementAndGet();
+        log.warn("{} to {} timed out after {}ms: {}", request.action, request.chargePointId, timeoutMillis,
+                request.uniqueId);
+        request.future.completeExceptionally(new TimeoutException(
+                request.action + " timed out after " + timeoutMillis + "ms"));
+    }
+
+    /**
+     * 맵에서 제거 (응답/타임아웃/전송 실패 중 먼저 온 쪽만 성공)
+     */
+    private boolean remove(PendingRequest request) {
+        Map<String, PendingRequest> requests = sessions.get(request.chargePointId);
+        if (requests == null || !requests.remove(request.uniqueId, request)) {
+            return false;
+        }
+        if (requests.isEmpty()) {
+            // 비어 있는 충전기 맵 제거 (그 사이 새 요청이 들어왔으면 유지)
+            sessions.computeIfPresent(request.chargePointId, (id, map) -> map.isEmpty() ? null : map);
+        }
+        finish(request);
+        return true;
+    }
+
+    private void finish(PendingRequest request) {
+        pending.decrementAndGet();
+        request.finished = true;
+        HashedWheelTimer.Timeout timeout = request.timeout;
+        if (timeout != null) {
+            timeout.cancel();
+        }
+    }
+
+    // 메트릭 조회
+
+    /**
+     * 응답 대기 중인 전체 요청 수
+     */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /**
+     * 충전기 1대의 응답 대기 요청 수
+     */
+    public int getPendingCount(String chargePointId) {
+        Map<String, PendingRequest> requests = sessions.get(chargePointId);
+        return requests != null ? requests.size() : 0;
+    }
+
+    public long getCompletedCount() {
+        return completed.get();
+    }
+
+    public long getTimedOutCount() {
+        return timedOut.get();
+    }
+
+    /**
+     * 대기 요청이 없는 응답 수 (타임아웃 이후 도착 등)
+     */
+    public long getUnmatchedCount() {
+        return unmatched.get();
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * 응답 대기 중인 요청 1건
+     */
+    private static final class PendingRequest {
+
+        final String chargePointId;
+        final String uniqueId;
+        final String action;
+        final CompletableFuture<OcppMessage> future = new CompletableFuture<>();
+        volatile HashedWheelTimer.Timeout timeout;
+        volatile boolean finished;
+
+        PendingRequest(String chargePointId, String uniqueId, String action) {
+            this.chargePointId = chargePointId;
+            this.uniqueId = uniqueId;
+            this.action = action;
+        }
+    }
+}
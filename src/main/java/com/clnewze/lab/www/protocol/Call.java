@@ -1,8 +1,6 @@
 package com.clnewze.lab.www.protocol;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 
 /**
  * OCPP Call 메시지 (요청)
@@ -24,12 +22,7 @@ public class Call implements OcppMessage {
      * JSON 문자열에서 Call 객체 생성
      */
     public static Call fromJson(String json) {
-        JsonArray array = JsonParser.parseString(json).getAsJsonArray();
-        // array[0] = 2 (MessageType)
-        String uniqueId = array.get(1).getAsString();
-        String action = array.get(2).getAsString();
-        JsonObject payload = array.get(3).getAsJsonObject();
-        return new Call(uniqueId, action, payload);
+        return OcppFrameDecoder.decode(json).toCall();
     }
 
     @Override
@@ -52,11 +45,6 @@ public class Call implements OcppMessage {
 
     @Override
     public String toJson() {
-        JsonArray array = new JsonArray();
-        array.add(MessageType.CALL.getId());
-        array.add(uniqueId);
-        array.add(action);
-        array.add(payload);
-        return array.toString();
+        return OcppFrameEncoder.encodeToString(this);
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.clnewze.lab.www.protocol;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 /**
@@ -49,12 +48,6 @@ public class CallError implements OcppMessage {
 
     @Override
     public String toJson() {
-        JsonArray array = new JsonArray();
-        array.add(MessageType.CALL_ERROR.getId());
-        array.add(uniqueId);
-        array.add(errorCode.getValue());
-        array.add(errorDescription);
-        array.add(errorDetails);
-        return array.toString();
+        return OcppFrameEncoder.encodeToString(this);
     }
 }
\ No newline at end of file
@@ -1,6 +1,5 @@
 package com.clnewze.lab.www.protocol;
 
-import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 
 /**
@@ -33,10 +32,6 @@ public class CallResult implements OcppMessage {
 
     @Override
     public String toJson() {
-        JsonArray array = new JsonArray();
-        array.add(MessageType.CALL_RESULT.getId());
-        array.add(uniqueId);
-        array.add(payload);
-        return array.toString();
+        return OcppFrameEncoder.encodeToString(this);
     }
 }
\ No newline at end of file
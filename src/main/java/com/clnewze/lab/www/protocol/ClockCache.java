@@ -0,0 +1,45 @@
+package com.clnewze.lab.www.protocol;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * ISO-8601 현재 시각 캐시
+ * 같은 밀리초 안에서는 이미 만든 문자열/바이트를 재사용 (최대 1ms당 1회 갱신)
+ */
+public final class ClockCache {
+
+    private static volatile Entry current = new Entry(Long.MIN_VALUE, "", new byte[0]);
+
+    private ClockCache() {
+    }
+
+    /**
+     * 현재 시각 문자열 (예: 2024-01-15T10:00:00.123Z)
+     */
+    public static String currentTime() {
+        return entry().text;
+    }
+
+    /**
+     * 현재 시각 ASCII 바이트 (응답 템플릿 조립용, 수정 금지)
+     */
+    static byte[] currentTimeBytes() {
+        return entry().bytes;
+    }
+
+    private static Entry entry() {
+        long now = System.currentTimeMillis();
+        Entry e = current;
+        if (e.millis != now) {
+            // 경합 시 여러 스레드가 같은 값을 만들어도 결과는 동일
+            String text = Instant.ofEpochMilli(now).toString();
+            e = new Entry(now, text, text.getBytes(StandardCharsets.US_ASCII));
+            current = e;
+        }
+        return e;
+    }
+
+    private record Entry(long millis, String text, byte[] bytes) {
+    }
+}
@@ -24,4 +24,16 @@ public enum ErrorCode {
     public String getValue() {
         return value;
     }
+
+    /**
+     * 문자열 코드 → ErrorCode (알 수 없는 코드는 GENERIC_ERROR)
+     */
+    public static ErrorCode fromValue(String value) {
+        for (ErrorCode code : values()) {
+            if (code.value.equals(value)) {
+                return code;
+            }
+        }
+        return GENERIC_ERROR;
+    }
 }
\ No newline at end of file
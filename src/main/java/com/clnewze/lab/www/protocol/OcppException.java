@@ -0,0 +1,26 @@
+package com.clnewze.lab.www.protocol;
+
+/**
+ * OCPP 처리 중 발생한 오류
+ * Router에서 같은 ErrorCode의 CallError로 변환된다.
+ */
+public class OcppException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final ErrorCode errorCode;
+
+    public OcppException(ErrorCode errorCode, String message) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+
+    public OcppException(ErrorCode errorCode, String message, Throwable cause) {
+        super(message, cause);
+        this.errorCode = errorCode;
+    }
+
+    public ErrorCode getErrorCode() {
+        return errorCode;
+    }
+}
@@ -0,0 +1,119 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * 디코딩된 OCPP 프레임
+ * 헤더(messageType, uniqueId, action 등)는 즉시 읽고, payload는 필요할 때 읽는다.
+ *
+ * payload는 {@link #getPayload()}(트리) 또는 {@link #payloadReader()}(스트림) 중
+ * 한 가지 방식으로 한 번만 소비할 수 있다.
+ * payload 뒤의 닫는 ]와 입력 끝은 getPayload가 직접, payloadReader는 읽은 쪽이 {@link #endFrame()}으로 확인한다.
+ */
+public class OcppFrame {
+
+    private final MessageType type;
+    private final String uniqueId;
+    private final String action;            // CALL 전용
+    private final String errorCode;         // CALL_ERROR 전용
+    private final String errorDescription;  // CALL_ERROR 전용
+
+    private JsonReader reader;              // payload 시작 위치에 멈춰 있는 reader
+    private JsonReader tail;                // payload를 넘겨준 reader (프레임 끝 확인용)
+    private JsonObject payload;
+
+    OcppFrame(MessageType type, String uniqueId, String action,
+              String errorCode, String errorDescription, JsonReader reader) {
+        this.type = type;
+        this.uniqueId = uniqueId;
+        this.action = action;
+        this.errorCode = errorCode;
+        this.errorDescription = errorDescription;
+        this.reader = reader;
+    }
+
+    public MessageType getType() {
+        return type;
+    }
+
+    public String getUniqueId() {
+        return uniqueId;
+    }
+
+    public String getAction() {
+        return action;
+    }
+
+    public String getErrorCode() {
+        return errorCode;
+    }
+
+    public String getErrorDescription() {
+        return errorDescription;
+    }
+
+    /**
+     * payload를 JsonObject 트리로 읽기 (최초 호출 시 1회 파싱)
+     */
+    public JsonObject getPayload() {
+        if (payload == null) {
+            JsonReader in = takeReader();
+            payload = JsonParser.parseReader(in).getAsJsonObject();
+            endFrame();
+        }
+        return payload;
+    }
+
+    /**
+     * payload 시작 위치의 JsonReader 반환 (트리 생성 없이 직접 읽을 때)
+     */
+    public JsonReader payloadReader() {
+        return takeReader();
+    }
+
+    /**
+     * payload 다음이 프레임 끝인지 확인 (payloadReader로 payload를 끝까지 읽은 뒤 호출)
+     * @throws OcppException FORMATION_VIOLATION - 닫는 ]가 없거나(잘린 프레임) 뒤에 원소/데이터가 더 있는 경우
+     */
+    public void endFrame() {
+        JsonReader in = tail;
+        if (in == null) {
+            throw new IllegalStateException("Payload not consumed yet");
+        }
+        tail = null;
+        try {
+            in.endArray();
+            if (in.peek() != JsonToken.END_DOCUMENT) {
+                throw new OcppException(ErrorCode.FORMATION_VIOLATION,
+                        "Unexpected " + in.peek() + " after OCPP frame");
+            }
+        } catch (IOException | IllegalStateException e) {
+            throw new OcppException(ErrorCode.FORMATION_VIOLATION, "Malformed OCPP frame: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Call 객체로 변환 (payload 트리 생성)
+     */
+    public Call toCall() {
+        if (type != MessageType.CALL) {
+            throw new IllegalStateException("Not a Call frame: " + type);
+        }
+        return new Call(uniqueId, action, getPayload());
+    }
+
+    private JsonReader takeReader() {
+        if (reader == null) {
+            throw new IllegalStateException("Payload already consumed");
+        }
+        JsonReader in = reader;
+        reader = null;
+        tail = in;
+        return in;
+    }
+}
@@ -0,0 +1,62 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * OCPP 프레임 스트리밍 디코더
+ * JsonReader로 [typeId, uniqueId, ...] 헤더를 한 번에 읽고
+ * payload는 트리로 만들지 않은 채 OcppFrame에 넘긴다.
+ * 닫는 ]와 뒤에 남은 입력은 payload를 읽은 뒤 OcppFrame.endFrame()에서 확인한다.
+ *
+ * - CALL:        [2, "uniqueId", "action", {payload}]
+ * - CALL_RESULT: [3, "uniqueId", {payload}]
+ * - CALL_ERROR:  [4, "uniqueId", "errorCode", "errorDescription", {errorDetails}]
+ */
+public final class OcppFrameDecoder {
+
+    private OcppFrameDecoder() {
+    }
+
+    /**
+     * 원본 JSON 문자열에서 프레임 헤더 디코딩
+     * @throws JsonParseException 배열 형식이 아니거나 헤더가 잘못된 경우
+     */
+    public static OcppFrame decode(String rawMessage) {
+        JsonReader in = new JsonReader(new StringReader(rawMessage));
+        // JsonParser.parseString과 동일하게 관대한 파싱
+        in.setLenient(true);
+        try {
+            in.beginArray();
+            MessageType type = MessageType.fromId(in.nextInt());
+            String uniqueId = in.nextString();
+
+            String action = null;
+            String errorCode = null;
+            String errorDescription = null;
+            switch (type) {
+                case CALL -> action = in.nextString();
+                case CALL_ERROR -> {
+                    errorCode = in.nextString();
+                    errorDescription = in.nextString();
+                }
+                default -> {
+                    // CALL_RESULT: uniqueId 다음이 바로 payload
+                }
+            }
+
+            if (in.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new JsonParseException("Expected payload object but was " + in.peek());
+            }
+            return new OcppFrame(type, uniqueId, action, errorCode, errorDescription, in);
+        } catch (IOException | IllegalStateException | NumberFormatException e) {
+            throw new JsonParseException("Malformed OCPP frame: " + e.getMessage(), e);
+        } catch (IllegalArgumentException e) {
+            throw new JsonParseException(e.getMessage(), e);
+        }
+    }
+}
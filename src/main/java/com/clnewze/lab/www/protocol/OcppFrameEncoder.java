@@ -0,0 +1,282 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * OCPP 프레임 스트리밍 인코더
+ * JsonArray를 만들지 않고 스레드별 StringBuilder에 프레임을 바로 쓴다.
+ *
+ * ResponseTemplates로 만든 응답은 미리 인코딩된 바이트 조각을 그대로 조립하고,
+ * 그 밖의 고정 형태 응답도 JsonWriter를 거치지 않는 fast path로 처리:
+ * - 빈 payload:          [3,"uniqueId",{}]
+ * - 문자열 필드 1개:      [3,"uniqueId",{"currentTime":"..."}]
+ */
+public final class OcppFrameEncoder {
+
+    private static final TypeAdapter<JsonElement> ELEMENT_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    /** 이 크기를 넘게 자란 버퍼는 스레드에 남기지 않음 */
+    private static final int MAX_RETAINED_CAPACITY = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private OcppFrameEncoder() {
+    }
+
+    /**
+     * UTF-8 바이트로 인코딩 (WebSocket 텍스트 프레임 payload용)
+     */
+    public static ByteBuffer encode(OcppMessage message) {
+        if (message instanceof TemplatedCallResult templated) {
+            byte[] bytes = templated.encode();
+            if (bytes != null) {
+                return ByteBuffer.wrap(bytes);
+            }
+        }
+        StringBuilder sb = acquire();
+        try {
+            write(sb, message);
+            return ByteBuffer.wrap(toUtf8(sb));
+        } finally {
+            release(sb);
+        }
+    }
+
+    /**
+     * JSON 문자열로 인코딩
+     */
+    public static String encodeToString(OcppMessage message) {
+        if (message instanceof TemplatedCallResult templated) {
+            byte[] bytes = templated.encode();
+            if (bytes != null) {
+                return new String(bytes, StandardCharsets.US_ASCII);
+            }
+        }
+        StringBuilder sb = acquire();
+        try {
+            write(sb, message);
+            return sb.toString();
+        } finally {
+            release(sb);
+        }
+    }
+
+    private static void write(StringBuilder sb, OcppMessage message) {
+        if (message instanceof CallResult result) {
+            writeCallResult(sb, result);
+        } else if (message instanceof CallError error) {
+            writeCallError(sb, error);
+        } else if (message instanceof Call call) {
+            writeCall(sb, call);
+        } else {
+            sb.append(message.toJson());
+        }
+    }
+
+    private static void writeCall(StringBuilder sb, Call call) {
+        sb.append('[').append(MessageType.CALL.getId()).append(',');
+        appendQuoted(sb, call.getUniqueId());
+        sb.append(',');
+        appendQuoted(sb, call.getAction());
+        sb.append(',');
+        writeObject(sb, call.getPayload());
+        sb.append(']');
+    }
+
+    private static void writeCallResult(StringBuilder sb, CallResult result) {
+        sb.append('[').append(MessageType.CALL_RESULT.getId()).append(',');
+        appendQuoted(sb, result.getUniqueId());
+        sb.append(',');
+        writeObject(sb, result.getPayload());
+        sb.append(']');
+    }
+
+    private static void writeCallError(StringBuilder sb, CallError error) {
+        sb.append('[').append(MessageType.CALL_ERROR.getId()).append(',');
+        appendQuoted(sb, error.getUniqueId());
+        sb.append(',');
+        appendQuoted(sb, error.getErrorCode().getValue());
+        sb.append(',');
+        appendQuoted(sb, error.getErrorDescription());
+        sb.append(',');
+        writeObject(sb, error.getErrorDetails());
+        sb.append(']');
+    }
+
+    /**
+     * payload 객체 쓰기 (고정 형태는 fast path)
+     */
+    private static void writeObject(StringBuilder sb, JsonObject payload) {
+        if (payload == null || payload.size() == 0) {
+            sb.append("{}");
+            return;
+        }
+        if (payload.size() == 1) {
+            Map.Entry<String, JsonElement> entry = payload.entrySet().iterator().next();
+            JsonElement value = entry.getValue();
+            if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+                sb.append('{');
+                appendQuoted(sb, entry.getKey());
+                sb.append(':');
+                appendQuoted(sb, value.getAsString());
+                sb.append('}');
+                return;
+            }
+        }
+        try {
+            JsonWriter out = new JsonWriter(new StringBuilderWriter(sb));
+            out.setLenient(true);
+            ELEMENT_ADAPTER.write(out, payload);
+            out.flush();
+        } catch (IOException e) {
+            // StringBuilder 쓰기에서는 발생하지 않음
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * JSON 문자열 리터럴 쓰기 (따옴표 포함)
+     */
+    static void appendQuoted(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0, n = value.length(); i < n; i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                case '\b' -> sb.append("\\b");
+                case '\f' -> sb.append("\\f");
+                default -> {
+                    if (c < 0x20 || c == 0x2028 || c == 0x2029) {
+                        sb.append("\\u")
+                                .append(HEX[(c >> 12) & 0xF]).append(HEX[(c >> 8) & 0xF])
+                                .append(HEX[(c >> 4) & 0xF]).append(HEX[c & 0xF]);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    /**
+     * StringBuilder → UTF-8 바이트 (String 중간 생성 없음)
+     */
+    static byte[] toUtf8(CharSequence cs) {
+        int length = cs.length();
+        int ascii = 0;
+        while (ascii < length && cs.charAt(ascii) < 0x80) {
+            ascii++;
+        }
+        if (ascii == length) {
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = (byte) cs.charAt(i);
+            }
+            return bytes;
+        }
+
+        byte[] buf = new byte[length * 3];
+        int pos = 0;
+        for (int i = 0; i < length; i++) {
+            char c = cs.charAt(i);
+            if (c < 0x80) {
+                buf[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(cs.charAt(i + 1))) {
+                int cp = Character.toCodePoint(c, cs.charAt(++i));
+                buf[pos++] = (byte) (0xF0 | (cp >> 18));
+                buf[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (cp & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                buf[pos++] = (byte) '?';  // 짝 없는 surrogate
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        byte[] bytes = new byte[pos];
+        System.arraycopy(buf, 0, bytes, 0, pos);
+        return bytes;
+    }
+
+    private static StringBuilder acquire() {
+        StringBuilder sb = BUFFER.get();
+        sb.setLength(0);
+        return sb;
+    }
+
+    private static void release(StringBuilder sb) {
+        if (sb.capacity() > MAX_RETAINED_CAPACITY) {
+            BUFFER.remove();
+        }
+    }
+
+    /**
+     * 동기화 없는 StringBuilder용 Writer (StringWriter는 StringBuffer 사용)
+     */
+    private static final class StringBuilderWriter extends Writer {
+
+        private final StringBuilder sb;
+
+        StringBuilderWriter(StringBuilder sb) {
+            this.sb = sb;
+        }
+
+        @Override
+        public void write(int c) {
+            sb.append((char) c);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            sb.append(cbuf, off, len);
+        }
+
+        @Override
+        public void write(String str, int off, int len) {
+            sb.append(str, off, off + len);
+        }
+
+        @Override
+        public Writer append(CharSequence csq) {
+            sb.append(csq);
+            return this;
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.clnewze.lab.www.protocol;
+
+/**
+ * 사전 인코딩된 응답 템플릿
+ * 트래픽 대부분을 차지하는 응답을 JsonObject/JsonArray 없이 바이트 조각에 uniqueId만 끼워서 만든다.
+ *
+ * - emptyAck:  [3,"uniqueId",{}]                       (StatusNotification, MeterValues)
+ * - heartbeat: [3,"uniqueId",{"currentTime":"..."}]    (Heartbeat)
+ */
+public final class ResponseTemplates {
+
+    private ResponseTemplates() {
+    }
+
+    /**
+     * 빈 payload 응답
+     */
+    public static CallResult emptyAck(String uniqueId) {
+        return new TemplatedCallResult(uniqueId, TemplatedCallResult.Template.EMPTY, null);
+    }
+
+    /**
+     * Heartbeat 응답 (currentTime은 ClockCache 사용)
+     */
+    public static CallResult heartbeat(String uniqueId) {
+        return new TemplatedCallResult(uniqueId, TemplatedCallResult.Template.HEARTBEAT,
+                ClockCache.currentTimeBytes());
+    }
+}
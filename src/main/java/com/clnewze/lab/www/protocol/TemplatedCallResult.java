@@ -0,0 +1,89 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonObject;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 템플릿 기반 CallResult
+ * 인코딩 시 미리 만든 바이트 조각 + uniqueId + (시각) 을 한 번에 복사한다.
+ * payload JsonObject는 getPayload() 호출 시에만 만든다. (테스트/로그용)
+ */
+final class TemplatedCallResult extends CallResult {
+
+    enum Template {
+        EMPTY("\",{}]"),
+        HEARTBEAT("\",{\"currentTime\":\"", "\"}]");
+
+        private final byte[] middle;
+        private final byte[] suffix;
+
+        Template(String suffix) {
+            this.middle = suffix.getBytes(StandardCharsets.US_ASCII);
+            this.suffix = null;
+        }
+
+        Template(String middle, String suffix) {
+            this.middle = middle.getBytes(StandardCharsets.US_ASCII);
+            this.suffix = suffix.getBytes(StandardCharsets.US_ASCII);
+        }
+    }
+
+    private static final byte[] PREFIX = "[3,\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final Template template;
+    private final byte[] value;     // HEARTBEAT: currentTime ASCII 바이트
+    private JsonObject payload;
+
+    TemplatedCallResult(String uniqueId, Template template, byte[] value) {
+        super(uniqueId, null);
+        this.template = template;
+        this.value = value;
+    }
+
+    @Override
+    public JsonObject getPayload() {
+        if (payload == null) {
+            JsonObject p = new JsonObject();
+            if (template == Template.HEARTBEAT) {
+                p.addProperty("currentTime", new String(value, StandardCharsets.US_ASCII));
+            }
+            payload = p;
+        }
+        return payload;
+    }
+
+    /**
+     * 템플릿 조립 (uniqueId에 이스케이프가 필요하면 null → 일반 경로 사용)
+     */
+    byte[] encode() {
+        String uniqueId = getUniqueId();
+        int idLength = uniqueId.length();
+        for (int i = 0; i < idLength; i++) {
+            char c = uniqueId.charAt(i);
+            if (c < 0x20 || c >= 0x7F || c == '"' || c == '\\') {
+                return null;
+            }
+        }
+
+        int length = PREFIX.length + idLength + template.middle.length;
+        if (template.suffix != null) {
+            length += value.length + template.suffix.length;
+        }
+
+        byte[] out = new byte[length];
+        System.arraycopy(PREFIX, 0, out, 0, PREFIX.length);
+        int pos = PREFIX.length;
+        for (int i = 0; i < idLength; i++) {
+            out[pos++] = (byte) uniqueId.charAt(i);
+        }
+        System.arraycopy(template.middle, 0, out, pos, template.middle.length);
+        pos += template.middle.length;
+        if (template.suffix != null) {
+            System.arraycopy(value, 0, out, pos, value.length);
+            pos += value.length;
+            System.arraycopy(template.suffix, 0, out, pos, template.suffix.length);
+        }
+        return out;
+    }
+}
@@ -1,89 +1,258 @@
 package com.clnewze.lab.www.router;
 
 import com.clnewze.lab.www.action.ActionHandler;
+import com.clnewze.lab.www.action.ActionHandlers;
+import com.clnewze.lab.www.action.AsyncActionHandler;
 import com.clnewze.lab.www.action.BootNotificationHandler;
+import com.clnewze.lab.www.action.CallContext;
 import com.clnewze.lab.www.action.HeartbeatHandler;
 import com.clnewze.lab.www.action.StatusNotificationHandler;
 import com.clnewze.lab.www.action.AuthorizeHandler;
 import com.clnewze.lab.www.action.StartTransactionHandler;
 import com.clnewze.lab.www.action.StopTransactionHandler;
 import com.clnewze.lab.www.action.MeterValuesHandler;
+import com.clnewze.lab.www.auth.IdTagAuthorizationService;
+import com.clnewze.lab.www.auth.PrefixIdTagBackend;
+import com.clnewze.lab.www.billing.EnergyAggregator;
+import com.clnewze.lab.www.logging.CallMdc;
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.pending.PendingRequestManager;
 import com.clnewze.lab.www.protocol.*;
 import com.clnewze.lab.www.session.ChargePointSession;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonParser;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import com.clnewze.lab.www.transaction.TransactionStore;
+import com.google.gson.JsonParseException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * 메시지 라우터
  * Action 이름으로 적절한 Handler를 찾아서 실행
+ *
+ * 모든 핸들러는 비동기 SPI(AsyncActionHandler)로 실행되며,
+ * 동기 핸들러는 어댑터로 감싸서 등록한다.
+ * 비동기 핸들러가 Action별 처리 기한(-Docpp.handlerTimeoutMs, 기본 30초)을 넘기면 INTERNAL_ERROR로 응답한다.
+ *
+ * 충전기가 보낸 CallResult/CallError는 PendingRequestManager에서 서버 요청과 매칭한다.
+ *
+ * 핸들러 실행 중에는 MDC에 chargePointId/uniqueId/action이 설정되고,
+ * 수신 프레임 수와 Action별 처리 시간은 OcppMetrics에 기록된다.
  */
 public class MessageRouter {
 
-    private final Map<String, ActionHandler> handlers = new HashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(MessageRouter.class);
+
+    private static final long DEFAULT_DEADLINE_MILLIS = Long.getLong("ocpp.handlerTimeoutMs", 30_000L);
+
+    private final Map<String, AsyncActionHandler<?>> handlers = new ConcurrentHashMap<>();
+    private final Map<String, Long> deadlines = new ConcurrentHashMap<>();
+    private final PendingRequestManager pendingRequests;
+    private final OcppMetrics metrics;
 
     public MessageRouter() {
+        this(null, new OcppMetrics());
+    }
+
+    /**
+     * @param pendingRequests 서버 요청 응답 매칭 (null이면 CallResult/CallError 무시)
+     * @param metrics 수신 프레임/처리 시간 기록
+     */
+    public MessageRouter(PendingRequestManager pendingRequests, OcppMetrics metrics) {
+        this(pendingRequests, metrics, new InMemoryTransactionStore());
+    }
+
+    /**
+     * @param transactions StartTransaction/StopTransaction 기록
+     */
+    public MessageRouter(PendingRequestManager pendingRequests, OcppMetrics metrics, TransactionStore transactions) {
+        this(pendingRequests, metrics, transactions, new IdTagAuthorizationService(new PrefixIdTagBackend()));
+    }
+
+    /**
+     * @param authorization Authorize/StartTransaction/StopTransaction의 idTag 인증 (캐시 공유)
+     */
+    public MessageRouter(PendingRequestManager pendingRequests, OcppMetrics metrics, TransactionStore transactions,
+                         IdTagAuthorizationService authorization) {
+        this(pendingRequests, metrics, transactions, authorization, null);
+    }
+
+    /**
+     * @param energy MeterValues/StopTransaction의 트랜잭션 사용량 집계 (null이면 집계 안 함)
+     */
+    public MessageRouter(PendingRequestManager pendingRequests, OcppMetrics metrics, TransactionStore transactions,
+                         IdTagAuthorizationService authorization, EnergyAggregator energy) {
+        this.pendingRequests = pendingRequests;
+        this.metrics = metrics;
         // 핸들러 등록
         register(new BootNotificationHandler());
         register(new HeartbeatHandler());
         // 응용단계 핸들러 등록
         register(new StatusNotificationHandler());
-        register(new AuthorizeHandler());
-        register(new StartTransactionHandler());
-        register(new StopTransactionHandler());
-        register(new MeterValuesHandler());
+        register(new AuthorizeHandler(authorization));
+        register(new StartTransactionHandler(transactions, authorization));
+        register(new StopTransactionHandler(transactions, authorization, energy));
+        register(new MeterValuesHandler(null, energy != null ? List.of(energy) : List.of()));
     }
 
-    private void register(ActionHandler handler) {
+    /**
+     * 동기 핸들러 등록 (같은 Action이 있으면 교체)
+     */
+    public void register(ActionHandler handler) {
+        register(ActionHandlers.async(handler));
+    }
+
+    /**
+     * 비동기 핸들러 등록 (같은 Action이 있으면 교체)
+     */
+    public void register(AsyncActionHandler<?> handler) {
         handlers.put(handler.getAction(), handler);
     }
 
     /**
-     * 메시지 라우팅 및 처리
+     * Action별 처리 기한 설정
+     */
+    public void setDeadline(String action, long timeout, TimeUnit unit) {
+        deadlines.put(action, unit.toMillis(timeout));
+    }
+
+    /**
+     * 메시지 라우팅 및 처리 (완료까지 대기)
      * @param session 충전기 세션
      * @param rawMessage 원본 JSON 메시지
      * @return 응답 메시지 (CallResult 또는 CallError)
      */
     public OcppMessage route(ChargePointSession session, String rawMessage) {
+        return routeAsync(session, rawMessage).toCompletableFuture().join();
+    }
+
+    /**
+     * 메시지 라우팅 및 비동기 처리
+     * 반환된 stage는 예외로 끝나지 않는다. (오류는 CallError로 변환)
+     * @param session 충전기 세션
+     * @param rawMessage 원본 JSON 메시지
+     * @return 응답 메시지로 완료되는 stage (응답이 없으면 null로 완료)
+     */
+    public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage) {
+        return routeAsync(session, rawMessage, System.currentTimeMillis(), System.nanoTime());
+    }
+
+    /**
+     * 메시지 라우팅 및 비동기 처리 (수신 시각 지정)
+     * 디코딩/큐 대기 전에 잰 수신 시각을 CallContext에 그대로 사용 → 지연 시간 지표에 대기 시간 포함
+     * @param receivedAtMillis 수신 시각 (epoch ms)
+     * @param receivedNanos 수신 시각 (System.nanoTime)
+     */
+    public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                     long receivedAtMillis, long receivedNanos) {
+        OcppFrame frame = null;
         try {
-            // 1. JSON 파싱
-            JsonArray array = JsonParser.parseString(rawMessage).getAsJsonArray();
-            int messageTypeId = array.get(0).getAsInt();
-
-            // 2. Call 메시지만 처리 (서버가 받는 요청)
-            if (messageTypeId != MessageType.CALL.getId()) {
-                System.out.println("[Router] Ignoring non-Call message: " + messageTypeId);
-                return null;
+            // 1. 헤더 디코딩 (payload는 아직 파싱하지 않음, 형식 오류는 FORMATION_VIOLATION)
+            try {
+                frame = OcppFrameDecoder.decode(rawMessage);
+            } catch (JsonParseException e) {
+                throw new OcppException(ErrorCode.FORMATION_VIOLATION, e.getMessage(), e);
             }
+            metrics.recordInbound(frame.getType());
 
-            // 3. Call 파싱
-            Call call = Call.fromJson(rawMessage);
-            session.setCurrentUniqueId(call.getUniqueId());
+            // 2. CallResult/CallError → 서버 요청 응답 매칭 (응답 없음)
+            if (frame.getType() != MessageType.CALL) {
+                if (pendingRequests != null) {
+                    pendingRequests.complete(session.getChargePointId(), frame);
+                } else {
+                    log.debug("Ignoring non-Call message: {}", frame.getType().getId());
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+
+            CallContext context = new CallContext(session, frame.getUniqueId(), frame.getAction(),
+                    receivedAtMillis, receivedNanos);
+            CallMdc.put(context);
 
-            // 4. 핸들러 찾기
-            ActionHandler handler = handlers.get(call.getAction());
+            // 3. 핸들러 찾기
+            AsyncActionHandler<?> handler = handlers.get(frame.getAction());
             if (handler == null) {
-                System.out.println("[Router] Unknown action: " + call.getAction());
-                return new CallError(
-                        call.getUniqueId(),
+                log.warn("Unknown action: {}", frame.getAction());
+                return CompletableFuture.completedFuture(new CallError(
+                        frame.getUniqueId(),
                         ErrorCode.NOT_IMPLEMENTED,
-                        "Unknown action: " + call.getAction()
-                );
+                        "Unknown action: " + frame.getAction()
+                ));
             }
 
-            // 5. 핸들러 실행
-            return handler.handle(session, call.getPayload());
-
-        } catch (Exception e) {
-            System.err.println("[Router] Error processing message: " + e.getMessage());
-            e.printStackTrace();
-            return new CallError(
-                    "",
-                    ErrorCode.INTERNAL_ERROR,
-                    e.getMessage()
-            );
+            // 4. 핸들러 실행 (payload는 토큰 스트림에서 한 번만 읽음)
+            CompletableFuture<OcppMessage> result =
+                    invoke(handler, context, frame).toCompletableFuture();
+
+            // 5. 동기 핸들러는 이미 완료 → 타이머 없이 바로 반환
+            if (result.isDone()) {
+                return result.handle((response, error) -> complete(context, response, error, 0));
+            }
+            long deadline = deadlines.getOrDefault(context.action(), DEFAULT_DEADLINE_MILLIS);
+            return result.copy()
+                    .orTimeout(deadline, TimeUnit.MILLISECONDS)
+                    .handle((response, error) -> {
+                        // 완료 스레드는 요청 스레드와 다르므로 MDC 다시 설정
+                        CallMdc.put(context);
+                        try {
+                            return complete(context, response, error, deadline);
+                        } finally {
+                            CallMdc.clear();
+                        }
+                    });
+
+        } catch (RuntimeException e) {
+            return CompletableFuture.completedFuture(toCallError(frame != null ? frame.getUniqueId() : "", e));
+        } finally {
+            CallMdc.clear();
+        }
+    }
+
+    private static <T> CompletionStage<OcppMessage> invoke(AsyncActionHandler<T> handler,
+                                                           CallContext context, OcppFrame frame) {
+        T request = handler.read(frame.payloadReader());
+        frame.endFrame();
+        CompletionStage<OcppMessage> stage = handler.handleAsync(context, request);
+        if (stage == null) {
+            throw new IllegalStateException("Handler returned no stage: " + context.action());
+        }
+        return stage;
+    }
+
+    private OcppMessage complete(CallContext context, OcppMessage response, Throwable error, long deadline) {
+        metrics.recordLatency(context.action(), context.elapsedNanos());
+        if (log.isDebugEnabled()) {
+            CallMdc.putLatency(context);
+            log.debug("Handled {}", context.action());
+        }
+        if (error == null) {
+            return response;
+        }
+        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error;
+        if (cause instanceof TimeoutException) {
+            log.warn("{} timed out after {}ms", context.action(), deadline);
+            return new CallError(context.uniqueId(), ErrorCode.INTERNAL_ERROR,
+                    context.action() + " timed out after " + deadline + "ms");
+        }
+        return toCallError(context.uniqueId(), cause);
+    }
+
+    private static CallError toCallError(String uniqueId, Throwable e) {
+        if (e instanceof OcppException ocpp) {
+            log.info("{}: {}", ocpp.getErrorCode().getValue(), ocpp.getMessage());
+            return new CallError(uniqueId, ocpp.getErrorCode(), ocpp.getMessage());
         }
+        log.error("Error processing message", e);
+        return new CallError(uniqueId, ErrorCode.INTERNAL_ERROR, e.getMessage());
     }
-}
\ No newline at end of file
+}
@@ -1,22 +1,73 @@
 package com.clnewze.lab.www.session;
 
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppException;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.state.ChargePointState;
+import com.clnewze.lab.www.state.StateTransition;
+import com.clnewze.lab.www.transport.websocket.TextFrames;
 import org.java_websocket.WebSocket;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
 /**
  * 충전기 1대 = 1세션
  * WebSocket 연결과 충전기 상태 정보를 관리
+ *
+ * 커넥터별 상태는 connectorId 인덱스 long 배열 1개로 보관 (처음 보고될 때 생성, 가장 큰 connectorId까지만)
+ * - 상위 32비트: 상태 ordinal + 1 (0 = 아직 보고 없음), connectorId 0 = 충전기 본체
+ * - 하위 32비트: 진행 중 트랜잭션 ID (0 = 없음)
+ * 충전기 단위 상태(getState)는 커넥터 상태에서 계산: 본체가 FAULTED/UNAVAILABLE이면 그 상태,
+ * 아니면 가장 활동적인 커넥터 상태 (CHARGING > FINISHING > PREPARING > RESERVED > AVAILABLE > ...)
+ *
+ * 상태 변경은 StateTransition 전이표로 검증하고 CAS로 반영 (거부된 전이는 상태를 바꾸지 않음)
+ * - transitionTo: 충전기 상태 직접 변경 (Boot, 연결 끊김)
+ * - 커넥터 변경: 커넥터 전이 검증 후 충전기 상태 재계산, 그 사이 DISCONNECTED가 되면 덮어쓰지 않음
+ * 커넥터 배열은 this 락: 같은 충전기의 메시지는 dispatcher lane에서 하나씩 처리되므로 락은 거의 경합하지 않고,
+ * 상태+트랜잭션을 함께 바꾸는 변경을 복사 후 CAS로 하면 StatusNotification마다 배열을 새로 만들어야 함
+ *
+ * 세션당 메모리 (64비트 JVM, compressed oops, 연결/문자열 제외)
+ * - 세션 객체 72바이트 (그중 SessionManager 인덱스 필드 32바이트 → 상태/제조사/모델별 조회를 O(1) 갱신)
+ * - 커넥터 배열 16 + 8 × (가장 큰 connectorId + 1)바이트: 커넥터 2개 40, 4개 56, 8개 88
+ *   (byte[] 상태 + int[] 트랜잭션 2개로 두던 때: 2개 56, 4개 64, 8개 88)
  */
 public class ChargePointSession {
 
+    /** 허용하는 최대 connectorId */
+    public static final int MAX_CONNECTOR_ID = 64;
+
+    private static final ChargePointState[] STATES = ChargePointState.values();
+    private static final VarHandle STATE;
+
+    static {
+        try {
+            STATE = MethodHandles.lookup().findVarHandle(ChargePointSession.class, "state", ChargePointState.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     private final String chargePointId;
     private final WebSocket connection;
 
-    private ChargePointState state = ChargePointState.CONNECTED;
-    private String vendor;
-    private String model;
-    private String currentUniqueId;
+    private volatile ChargePointState state = ChargePointState.CONNECTED;
+    private volatile String vendor;
+    private volatile String model;
+
+    // 커넥터별 상태 + 트랜잭션 (this 락에서 변경)
+    private long[] connectors;
+
+    // SessionManager 인덱스 정보 (owner 외에는 샤드 락 안에서만 접근)
+    volatile SessionManager owner;
+    int allSlot = -1;
+    int stateSlot = -1;
+    int vendorSlot = -1;
+    int modelSlot = -1;
+    ChargePointState indexedState;
+    String indexedVendor;
+    String indexedModel;
 
     public ChargePointSession(String chargePointId, WebSocket connection) {
         this.chargePointId = chargePointId;
@@ -24,12 +75,10 @@ public class ChargePointSession {
     }
 
     /**
-     * 메시지 전송
+     * 메시지 전송 (UTF-8 바이트로 인코딩해서 텍스트 프레임 전송)
      */
     public void send(OcppMessage message) {
-        if (connection.isOpen()) {
-            connection.send(message.toJson());
-        }
+        TextFrames.send(connection, message);
     }
 
     // Getters
@@ -53,24 +102,223 @@ public class ChargePointSession {
         return model;
     }
 
-    public String getCurrentUniqueId() {
-        return currentUniqueId;
+    /**
+     * 커넥터 상태 (보고된 적 없으면 null)
+     */
+    public synchronized ChargePointState getConnectorState(int connectorId) {
+        if (connectors == null || connectorId < 0 || connectorId >= connectors.length) {
+            return null;
+        }
+        return stateOf(connectors[connectorId]);
+    }
+
+    /**
+     * 커넥터의 진행 중 트랜잭션 ID (없으면 0)
+     */
+    public synchronized int getTransactionId(int connectorId) {
+        if (connectors == null || connectorId < 0 || connectorId >= connectors.length) {
+            return 0;
+        }
+        return transactionOf(connectors[connectorId]);
+    }
+
+    /**
+     * 트랜잭션이 진행 중인 connectorId (없으면 -1)
+     */
+    public synchronized int findConnector(int transactionId) {
+        if (connectors != null && transactionId != 0) {
+            for (int i = 0; i < connectors.length; i++) {
+                if (transactionOf(connectors[i]) == transactionId) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 상태를 보고한 가장 큰 connectorId (보고가 없으면 0)
+     */
+    public synchronized int getConnectorCount() {
+        return connectors == null ? 0 : connectors.length - 1;
     }
 
-    // Setters
+    /**
+     * 충전기 상태 전이 (전이표에 없으면 거부 → 집계/로그 후 false)
+     */
+    public boolean transitionTo(ChargePointState next) {
+        while (true) {
+            ChargePointState current = state;
+            if (current == next) {
+                return true;
+            }
+            if (!StateTransition.canTransition(current, next)) {
+                StateTransition.rejected(chargePointId, -1, current, next);
+                return false;
+            }
+            if (STATE.compareAndSet(this, current, next)) {
+                reindex();
+                return true;
+            }
+        }
+    }
+
+    // Setters (검증 없이 변경, 값이 바뀌면 SessionManager 인덱스도 갱신)
     public void setState(ChargePointState state) {
-        this.state = state;
+        if (STATE.getAndSet(this, state) != state) {
+            reindex();
+        }
     }
 
     public void setVendor(String vendor) {
         this.vendor = vendor;
+        reindex();
     }
 
     public void setModel(String model) {
         this.model = model;
+        reindex();
+    }
+
+    /**
+     * 커넥터 상태 변경 (StatusNotification) → 충전기 상태 재계산
+     * 충전기가 보고한 상태가 실제 상태이므로 전이표에 없어도 반영하고 집계만 한다.
+     * @return 전이표에 없는 전이였으면 false
+     */
+    public synchronized boolean setConnectorState(int connectorId, ChargePointState state) {
+        ensureConnector(connectorId);
+        boolean expected = moveConnector(connectorId, state);
+        updateDerivedState();
+        return expected;
+    }
+
+    /**
+     * 트랜잭션 시작: 커넥터 → CHARGING
+     */
+    public synchronized void startTransaction(int connectorId, int transactionId) {
+        if (connectorId == 0) {
+            throw new OcppException(ErrorCode.PROPERTY_CONSTRAINT_VIOLATION, "connectorId must be > 0");
+        }
+        ensureConnector(connectorId);
+        setTransaction(connectorId, transactionId);
+        moveConnector(connectorId, ChargePointState.CHARGING);
+        updateDerivedState();
+    }
+
+    /**
+     * 트랜잭션 종료: 해당 커넥터 → AVAILABLE
+     * @return 트랜잭션이 있던 connectorId (모르는 트랜잭션이면 -1, 상태 변경 없음)
+     */
+    public synchronized int stopTransaction(int transactionId) {
+        int connectorId = findConnector(transactionId);
+        if (connectorId < 0) {
+            return -1;
+        }
+        setTransaction(connectorId, 0);
+        moveConnector(connectorId, ChargePointState.AVAILABLE);
+        updateDerivedState();
+        return connectorId;
+    }
+
+    private void ensureConnector(int connectorId) {
+        if (connectorId < 0 || connectorId > MAX_CONNECTOR_ID) {
+            throw new OcppException(ErrorCode.PROPERTY_CONSTRAINT_VIOLATION,
+                    "connectorId out of range: " + connectorId);
+        }
+        int length = connectorId + 1;
+        if (connectors == null) {
+            connectors = new long[length];
+        } else if (connectors.length < length) {
+            connectors = Arrays.copyOf(connectors, length);
+        }
+    }
+
+    /**
+     * 커넥터 상태 반영 (전이표에 없으면 집계 후 그대로 반영)
+     * @return 전이표에 있는 전이면 true
+     */
+    private boolean moveConnector(int connectorId, ChargePointState next) {
+        long packed = connectors[connectorId];
+        ChargePointState current = stateOf(packed);
+        boolean expected = current == null || StateTransition.canTransition(current, next);
+        if (!expected) {
+            StateTransition.unexpected(chargePointId, connectorId, current, next);
+        }
+        connectors[connectorId] = (long) (next.ordinal() + 1) << 32 | (packed & 0xFFFF_FFFFL);
+        return expected;
+    }
+
+    private void setTransaction(int connectorId, int transactionId) {
+        connectors[connectorId] = connectors[connectorId] & ~0xFFFF_FFFFL | (transactionId & 0xFFFF_FFFFL);
     }
 
-    public void setCurrentUniqueId(String currentUniqueId) {
-        this.currentUniqueId = currentUniqueId;
+    /**
+     * 충전기 상태를 계산값으로 CAS (연결이 끊긴 세션은 되살리지 않음)
+     */
+    private void updateDerivedState() {
+        while (true) {
+            ChargePointState current = state;
+            if (current == ChargePointState.DISCONNECTED) {
+                return;
+            }
+            ChargePointState next = deriveState(current);
+            if (current == next) {
+                return;
+            }
+            if (STATE.compareAndSet(this, current, next)) {
+                reindex();
+                return;
+            }
+        }
+    }
+
+    /**
+     * 커넥터 상태 → 충전기 상태
+     */
+    private ChargePointState deriveState(ChargePointState current) {
+        ChargePointState main = stateOf(connectors[0]);
+        if (main == ChargePointState.FAULTED || main == ChargePointState.UNAVAILABLE) {
+            return main;
+        }
+        ChargePointState best = null;
+        for (int i = 1; i < connectors.length; i++) {
+            ChargePointState connector = stateOf(connectors[i]);
+            if (connector != null && (best == null || activity(connector) > activity(best))) {
+                best = connector;
+            }
+        }
+        if (best != null) {
+            return best;
+        }
+        return main != null ? main : current;
+    }
+
+    private static int activity(ChargePointState state) {
+        return switch (state) {
+            case CHARGING -> 6;
+            case FINISHING -> 5;
+            case PREPARING -> 4;
+            case RESERVED -> 3;
+            case AVAILABLE -> 2;
+            case UNAVAILABLE -> 1;
+            case FAULTED -> 0;
+            default -> -1;
+        };
+    }
+
+    private static ChargePointState stateOf(long packed) {
+        int code = (int) (packed >>> 32);
+        return code == 0 ? null : STATES[code - 1];
+    }
+
+    private static int transactionOf(long packed) {
+        return (int) packed;
+    }
+
+    private void reindex() {
+        SessionManager manager = owner;
+        if (manager != null) {
+            manager.reindex(this);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,101 @@
+package com.clnewze.lab.www.session;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * 세션 배열 목록 (SessionManager 인덱스용)
+ *
+ * - 변경(add/remove)은 샤드 락 안에서만, 읽기는 락 없이
+ * - 세션이 목록 안의 자기 위치(slot)를 기억 → 제거는 마지막 원소를 빈 자리로 옮기는 O(1)
+ * - 순회는 뒤에서 앞으로: 순회 중 제거가 일어나도 계속 들어 있던 세션을 빠뜨리지 않는다 (중복은 가능)
+ * - 1/4 이하로 줄면 배열도 절반으로 줄임 → 메모리 상한 유지
+ */
+final class SessionList {
+
+    static final int ALL = 0;
+    static final int STATE = 1;
+    static final int VENDOR = 2;
+    static final int MODEL = 3;
+
+    private static final ChargePointSession[] EMPTY = new ChargePointSession[0];
+    private static final int MIN_CAPACITY = 8;
+
+    private final int kind;
+    private volatile ChargePointSession[] elements = EMPTY;
+    private volatile int size;
+
+    SessionList(int kind) {
+        this.kind = kind;
+    }
+
+    void add(ChargePointSession session) {
+        ChargePointSession[] array = elements;
+        int n = size;
+        if (n == array.length) {
+            array = Arrays.copyOf(array, Math.max(MIN_CAPACITY, n * 2));
+            elements = array;
+        }
+        array[n] = session;
+        setSlot(session, n);
+        size = n + 1;
+    }
+
+    void remove(ChargePointSession session) {
+        int index = slot(session);
+        ChargePointSession[] array = elements;
+        int last = size - 1;
+        if (index < 0 || index > last || array[index] != session) {
+            return;
+        }
+        ChargePointSession moved = array[last];
+        array[index] = moved;
+        setSlot(moved, index);
+        array[last] = null;
+        setSlot(session, -1);
+        size = last;
+
+        if (array.length > MIN_CAPACITY && last <= array.length / 4) {
+            elements = Arrays.copyOf(array, Math.max(MIN_CAPACITY, array.length / 2));
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 할당 없는 순회 (약한 일관성)
+     */
+    void forEach(Consumer<? super ChargePointSession> action) {
+        ChargePointSession[] array = elements;
+        for (int i = Math.min(size, array.length) - 1; i >= 0; i--) {
+            ChargePointSession session = array[i];
+            if (session != null) {
+                action.accept(session);
+            }
+        }
+    }
+
+    private int slot(ChargePointSession session) {
+        return switch (kind) {
+            case ALL -> session.allSlot;
+            case STATE -> session.stateSlot;
+            case VENDOR -> session.vendorSlot;
+            default -> session.modelSlot;
+        };
+    }
+
+    private void setSlot(ChargePointSession session, int slot) {
+        switch (kind) {
+            case ALL -> session.allSlot = slot;
+            case STATE -> session.stateSlot = slot;
+            case VENDOR -> session.vendorSlot = slot;
+            default -> session.modelSlot = slot;
+        }
+    }
+}
@@ -1,49 +1,288 @@
 package com.clnewze.lab.www.session;
 
+import com.clnewze.lab.www.state.ChargePointState;
+
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 /**
  * 전체 세션 관리
  * chargePointId로 세션을 찾고 관리
+ *
+ * chargePointId 해시로 샤드를 나누고, 샤드마다 보조 인덱스(상태/제조사/모델별 세션 목록)를 둔다.
+ * - 조회(getSession)와 순회(forEach*)는 락 없음, 순회는 스냅샷을 만들지 않음
+ * - 인덱스 변경은 해당 샤드 락에서만 → 샤드끼리 경합 없음
+ * - 세션의 상태/제조사/모델이 바뀌면 세션이 직접 인덱스 갱신을 요청 (setState 등)
+ * - 상태별 세션 수는 샤드별 목록 크기 합 → 세션 수와 무관한 O(샤드 수)
  */
 public class SessionManager {
 
-    private final Map<String, ChargePointSession> sessions = new ConcurrentHashMap<>();
+    private static final int DEFAULT_SHARDS = 64;
+
+    private final Shard[] shards;
+    private final int mask;
+
+    public SessionManager() {
+        this(DEFAULT_SHARDS);
+    }
 
     /**
-     * 세션 추가
+     * @param shardCount 샤드 수 (2의 거듭제곱으로 올림)
+     */
+    public SessionManager(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("shardCount must be positive");
+        }
+        int size = 1;
+        while (size < shardCount) {
+            size <<= 1;
+        }
+        this.shards = new Shard[size];
+        for (int i = 0; i < size; i++) {
+            shards[i] = new Shard(this);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 세션 추가 (같은 ID의 기존 세션은 인덱스에서 제거 후 교체)
      */
     public void addSession(ChargePointSession session) {
-        sessions.put(session.getChargePointId(), session);
+        shardFor(session.getChargePointId()).add(session);
     }
 
     /**
      * 세션 제거
      */
     public void removeSession(String chargePointId) {
-        sessions.remove(chargePointId);
+        shardFor(chargePointId).remove(chargePointId);
+    }
+
+    /**
+     * 세션 제거 (지금 등록된 세션이 session일 때만, 재연결로 교체된 이전 연결의 종료는 무시)
+     * @return 제거했으면 true
+     */
+    public boolean removeSession(String chargePointId, ChargePointSession session) {
+        return shardFor(chargePointId).remove(chargePointId, session);
     }
 
     /**
      * 세션 조회
      */
     public ChargePointSession getSession(String chargePointId) {
-        return sessions.get(chargePointId);
+        return shardFor(chargePointId).byId.get(chargePointId);
     }
 
     /**
-     * 전체 세션 목록
+     * 전체 세션 목록 (스냅샷 복사, 할당 없이 순회하려면 forEach 사용)
      */
     public Collection<ChargePointSession> getAllSessions() {
-        return sessions.values();
+        List<ChargePointSession> sessions = new ArrayList<>(getSessionCount());
+        forEach(sessions::add);
+        return sessions;
     }
 
     /**
      * 현재 연결된 세션 수
      */
     public int getSessionCount() {
-        return sessions.size();
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.all.size();
+        }
+        return count;
+    }
+
+    /**
+     * 상태별 세션 수
+     */
+    public int getStateCount(ChargePointState state) {
+        int count = 0;
+        for (Shard shard : shards) {
+            count += shard.byState[state.ordinal()].size();
+        }
+        return count;
+    }
+
+    /**
+     * 상태별 세션 수 (모든 상태 포함, 0 포함)
+     */
+    public Map<ChargePointState, Long> getStateCounts() {
+        Map<ChargePointState, Long> counts = new EnumMap<>(ChargePointState.class);
+        for (ChargePointState state : ChargePointState.values()) {
+            counts.put(state, (long) getStateCount(state));
+        }
+        return counts;
+    }
+
+    // 순회 (락/스냅샷 없음, 약한 일관성: 순회 중 계속 있던 세션은 빠짐없이 전달, 중복 가능)
+
+    public void forEach(Consumer<? super ChargePointSession> action) {
+        for (Shard shard : shards) {
+            shard.all.forEach(action);
+        }
+    }
+
+    public void forEachInState(ChargePointState state, Consumer<? super ChargePointSession> action) {
+        for (Shard shard : shards) {
+            shard.byState[state.ordinal()].forEach(action);
+        }
+    }
+
+    public void forEachByVendor(String vendor, Consumer<? super ChargePointSession> action) {
+        for (Shard shard : shards) {
+            SessionList list = shard.byVendor.get(vendor);
+            if (list != null) {
+                list.forEach(action);
+            }
+        }
+    }
+
+    public void forEachByModel(String model, Consumer<? super ChargePointSession> action) {
+        for (Shard shard : shards) {
+            SessionList list = shard.byModel.get(model);
+            if (list != null) {
+                list.forEach(action);
+            }
+        }
+    }
+
+    // 세션 → 인덱스 갱신 (ChargePointSession setter에서 호출)
+
+    void reindex(ChargePointSession session) {
+        shardFor(session.getChargePointId()).reindex(session);
+    }
+
+    private Shard shardFor(String chargePointId) {
+        int h = chargePointId.hashCode();
+        return shards[(h ^ (h >>> 16)) & mask];
+    }
+
+    /**
+     * 샤드: ID 맵 + 전체/상태/제조사/모델 목록 (목록 변경은 this 락)
+     */
+    private static final class Shard {
+
+        private final SessionManager owner;
+        private final Map<String, ChargePointSession> byId = new ConcurrentHashMap<>();
+        private final SessionList all = new SessionList(SessionList.ALL);
+        private final SessionList[] byState = new SessionList[ChargePointState.values().length];
+        private final Map<String, SessionList> byVendor = new ConcurrentHashMap<>();
+        private final Map<String, SessionList> byModel = new ConcurrentHashMap<>();
+
+        Shard(SessionManager owner) {
+            this.owner = owner;
+            for (int i = 0; i < byState.length; i++) {
+                byState[i] = new SessionList(SessionList.STATE);
+            }
+        }
+
+        synchronized void add(ChargePointSession session) {
+            ChargePointSession previous = byId.put(session.getChargePointId(), session);
+            if (previous == session) {
+                return;
+            }
+            if (previous != null) {
+                unindex(previous);
+            }
+            session.owner = owner;
+            all.add(session);
+            index(session);
+        }
+
+        synchronized void remove(String chargePointId) {
+            ChargePointSession session = byId.remove(chargePointId);
+            if (session != null) {
+                unindex(session);
+            }
+        }
+
+        synchronized boolean remove(String chargePointId, ChargePointSession session) {
+            if (!byId.remove(chargePointId, session)) {
+                return false;
+            }
+            unindex(session);
+            return true;
+        }
+
+        /**
+         * 세션의 현재 값과 인덱스에 기록된 값이 다르면 목록 이동
+         * (호출 순서와 무관하게 마지막 값으로 수렴)
+         */
+        synchronized void reindex(ChargePointSession session) {
+            if (session.owner != owner || byId.get(session.getChargePointId()) != session) {
+                return;
+            }
+            ChargePointState state = session.getState();
+            if (state != session.indexedState) {
+                byState[session.indexedState.ordinal()].remove(session);
+                byState[state.ordinal()].add(session);
+                session.indexedState = state;
+            }
+            String vendor = session.getVendor();
+            if (!equals(vendor, session.indexedVendor)) {
+                removeKeyed(byVendor, session.indexedVendor, session);
+                addKeyed(byVendor, vendor, session, SessionList.VENDOR);
+                session.indexedVendor = vendor;
+            }
+            String model = session.getModel();
+            if (!equals(model, session.indexedModel)) {
+                removeKeyed(byModel, session.indexedModel, session);
+                addKeyed(byModel, model, session, SessionList.MODEL);
+                session.indexedModel = model;
+            }
+        }
+
+        private void index(ChargePointSession session) {
+            ChargePointState state = session.getState();
+            byState[state.ordinal()].add(session);
+            session.indexedState = state;
+            String vendor = session.getVendor();
+            addKeyed(byVendor, vendor, session, SessionList.VENDOR);
+            session.indexedVendor = vendor;
+            String model = session.getModel();
+            addKeyed(byModel, model, session, SessionList.MODEL);
+            session.indexedModel = model;
+        }
+
+        private void unindex(ChargePointSession session) {
+            all.remove(session);
+            byState[session.indexedState.ordinal()].remove(session);
+            removeKeyed(byVendor, session.indexedVendor, session);
+            removeKeyed(byModel, session.indexedModel, session);
+            session.owner = null;
+        }
+
+        private static void addKeyed(Map<String, SessionList> index, String key, ChargePointSession session,
+                                     int kind) {
+            if (key != null) {
+                index.computeIfAbsent(key, k -> new SessionList(kind)).add(session);
+            }
+        }
+
+        /**
+         * 빈 목록은 맵에서 제거 (제조사/모델 종류가 바뀌어도 메모리가 쌓이지 않게)
+         */
+        private static void removeKeyed(Map<String, SessionList> index, String key, ChargePointSession session) {
+            if (key == null) {
+                return;
+            }
+            SessionList list = index.get(key);
+            if (list != null) {
+                list.remove(session);
+                if (list.isEmpty()) {
+                    index.remove(key);
+                }
+            }
+        }
+
+        private static boolean equals(String a, String b) {
+            return a == null ? b == null : a.equals(b);
+        }
     }
-}
\ No newline at end of file
+}
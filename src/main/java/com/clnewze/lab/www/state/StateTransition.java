@@ -0,0 +1,134 @@
+package com.clnewze.lab.www.state;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 상태 전이 규칙
+ *
+ * 클래스 로딩 시 비트맵으로 미리 계산 → 검사는 배열 읽기 + 비트 연산 1번 (락/할당 없음)
+ * - ALLOWED[from]: 갈 수 있는 상태의 ordinal 비트 (OCPP 1.6 커넥터 상태 전이표 기준, Suspended*는 CHARGING)
+ * 상태별로 Action을 막지는 않는다. Start/StopTransaction 등은 충전기에서 이미 일어난 일의 보고이므로
+ * 고장/사용 불가 상태여도 받고 idTagInfo로 답한다.
+ * 충전기 상태의 거부된 전이와, 표에 없지만 충전기 보고대로 반영한 커넥터 전이는
+ * 각각 (from, to)별 원자 카운터로 집계하고, 로그는 1, 2, 4, 8...번째만 남긴다.
+ */
+public final class StateTransition {
+
+    private static final Logger log = LoggerFactory.getLogger(StateTransition.class);
+
+    private static final ChargePointState[] STATES = ChargePointState.values();
+    private static final int COUNT = STATES.length;
+
+    private static final int[] ALLOWED = new int[COUNT];
+    private static final AtomicLongArray REJECTED = new AtomicLongArray(COUNT * COUNT);
+    private static final AtomicLongArray UNEXPECTED = new AtomicLongArray(COUNT * COUNT);
+
+    static {
+        // 연결 상태
+        allow(ChargePointState.DISCONNECTED, ChargePointState.CONNECTED);
+        allow(ChargePointState.CONNECTED, STATES);  // Boot 전/재연결 직후에는 어떤 상태든 보고 가능
+
+        // 커넥터 상태 (고장/사용 불가/연결 끊김은 어디서든 가능)
+        allow(ChargePointState.AVAILABLE,
+                ChargePointState.PREPARING, ChargePointState.CHARGING, ChargePointState.RESERVED);
+        allow(ChargePointState.PREPARING,
+                ChargePointState.AVAILABLE, ChargePointState.CHARGING, ChargePointState.FINISHING);
+        allow(ChargePointState.CHARGING,
+                ChargePointState.AVAILABLE, ChargePointState.FINISHING);
+        allow(ChargePointState.FINISHING,
+                ChargePointState.AVAILABLE, ChargePointState.PREPARING);
+        allow(ChargePointState.RESERVED,
+                ChargePointState.AVAILABLE, ChargePointState.PREPARING);
+        allow(ChargePointState.UNAVAILABLE,
+                ChargePointState.AVAILABLE, ChargePointState.PREPARING, ChargePointState.CHARGING);
+        allow(ChargePointState.FAULTED,
+                ChargePointState.AVAILABLE, ChargePointState.PREPARING, ChargePointState.CHARGING,
+                ChargePointState.FINISHING, ChargePointState.RESERVED);
+        for (ChargePointState from : STATES) {
+            allow(from, from);
+            if (from != ChargePointState.DISCONNECTED) {
+                allow(from, ChargePointState.DISCONNECTED, ChargePointState.FAULTED, ChargePointState.UNAVAILABLE);
+            }
+        }
+    }
+
+    private StateTransition() {
+    }
+
+    /**
+     * from → to 전이 가능 여부 (같은 상태는 항상 가능)
+     */
+    public static boolean canTransition(ChargePointState from, ChargePointState to) {
+        return (ALLOWED[from.ordinal()] & (1 << to.ordinal())) != 0;
+    }
+
+    /**
+     * 거부된 전이 집계 (락 없음, 로그는 2의 거듭제곱 번째만)
+     * @param connectorId 커넥터 전이면 connectorId, 충전기 전이면 -1
+     */
+    public static void rejected(String chargePointId, int connectorId,
+                                ChargePointState from, ChargePointState to) {
+        long count = REJECTED.incrementAndGet(from.ordinal() * COUNT + to.ordinal());
+        if ((count & (count - 1)) == 0) {
+            log.warn("Invalid transition ignored {} connector {}: {} -> {} (seen {} times)",
+                    chargePointId, connectorId, from, to, count);
+        }
+    }
+
+    /**
+     * 전이표에 없지만 반영한 커넥터 전이 집계 (충전기가 보고한 상태가 실제 상태)
+     */
+    public static void unexpected(String chargePointId, int connectorId,
+                                  ChargePointState from, ChargePointState to) {
+        long count = UNEXPECTED.incrementAndGet(from.ordinal() * COUNT + to.ordinal());
+        if ((count & (count - 1)) == 0) {
+            log.warn("Unexpected transition applied {} connector {}: {} -> {} (seen {} times)",
+                    chargePointId, connectorId, from, to, count);
+        }
+    }
+
+    /**
+     * from → to 거부 횟수
+     */
+    public static long getRejectedCount(ChargePointState from, ChargePointState to) {
+        return REJECTED.get(from.ordinal() * COUNT + to.ordinal());
+    }
+
+    /**
+     * 전체 거부 횟수
+     */
+    public static long getRejectedTotal() {
+        long total = 0;
+        for (int i = 0; i < REJECTED.length(); i++) {
+            total += REJECTED.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * from → to 커넥터 전이를 표 밖에서 반영한 횟수
+     */
+    public static long getUnexpectedCount(ChargePointState from, ChargePointState to) {
+        return UNEXPECTED.get(from.ordinal() * COUNT + to.ordinal());
+    }
+
+    /**
+     * 표 밖에서 반영한 전체 커넥터 전이 수
+     */
+    public static long getUnexpectedTotal() {
+        long total = 0;
+        for (int i = 0; i < UNEXPECTED.length(); i++) {
+            total += UNEXPECTED.get(i);
+        }
+        return total;
+    }
+
+    private static void allow(ChargePointState from, ChargePointState... targets) {
+        for (ChargePointState to : targets) {
+            ALLOWED[from.ordinal()] |= 1 << to.ordinal();
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package com.clnewze.lab.www.transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * 파일 기반 트랜잭션 저널 (외부 서비스 없이 내장)
+ *
+ * 레코드: [길이 int][본문][CRC32 int], 본문 = 트랜잭션 필드 (DataOutput)
+ * - 쓰기: 묶음을 버퍼 하나로 인코딩해서 write 1번 + force (묶음당 fsync 1번)
+ * - 재생: 순차 읽기, 길이/CRC가 맞지 않는 꼬리(쓰다 죽은 레코드)는 잘라냄
+ * - 보관: 열린 트랜잭션 + 최근 종료된 maxClosed건 (InMemoryTransactionStore와 같은 기준) + ID가 가장 큰 1건 (다음 ID 복원용)
+ * - 압축: 보관 대상이 아닌 기록(이전 레코드, 오래된 종료 트랜잭션)이 1024개를 넘고 보관 건수 이상이 되면
+ *   보관 대상만 새 파일에 써서 교체 (재생 직후 + 실행 중 append 후) → 파일 크기와 재생 시간은 전체 이력과 무관
+ */
+public class FileTransactionJournal implements TransactionJournal {
+
+    private static final Logger log = LoggerFactory.getLogger(FileTransactionJournal.class);
+
+    private static final int MAX_RECORD_BYTES = 64 * 1024;
+    private static final int COMPACT_MIN_RECORDS = 1024;
+
+    private final Path path;
+    private final boolean sync;
+    private final Map<Integer, Transaction> open = new HashMap<>();
+    private final Map<Integer, Transaction> closed;
+    private Transaction newest;
+    private long records;
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream(256);
+    private final CRC32 crc = new CRC32();
+    private FileChannel channel;
+
+    /**
+     * @param path 저널 파일 (없으면 생성)
+     */
+    public FileTransactionJournal(Path path) {
+        this(path, true);
+    }
+
+    /**
+     * @param sync 묶음마다 fsync 할지 (false면 OS 버퍼까지만)
+     */
+    public FileTransactionJournal(Path path, boolean sync) {
+        this(path, sync, InMemoryTransactionStore.DEFAULT_MAX_CLOSED);
+    }
+
+    /**
+     * @param maxClosed 압축 후 남길 종료 트랜잭션 수 (저장소의 maxClosed와 맞춤)
+     */
+    public FileTransactionJournal(Path path, boolean sync, int maxClosed) {
+        if (maxClosed < 0) {
+            throw new IllegalArgumentException("maxClosed must not be negative");
+        }
+        this.path = path;
+        this.sync = sync;
+        this.closed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Transaction> eldest) {
+                return size() > maxClosed;
+            }
+        };
+    }
+
+    /**
+     * 보관 대상만 기록 순서(종료 → 열린 트랜잭션)로 전달 (보관 기간이 지난 종료 트랜잭션은 재생하지 않음)
+     */
+    @Override
+    public synchronized void replay(Consumer<Transaction> consumer) throws IOException {
+        long validBytes = 0;
+        if (Files.exists(path)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), 65536))) {
+                byte[] record;
+                while ((record = readRecord(in)) != null) {
+                    track(decode(record));
+                    validBytes += Integer.BYTES * 2L + record.length;
+                    records++;
+                }
+            }
+        }
+        List<Transaction> retained = retained();
+        retained.forEach(consumer);
+        log.info("Replayed {} journal records ({} transactions kept) from {}", records, retained.size(), path);
+
+        if (compactionDue(retained.size())) {
+            compact(retained);
+        } else {
+            open();
+            if (channel.size() > validBytes) {
+                log.warn("Truncating {} bytes of incomplete journal data in {}", channel.size() - validBytes, path);
+                channel.truncate(validBytes);
+            }
+            channel.position(validBytes);
+        }
+    }
+
+    @Override
+    public synchronized void append(List<Transaction> batch) throws IOException {
+        if (channel == null) {
+            open();
+            channel.position(channel.size());
+        }
+        buffer.reset();
+        for (Transaction transaction : batch) {
+            writeRecord(transaction);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        if (sync) {
+            channel.force(false);
+        }
+        for (Transaction transaction : batch) {
+            track(transaction);
+        }
+        records += batch.size();
+        if (compactionDue(retainedCount())) {
+            compact(retained());
+        }
+    }
+
+    /**
+     * 현재 파일의 레코드 수 (압축 후 보관 건수로 줄어듦)
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    // 보관 대상
+
+    private void track(Transaction transaction) {
+        int id = transaction.transactionId();
+        if (transaction.isOpen()) {
+            open.put(id, transaction);
+        } else {
+            open.remove(id);
+            closed.remove(id);
+            closed.put(id, transaction);
+        }
+        if (newest == null || id >= newest.transactionId()) {
+            newest = transaction;
+        }
+    }
+
+    private boolean isRetained(Transaction transaction) {
+        int id = transaction.transactionId();
+        return open.containsKey(id) || closed.containsKey(id);
+    }
+
+    private int retainedCount() {
+        int count = open.size() + closed.size();
+        return newest != null && !isRetained(newest) ? count + 1 : count;
+    }
+
+    /**
+     * 보관 대상 (ID가 가장 큰 트랜잭션이 빠졌으면 맨 앞에 추가, 종료 → 열린 순서)
+     */
+    private List<Transaction> retained() {
+        List<Transaction> retained = new ArrayList<>(retainedCount());
+        if (newest != null && !isRetained(newest)) {
+            retained.add(newest);
+        }
+        retained.addAll(closed.values());
+        retained.addAll(open.values());
+        return retained;
+    }
+
+    private boolean compactionDue(int retainedCount) {
+        long stale = records - retainedCount;
+        return stale > COMPACT_MIN_RECORDS && stale >= retainedCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    // 인코딩/디코딩
+
+    private void writeRecord(Transaction transaction) throws IOException {
+        body.reset();
+        DataOutputStream out = new DataOutputStream(body);
+        out.writeInt(transaction.transactionId());
+        out.writeUTF(transaction.chargePointId());
+        out.writeInt(transaction.connectorId());
+        out.writeUTF(nullToEmpty(transaction.idTag()));
+        out.writeInt(transaction.meterStart());
+        out.writeLong(transaction.startTimestamp());
+        out.writeInt(transaction.meterStop());
+        out.writeLong(transaction.stopTimestamp());
+        out.writeUTF(nullToEmpty(transaction.stopReason()));
+        out.flush();
+
+        crc.reset();
+        crc.update(body.toByteArray(), 0, body.size());
+        DataOutputStream frame = new DataOutputStream(buffer);
+        frame.writeInt(body.size());
+        body.writeTo(frame);
+        frame.writeInt((int) crc.getValue());
+        frame.flush();
+    }
+
+    /**
+     * 레코드 본문 1개 읽기 (파일 끝이거나 손상된 레코드면 null)
+     */
+    private byte[] readRecord(DataInputStream in) throws IOException {
+        try {
+            int length = in.readInt();
+            if (length <= 0 || length > MAX_RECORD_BYTES) {
+                return null;
+            }
+            byte[] bytes = in.readNBytes(length);
+            if (bytes.length < length) {
+                return null;
+            }
+            int checksum = in.readInt();
+            crc.reset();
+            crc.update(bytes);
+            return (int) crc.getValue() == checksum ? bytes : null;
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    private static Transaction decode(byte[] bytes) throws IOException {
+        DataInputStream record = new DataInputStream(new ByteArrayInputStream(bytes));
+        int transactionId = record.readInt();
+        String chargePointId = record.readUTF();
+        int connectorId = record.readInt();
+        String idTag = emptyToNull(record.readUTF());
+        int meterStart = record.readInt();
+        long startTimestamp = record.readLong();
+        int meterStop = record.readInt();
+        long stopTimestamp = record.readLong();
+        String stopReason = emptyToNull(record.readUTF());
+        return new Transaction(transactionId, chargePointId, connectorId, idTag, meterStart, startTimestamp,
+                meterStop, stopTimestamp, stopReason);
+    }
+
+    /**
+     * 보관 대상만 새 파일에 쓰고 원자적으로 교체
+     */
+    private void compact(List<Transaction> retained) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+        buffer.reset();
+        for (Transaction transaction : retained) {
+            writeRecord(transaction);
+        }
+        try (FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+            while (bytes.hasRemaining()) {
+                out.write(bytes);
+            }
+            if (sync) {
+                out.force(false);
+            }
+        }
+        buffer.reset();
+        close();
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Compacted journal {} from {} to {} records", path, records, retained.size());
+        records = retained.size();
+        open();
+        channel.position(channel.size());
+    }
+
+    private void open() throws IOException {
+        close();
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static String emptyToNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
@@ -0,0 +1,138 @@
+package com.clnewze.lab.www.transaction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 메모리 트랜잭션 저장소
+ *
+ * - 진행 중 트랜잭션: ID 맵 + (충전기, 커넥터) 맵 → 커넥터당 최대 1건
+ * - 종료 트랜잭션: 최근 maxClosed건만 보관 (중복 StopTransaction 응답용)
+ * 변경 후 record()를 호출하므로 하위 클래스에서 영속화를 붙일 수 있다.
+ */
+public class InMemoryTransactionStore implements TransactionStore {
+
+    /** 종료 트랜잭션 기본 보관 수 */
+    public static final int DEFAULT_MAX_CLOSED = 100_000;
+
+    /** 같은 커넥터의 새 트랜잭션으로 밀려난 트랜잭션의 종료 사유 */
+    static final String SUPERSEDED_REASON = "Other";
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+    private final Map<Integer, Transaction> open = new ConcurrentHashMap<>();
+    private final Map<String, Integer> openByConnector = new ConcurrentHashMap<>();
+    private final Map<Integer, Transaction> closed;
+
+    public InMemoryTransactionStore() {
+        this(DEFAULT_MAX_CLOSED);
+    }
+
+    /**
+     * @param maxClosed 메모리에 보관할 종료 트랜잭션 수
+     */
+    public InMemoryTransactionStore(int maxClosed) {
+        this.closed = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Transaction> eldest) {
+                return size() > maxClosed;
+            }
+        };
+    }
+
+    @Override
+    public Transaction start(String chargePointId, int connectorId, String idTag, int meterStart, long timestamp) {
+        Transaction transaction = Transaction.open(nextId.getAndIncrement(), chargePointId, connectorId, idTag,
+                meterStart, timestamp);
+        open.put(transaction.transactionId(), transaction);
+        Integer previousId = openByConnector.put(connectorKey(transaction), transaction.transactionId());
+        if (previousId != null) {
+            // StopTransaction을 못 받은 이전 트랜잭션 → 종료 처리
+            Transaction previous = open.remove(previousId);
+            if (previous != null) {
+                close(previous.stopped(previous.meterStart(), timestamp, SUPERSEDED_REASON));
+            }
+        }
+        record(transaction);
+        return transaction;
+    }
+
+    @Override
+    public Transaction stop(String chargePointId, int transactionId, int meterStop, long timestamp,
+                            String reason) {
+        Transaction transaction = open.get(transactionId);
+        if (transaction == null) {
+            Transaction done = getClosed(transactionId);
+            return done != null && done.chargePointId().equals(chargePointId) ? done : null;
+        }
+        if (!transaction.chargePointId().equals(chargePointId) || !open.remove(transactionId, transaction)) {
+            return null;
+        }
+        openByConnector.remove(connectorKey(transaction), transactionId);
+        Transaction stopped = transaction.stopped(meterStop, timestamp, reason);
+        close(stopped);
+        return stopped;
+    }
+
+    @Override
+    public Transaction get(int transactionId) {
+        Transaction transaction = open.get(transactionId);
+        return transaction != null ? transaction : getClosed(transactionId);
+    }
+
+    @Override
+    public Collection<Transaction> getOpenTransactions() {
+        return new ArrayList<>(open.values());
+    }
+
+    @Override
+    public int getOpenCount() {
+        return open.size();
+    }
+
+    /**
+     * 변경된 트랜잭션 기록 (기본: 아무것도 안 함)
+     * 핸들러 스레드에서 호출되므로 블로킹하면 안 된다.
+     */
+    protected void record(Transaction transaction) {
+    }
+
+    /**
+     * 저장된 기록으로 상태 복원 (같은 ID는 나중 기록이 우선, record() 호출 없음)
+     */
+    protected void restore(Transaction transaction) {
+        int id = transaction.transactionId();
+        nextId.accumulateAndGet(id + 1, Math::max);
+        if (transaction.isOpen()) {
+            open.put(id, transaction);
+            openByConnector.put(connectorKey(transaction), id);
+        } else {
+            if (open.remove(id) != null) {
+                openByConnector.remove(connectorKey(transaction), id);
+            }
+            synchronized (closed) {
+                closed.put(id, transaction);
+            }
+        }
+    }
+
+    private void close(Transaction transaction) {
+        synchronized (closed) {
+            closed.put(transaction.transactionId(), transaction);
+        }
+        record(transaction);
+    }
+
+    private Transaction getClosed(int transactionId) {
+        synchronized (closed) {
+            return closed.get(transactionId);
+        }
+    }
+
+    private static String connectorKey(Transaction transaction) {
+        return transaction.chargePointId() + '#' + transaction.connectorId();
+    }
+}
@@ -0,0 +1,49 @@
+package com.clnewze.lab.www.transaction;
+
+/**
+ * 충전 트랜잭션 1건 (불변)
+ * 종료 전에는 stopTimestamp = 0
+ *
+ * @param startTimestamp 시작 시각 (epoch millis)
+ * @param stopTimestamp 종료 시각 (epoch millis, 진행 중이면 0)
+ * @param stopReason 종료 사유 (진행 중이면 null)
+ */
+public record Transaction(
+        int transactionId,
+        String chargePointId,
+        int connectorId,
+        String idTag,
+        int meterStart,
+        long startTimestamp,
+        int meterStop,
+        long stopTimestamp,
+        String stopReason) {
+
+    /**
+     * 진행 중 트랜잭션
+     */
+    public static Transaction open(int transactionId, String chargePointId, int connectorId, String idTag,
+                                   int meterStart, long startTimestamp) {
+        return new Transaction(transactionId, chargePointId, connectorId, idTag, meterStart, startTimestamp,
+                0, 0, null);
+    }
+
+    public boolean isOpen() {
+        return stopTimestamp == 0;
+    }
+
+    /**
+     * 종료된 사본
+     */
+    public Transaction stopped(int meterStop, long stopTimestamp, String stopReason) {
+        return new Transaction(transactionId, chargePointId, connectorId, idTag, meterStart, startTimestamp,
+                meterStop, Math.max(stopTimestamp, 1), stopReason);
+    }
+
+    /**
+     * 사용 전력량 (Wh, 진행 중이면 0)
+     */
+    public int energyWh() {
+        return isOpen() ? 0 : meterStop - meterStart;
+    }
+}
@@ -0,0 +1,26 @@
+package com.clnewze.lab.www.transaction;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 트랜잭션 영속화 SPI (WriteBehindTransactionStore가 사용)
+ * 변경된 트랜잭션 전체를 순서대로 덧붙이고, 시작 시 같은 순서로 되돌려준다.
+ * append는 기록 스레드 1개에서만 호출된다.
+ */
+public interface TransactionJournal extends AutoCloseable {
+
+    /**
+     * 저장된 기록을 기록 순서대로 전달
+     */
+    void replay(Consumer<Transaction> consumer) throws IOException;
+
+    /**
+     * 변경 기록 묶음 저장 (반환 시점에 내구성 보장)
+     */
+    void append(List<Transaction> batch) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
@@ -0,0 +1,41 @@
+package com.clnewze.lab.www.transaction;
+
+import java.util.Collection;
+
+/**
+ * 트랜잭션 저장소
+ * 트랜잭션 ID 발급, 진행 중/종료 트랜잭션 조회
+ *
+ * 구현체는 핸들러 스레드에서 호출되므로 디스크 I/O로 블로킹하지 않아야 한다.
+ * (영속화가 필요하면 WriteBehindTransactionStore)
+ */
+public interface TransactionStore {
+
+    /**
+     * 트랜잭션 시작 (같은 커넥터에 진행 중 트랜잭션이 있으면 그 트랜잭션은 종료 처리)
+     * @param timestamp 시작 시각 (epoch millis)
+     * @return 새 트랜잭션 (ID 발급됨)
+     */
+    Transaction start(String chargePointId, int connectorId, String idTag, int meterStart, long timestamp);
+
+    /**
+     * 트랜잭션 종료 (이미 종료된 트랜잭션이면 기존 기록을 그대로 반환)
+     * @return 종료된 트랜잭션 (없거나 다른 충전기의 트랜잭션이면 null)
+     */
+    Transaction stop(String chargePointId, int transactionId, int meterStop, long timestamp, String reason);
+
+    /**
+     * 트랜잭션 조회 (진행 중 또는 보관 중인 종료 트랜잭션, 없으면 null)
+     */
+    Transaction get(int transactionId);
+
+    /**
+     * 진행 중 트랜잭션 목록 (스냅샷)
+     */
+    Collection<Transaction> getOpenTransactions();
+
+    /**
+     * 진행 중 트랜잭션 수
+     */
+    int getOpenCount();
+}
@@ -0,0 +1,140 @@
+package com.clnewze.lab.www.transaction;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 저널에 지연 기록하는 트랜잭션 저장소
+ *
+ * - 시작 시 저널을 재생해서 메모리 상태와 다음 트랜잭션 ID 복원
+ * - 변경은 메모리에 바로 반영하고 큐에만 넣음 → 핸들러 스레드는 디스크를 기다리지 않음
+ * - 기록 스레드 1개가 큐에 쌓인 만큼(최대 batchSize) 묶어서 append 1번 → 부하가 클수록 묶음이 커짐
+ * - 기록 실패는 로그 + 집계 후 다음 묶음 계속 (메모리 상태는 유지)
+ */
+public class WriteBehindTransactionStore extends InMemoryTransactionStore implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindTransactionStore.class);
+
+    /** 묶음 기본 최대 크기 */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private final TransactionJournal journal;
+    private final int batchSize;
+    private final LinkedBlockingQueue<Transaction> queue = new LinkedBlockingQueue<>();
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong failedRecords = new AtomicLong();
+    private final Object flushLock = new Object();
+    private final Thread writer;
+    private volatile long written;
+    private volatile boolean running = true;
+
+    public WriteBehindTransactionStore(TransactionJournal journal) throws IOException {
+        this(journal, DEFAULT_BATCH_SIZE, DEFAULT_MAX_CLOSED);
+    }
+
+    /**
+     * @param journal 영속화 대상 (생성 시 재생)
+     * @param batchSize append 1번에 쓰는 최대 기록 수
+     * @param maxClosed 메모리에 보관할 종료 트랜잭션 수
+     */
+    public WriteBehindTransactionStore(TransactionJournal journal, int batchSize, int maxClosed) throws IOException {
+        super(maxClosed);
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.journal = journal;
+        this.batchSize = batchSize;
+        journal.replay(this::restore);
+        log.info("Restored {} open transactions", getOpenCount());
+
+        this.writer = new Thread(this::runWriter, "ocpp-transaction-journal");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    protected void record(Transaction transaction) {
+        enqueued.incrementAndGet();
+        queue.add(transaction);
+    }
+
+    /**
+     * 지금까지의 변경이 저널에 기록될 때까지 대기 (테스트/종료용, 핸들러에서 호출 금지)
+     */
+    public void flush() throws InterruptedException {
+        long target = enqueued.get();
+        synchronized (flushLock) {
+            while (written < target && writer.isAlive()) {
+                flushLock.wait(100);
+            }
+        }
+    }
+
+    /**
+     * 기록 대기 중인 변경 수
+     */
+    public long getPendingRecords() {
+        return enqueued.get() - written;
+    }
+
+    /**
+     * 저널 기록에 실패한 변경 수
+     */
+    public long getFailedRecords() {
+        return failedRecords.get();
+    }
+
+    /**
+     * 남은 변경을 기록하고 저널 닫기
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        journal.close();
+    }
+
+    private void runWriter() {
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Transaction first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(List<Transaction> batch) {
+        try {
+            journal.append(batch);
+        } catch (IOException | RuntimeException e) {
+            failedRecords.addAndGet(batch.size());
+            log.error("Failed to write {} transaction records", batch.size(), e);
+        }
+        synchronized (flushLock) {
+            written += batch.size();
+            flushLock.notifyAll();
+        }
+    }
+}
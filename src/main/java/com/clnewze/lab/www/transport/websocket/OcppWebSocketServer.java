@@ -1,29 +1,40 @@
 package com.clnewze.lab.www.transport.websocket;
 
-import com.clnewze.lab.www.protocol.OcppMessage;
-import com.clnewze.lab.www.router.MessageRouter;
+import com.clnewze.lab.www.dispatch.MessageDispatcher;
+import com.clnewze.lab.www.logging.FrameLog;
+import com.clnewze.lab.www.pending.PendingRequestManager;
 import com.clnewze.lab.www.session.ChargePointSession;
 import com.clnewze.lab.www.session.SessionManager;
 import com.clnewze.lab.www.state.ChargePointState;
 import org.java_websocket.WebSocket;
 import org.java_websocket.handshake.ClientHandshake;
 import org.java_websocket.server.WebSocketServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.InetSocketAddress;
 
 /**
  * OCPP WebSocket 서버
  * 충전기 연결을 받고 메시지를 처리
+ *
+ * 연결마다 자기 세션을 첨부해 두고, 종료 시 그 세션이 아직 등록돼 있을 때만 세션/lane/대기 요청을 정리한다.
+ * (재연결 후 늦게 도착한 이전 연결의 onClose가 새 연결을 끊지 않게)
  */
 public class OcppWebSocketServer extends WebSocketServer {
 
+    private static final Logger log = LoggerFactory.getLogger(OcppWebSocketServer.class);
+
     private final SessionManager sessionManager;
-    private final MessageRouter router;
+    private final MessageDispatcher dispatcher;
+    private final PendingRequestManager pendingRequests;
 
-    public OcppWebSocketServer(int port, SessionManager sessionManager, MessageRouter router) {
+    public OcppWebSocketServer(int port, SessionManager sessionManager, MessageDispatcher dispatcher,
+                               PendingRequestManager pendingRequests) {
         super(new InetSocketAddress(port));
         this.sessionManager = sessionManager;
-        this.router = router;
+        this.dispatcher = dispatcher;
+        this.pendingRequests = pendingRequests;
     }
 
     @Override
@@ -33,60 +44,73 @@ public class OcppWebSocketServer extends WebSocketServer {
         String path = handshake.getResourceDescriptor();
         String chargePointId = extractChargePointId(path);
 
-        System.out.println("[Connected] " + chargePointId + " from " + conn.getRemoteSocketAddress());
+        log.info("Connected {} from {}", chargePointId, conn.getRemoteSocketAddress());
 
-        // 세션 생성
+        // 세션 생성 (같은 ID의 이전 연결은 교체 → 이전 연결로 보낸 요청은 응답이 올 수 없으므로 실패 처리)
         ChargePointSession session = new ChargePointSession(chargePointId, conn);
         session.setState(ChargePointState.CONNECTED);
+        ChargePointSession previous = sessionManager.getSession(chargePointId);
+        if (previous != null) {
+            log.info("Replacing previous connection of {}", chargePointId);
+            previous.transitionTo(ChargePointState.DISCONNECTED);
+            pendingRequests.removeSession(chargePointId);
+        }
         sessionManager.addSession(session);
 
-        // 세션 정보를 WebSocket에 첨부 (나중에 찾기 위해)
-        conn.setAttachment(chargePointId);
+        // 세션을 WebSocket에 첨부 (메시지/종료 시 이 연결의 세션을 찾기 위해)
+        conn.setAttachment(session);
     }
 
     @Override
     public void onMessage(WebSocket conn, String message) {
-        String chargePointId = conn.getAttachment();
-        ChargePointSession session = sessionManager.getSession(chargePointId);
-
-        System.out.println("[Received] " + chargePointId + ": " + message);
-
-        // 라우터로 메시지 처리
-        OcppMessage response = router.route(session, message);
+        // 수신 시각은 로그/디코딩/큐 대기 전에 기록
+        long receivedAtMillis = System.currentTimeMillis();
+        long receivedNanos = System.nanoTime();
+        ChargePointSession session = conn.getAttachment();
+        if (session == null) {
+            return;
+        }
+        FrameLog.inbound(session.getChargePointId(), message);
 
-        if (response != null) {
-            String responseJson = response.toJson();
-            System.out.println("[Send] " + chargePointId + ": " + responseJson);
-            conn.send(responseJson);
+        // 교체된 이전 연결의 프레임은 처리하지 않음
+        if (sessionManager.getSession(session.getChargePointId()) != session) {
+            return;
         }
+
+        // 워커 풀로 넘김 (이 스레드에서는 라우팅/핸들러를 실행하지 않음)
+        dispatcher.dispatch(session, message, receivedAtMillis, receivedNanos);
     }
 
     @Override
     public void onClose(WebSocket conn, int code, String reason, boolean remote) {
-        String chargePointId = conn.getAttachment();
-
-        System.out.println("[Disconnected] " + chargePointId + " - " + reason);
+        ChargePointSession session = conn.getAttachment();
+        if (session == null) {
+            return;
+        }
+        String chargePointId = session.getChargePointId();
 
-        // 세션 정리
-        ChargePointSession session = sessionManager.getSession(chargePointId);
-        if (session != null) {
-            session.setState(ChargePointState.DISCONNECTED);
-            sessionManager.removeSession(chargePointId);
+        // 세션 정리 (이미 새 연결로 교체됐으면 새 연결의 상태는 건드리지 않음)
+        session.transitionTo(ChargePointState.DISCONNECTED);
+        if (!sessionManager.removeSession(chargePointId, session)) {
+            log.info("Disconnected previous connection of {} - {}", chargePointId, reason);
+            return;
         }
+        log.info("Disconnected {} - {}", chargePointId, reason);
+        dispatcher.removeSession(chargePointId);
+        pendingRequests.removeSession(chargePointId);
     }
 
     @Override
     public void onError(WebSocket conn, Exception ex) {
-        String chargePointId = conn != null ? conn.getAttachment() : "unknown";
-        System.err.println("[Error] " + chargePointId + ": " + ex.getMessage());
+        ChargePointSession session = conn != null ? conn.getAttachment() : null;
+        String chargePointId = session != null ? session.getChargePointId() : "unknown";
+        log.warn("WebSocket error {}: {}", chargePointId, ex.getMessage());
     }
 
     @Override
     public void onStart() {
-        System.out.println("===========================================");
-        System.out.println("OCPP WebSocket Server started on port " + getPort());
-        System.out.println("Waiting for charge point connections...");
-        System.out.println("===========================================");
+        log.info("OCPP WebSocket Server started on port {}", getPort());
+        log.info("Waiting for charge point connections...");
     }
 
     /**
@@ -0,0 +1,41 @@
+package com.clnewze.lab.www.transport.websocket;
+
+import com.clnewze.lab.www.protocol.OcppFrameEncoder;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import org.java_websocket.WebSocket;
+import org.java_websocket.framing.TextFrame;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 인코딩된 UTF-8 바이트를 WebSocket 텍스트 프레임으로 전송
+ * OCPP-J는 텍스트 프레임만 허용하므로 send(ByteBuffer)(바이너리) 대신 사용
+ */
+public final class TextFrames {
+
+    private TextFrames() {
+    }
+
+    /**
+     * 메시지를 인코딩해서 텍스트 프레임으로 전송
+     * @return 전송한 payload (로그용, 연결이 닫혀 있으면 null)
+     */
+    public static ByteBuffer send(WebSocket connection, OcppMessage message) {
+        if (connection == null || !connection.isOpen()) {
+            return null;
+        }
+        ByteBuffer payload = OcppFrameEncoder.encode(message);
+        send(connection, payload);
+        return payload;
+    }
+
+    /**
+     * 이미 인코딩된 UTF-8 바이트 전송
+     */
+    public static void send(WebSocket connection, ByteBuffer utf8) {
+        TextFrame frame = new TextFrame();
+        frame.setPayload(utf8.duplicate());
+        frame.setFin(true);
+        connection.sendFrame(frame);
+    }
+}
@@ -0,0 +1,31 @@
+package com.clnewze.lab.www.transport.websocket;
+
+import com.clnewze.lab.www.dispatch.ResponseSender;
+import com.clnewze.lab.www.logging.FrameLog;
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 세션의 WebSocket 연결로 응답 전송
+ */
+public class WebSocketResponseSender implements ResponseSender {
+
+    private final OcppMetrics metrics;
+
+    public WebSocketResponseSender(OcppMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void send(ChargePointSession session, OcppMessage response) {
+        // String 중간 생성 없이 UTF-8 바이트로 바로 전송
+        ByteBuffer payload = TextFrames.send(session.getConnection(), response);
+        if (payload != null) {
+            metrics.recordOutbound(response);
+            FrameLog.outbound(session.getChargePointId(), payload);
+        }
+    }
+}
@@ -13,12 +13,13 @@ class AuthorizeHandlerTest {
 
     private AuthorizeHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new AuthorizeHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("auth-001");
+        context = CallContext.of(session, "auth-001", "Authorize");
     }
 
     @Test
@@ -33,7 +34,7 @@ class AuthorizeHandlerTest {
         payload.addProperty("idTag", "RFID12345678");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -53,7 +54,7 @@ class AuthorizeHandlerTest {
         payload.addProperty("idTag", "BLOCKED_USER");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         CallResult callResult = (CallResult) result;
@@ -68,7 +69,7 @@ class AuthorizeHandlerTest {
         payload.addProperty("idTag", "EXPIRED_CARD");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         CallResult callResult = (CallResult) result;
@@ -83,7 +84,7 @@ class AuthorizeHandlerTest {
         payload.addProperty("idTag", "INVALID_TAG");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         CallResult callResult = (CallResult) result;
@@ -9,18 +9,22 @@ import com.google.gson.JsonParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class BootNotificationHandlerTest {
 
     private BootNotificationHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new BootNotificationHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("test-001");
+        context = CallContext.of(session, "test-001", "BootNotification");
     }
 
     @Test
@@ -36,7 +40,7 @@ class BootNotificationHandlerTest {
         payload.addProperty("chargePointModel", "TestModel");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -58,11 +62,27 @@ class BootNotificationHandlerTest {
         payload.addProperty("chargePointModel", "TestModel");
 
         // When
-        handler.handle(session, payload);
+        handler.handle(context, payload);
 
         // Then
         assertEquals("TestVendor", session.getVendor());
         assertEquals("TestModel", session.getModel());
         assertEquals(ChargePointState.AVAILABLE, session.getState());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandle_NotifiesAcceptedSession() {
+        // Given
+        List<ChargePointSession> accepted = new ArrayList<>();
+        handler = new BootNotificationHandler(accepted::add);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("chargePointVendor", "TestVendor");
+        payload.addProperty("chargePointModel", "TestModel");
+
+        // When
+        handler.handle(context, payload);
+
+        // Then
+        assertEquals(List.of(session), accepted);
+    }
+}
@@ -13,12 +13,13 @@ class HeartbeatHandlerTest {
 
     private HeartbeatHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new HeartbeatHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("hb-001");
+        context = CallContext.of(session, "hb-001", "Heartbeat");
     }
 
     @Test
@@ -32,7 +33,7 @@ class HeartbeatHandlerTest {
         JsonObject payload = new JsonObject();
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -44,4 +45,19 @@ class HeartbeatHandlerTest {
         assertTrue(response.has("currentTime"));
         assertNotNull(response.get("currentTime").getAsString());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandle_InterleavedContexts_KeepOwnUniqueId() {
+        // Given: 같은 세션의 두 요청
+        CallContext first = CallContext.of(session, "hb-101", "Heartbeat");
+        CallContext second = CallContext.of(session, "hb-102", "Heartbeat");
+
+        // When: 처리 순서가 뒤바뀌어도
+        OcppMessage secondResult = handler.handle(second, new JsonObject());
+        OcppMessage firstResult = handler.handle(first, new JsonObject());
+
+        // Then
+        assertEquals("hb-101", firstResult.getUniqueId());
+        assertEquals("hb-102", secondResult.getUniqueId());
+    }
+}
@@ -1,5 +1,6 @@
 package com.clnewze.lab.www.action;
 
+import com.clnewze.lab.www.meter.MeterJournal;
 import com.clnewze.lab.www.protocol.CallResult;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.session.ChargePointSession;
@@ -8,6 +9,12 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -15,12 +22,13 @@ class MeterValuesHandlerTest {
 
     private MeterValuesHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new MeterValuesHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("meter-001");
+        context = CallContext.of(session, "meter-001", "MeterValues");
         session.setState(ChargePointState.CHARGING);
     }
 
@@ -35,7 +43,7 @@ class MeterValuesHandlerTest {
         JsonObject payload = createMeterValuesPayload();
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -52,7 +60,7 @@ class MeterValuesHandlerTest {
         payload.addProperty("transactionId", 123);
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -93,12 +101,94 @@ class MeterValuesHandlerTest {
         payload.add("meterValue", meterValue);
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
     }
 
+    @Test
+    void testHandle_StoresSamplesInJournal(@TempDir Path dir) throws Exception {
+        // Given
+        JsonObject payload = createMeterValuesPayload();
+        payload.addProperty("transactionId", 123);
+        JsonArray sampledValues = payload.getAsJsonArray("meterValue").get(0).getAsJsonObject()
+                .getAsJsonArray("sampledValue");
+        JsonObject power = new JsonObject();
+        power.addProperty("value", "7.4");
+        power.addProperty("measurand", "Power.Active.Import");
+        power.addProperty("unit", "kW");
+        sampledValues.add(power);
+        JsonObject signed = new JsonObject();
+        signed.addProperty("value", "AbCdEf==");
+        signed.addProperty("format", "SignedData");
+        sampledValues.add(signed);
+
+        try (MeterJournal journal = new MeterJournal(dir)) {
+            MeterValuesHandler storingHandler = new MeterValuesHandler(journal);
+
+            // When
+            storingHandler.handle(context, payload);
+
+            // Then
+            List<String> records = new ArrayList<>();
+            journal.scan(MeterJournal.keyOf("CP001"), 0, Long.MAX_VALUE,
+                    (key, timestamp, connectorId, transactionId, measurand, value) ->
+                            records.add(timestamp + ":" + connectorId + ":" + transactionId + ":" + measurand + ":" + value));
+            assertEquals(List.of(
+                    "1705312800000:1:123:ENERGY_ACTIVE_IMPORT_REGISTER:5000.0",
+                    "1705312800000:1:123:POWER_ACTIVE_IMPORT:7400.0"), records);
+        }
+    }
+
+    @Test
+    void testHandle_StoreFailureLeavesNothingBehind(@TempDir Path dir) throws Exception {
+        // Given: 세그먼트에 레코드 1개만 들어가는 저널, 숫자 샘플 2개
+        JsonObject payload = createMeterValuesPayload();
+        JsonObject power = new JsonObject();
+        power.addProperty("value", "7.4");
+        power.addProperty("measurand", "Power.Active.Import");
+        power.addProperty("unit", "kW");
+        payload.getAsJsonArray("meterValue").get(0).getAsJsonObject().getAsJsonArray("sampledValue").add(power);
+        List<String> received = new ArrayList<>();
+        long segmentBytes = 64 + 32;  // 헤더 + 레코드 1개
+
+        try (MeterJournal journal = new MeterJournal(dir, segmentBytes, 0)) {
+            MeterValuesHandler storingHandler = new MeterValuesHandler(journal, List.of(
+                    (chargePointId, connectorId, transactionId, timestamp, sample) ->
+                            received.add(sample.measurand().name())));
+
+            // When: 기록 실패 → InternalError 응답 대상
+            assertThrows(UncheckedIOException.class, () -> storingHandler.handle(context, payload));
+
+            // Then: 일부만 저장되거나 집계되지 않음 (재전송해도 중복 없음)
+            assertEquals(0, journal.getRecordCount());
+            assertTrue(received.isEmpty());
+        }
+    }
+
+    @Test
+    void testHandle_NotifiesListenersOfNumericSamples() {
+        // Given
+        JsonObject payload = createMeterValuesPayload();
+        payload.addProperty("transactionId", 123);
+        JsonObject signed = new JsonObject();
+        signed.addProperty("value", "AbCdEf==");
+        signed.addProperty("format", "SignedData");
+        payload.getAsJsonArray("meterValue").get(0).getAsJsonObject().getAsJsonArray("sampledValue").add(signed);
+        List<String> received = new ArrayList<>();
+        MeterValuesHandler listeningHandler = new MeterValuesHandler(null, List.of(
+                (chargePointId, connectorId, transactionId, timestamp, sample) ->
+                        received.add(chargePointId + ":" + connectorId + ":" + transactionId + ":" + timestamp
+                                + ":" + sample.measurand() + ":" + sample.baseValue())));
+
+        // When
+        listeningHandler.handle(context, payload);
+
+        // Then
+        assertEquals(List.of("CP001:1:123:1705312800000:ENERGY_ACTIVE_IMPORT_REGISTER:5000.0"), received);
+    }
+
     private JsonObject createMeterValuesPayload() {
         JsonObject payload = new JsonObject();
         payload.addProperty("connectorId", 1);
@@ -14,12 +14,13 @@ class StartTransactionHandlerTest {
 
     private StartTransactionHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new StartTransactionHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("start-001");
+        context = CallContext.of(session, "start-001", "StartTransaction");
         session.setState(ChargePointState.AVAILABLE);
     }
 
@@ -38,7 +39,7 @@ class StartTransactionHandlerTest {
         payload.addProperty("timestamp", "2024-01-15T10:00:00Z");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -61,7 +62,7 @@ class StartTransactionHandlerTest {
         payload.addProperty("meterStart", 0);
 
         // When
-        handler.handle(session, payload);
+        handler.handle(context, payload);
 
         // Then
         assertEquals(ChargePointState.CHARGING, session.getState());
@@ -76,14 +77,48 @@ class StartTransactionHandlerTest {
         payload.addProperty("meterStart", 0);
 
         // When
-        CallResult result1 = (CallResult) handler.handle(session, payload);
+        CallResult result1 = (CallResult) handler.handle(context, payload);
         int txId1 = result1.getPayload().get("transactionId").getAsInt();
 
-        session.setCurrentUniqueId("start-002");
-        CallResult result2 = (CallResult) handler.handle(session, payload);
+        context = CallContext.of(session, "start-002", "StartTransaction");
+        CallResult result2 = (CallResult) handler.handle(context, payload);
         int txId2 = result2.getPayload().get("transactionId").getAsInt();
 
         // Then
         assertTrue(txId2 > txId1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandle_RecordsTransactionOnConnector() {
+        // Given
+        JsonObject payload = new JsonObject();
+        payload.addProperty("connectorId", 2);
+        payload.addProperty("idTag", "RFID12345678");
+        payload.addProperty("meterStart", 0);
+
+        // When
+        CallResult result = (CallResult) handler.handle(context, payload);
+
+        // Then
+        int transactionId = result.getPayload().get("transactionId").getAsInt();
+        assertEquals(transactionId, session.getTransactionId(2));
+        assertEquals(ChargePointState.CHARGING, session.getConnectorState(2));
+        assertNull(session.getConnectorState(1));
+    }
+
+    @Test
+    void testHandle_ReportsIdTagStatus() {
+        // Given
+        JsonObject payload = new JsonObject();
+        payload.addProperty("connectorId", 1);
+        payload.addProperty("idTag", "BLOCKED_USER");
+        payload.addProperty("meterStart", 0);
+
+        // When
+        CallResult result = (CallResult) handler.handle(context, payload);
+
+        // Then: 충전은 이미 시작됐으므로 트랜잭션은 기록하고 상태만 알려줌
+        assertTrue(result.getPayload().get("transactionId").getAsInt() > 0);
+        assertEquals("Blocked", result.getPayload().getAsJsonObject("idTagInfo").get("status").getAsString());
+    }
+}
@@ -14,12 +14,13 @@ class StatusNotificationHandlerTest {
 
     private StatusNotificationHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new StatusNotificationHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("status-001");
+        context = CallContext.of(session, "status-001", "StatusNotification");
         session.setState(ChargePointState.CONNECTED);
     }
 
@@ -37,7 +38,7 @@ class StatusNotificationHandlerTest {
         payload.addProperty("status", "Available");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -56,7 +57,7 @@ class StatusNotificationHandlerTest {
         payload.addProperty("status", "Available");
 
         // When
-        handler.handle(session, payload);
+        handler.handle(context, payload);
 
         // Then
         assertEquals(ChargePointState.AVAILABLE, session.getState());
@@ -72,7 +73,7 @@ class StatusNotificationHandlerTest {
         payload.addProperty("status", "Charging");
 
         // When
-        handler.handle(session, payload);
+        handler.handle(context, payload);
 
         // Then
         assertEquals(ChargePointState.CHARGING, session.getState());
@@ -87,9 +88,31 @@ class StatusNotificationHandlerTest {
         payload.addProperty("status", "Faulted");
 
         // When
-        handler.handle(session, payload);
+        handler.handle(context, payload);
 
         // Then
         assertEquals(ChargePointState.FAULTED, session.getState());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandle_ConnectorsTrackedSeparately() {
+        // Given
+        JsonObject charging = new JsonObject();
+        charging.addProperty("connectorId", 1);
+        charging.addProperty("errorCode", "NoError");
+        charging.addProperty("status", "Charging");
+        JsonObject available = new JsonObject();
+        available.addProperty("connectorId", 2);
+        available.addProperty("errorCode", "NoError");
+        available.addProperty("status", "Available");
+
+        // When
+        handler.handle(context, charging);
+        handler.handle(context, available);
+
+        // Then: 커넥터 2의 Available이 커넥터 1의 충전 상태를 덮어쓰지 않음
+        assertEquals(ChargePointState.CHARGING, session.getConnectorState(1));
+        assertEquals(ChargePointState.AVAILABLE, session.getConnectorState(2));
+        assertEquals(ChargePointState.CHARGING, session.getState());
+    }
+}
@@ -1,9 +1,16 @@
 package com.clnewze.lab.www.action;
 
+import com.clnewze.lab.www.auth.IdTagAuthorizationService;
+import com.clnewze.lab.www.auth.PrefixIdTagBackend;
+import com.clnewze.lab.www.billing.EnergyAggregator;
+import com.clnewze.lab.www.billing.FlatTariff;
+import com.clnewze.lab.www.billing.TransactionUsage;
 import com.clnewze.lab.www.protocol.CallResult;
 import com.clnewze.lab.www.protocol.OcppMessage;
 import com.clnewze.lab.www.session.ChargePointSession;
 import com.clnewze.lab.www.state.ChargePointState;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import com.clnewze.lab.www.transaction.Transaction;
 import com.google.gson.JsonObject;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,12 +21,13 @@ class StopTransactionHandlerTest {
 
     private StopTransactionHandler handler;
     private ChargePointSession session;
+    private CallContext context;
 
     @BeforeEach
     void setUp() {
         handler = new StopTransactionHandler();
         session = new ChargePointSession("CP001", null);
-        session.setCurrentUniqueId("stop-001");
+        context = CallContext.of(session, "stop-001", "StopTransaction");
         session.setState(ChargePointState.CHARGING);
     }
 
@@ -37,7 +45,7 @@ class StopTransactionHandlerTest {
         payload.addProperty("timestamp", "2024-01-15T11:00:00Z");
 
         // When
-        OcppMessage result = handler.handle(session, payload);
+        OcppMessage result = handler.handle(context, payload);
 
         // Then
         assertInstanceOf(CallResult.class, result);
@@ -53,7 +61,7 @@ class StopTransactionHandlerTest {
         payload.addProperty("meterStop", 15000);
 
         // When
-        handler.handle(session, payload);
+        handler.handle(context, payload);
 
         // Then
         assertEquals(ChargePointState.AVAILABLE, session.getState());
@@ -68,7 +76,7 @@ class StopTransactionHandlerTest {
         payload.addProperty("idTag", "RFID12345678");
 
         // When
-        CallResult result = (CallResult) handler.handle(session, payload);
+        CallResult result = (CallResult) handler.handle(context, payload);
 
         // Then
         JsonObject response = result.getPayload();
@@ -84,10 +92,96 @@ class StopTransactionHandlerTest {
         payload.addProperty("meterStop", 15000);
 
         // When
-        CallResult result = (CallResult) handler.handle(session, payload);
+        CallResult result = (CallResult) handler.handle(context, payload);
 
         // Then
         JsonObject response = result.getPayload();
         assertFalse(response.has("idTagInfo"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testHandle_StopsOnlyMatchingConnector() {
+        // Given
+        session.startTransaction(1, 501);
+        session.startTransaction(2, 502);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("transactionId", 502);
+        payload.addProperty("meterStop", 15000);
+
+        // When
+        handler.handle(context, payload);
+
+        // Then
+        assertEquals(ChargePointState.AVAILABLE, session.getConnectorState(2));
+        assertEquals(0, session.getTransactionId(2));
+        assertEquals(501, session.getTransactionId(1));
+        assertEquals(ChargePointState.CHARGING, session.getState());
+    }
+
+    @Test
+    void testHandle_ClosesStoredTransaction() {
+        // Given
+        InMemoryTransactionStore store = new InMemoryTransactionStore();
+        StopTransactionHandler stopHandler = new StopTransactionHandler(store);
+        Transaction started = store.start("CP001", 1, "RFID12345678", 1000, 10L);
+        session.startTransaction(1, started.transactionId());
+        JsonObject payload = new JsonObject();
+        payload.addProperty("transactionId", started.transactionId());
+        payload.addProperty("meterStop", 15000);
+        payload.addProperty("timestamp", "2024-01-15T11:00:00Z");
+        payload.addProperty("reason", "EVDisconnected");
+
+        // When
+        OcppMessage result = stopHandler.handle(context, payload);
+
+        // Then
+        assertInstanceOf(CallResult.class, result);
+        Transaction stopped = store.get(started.transactionId());
+        assertFalse(stopped.isOpen());
+        assertEquals(14000, stopped.energyWh());
+        assertEquals(1705316400000L, stopped.stopTimestamp());
+        assertEquals("EVDisconnected", stopped.stopReason());
+    }
+
+    @Test
+    void testHandle_TransactionOfOtherChargePoint_NotClosed() {
+        // Given
+        InMemoryTransactionStore store = new InMemoryTransactionStore();
+        StopTransactionHandler stopHandler = new StopTransactionHandler(store);
+        Transaction other = store.start("CP002", 1, "RFID12345678", 0, 10L);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("transactionId", other.transactionId());
+        payload.addProperty("meterStop", 15000);
+
+        // When
+        OcppMessage result = stopHandler.handle(context, payload);
+
+        // Then: 응답은 하되 다른 충전기의 트랜잭션은 건드리지 않음
+        assertInstanceOf(CallResult.class, result);
+        assertTrue(store.get(other.transactionId()).isOpen());
+    }
+
+    @Test
+    void testHandle_FinalizesEnergyUsage() {
+        // Given
+        InMemoryTransactionStore store = new InMemoryTransactionStore();
+        EnergyAggregator energy = new EnergyAggregator(store, FlatTariff.perKwh(300),
+                EnergyAggregator.DEFAULT_GAP_MILLIS, EnergyAggregator.DEFAULT_MAX_FINISHED);
+        StopTransactionHandler stopHandler = new StopTransactionHandler(store,
+                new IdTagAuthorizationService(new PrefixIdTagBackend()), energy);
+        Transaction started = store.start("CP001", 1, "RFID12345678", 1000, 10L);
+        JsonObject payload = new JsonObject();
+        payload.addProperty("transactionId", started.transactionId());
+        payload.addProperty("meterStop", 11000);
+        payload.addProperty("timestamp", "2024-01-15T11:00:00Z");
+
+        // When
+        stopHandler.handle(context, payload);
+
+        // Then
+        TransactionUsage usage = energy.getUsage(started.transactionId());
+        assertTrue(usage.closed());
+        assertEquals(10000, usage.energyWh(), 1e-9);
+        assertEquals(3000, usage.cost(), 1e-9);
+    }
+}
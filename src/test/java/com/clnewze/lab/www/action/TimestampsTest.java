@@ -0,0 +1,83 @@
+package com.clnewze.lab.www.action;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.OffsetDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimestampsTest {
+
+    @Test
+    void testParseFast_MatchesOffsetDateTime() {
+        String[] values = {
+                "2024-01-15T10:00:00Z",
+                "2024-02-29T23:59:59.999Z",
+                "1999-12-31T00:00:00.5Z",
+                "2024-01-15T10:00:00.123456Z",
+                "2024-07-01T09:30:00+09:00",
+                "2024-07-01T09:30:00.250-04:30",
+        };
+        for (String value : values) {
+            assertEquals(OffsetDateTime.parse(value).toInstant().toEpochMilli(), Timestamps.parseFast(value), value);
+        }
+    }
+
+    @Test
+    void testParseFast_RejectsOtherFormats() {
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-01-15 10:00:00Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-01-15T10:00:00"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-13-15T10:00:00Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-01-15T10:00:00.Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-01-15T10:00:00.1234567890Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-01-15T10:00:00+18:30"));
+        // ASCII가 아닌 숫자 (아랍-인도 숫자)
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-01-15T10:00:00.\u0661\u0662Z"));
+    }
+
+    @Test
+    void testParseFast_RejectsNonexistentDates() {
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-02-30T10:00:00Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2023-02-29T10:00:00Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("2024-04-31T10:00:00Z"));
+        assertEquals(Long.MIN_VALUE, Timestamps.parseFast("1900-02-29T10:00:00Z"));
+        assertEquals(OffsetDateTime.parse("2000-02-29T10:00:00Z").toInstant().toEpochMilli(),
+                Timestamps.parseFast("2000-02-29T10:00:00Z"));
+    }
+
+    @Test
+    void testToEpochMillis_FallsBackToOffsetDateTime() {
+        // Given: 빠른 경로가 받지 않는 형식 (초 생략)
+        String value = "2024-01-15T10:00+09:00";
+
+        // When
+        long millis = Timestamps.toEpochMillis(value);
+
+        // Then
+        assertEquals(OffsetDateTime.parse(value).toInstant().toEpochMilli(), millis);
+    }
+
+    @Test
+    void testToEpochMillis_NonexistentDateIsNotRolledOver() {
+        // Given: 2월 30일이 3월 1일로 넘어가면 안 됨
+        long before = System.currentTimeMillis();
+
+        // When
+        long millis = Timestamps.toEpochMillis("2024-02-30T10:00:00Z");
+
+        // Then: OffsetDateTime도 거절 → 서버 시각
+        assertTrue(millis >= before);
+    }
+
+    @Test
+    void testToEpochMillis_FallsBackToNow() {
+        // Given
+        long before = System.currentTimeMillis();
+
+        // When
+        long millis = Timestamps.toEpochMillis("not a time");
+
+        // Then
+        assertTrue(millis >= before);
+    }
+}
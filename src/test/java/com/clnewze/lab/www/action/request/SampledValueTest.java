@@ -0,0 +1,132 @@
+package com.clnewze.lab.www.action.request;
+
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.meter.ReadingContext;
+import com.clnewze.lab.www.meter.UnitOfMeasure;
+import com.clnewze.lab.www.meter.ValueFormat;
+import com.clnewze.lab.www.protocol.OcppException;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SampledValueTest {
+
+    private static SampledValue read(String json) throws IOException {
+        return SampledValue.read(new JsonReader(new StringReader(json)));
+    }
+
+    @Test
+    void testRead_AppliesSpecDefaults() throws IOException {
+        // When
+        SampledValue sample = read("{\"value\":\"5000\"}");
+
+        // Then
+        assertEquals(5000.0, sample.value());
+        assertEquals(Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, sample.measurand());
+        assertEquals(UnitOfMeasure.WH, sample.unit());
+        assertEquals(ReadingContext.SAMPLE_PERIODIC, sample.context());
+        assertEquals(Phase.NONE, sample.phase());
+        assertEquals(Location.OUTLET, sample.location());
+        assertEquals(ValueFormat.RAW, sample.format());
+        assertNull(sample.signedData());
+    }
+
+    @Test
+    void testRead_MapsEveryField() throws IOException {
+        // When
+        SampledValue sample = read("{\"value\":\"7.4\",\"context\":\"Transaction.End\",\"format\":\"Raw\","
+                + "\"measurand\":\"Power.Active.Import\",\"phase\":\"L2-N\",\"location\":\"Inlet\","
+                + "\"unit\":\"kW\",\"extra\":{\"ignored\":true}}");
+
+        // Then
+        assertEquals(Measurand.POWER_ACTIVE_IMPORT, sample.measurand());
+        assertEquals(UnitOfMeasure.KW, sample.unit());
+        assertEquals(ReadingContext.TRANSACTION_END, sample.context());
+        assertEquals(Phase.L2_N, sample.phase());
+        assertEquals(Location.INLET, sample.location());
+        assertEquals(7400.0, sample.baseValue(), 1e-9);
+    }
+
+    @Test
+    void testRead_UnknownVocabulary() throws IOException {
+        // When
+        SampledValue sample = read("{\"value\":\"1\",\"measurand\":\"Vendor.Custom\",\"unit\":\"mWh\","
+                + "\"phase\":\"L4\"}");
+
+        // Then
+        assertEquals(Measurand.UNKNOWN, sample.measurand());
+        assertEquals(UnitOfMeasure.UNKNOWN, sample.unit());
+        assertEquals(Phase.NONE, sample.phase());
+        assertTrue(sample.isNumeric());
+    }
+
+    @Test
+    void testRead_NonNumericAndSignedData() throws IOException {
+        // When
+        SampledValue text = read("{\"value\":\"n/a\"}");
+        SampledValue signed = read("{\"value\":\"AB01FF\",\"format\":\"SignedData\"}");
+
+        // Then
+        assertFalse(text.isNumeric());
+        assertNull(text.signedData());
+        assertFalse(signed.isNumeric());
+        assertEquals(ValueFormat.SIGNED_DATA, signed.format());
+        assertEquals("AB01FF", signed.signedData());
+    }
+
+    @Test
+    void testRead_DecimalValues() throws IOException {
+        assertEquals(1234.5, read("{\"value\":\"1234.5\"}").value());
+        assertEquals(-10.0, read("{\"value\":\"-10\"}").value());
+        assertEquals(0.5, read("{\"value\":\".5\"}").value());
+        assertEquals(7.0, read("{\"value\":\"+7.\"}").value());
+    }
+
+    @Test
+    void testRead_RejectsNonDecimalSyntax() throws IOException {
+        // Given: Double.parseDouble은 받지만 OCPP 십진수가 아닌 값
+        String[] values = {"NaN", "Infinity", "-Infinity", "0x1p3", "1e3", "10d", "10f", " 10", "10 ", "-", ".",
+                "1.2.3", "", "1" + "0".repeat(400)};
+
+        for (String value : values) {
+            // When
+            SampledValue sample = read("{\"value\":\"" + value + "\"}");
+
+            // Then
+            assertFalse(sample.isNumeric(), value);
+        }
+    }
+
+    @Test
+    void testRead_MissingValue() {
+        assertThrows(OcppException.class, () -> read("{\"unit\":\"Wh\"}"));
+    }
+
+    @Test
+    void testOf_PacksLastOrdinals() {
+        // Given: 각 enum의 마지막 항목 (5비트 안에 들어가야 함)
+        Measurand measurand = Measurand.values()[Measurand.values().length - 1];
+        UnitOfMeasure unit = UnitOfMeasure.values()[UnitOfMeasure.values().length - 1];
+        ReadingContext context = ReadingContext.values()[ReadingContext.values().length - 1];
+        Phase phase = Phase.values()[Phase.values().length - 1];
+        Location location = Location.values()[Location.values().length - 1];
+
+        // When
+        SampledValue sample = SampledValue.of(1.5, measurand, unit, context, phase, location,
+                ValueFormat.SIGNED_DATA, "x");
+
+        // Then
+        assertEquals(measurand, sample.measurand());
+        assertEquals(unit, sample.unit());
+        assertEquals(context, sample.context());
+        assertEquals(phase, sample.phase());
+        assertEquals(location, sample.location());
+        assertEquals(ValueFormat.SIGNED_DATA, sample.format());
+    }
+}
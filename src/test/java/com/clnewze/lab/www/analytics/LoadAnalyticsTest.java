@@ -0,0 +1,184 @@
+package com.clnewze.lab.www.analytics;
+
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.meter.ReadingContext;
+import com.clnewze.lab.www.meter.UnitOfMeasure;
+import com.clnewze.lab.www.meter.ValueFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadAnalyticsTest {
+
+    private static final long T0 = 1_700_000_040_000L - 1_700_000_040_000L % 60_000L;
+    private static final long MINUTE = 60_000L;
+
+    private final AtomicLong now = new AtomicLong(T0);
+    private LoadAnalytics analytics;
+
+    @BeforeEach
+    void setUp() {
+        // 1분 창 10개, 전력 유지 2분, 시계 오차 1분
+        AnalyticsConfig config = new AnalyticsConfig(MINUTE, 10, 2 * MINUTE, 0.01, 1024, 2, MINUTE);
+        ChargePointGroups groups = new ChargePointGroups(
+                Map.of("CP1", "site-a", "CP2", "site-a", "CP3", "site-b"), null);
+        analytics = new LoadAnalytics(groups, config, now::get);
+    }
+
+    @Test
+    void testTumbling_IntegratesLoadAcrossChargePoints() {
+        // Given: CP1은 30초마다 7kW, CP2는 1분마다 11kW
+        now.set(T0 + 2 * MINUTE);
+        for (int i = 0; i <= 4; i++) {
+            analytics.onSample("CP1", 1, 10, T0 + i * 30_000L, power(7, UnitOfMeasure.KW));
+        }
+        for (int i = 0; i <= 2; i++) {
+            analytics.onSample("CP2", 1, 20, T0 + i * MINUTE, power(11_000, UnitOfMeasure.W));
+        }
+
+        // When
+        List<WindowStats> windows = analytics.tumbling("site-a", 10);
+
+        // Then: 샘플 주기와 무관하게 그룹 합계 18kW
+        assertEquals(2, windows.size());
+        WindowStats first = windows.get(0);
+        assertEquals(T0, first.startMillis());
+        assertEquals(T0 + MINUTE, first.endMillis());
+        assertEquals(18_000, first.averagePowerW(), 1e-6);
+        assertEquals(300, first.energyWh(), 1e-6);
+        assertEquals(3, first.samples());
+        assertEquals(18_000, windows.get(1).averagePowerW(), 1e-6);
+        assertEquals(Map.of("site-a", 18_000L), analytics.lastWindowPower());
+    }
+
+    @Test
+    void testSliding_MergesWindowsAndQuantiles() {
+        // Given: 충전기 1대가 1분마다 1kW씩 증가 (트랜잭션 중)
+        now.set(T0 + 4 * MINUTE + 30_000L);
+        for (int i = 0; i < 5; i++) {
+            analytics.onSample("CP1", 1, 10, T0 + i * MINUTE, power(i + 1, UnitOfMeasure.KW));
+        }
+        analytics.onSample("CP2", 1, 0, T0, power(50, UnitOfMeasure.KW));  // 트랜잭션 없음 → 분위수 제외
+
+        // When
+        WindowStats lastThree = analytics.sliding("site-a", 3 * MINUTE);
+
+        // Then
+        assertEquals(T0 + 2 * MINUTE, lastThree.startMillis());
+        assertEquals(3, lastThree.samples());
+        assertEquals(3_000, lastThree.quantile(0), 30);
+        assertEquals(5_000, lastThree.quantile(1), 50);
+        assertEquals(5_000, lastThree.maxSessionPowerW(), 1e-9);
+        assertEquals(4_000, analytics.slidingQuantile(3 * MINUTE, 0.5).get("site-a"), 40);
+    }
+
+    @Test
+    void testWindows_ExpireAndLateSamplesDropped() {
+        // Given
+        analytics.onSample("CP1", 1, 10, T0, power(7, UnitOfMeasure.KW));
+        now.set(T0 + 30 * MINUTE);
+        analytics.onSample("CP1", 1, 10, T0 + 30 * MINUTE, power(7, UnitOfMeasure.KW));
+        now.set(T0 + 31 * MINUTE);
+
+        // When
+        analytics.onSample("CP1", 1, 10, T0 + MINUTE, power(7, UnitOfMeasure.KW));    // 이전 샘플보다 앞섬
+        analytics.onSample("CP2", 1, 20, T0, power(7, UnitOfMeasure.KW));             // 보관 기간 밖
+        List<WindowStats> windows = analytics.tumbling("site-a", 10);
+
+        // Then: 30분 전 창은 덮어쓰여 없음, 유지 구간은 2분까지만
+        assertEquals(1, windows.size());
+        assertEquals(T0 + 30 * MINUTE, windows.get(0).startMillis());
+        assertEquals(0, windows.get(0).averagePowerW(), 1e-9);
+        assertEquals(2, analytics.getLateSamples());
+    }
+
+    @Test
+    void testFutureSample_RejectedByServerClock() {
+        // Given: 시계가 1년 앞선 샘플 1개
+        analytics.onSample("CP1", 1, 10, T0 + 365 * 24 * 60 * MINUTE, power(7, UnitOfMeasure.KW));
+
+        // When: 이후 정상 샘플 20개 (30초 간격)
+        for (int i = 0; i < 20; i++) {
+            now.set(T0 + i * 30_000L);
+            analytics.onSample("CP2", 1, 20, now.get(), power(11, UnitOfMeasure.KW));
+        }
+        now.set(T0 + 10 * MINUTE);
+
+        // Then: 미래 샘플만 버리고 창은 정상 집계 (고리 10칸 중 끝난 창은 허용 오차 1분 앞까지 뺀 8개)
+        assertEquals(1, analytics.getFutureSamples());
+        assertEquals(0, analytics.getLateSamples());
+        List<WindowStats> windows = analytics.tumbling("site-a", 10);
+        assertEquals(8, windows.size());
+        assertEquals(T0 + 2 * MINUTE, windows.get(0).startMillis());
+        assertEquals(11_000, windows.get(0).averagePowerW(), 1e-6);
+        assertEquals(2, windows.get(0).samples());
+    }
+
+    @Test
+    void testFutureSample_WithinSkewAccepted() {
+        // Given: 서버 시각보다 30초 앞선 샘플 (허용 오차 1분)
+        analytics.onSample("CP1", 1, 10, T0 + 30_000L, power(7, UnitOfMeasure.KW));
+
+        // When
+        now.set(T0 + 2 * MINUTE);
+        analytics.onSample("CP1", 1, 10, T0 + 90_000L, power(7, UnitOfMeasure.KW));
+
+        // Then
+        assertEquals(0, analytics.getFutureSamples());
+        List<WindowStats> windows = analytics.tumbling("site-a", 10);
+        assertEquals(2, windows.size());
+        assertEquals(3_500, windows.get(0).averagePowerW(), 1e-6);
+        assertEquals(3_500, windows.get(1).averagePowerW(), 1e-6);
+    }
+
+    @Test
+    void testGroups_BoundedAndUnmappedIgnored() {
+        // Given: 그룹 상한 2
+        ChargePointGroups groups = new ChargePointGroups(Map.of(), "site");
+        AnalyticsConfig config = new AnalyticsConfig(MINUTE, 10, 2 * MINUTE, 0.01, 1024, 2, MINUTE);
+        LoadAnalytics byId = new LoadAnalytics(id -> id.startsWith("X") ? null : id, config, now::get);
+
+        // When
+        byId.onSample("CP1", 1, 10, T0, power(7, UnitOfMeasure.KW));
+        byId.onSample("CP2", 1, 10, T0, power(7, UnitOfMeasure.KW));
+        byId.onSample("CP3", 1, 10, T0, power(7, UnitOfMeasure.KW));
+        byId.onSample("X1", 1, 10, T0, power(7, UnitOfMeasure.KW));
+
+        // Then
+        assertEquals(List.of("CP1", "CP2"), byId.getGroups());
+        assertEquals(1, byId.getDroppedSamples());
+        assertEquals("site", groups.apply("CP9"));
+    }
+
+    @Test
+    void testSweep_ReleasesIdleConnectors() {
+        // Given
+        analytics.onSample("CP1", 1, 10, T0, power(6, UnitOfMeasure.KW));
+        now.set(T0 + 5 * MINUTE);
+        analytics.onSample("CP3", 2, 30, T0 + 5 * MINUTE, power(6, UnitOfMeasure.KW));
+
+        // When: CP1은 2분 넘게 샘플 없음
+        now.set(T0 + 6 * MINUTE);
+        analytics.sweep(now.get());
+
+        // Then: 남은 유지 구간(2분)은 창에 반영되고 상태는 삭제
+        assertEquals(1, analytics.getTrackedChargePoints());
+        List<WindowStats> windows = analytics.tumbling("site-a", 10);
+        assertEquals(2, windows.size());
+        assertEquals(6_000, windows.get(0).averagePowerW(), 1e-6);
+        assertEquals(6_000, windows.get(1).averagePowerW(), 1e-6);
+    }
+
+    private static SampledValue power(double value, UnitOfMeasure unit) {
+        return SampledValue.of(value, Measurand.POWER_ACTIVE_IMPORT, unit, ReadingContext.SAMPLE_PERIODIC,
+                Phase.NONE, Location.OUTLET, ValueFormat.RAW, null);
+    }
+}
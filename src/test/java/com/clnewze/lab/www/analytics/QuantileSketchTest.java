@@ -0,0 +1,96 @@
+package com.clnewze.lab.www.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    @Test
+    void testQuantile_WithinRelativeAccuracy() {
+        // Given: 로그정규 분포 10만 개
+        Random random = new Random(42);
+        double[] values = new double[100_000];
+        QuantileSketch sketch = new QuantileSketch(0.01, 1024);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = Math.exp(8 + random.nextGaussian());
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        // When & Then
+        for (double q : new double[]{0.01, 0.25, 0.5, 0.9, 0.95, 0.99, 0.999}) {
+            double exact = values[(int) (q * (values.length - 1))];
+            double estimate = sketch.quantile(q);
+            assertEquals(exact, estimate, exact * 0.011, "q=" + q);
+        }
+        assertEquals(values.length, sketch.count());
+        assertEquals(values[0], sketch.min());
+        assertEquals(values[values.length - 1], sketch.max());
+    }
+
+    @Test
+    void testQuantile_ZeroAndEmpty() {
+        // Given
+        QuantileSketch sketch = new QuantileSketch();
+
+        // Then
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+
+        // When
+        for (int i = 0; i < 60; i++) {
+            sketch.add(0);
+        }
+        for (int i = 0; i < 40; i++) {
+            sketch.add(7000);
+        }
+
+        // Then
+        assertEquals(0, sketch.quantile(0.5));
+        assertEquals(7000, sketch.quantile(0.9), 70);
+    }
+
+    @Test
+    void testAdd_CollapsesLowestBucketsWhenRangeExceeded() {
+        // Given: 버킷 64개 (γ≈1.02 → 약 3.6배 범위)
+        QuantileSketch sketch = new QuantileSketch(0.01, 64);
+
+        // When: 1 ~ 10^6 범위
+        for (int i = 0; i <= 600; i++) {
+            sketch.add(Math.pow(10, i / 100.0));
+        }
+
+        // Then: 높은 분위수는 정확, 낮은 분위수만 뭉개짐
+        assertEquals(601, sketch.count());
+        double p99 = sketch.quantile(0.99);
+        double exact = Math.pow(10, 594 / 100.0);
+        assertEquals(exact, p99, exact * 0.011);
+        assertTrue(sketch.quantile(0.01) >= 1);
+    }
+
+    @Test
+    void testMerge_EqualsCombinedSketch() {
+        // Given
+        QuantileSketch a = new QuantileSketch();
+        QuantileSketch b = new QuantileSketch();
+        QuantileSketch all = new QuantileSketch();
+        for (int i = 1; i <= 1000; i++) {
+            (i % 3 == 0 ? a : b).add(i * 11.0);
+            all.add(i * 11.0);
+        }
+
+        // When
+        QuantileSketch merged = a.copy();
+        merged.merge(b);
+
+        // Then
+        for (double q : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            assertEquals(all.quantile(q), merged.quantile(q), 1e-9);
+        }
+        assertEquals(all.sum(), merged.sum(), 1e-6);
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new QuantileSketch(0.05, 1024)));
+    }
+}
@@ -0,0 +1,82 @@
+package com.clnewze.lab.www.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileIdTagBackendTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testLookup_ParsesLines() throws IOException {
+        // Given
+        Path file = dir.resolve("idtags.csv");
+        Files.writeString(file, """
+                # idTag,status,expiryDate,parentIdTag
+                RFID001,Accepted
+                RFID002,Blocked
+                RFID003,Accepted,2024-01-15T10:00:00Z,GROUP-A
+
+                BROKEN
+                RFID004,Unknown
+                """);
+
+        // When
+        FileIdTagBackend backend = new FileIdTagBackend(file);
+
+        // Then
+        assertEquals(3, backend.size());
+        assertEquals(IdTagInfo.ACCEPTED, backend.lookup("RFID001"));
+        assertEquals(AuthorizationStatus.BLOCKED, backend.lookup("RFID002").status());
+        assertEquals(new IdTagInfo(AuthorizationStatus.ACCEPTED, 1705312800000L, "GROUP-A"),
+                backend.lookup("RFID003"));
+        assertNull(backend.lookup("RFID004"));
+        assertNull(backend.lookup("RFID999"));
+    }
+
+    @Test
+    void testLookup_ReloadsModifiedFile() throws IOException {
+        // Given
+        Path file = dir.resolve("idtags.csv");
+        Files.writeString(file, "RFID001,Accepted\n");
+        FileIdTagBackend backend = new FileIdTagBackend(file);
+
+        // When
+        Files.writeString(file, "RFID001,Blocked\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+
+        // Then
+        assertEquals(AuthorizationStatus.BLOCKED, backend.lookup("RFID001").status());
+    }
+
+    @Test
+    void testSnapshot_SameInstanceUntilReload() throws IOException {
+        // Given
+        Path file = dir.resolve("idtags.csv");
+        Files.writeString(file, "RFID001,Accepted\n");
+        FileIdTagBackend backend = new FileIdTagBackend(file);
+        Map<String, IdTagInfo> before = backend.snapshot();
+
+        // When
+        boolean unchanged = backend.reloadIfModified();
+        Files.writeString(file, "RFID001,Accepted\nRFID002,Accepted\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        boolean reloaded = backend.reloadIfModified();
+
+        // Then
+        assertFalse(unchanged);
+        assertTrue(reloaded);
+        assertEquals(1, before.size());
+        assertEquals(2, backend.snapshot().size());
+        assertSame(backend.snapshot(), backend.snapshot());
+    }
+}
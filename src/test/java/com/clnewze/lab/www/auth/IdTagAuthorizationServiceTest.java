@@ -0,0 +1,272 @@
+package com.clnewze.lab.www.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdTagAuthorizationServiceTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private IdTagAuthorizationService service(IdTagBackend backend, int maxEntries) {
+        return new IdTagAuthorizationService(idTag -> {
+            calls.incrementAndGet();
+            return backend.lookup(idTag);
+        }, maxEntries, 10_000, 1_000, now::get);
+    }
+
+    @Test
+    void testAuthorize_CachesAccepted() {
+        // Given
+        IdTagAuthorizationService service = service(new PrefixIdTagBackend(), 100);
+
+        // When
+        IdTagInfo first = service.authorize("RFID001");
+        IdTagInfo second = service.authorize("RFID001");
+
+        // Then
+        assertEquals(AuthorizationStatus.ACCEPTED, first.status());
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+        assertEquals(1, service.getHits());
+        assertEquals(1, service.getMisses());
+    }
+
+    @Test
+    void testAuthorize_UnknownTagIsInvalid() {
+        // Given
+        IdTagAuthorizationService service = service(idTag -> null, 100);
+
+        // When & Then
+        assertEquals(AuthorizationStatus.INVALID, service.authorize("NOBODY").status());
+    }
+
+    @Test
+    void testAuthorize_AcceptedExpiresAfterTtl() {
+        // Given
+        IdTagAuthorizationService service = service(new PrefixIdTagBackend(), 100);
+        service.authorize("RFID001");
+
+        // When
+        now.addAndGet(10_000);
+        service.authorize("RFID001");
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(1, service.getExpirations());
+    }
+
+    @Test
+    void testAuthorize_NegativeCacheUsesShorterTtl() {
+        // Given
+        IdTagAuthorizationService service = service(new PrefixIdTagBackend(), 100);
+
+        // When
+        assertEquals(AuthorizationStatus.BLOCKED, service.authorize("BLOCKED_1").status());
+        now.addAndGet(999);
+        service.authorize("BLOCKED_1");
+        int cachedCalls = calls.get();
+        now.addAndGet(1);
+        service.authorize("BLOCKED_1");
+
+        // Then
+        assertEquals(1, cachedCalls);
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testAuthorize_ExpiryDateBoundsTtl() {
+        // Given
+        IdTagInfo info = new IdTagInfo(AuthorizationStatus.ACCEPTED, now.get() + 500, "GROUP");
+        IdTagAuthorizationService service = service(idTag -> info, 100);
+        service.authorize("RFID001");
+
+        // When
+        now.addAndGet(499);
+        service.authorize("RFID001");
+        now.addAndGet(1);
+        service.authorize("RFID001");
+
+        // Then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testAuthorize_PastExpiryDateIsExpired() {
+        // Given: 저장소는 Accepted지만 expiryDate가 이미 지남
+        IdTagAuthorizationService service = service(
+                idTag -> new IdTagInfo(AuthorizationStatus.ACCEPTED, now.get() - 1, "GROUP"), 100);
+
+        // When
+        IdTagInfo first = service.authorize("RFID001");
+        IdTagInfo second = service.authorize("RFID001");
+
+        // Then: Expired로 바꿔 부정 캐시
+        assertEquals(AuthorizationStatus.EXPIRED, first.status());
+        assertEquals("GROUP", first.parentIdTag());
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testAuthorize_ConcurrentTxNotCached() {
+        // Given
+        IdTagAuthorizationService service = service(idTag -> IdTagInfo.of(AuthorizationStatus.CONCURRENT_TX), 100);
+
+        // When
+        service.authorize("RFID001");
+        service.authorize("RFID001");
+
+        // Then
+        assertEquals(2, calls.get());
+        assertEquals(0, service.getSize());
+    }
+
+    @Test
+    void testAuthorize_EvictsLeastRecentlyUsed() {
+        // Given: 세그먼트당 1개
+        IdTagAuthorizationService service = service(new PrefixIdTagBackend(), 16);
+
+        // When
+        for (int i = 0; i < 1000; i++) {
+            service.authorize("RFID" + i);
+        }
+
+        // Then
+        assertTrue(service.getSize() <= 16);
+        assertEquals(1000 - service.getSize(), service.getEvictions());
+    }
+
+    @Test
+    void testAuthorize_BackendFailureNotCached() {
+        // Given
+        AtomicInteger failures = new AtomicInteger(1);
+        IdTagAuthorizationService service = service(idTag -> {
+            if (failures.getAndDecrement() > 0) {
+                throw new IOException("backend down");
+            }
+            return IdTagInfo.ACCEPTED;
+        }, 100);
+
+        // When & Then
+        assertThrows(UncheckedIOException.class, () -> service.authorize("RFID001"));
+        assertEquals(AuthorizationStatus.ACCEPTED, service.authorize("RFID001").status());
+        assertEquals(1, service.getBackendFailures());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testAuthorizeOrDefault_FallsBackOnFailure() {
+        // Given
+        IdTagAuthorizationService service = service(idTag -> {
+            throw new IOException("backend down");
+        }, 100);
+
+        // When & Then
+        assertSame(IdTagInfo.ACCEPTED, service.authorizeOrDefault("RFID001", IdTagInfo.ACCEPTED));
+    }
+
+    @Test
+    void testAuthorize_CoalescesConcurrentLookups() throws Exception {
+        // Given: 첫 조회가 끝나지 않게 막아 둠
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IdTagAuthorizationService service = service(idTag -> {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return IdTagInfo.ACCEPTED;
+        }, 100);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+        try {
+            // When
+            List<Future<IdTagInfo>> results = new ArrayList<>();
+            results.add(executor.submit(() -> service.authorize("RFID001")));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < threads; i++) {
+                results.add(executor.submit(() -> service.authorize("RFID001")));
+            }
+            while (service.getCoalesced() < threads - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            // Then
+            for (Future<IdTagInfo> result : results) {
+                assertEquals(AuthorizationStatus.ACCEPTED, result.get(5, TimeUnit.SECONDS).status());
+            }
+            assertEquals(1, calls.get());
+            assertEquals(threads - 1, service.getCoalesced());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testInvalidate_DuringLoadIsNotOverwritten() throws Exception {
+        // Given: 첫 조회(Accepted)가 끝나기 전에 태그가 차단되고 무효화됨
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+        IdTagAuthorizationService service = service(idTag -> {
+            if (loads.getAndIncrement() > 0) {
+                return IdTagInfo.BLOCKED;
+            }
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return IdTagInfo.ACCEPTED;
+        }, 100);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        try {
+            Future<IdTagInfo> stale = executor.submit(() -> service.authorize("RFID001"));
+            assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+            // When
+            service.invalidate("RFID001");
+            IdTagInfo fresh = service.authorize("RFID001");
+            release.countDown();
+
+            // Then: 무효화 이후 요청은 새로 조회하고, 늦게 끝난 조회는 캐시를 덮어쓰지 않음
+            assertEquals(AuthorizationStatus.ACCEPTED, stale.get(5, TimeUnit.SECONDS).status());
+            assertEquals(AuthorizationStatus.BLOCKED, fresh.status());
+            assertEquals(AuthorizationStatus.BLOCKED, service.authorize("RFID001").status());
+            assertEquals(2, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testIdTagInfo_ToJson() {
+        // Given
+        IdTagInfo info = new IdTagInfo(AuthorizationStatus.ACCEPTED, 1705312800000L, "GROUP-A");
+
+        // When & Then
+        assertEquals("{\"status\":\"Accepted\",\"expiryDate\":\"2024-01-15T10:00:00Z\",\"parentIdTag\":\"GROUP-A\"}",
+                info.toJson().toString());
+        assertEquals("{\"status\":\"Invalid\"}", IdTagInfo.INVALID.toJson().toString());
+    }
+}
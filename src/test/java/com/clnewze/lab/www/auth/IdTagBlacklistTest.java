@@ -0,0 +1,110 @@
+package com.clnewze.lab.www.auth;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdTagBlacklistTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testContains_ExactMatchOnly() {
+        // Given
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            tags.add("STOLEN" + i);
+        }
+        tags.add("STOLEN0");  // 중복
+        tags.add("카드-한글");
+
+        // When
+        IdTagBlacklist blacklist = IdTagBlacklist.of(tags, IdTagBlacklist.DEFAULT_BITS_PER_ENTRY);
+
+        // Then
+        assertEquals(10_001, blacklist.size());
+        for (String tag : tags) {
+            assertTrue(blacklist.contains(tag), tag);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(blacklist.contains("RFID" + i));
+        }
+        assertFalse(blacklist.contains("STOLEN"));
+        assertFalse(blacklist.contains("STOLEN00"));
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRate() {
+        // Given
+        List<String> tags = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            tags.add("STOLEN" + i);
+        }
+        IdTagBlacklist blacklist = IdTagBlacklist.of(tags, 10);
+
+        // When
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (blacklist.mightContain("RFID" + i)) {
+                falsePositives++;
+            }
+        }
+
+        // Then: 10비트/태그 → 약 1%
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    @Test
+    void testEmpty() {
+        assertFalse(IdTagBlacklist.empty().contains("RFID001"));
+        assertEquals(0, IdTagBlacklist.empty().size());
+    }
+
+    @Test
+    void testReload_SwapsSnapshot() throws IOException {
+        // Given
+        Path file = dir.resolve("blacklist.txt");
+        Files.writeString(file, "# stolen cards\nSTOLEN1\n\nSTOLEN2\n");
+        ReloadableIdTagBlacklist blacklist = new ReloadableIdTagBlacklist(file);
+        IdTagBlacklist before = blacklist.current();
+
+        // When
+        Files.writeString(file, "STOLEN3\n");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 1000));
+        boolean reloaded = blacklist.reloadIfModified();
+
+        // Then
+        assertTrue(reloaded);
+        assertFalse(blacklist.reloadIfModified());
+        assertTrue(before.contains("STOLEN1"));
+        assertFalse(blacklist.contains("STOLEN1"));
+        assertTrue(blacklist.contains("STOLEN3"));
+    }
+
+    @Test
+    void testAuthorize_BlacklistSkipsBackend() throws IOException {
+        // Given
+        Path file = dir.resolve("blacklist.txt");
+        Files.writeString(file, "STOLEN1\n");
+        IdTagAuthorizationService service = new IdTagAuthorizationService(idTag -> {
+            throw new IOException("backend must not be called");
+        }, 100, 1000, 1000, System::currentTimeMillis, new ReloadableIdTagBlacklist(file));
+
+        // When
+        IdTagInfo info = service.authorize("STOLEN1");
+
+        // Then
+        assertEquals(AuthorizationStatus.BLOCKED, info.status());
+        assertEquals(1, service.getBlacklisted());
+        assertEquals(0, service.getBackendCalls());
+    }
+}
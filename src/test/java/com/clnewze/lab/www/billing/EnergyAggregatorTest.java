@@ -0,0 +1,238 @@
+package com.clnewze.lab.www.billing;
+
+import com.clnewze.lab.www.action.request.SampledValue;
+import com.clnewze.lab.www.meter.Location;
+import com.clnewze.lab.www.meter.Measurand;
+import com.clnewze.lab.www.meter.Phase;
+import com.clnewze.lab.www.meter.ReadingContext;
+import com.clnewze.lab.www.meter.UnitOfMeasure;
+import com.clnewze.lab.www.meter.ValueFormat;
+import com.clnewze.lab.www.transaction.InMemoryTransactionStore;
+import com.clnewze.lab.www.transaction.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EnergyAggregatorTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+    private static final long MINUTE = 60_000L;
+
+    private InMemoryTransactionStore transactions;
+    private EnergyAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        transactions = new InMemoryTransactionStore();
+        // 300원/kWh + 기본요금 1000원
+        aggregator = new EnergyAggregator(transactions, new FlatTariff(300, 1000, 0), 10 * MINUTE, 100);
+    }
+
+    @Test
+    void testOnSample_AccumulatesEnergyPeakAndCost() {
+        // Given
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 1000, T0);
+        int id = transaction.transactionId();
+
+        // When
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, register(1.5, UnitOfMeasure.KWH));
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, power(7.2, UnitOfMeasure.KW, Phase.NONE));
+        aggregator.onSample("CP001", 1, id, T0 + 2 * MINUTE, register(3000, UnitOfMeasure.WH));
+        aggregator.onSample("CP001", 1, id, T0 + 2 * MINUTE, power(6500, UnitOfMeasure.W, Phase.NONE));
+
+        // Then
+        TransactionUsage usage = aggregator.getUsage(id);
+        assertEquals(2000, usage.energyWh(), 1e-9);
+        assertEquals(7200, usage.peakPowerW(), 1e-9);
+        assertEquals(3000, usage.lastRegisterWh(), 1e-9);
+        assertEquals(4, usage.sampleCount());
+        assertEquals(1000 + 2 * 300, usage.cost(), 1e-9);
+        assertFalse(usage.closed());
+        assertEquals(1, aggregator.getOpenCount());
+    }
+
+    @Test
+    void testFinish_AppliesMeterStop() {
+        // Given
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, register(500, UnitOfMeasure.WH));
+
+        // When
+        Transaction stopped = transactions.stop("CP001", id, 1500, T0 + 2 * MINUTE, "Local");
+        TransactionUsage usage = aggregator.finish(stopped);
+
+        // Then
+        assertTrue(usage.closed());
+        assertEquals(1500, usage.energyWh(), 1e-9);
+        assertEquals(stopped.energyWh(), usage.energyWh(), 1e-9);
+        assertEquals(1, usage.sampleCount());
+        assertEquals(T0 + 2 * MINUTE, usage.lastTimestamp());
+        assertEquals(0, aggregator.getOpenCount());
+        assertSame(usage, aggregator.finish(stopped), "중복 StopTransaction은 기존 결과");
+        assertSame(usage, aggregator.getUsage(id));
+    }
+
+    @Test
+    void testFinish_MeterStopAppliedAfterLaterDatedSample() {
+        // Given: 충전기 시계가 흔들려 샘플 시각이 종료 시각보다 늦음
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+        aggregator.onSample("CP001", 1, id, T0 + 5 * MINUTE, register(500, UnitOfMeasure.WH));
+
+        // When
+        TransactionUsage usage = aggregator.finish(transactions.stop("CP001", id, 1500, T0 + 4 * MINUTE, "Local"));
+
+        // Then: meterStop은 지연 샘플이 아니라 최종 적산값
+        assertEquals(1500, usage.energyWh(), 1e-9);
+        assertEquals(1500, usage.lastRegisterWh(), 1e-9);
+        assertEquals(0, usage.lateSamples());
+        assertEquals(0, aggregator.getLateSamples());
+    }
+
+    @Test
+    void testOnSample_RejectsFutureSampleByServerClock() {
+        // Given: 서버 시각 T0 + 10분, 허용 오차 1분
+        EnergyAggregator clocked = new EnergyAggregator(transactions, new FlatTariff(300, 1000, 0), 10 * MINUTE, 100,
+                MINUTE, () -> T0 + 10 * MINUTE);
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+
+        // When: 1년 뒤 시각의 샘플 다음에 정상 샘플
+        clocked.onSample("CP001", 1, id, T0 + 365L * 24 * 60 * MINUTE, register(100, UnitOfMeasure.WH));
+        clocked.onSample("CP001", 1, id, T0 + 5 * MINUTE, register(500, UnitOfMeasure.WH));
+        clocked.onSample("CP001", 1, id, T0 + 11 * MINUTE, register(800, UnitOfMeasure.WH));   // 오차 안
+        TransactionUsage usage = clocked.finish(
+                transactions.stop("CP001", id, 1000, T0 + 365L * 24 * 60 * MINUTE, "Local"));
+
+        // Then
+        assertEquals(1, clocked.getFutureSamples());
+        assertEquals(0, clocked.getLateSamples());
+        assertEquals(1000, usage.energyWh(), 1e-9);
+        assertEquals(2, usage.sampleCount());
+        assertEquals(T0 + 11 * MINUTE, usage.lastTimestamp(), "종료 시각도 서버 시각 + 오차까지");
+    }
+
+    @Test
+    void testFinish_WithoutSamples() {
+        // Given
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 100, T0);
+
+        // When
+        TransactionUsage usage = aggregator.finish(
+                transactions.stop("CP001", transaction.transactionId(), 600, T0 + MINUTE, "Local"));
+
+        // Then
+        assertEquals(500, usage.energyWh(), 1e-9);
+        assertEquals(0, usage.sampleCount());
+        assertEquals(1000 + 0.5 * 300, usage.cost(), 1e-9);
+    }
+
+    @Test
+    void testOnSample_DetectsRegressionGapAndLate() {
+        // Given
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+
+        // When
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, register(1000, UnitOfMeasure.WH));
+        aggregator.onSample("CP001", 1, id, T0 + 2 * MINUTE, register(200, UnitOfMeasure.WH));   // 역행 → 기준 재설정
+        aggregator.onSample("CP001", 1, id, T0 + 3 * MINUTE, register(700, UnitOfMeasure.WH));
+        aggregator.onSample("CP001", 1, id, T0 + 90 * MINUTE, register(900, UnitOfMeasure.WH));  // 공백
+        aggregator.onSample("CP001", 1, id, T0 + 30 * MINUTE, register(800, UnitOfMeasure.WH));  // 지연
+
+        // Then
+        TransactionUsage usage = aggregator.getUsage(id);
+        assertEquals(1000 + 500 + 200, usage.energyWh(), 1e-9);
+        assertEquals(1, usage.regressions());
+        assertEquals(1, usage.gaps());
+        assertEquals(1, usage.lateSamples());
+        assertEquals(900, usage.lastRegisterWh(), 1e-9);
+        assertEquals(1, aggregator.getRegressions());
+        assertEquals(1, aggregator.getGaps());
+        assertEquals(1, aggregator.getLateSamples());
+    }
+
+    @Test
+    void testOnSample_SumsPhasesAtSameTimestamp() {
+        // Given
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+
+        // When
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, power(3.6, UnitOfMeasure.KW, Phase.L1));
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, power(3.7, UnitOfMeasure.KW, Phase.L2));
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, power(3.5, UnitOfMeasure.KW, Phase.L3));
+        aggregator.onSample("CP001", 1, id, T0 + 2 * MINUTE, power(4.0, UnitOfMeasure.KW, Phase.L1));
+
+        // Then
+        assertEquals(10_800, aggregator.getUsage(id).peakPowerW(), 1e-6);
+    }
+
+    @Test
+    void testOnSample_IgnoresUnrelatedSamples() {
+        // Given
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+
+        // When
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, SampledValue.of(50, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER,
+                UnitOfMeasure.KWH, ReadingContext.SAMPLE_PERIODIC, Phase.NONE, Location.EV, ValueFormat.RAW, null));
+        aggregator.onSample("CP001", 1, id, T0 + MINUTE, SampledValue.of(80, Measurand.SOC,
+                UnitOfMeasure.PERCENT, ReadingContext.SAMPLE_PERIODIC, Phase.NONE, Location.EV, ValueFormat.RAW, null));
+        aggregator.onSample("CP002", 1, id, T0 + MINUTE, register(10, UnitOfMeasure.KWH));   // 다른 충전기
+        aggregator.onSample("CP001", 1, 999, T0 + MINUTE, register(10, UnitOfMeasure.KWH));  // 모르는 트랜잭션
+
+        // Then
+        TransactionUsage usage = aggregator.getUsage(id);
+        assertNull(usage);
+        assertEquals(2, aggregator.getOrphanSamples());
+    }
+
+    @Test
+    void testOnSample_SupersededTransactionIsFinalized() {
+        // Given
+        Transaction first = transactions.start("CP001", 1, "RFID1", 0, T0);
+        aggregator.onSample("CP001", 1, first.transactionId(), T0 + MINUTE, register(400, UnitOfMeasure.WH));
+
+        // When: StopTransaction 없이 같은 커넥터에서 새 트랜잭션
+        Transaction second = transactions.start("CP001", 1, "RFID2", 400, T0 + 2 * MINUTE);
+        aggregator.onSample("CP001", 1, second.transactionId(), T0 + 3 * MINUTE, register(600, UnitOfMeasure.WH));
+        aggregator.onSample("CP001", 1, first.transactionId(), T0 + 4 * MINUTE, register(700, UnitOfMeasure.WH));
+
+        // Then
+        TransactionUsage previous = aggregator.getUsage(first.transactionId());
+        assertTrue(previous.closed());
+        assertEquals(400, previous.energyWh(), 1e-9);
+        assertEquals(200, aggregator.getUsage(second.transactionId()).energyWh(), 1e-9);
+        assertEquals(1, aggregator.getOpenCount());
+        assertEquals(1, aggregator.getLateSamples());
+    }
+
+    @Test
+    void testTariff_TimeOfUse() {
+        // Given: 구간 끝 시각이 T0 + 2분 이후면 단가 2배
+        Tariff timeOfUse = (energyWh, from, to) -> energyWh / 1000.0 * (to > T0 + 2 * MINUTE ? 200 : 100);
+        EnergyAggregator touAggregator = new EnergyAggregator(transactions, timeOfUse, 10 * MINUTE, 100);
+        Transaction transaction = transactions.start("CP001", 1, "RFID1", 0, T0);
+        int id = transaction.transactionId();
+
+        // When
+        touAggregator.onSample("CP001", 1, id, T0 + MINUTE, register(1000, UnitOfMeasure.WH));
+        touAggregator.onSample("CP001", 1, id, T0 + 3 * MINUTE, register(2000, UnitOfMeasure.WH));
+
+        // Then
+        assertEquals(100 + 200, touAggregator.getUsage(id).cost(), 1e-9);
+    }
+
+    private static SampledValue register(double value, UnitOfMeasure unit) {
+        return SampledValue.of(value, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, unit, ReadingContext.SAMPLE_PERIODIC,
+                Phase.NONE, Location.OUTLET, ValueFormat.RAW, null);
+    }
+
+    private static SampledValue power(double value, UnitOfMeasure unit, Phase phase) {
+        return SampledValue.of(value, Measurand.POWER_ACTIVE_IMPORT, unit, ReadingContext.SAMPLE_PERIODIC,
+                phase, Location.OUTLET, ValueFormat.RAW, null);
+    }
+}
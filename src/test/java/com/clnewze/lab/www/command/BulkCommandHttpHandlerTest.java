@@ -0,0 +1,142 @@
+package com.clnewze.lab.www.command;
+
+import com.clnewze.lab.www.pending.HashedWheelTimer;
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.Call;
+import com.clnewze.lab.www.protocol.OcppFrameDecoder;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.session.SessionManager;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkCommandHttpHandlerTest {
+
+    private static final String TOKEN = "test-token";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    /** 가짜 충전기가 받은 요청 (바로 Accepted 응답) */
+    private final List<Call> received = new CopyOnWriteArrayList<>();
+
+    private PendingRequestManager pendingRequests;
+    private BulkCommandService service;
+    private AdminHttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        SessionManager sessionManager = new SessionManager();
+        sessionManager.addSession(new ChargePointSession("CP001", null));
+        sessionManager.addSession(new ChargePointSession("CP002", null));
+        pendingRequests = new PendingRequestManager((session, message) -> {
+            Call call = (Call) message;
+            received.add(call);
+            pendingRequests.complete(session.getChargePointId(), OcppFrameDecoder.decode(
+                    "[3,\"" + call.getUniqueId() + "\",{\"status\":\"Accepted\"}]"));
+        }, new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64), 1000);
+        service = new BulkCommandService(sessionManager, pendingRequests);
+        server = new AdminHttpServer(new InetSocketAddress("127.0.0.1", 0));
+        server.addHandler("/commands", new BulkCommandHttpHandler(service, TOKEN));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop();
+        service.shutdown();
+        pendingRequests.shutdown();
+    }
+
+    @Test
+    void testPost_SubmitsJobAndReportsProgress() throws Exception {
+        // When
+        HttpResponse<String> submitted = send("POST", "/commands/ChangeConfiguration?chargePoints=CP002",
+                "{\"key\":\"HeartbeatInterval\",\"value\":\"300\"}");
+        JsonObject body = JsonParser.parseString(submitted.body()).getAsJsonObject();
+        long jobId = body.get("jobId").getAsLong();
+        JsonObject progress;
+        do {
+            Thread.sleep(10);
+            progress = JsonParser.parseString(send("GET", "/commands/" + jobId, null).body()).getAsJsonObject();
+        } while (!progress.get("done").getAsBoolean());
+
+        // Then
+        assertEquals(202, submitted.statusCode());
+        assertEquals(1, body.get("total").getAsInt());
+        assertEquals(1, progress.get("accepted").getAsInt());
+        assertEquals("CP002", progress.getAsJsonArray("outcomes").get(0).getAsJsonObject()
+                .get("chargePointId").getAsString());
+        assertEquals(1, received.size());
+        assertEquals("ChangeConfiguration", received.get(0).getAction());
+        assertEquals("300", received.get(0).getPayload().get("value").getAsString());
+    }
+
+    @Test
+    void testRequests_Rejected() throws Exception {
+        // When & Then
+        assertEquals(400, send("POST", "/commands/Reset", "[1,2]").statusCode());
+        assertEquals(400, send("POST", "/commands", "{}").statusCode());
+        assertEquals(404, send("GET", "/commands/99", null).statusCode());
+        assertEquals(405, send("PUT", "/commands/1", "{}").statusCode());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testRequests_RejectedWithoutTokenOrFromBrowser() throws Exception {
+        // When & Then: 토큰 없음/틀림
+        assertEquals(401, send(request("GET", "/commands", null).build()).statusCode());
+        assertEquals(401, send(request("POST", "/commands/Reset", "{}")
+                .header("Authorization", "Bearer wrong")
+                .header("Content-Type", "application/json").build()).statusCode());
+
+        // 다른 사이트에서 보낸 브라우저 요청
+        assertEquals(403, send(request("POST", "/commands/Reset", "{}")
+                .header("Authorization", "Bearer " + TOKEN)
+                .header("Content-Type", "application/json")
+                .header("Origin", "https://evil.example").build()).statusCode());
+
+        // 단순 요청 Content-Type (form/text)
+        assertEquals(415, send(request("POST", "/commands/Reset", "{}")
+                .header("Authorization", "Bearer " + TOKEN)
+                .header("Content-Type", "text/plain").build()).statusCode());
+        assertEquals(415, send(request("POST", "/commands/Reset", "{}")
+                .header("Authorization", "Bearer " + TOKEN).build()).statusCode());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testConstructor_RequiresToken() {
+        assertThrows(IllegalArgumentException.class, () -> new BulkCommandHttpHandler(service, " "));
+        assertThrows(IllegalArgumentException.class, () -> new BulkCommandHttpHandler(service, null));
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return send(request(method, path, body)
+                .header("Authorization", "Bearer " + TOKEN)
+                .header("Content-Type", "application/json; charset=utf-8")
+                .build());
+    }
+
+    private HttpRequest.Builder request(String method, String path, String body) {
+        return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.getPort() + path))
+                .method(method, body == null ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpResponse<String> send(HttpRequest request) throws Exception {
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
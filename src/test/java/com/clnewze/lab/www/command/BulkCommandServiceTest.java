@@ -0,0 +1,204 @@
+package com.clnewze.lab.www.command;
+
+import com.clnewze.lab.www.pending.HashedWheelTimer;
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.OcppFrameDecoder;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.session.SessionManager;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkCommandServiceTest {
+
+    /** 가짜 충전기: 20ms 후 응답 */
+    private final ScheduledExecutorService chargePoints = Executors.newScheduledThreadPool(4);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger peakInFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> inFlightPerChargePoint = new ConcurrentHashMap<>();
+    private final AtomicInteger peakPerChargePoint = new AtomicInteger();
+
+    /** 충전기 ID → 응답 프레임 (uniqueId 자리에 %s), null이면 응답 없음 */
+    private Function<String, String> responder = id -> "[3,\"%s\",{\"status\":\"Accepted\"}]";
+
+    private SessionManager sessionManager;
+    private PendingRequestManager pendingRequests;
+    private BulkCommandService service;
+
+    @BeforeEach
+    void setUp() {
+        sessionManager = new SessionManager();
+        for (int i = 0; i < 50; i++) {
+            sessionManager.addSession(new ChargePointSession("CP" + i, null));
+        }
+        pendingRequests = new PendingRequestManager(this::respondLater,
+                new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64), 300);
+        service = new BulkCommandService(sessionManager, pendingRequests, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        pendingRequests.shutdown();
+        chargePoints.shutdownNow();
+    }
+
+    @Test
+    void testSubmit_AllAccepted() {
+        // When
+        BulkCommandJob job = service.submit(RemoteCommand.reset("Soft"), session -> true, BulkOptions.defaults());
+        List<CommandOutcome> outcomes = job.completion().orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(50, outcomes.size());
+        BulkProgress progress = job.getProgress();
+        assertTrue(progress.isDone());
+        assertEquals(50, progress.accepted());
+        assertEquals(0, progress.inFlight());
+        assertEquals(CommandStatus.ACCEPTED, job.getOutcome("CP7").status());
+    }
+
+    @Test
+    void testSubmit_RespectsConcurrencyLimit() {
+        // When
+        BulkCommandJob job = service.submit(RemoteCommand.changeConfiguration("HeartbeatInterval", "300"),
+                session -> true, new BulkOptions(5, 0));
+        job.completion().orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(50, job.getProgress().accepted());
+        assertTrue(peakInFlight.get() <= 5, "peak in flight: " + peakInFlight.get());
+    }
+
+    @Test
+    void testSubmit_RespectsRateLimit() {
+        // Given: 초당 100건 → 30건은 최소 0.2초 이상
+        long start = System.nanoTime();
+
+        // When
+        BulkCommandJob job = service.submit(RemoteCommand.reset("Hard"),
+                List.of(sessionManager.getAllSessions().stream().limit(30)
+                        .map(ChargePointSession::getChargePointId).toArray(String[]::new)),
+                new BulkOptions(100, 100));
+        job.completion().orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(30, job.getProgress().accepted());
+        assertTrue(elapsedMillis >= 180, "elapsed: " + elapsedMillis);
+    }
+
+    @Test
+    void testConcurrentJobs_NeverExceedPerChargePointLimit() {
+        // When: 같은 충전기에 3개 작업 동시 실행
+        BulkCommandJob first = service.submit(RemoteCommand.reset("Soft"), session -> true, BulkOptions.defaults());
+        BulkCommandJob second = service.submit(RemoteCommand.changeConfiguration("A", "1"), session -> true,
+                BulkOptions.defaults());
+        BulkCommandJob third = service.submit(RemoteCommand.changeConfiguration("B", "2"), session -> true,
+                BulkOptions.defaults());
+        first.completion().orTimeout(10, TimeUnit.SECONDS).join();
+        second.completion().orTimeout(10, TimeUnit.SECONDS).join();
+        third.completion().orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(1, peakPerChargePoint.get());
+        assertEquals(50, third.getProgress().accepted());
+        assertEquals(0, service.getInFlight("CP0"));
+    }
+
+    @Test
+    void testSubmit_WaitsForOtherPendingRequests() throws Exception {
+        // Given: 다른 기능이 CP0에 보낸 요청이 응답 없이 대기 중 (300ms 후 타임아웃)
+        AtomicBoolean first = new AtomicBoolean(true);
+        responder = id -> first.getAndSet(false) ? null : "[3,\"%s\",{\"status\":\"Accepted\"}]";
+        CompletableFuture<OcppMessage> other = pendingRequests.call(sessionManager.getSession("CP0"),
+                "GetLocalListVersion", new JsonObject());
+
+        // When
+        BulkCommandJob job = service.submit(RemoteCommand.reset("Soft"), List.of("CP0"), BulkOptions.defaults());
+        Thread.sleep(150);
+
+        // Then: 다른 요청이 끝날 때까지 보내지 않음
+        assertEquals(0, job.getProgress().inFlight());
+        assertEquals(1, peakPerChargePoint.get());
+        job.completion().orTimeout(10, TimeUnit.SECONDS).join();
+        assertTrue(other.isCompletedExceptionally());
+        assertEquals(CommandStatus.ACCEPTED, job.getOutcome("CP0").status());
+        assertEquals(1, peakPerChargePoint.get());
+    }
+
+    @Test
+    void testSubmit_ClassifiesOutcomes() {
+        // Given
+        responder = id -> switch (id) {
+            case "CP0" -> "[3,\"%s\",{\"status\":\"Rejected\"}]";
+            case "CP1" -> "[4,\"%s\",\"NotSupported\",\"no\",{}]";
+            case "CP2" -> null;  // 응답 없음 → 타임아웃
+            default -> "[3,\"%s\",{\"status\":\"RebootRequired\"}]";
+        };
+
+        // When
+        BulkCommandJob job = service.submit(RemoteCommand.changeConfiguration("K", "V"),
+                List.of("CP0", "CP1", "CP2", "CP3", "UNKNOWN"), BulkOptions.defaults());
+        job.completion().orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(CommandStatus.REJECTED, job.getOutcome("CP0").status());
+        assertEquals(CommandStatus.CALL_ERROR, job.getOutcome("CP1").status());
+        assertEquals(CommandStatus.TIMEOUT, job.getOutcome("CP2").status());
+        assertEquals(CommandStatus.ACCEPTED, job.getOutcome("CP3").status());
+        assertEquals(CommandStatus.FAILED, job.getOutcome("UNKNOWN").status());
+    }
+
+    @Test
+    void testCancel_RemainingTargetsCancelled() {
+        // Given: 초당 20건으로 천천히 전송
+        BulkCommandJob job = service.submit(RemoteCommand.reset("Soft"), session -> true, new BulkOptions(10, 20));
+
+        // When
+        job.cancel();
+        job.completion().orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        BulkProgress progress = job.getProgress();
+        assertEquals(50, progress.completed());
+        assertTrue(progress.cancelled() > 0);
+        assertEquals(50, progress.accepted() + progress.cancelled());
+    }
+
+    private void respondLater(ChargePointSession session, OcppMessage call) {
+        String chargePointId = session.getChargePointId();
+        track(inFlight.incrementAndGet(), peakInFlight);
+        AtomicInteger perChargePoint = inFlightPerChargePoint.computeIfAbsent(chargePointId, id -> new AtomicInteger());
+        track(perChargePoint.incrementAndGet(), peakPerChargePoint);
+
+        String response = responder.apply(chargePointId);
+        chargePoints.schedule(() -> {
+            inFlight.decrementAndGet();
+            perChargePoint.decrementAndGet();
+            if (response != null) {
+                pendingRequests.complete(chargePointId,
+                        OcppFrameDecoder.decode(String.format(response, call.getUniqueId())));
+            }
+        }, 20, TimeUnit.MILLISECONDS);
+    }
+
+    private static void track(int value, AtomicInteger peak) {
+        peak.accumulateAndGet(value, Math::max);
+    }
+}
@@ -0,0 +1,268 @@
+package com.clnewze.lab.www.dispatch;
+
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.router.MessageRouter;
+import com.clnewze.lab.www.session.ChargePointSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageDispatcherTest {
+
+    private MessageDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.shutdown();
+        }
+    }
+
+    @Test
+    void testDispatch_PreservesOrderPerChargePoint() throws InterruptedException {
+        // Given: 처리 순서를 기록하는 라우터
+        Map<String, List<Integer>> processed = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(4 * 200);
+        MessageRouter router = new MessageRouter() {
+            @Override
+            public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                             long receivedAtMillis, long receivedNanos) {
+                processed.computeIfAbsent(session.getChargePointId(), id -> new CopyOnWriteArrayList<>())
+                        .add(Integer.parseInt(rawMessage));
+                done.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        dispatcher = new MessageDispatcher(router, new DispatcherConfig(ExecutionMode.PLATFORM, 4, 10_000, 1_000), (s, r) -> { });
+
+        // When
+        ChargePointSession[] sessions = new ChargePointSession[4];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = new ChargePointSession("CP00" + i, null);
+        }
+        for (int seq = 0; seq < 200; seq++) {
+            for (ChargePointSession session : sessions) {
+                dispatcher.dispatch(session, Integer.toString(seq));
+            }
+        }
+
+        // Then
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        for (ChargePointSession session : sessions) {
+            List<Integer> order = processed.get(session.getChargePointId());
+            assertEquals(200, order.size());
+            for (int seq = 0; seq < 200; seq++) {
+                assertEquals(seq, order.get(seq));
+            }
+        }
+        dispatcher.shutdown();
+        assertEquals(800, dispatcher.getCompletedFrames());
+    }
+
+    @Test
+    void testDispatch_QueueFull_RespondsWithCallError() throws InterruptedException {
+        // Given: 첫 프레임에서 멈춰 있는 라우터
+        CountDownLatch release = new CountDownLatch(1);
+        MessageRouter router = new MessageRouter() {
+            @Override
+            public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                             long receivedAtMillis, long receivedNanos) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        List<OcppMessage> sent = new CopyOnWriteArrayList<>();
+        dispatcher = new MessageDispatcher(router, new DispatcherConfig(ExecutionMode.PLATFORM, 1, 100, 2), (s, r) -> sent.add(r));
+        ChargePointSession session = new ChargePointSession("CP001", null);
+
+        // When: 실행 중 1개 + 대기 2개 이후는 거절
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(session, "[2,\"hb-00" + i + "\",\"Heartbeat\",{}]");
+            Thread.sleep(20);
+        }
+
+        // Then
+        assertTrue(dispatcher.getRejectedFrames() >= 2);
+        assertFalse(sent.isEmpty());
+        CallError error = assertInstanceOf(CallError.class, sent.get(0));
+        assertEquals(ErrorCode.INTERNAL_ERROR, error.getErrorCode());
+        assertEquals("hb-003", error.getUniqueId());
+
+        release.countDown();
+    }
+
+    @Test
+    void testDispatch_ResponseFramesCountTowardQueueLimit() throws InterruptedException {
+        // Given: 워커 1개가 첫 Call에서 멈춰 있고 전체 대기 상한 3
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(4);
+        MessageRouter router = new MessageRouter() {
+            @Override
+            public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                             long receivedAtMillis, long receivedNanos) {
+                if (rawMessage.startsWith("[2")) {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                done.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        List<OcppMessage> sent = new CopyOnWriteArrayList<>();
+        dispatcher = new MessageDispatcher(router, new DispatcherConfig(ExecutionMode.PLATFORM, 1, 3, 10), (s, r) -> sent.add(r));
+        ChargePointSession session = new ChargePointSession("CP001", null);
+        dispatcher.dispatch(session, "[2,\"hb-001\",\"Heartbeat\",{}]");
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When: 워커가 멈춘 동안 응답 프레임 5개 도착
+        for (int i = 0; i < 5; i++) {
+            dispatcher.dispatch(session, "[3,\"srv-00" + i + "\",{}]");
+        }
+
+        // Then: 상한까지만 대기하고 나머지는 버림 (응답 프레임에는 CallError를 보내지 않음)
+        assertEquals(3, dispatcher.getQueuedFrames());
+        assertEquals(2, dispatcher.getRejectedFrames());
+        assertTrue(sent.isEmpty());
+
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        dispatcher.shutdown();
+        assertEquals(0, dispatcher.getQueuedFrames());
+        assertEquals(4, dispatcher.getCompletedFrames());
+    }
+
+    @Test
+    void testDispatch_KeepsReceiveTimeWhileQueued() throws InterruptedException {
+        // Given: 첫 프레임이 lane을 점유하는 동안 두 번째 프레임이 대기
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        Map<String, Long> receivedNanosByFrame = new ConcurrentHashMap<>();
+        MessageRouter router = new MessageRouter() {
+            @Override
+            public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                             long receivedAtMillis, long receivedNanos) {
+                receivedNanosByFrame.put(rawMessage, receivedNanos);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                done.countDown();
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        dispatcher = new MessageDispatcher(router, new DispatcherConfig(ExecutionMode.PLATFORM, 1, 100, 100), (s, r) -> { });
+        ChargePointSession session = new ChargePointSession("CP001", null);
+
+        // When
+        dispatcher.dispatch(session, "1");
+        dispatcher.dispatch(session, "2");
+        long dispatchedNanos = System.nanoTime();
+        Thread.sleep(50);
+        release.countDown();
+
+        // Then: 대기한 프레임도 dispatch 시점의 수신 시각을 받음
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(receivedNanosByFrame.get("2") <= dispatchedNanos);
+    }
+
+    @Test
+    void testRemoveSession_DropsQueuedFrames() throws InterruptedException {
+        // Given
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MessageRouter router = new MessageRouter() {
+            @Override
+            public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                             long receivedAtMillis, long receivedNanos) {
+                entered.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        dispatcher = new MessageDispatcher(router, new DispatcherConfig(ExecutionMode.PLATFORM, 1, 100, 100), (s, r) -> { });
+        ChargePointSession session = new ChargePointSession("CP001", null);
+        for (int i = 0; i < 10; i++) {
+            dispatcher.dispatch(session, "[2,\"hb\",\"Heartbeat\",{}]");
+        }
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // When
+        dispatcher.removeSession("CP001");
+
+        // Then: 처리 중인 프레임이 끝날 때까지 lane은 남음
+        assertEquals(1, dispatcher.getLaneCount());
+        assertEquals(0, dispatcher.getQueuedFrames());
+        release.countDown();
+        for (int i = 0; i < 500 && dispatcher.getLaneCount() > 0; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, dispatcher.getLaneCount());
+    }
+
+    @Test
+    void testRemoveSession_ReconnectWaitsForInFlightFrame() throws InterruptedException {
+        // Given: 이전 연결의 비동기 처리가 끝나지 않은 채 연결이 끊김
+        CompletableFuture<OcppMessage> inFlight = new CompletableFuture<>();
+        List<String> processed = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(2);
+        MessageRouter router = new MessageRouter() {
+            @Override
+            public CompletableFuture<OcppMessage> routeAsync(ChargePointSession session, String rawMessage,
+                                                             long receivedAtMillis, long receivedNanos) {
+                processed.add(rawMessage);
+                done.countDown();
+                return "old".equals(rawMessage) ? inFlight : CompletableFuture.completedFuture(null);
+            }
+        };
+        dispatcher = new MessageDispatcher(router, new DispatcherConfig(ExecutionMode.PLATFORM, 4, 100, 100), (s, r) -> { });
+        dispatcher.dispatch(new ChargePointSession("CP001", null), "old");
+        while (processed.isEmpty()) {
+            Thread.onSpinWait();
+        }
+        dispatcher.removeSession("CP001");
+
+        // When: 재연결한 충전기의 프레임
+        dispatcher.dispatch(new ChargePointSession("CP001", null), "new");
+        Thread.sleep(50);
+
+        // Then: 이전 프레임이 끝난 뒤에 처리
+        assertEquals(List.of("old"), processed);
+        inFlight.complete(null);
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("old", "new"), processed);
+    }
+
+    @Test
+    void testIsResponseFrame() {
+        assertTrue(MessageDispatcher.isResponseFrame("[3,\"id\",{}]"));
+        assertTrue(MessageDispatcher.isResponseFrame(" [ 4,\"id\",\"GenericError\",\"\",{}]"));
+        assertFalse(MessageDispatcher.isResponseFrame("[2,\"id\",\"Heartbeat\",{}]"));
+        assertFalse(MessageDispatcher.isResponseFrame("[34,\"id\",{}]"));
+        assertFalse(MessageDispatcher.isResponseFrame("not json"));
+    }
+}
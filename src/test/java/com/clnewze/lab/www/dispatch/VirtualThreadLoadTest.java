@@ -0,0 +1,249 @@
+package com.clnewze.lab.www.dispatch;
+
+import com.clnewze.lab.www.action.ActionHandler;
+import com.clnewze.lab.www.action.CallContext;
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.MessageType;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.protocol.ResponseTemplates;
+import com.clnewze.lab.www.router.MessageRouter;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.session.SessionManager;
+import com.clnewze.lab.www.transport.websocket.OcppWebSocketServer;
+import com.clnewze.lab.www.transport.websocket.WebSocketResponseSender;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * 가상 스레드 모드 부하 테스트
+ * 실제 MessageRouter에 20ms 블로킹 Heartbeat 핸들러(DB/HTTP 가정)를 등록하고 프레임 디코딩부터 응답까지 태움
+ *
+ * - 디스패처 직접: 충전기 50,000대 × 프레임 4개
+ * - WebSocket: OcppWebSocketServer에 실제 클라이언트 1,000대가 접속해 프레임 4개씩 연달아 전송
+ *
+ * 실행: ./gradlew loadTest (Java 21)
+ */
+@Tag("load")
+class VirtualThreadLoadTest {
+
+    private static final int CHARGE_POINTS = 50_000;
+    private static final int WEBSOCKET_CHARGE_POINTS = 1_000;
+    private static final int FRAMES_PER_CHARGE_POINT = 4;
+    private static final long HANDLER_LATENCY_MS = 20;
+
+    @Test
+    void testFiftyThousandChargePointsWithBlockingHandler() throws InterruptedException {
+        assumeTrue(VirtualThreads.isSupported(), "Virtual threads require Java 21+");
+
+        // Given: 20ms 블로킹 후 충전기별 순서를 검사하는 핸들러를 등록한 라우터
+        int totalFrames = CHARGE_POINTS * FRAMES_PER_CHARGE_POINT;
+        SlowHeartbeatHandler handler = new SlowHeartbeatHandler(CHARGE_POINTS);
+        MessageRouter router = new MessageRouter();
+        router.register(handler);
+
+        CountDownLatch done = new CountDownLatch(totalFrames);
+        AtomicLong callResults = new AtomicLong();
+        DispatcherConfig config = new DispatcherConfig(ExecutionMode.VIRTUAL, 1, totalFrames, FRAMES_PER_CHARGE_POINT);
+        MessageDispatcher dispatcher = new MessageDispatcher(router, config, (session, response) -> {
+            if (response.getType() == MessageType.CALL_RESULT) {
+                callResults.incrementAndGet();
+            }
+            done.countDown();
+        });
+
+        ChargePointSession[] sessions = new ChargePointSession[CHARGE_POINTS];
+        for (int i = 0; i < CHARGE_POINTS; i++) {
+            sessions[i] = new ChargePointSession("CP" + i, null);
+        }
+
+        // When
+        long start = System.nanoTime();
+        for (int seq = 1; seq <= FRAMES_PER_CHARGE_POINT; seq++) {
+            String frame = "[2,\"" + seq + "\",\"Heartbeat\",{}]";
+            for (ChargePointSession session : sessions) {
+                dispatcher.dispatch(session, frame);
+            }
+        }
+        boolean completed = done.await(60, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        dispatcher.shutdown();
+
+        // Then
+        System.out.printf("[LoadTest] dispatcher: %d charge points, %d frames, %d ms, %.0f frames/s, peak concurrent handlers %d%n",
+                CHARGE_POINTS, totalFrames, elapsedMs, totalFrames * 1000.0 / elapsedMs, handler.peakConcurrent.get());
+
+        assertTrue(completed, "All frames should complete");
+        assertEquals(0, handler.outOfOrder.get(), "Per charge point order must be preserved");
+        assertEquals(0, dispatcher.getRejectedFrames());
+        assertEquals(totalFrames, callResults.get());
+        // 직렬 워커였다면 200,000 × 20ms, 실제로는 충전기별 4 × 20ms에 가까워야 함
+        assertTrue(handler.peakConcurrent.get() > 1_000, "Handlers should block concurrently on virtual threads");
+    }
+
+    @Test
+    void testWebSocketChargePointsWithBlockingHandler() throws Exception {
+        assumeTrue(VirtualThreads.isSupported(), "Virtual threads require Java 21+");
+
+        // Given: Main과 같은 구성의 서버 (임의 포트)
+        int totalFrames = WEBSOCKET_CHARGE_POINTS * FRAMES_PER_CHARGE_POINT;
+        SlowHeartbeatHandler handler = new SlowHeartbeatHandler(WEBSOCKET_CHARGE_POINTS);
+        MessageRouter router = new MessageRouter();
+        router.register(handler);
+
+        SessionManager sessionManager = new SessionManager();
+        WebSocketResponseSender sender = new WebSocketResponseSender(new OcppMetrics());
+        PendingRequestManager pendingRequests = new PendingRequestManager(sender);
+        DispatcherConfig config = new DispatcherConfig(ExecutionMode.VIRTUAL, 1, totalFrames, FRAMES_PER_CHARGE_POINT);
+        MessageDispatcher dispatcher = new MessageDispatcher(router, config, sender);
+        CountDownLatch started = new CountDownLatch(1);
+        OcppWebSocketServer server = new OcppWebSocketServer(0, sessionManager, dispatcher, pendingRequests) {
+            @Override
+            public void onStart() {
+                super.onStart();
+                started.countDown();
+            }
+        };
+        server.start();
+        assertTrue(started.await(10, TimeUnit.SECONDS), "Server should start");
+
+        CountDownLatch opened = new CountDownLatch(WEBSOCKET_CHARGE_POINTS);
+        CountDownLatch done = new CountDownLatch(totalFrames);
+        AtomicInteger clientOutOfOrder = new AtomicInteger();
+        List<ChargePointClient> clients = new ArrayList<>(WEBSOCKET_CHARGE_POINTS);
+        for (int i = 0; i < WEBSOCKET_CHARGE_POINTS; i++) {
+            URI uri = URI.create("ws://localhost:" + server.getPort() + "/ocpp/CP" + i);
+            ChargePointClient client = new ChargePointClient(uri, opened, done, clientOutOfOrder);
+            clients.add(client);
+            client.connect();
+        }
+        assertTrue(opened.await(30, TimeUnit.SECONDS), "All charge points should connect");
+
+        // When: 충전기마다 응답을 기다리지 않고 프레임 4개를 연달아 보냄
+        long start = System.nanoTime();
+        for (ChargePointClient client : clients) {
+            for (int seq = 1; seq <= FRAMES_PER_CHARGE_POINT; seq++) {
+                client.send("[2,\"" + seq + "\",\"Heartbeat\",{}]");
+            }
+        }
+        boolean completed = done.await(60, TimeUnit.SECONDS);
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        for (ChargePointClient client : clients) {
+            client.close();
+        }
+        server.stop(1000);
+        dispatcher.shutdown();
+        pendingRequests.shutdown();
+
+        // Then
+        System.out.printf("[LoadTest] websocket: %d charge points, %d frames, %d ms, %.0f frames/s, peak concurrent handlers %d%n",
+                WEBSOCKET_CHARGE_POINTS, totalFrames, elapsedMs, totalFrames * 1000.0 / elapsedMs,
+                handler.peakConcurrent.get());
+
+        assertTrue(completed, "Every frame should get a CallResult");
+        assertEquals(0, handler.outOfOrder.get(), "Handlers must run in per charge point order");
+        assertEquals(0, clientOutOfOrder.get(), "Responses must arrive in per charge point order");
+        assertEquals(0, dispatcher.getRejectedFrames());
+        // 직렬이었다면 4,000 × 20ms = 80초
+        assertTrue(elapsedMs < 20_000, "Blocking handlers should overlap across charge points");
+    }
+
+    /**
+     * 20ms 블로킹하는 Heartbeat 핸들러 (uniqueId = 충전기별 순번)
+     * lane 단위 직렬 실행이므로 같은 충전기의 lastSeq는 한 스레드만 접근
+     */
+    private static class SlowHeartbeatHandler implements ActionHandler {
+
+        final AtomicInteger outOfOrder = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger peakConcurrent = new AtomicInteger();
+        private final int[] lastSeq;
+
+        SlowHeartbeatHandler(int chargePoints) {
+            this.lastSeq = new int[chargePoints];
+        }
+
+        @Override
+        public String getAction() {
+            return "Heartbeat";
+        }
+
+        @Override
+        public OcppMessage handle(CallContext context, JsonObject payload) {
+            int running = concurrent.incrementAndGet();
+            peakConcurrent.accumulateAndGet(running, Math::max);
+            try {
+                Thread.sleep(HANDLER_LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int cp = Integer.parseInt(context.session().getChargePointId().substring(2));
+            int seq = Integer.parseInt(context.uniqueId());
+            if (seq != lastSeq[cp] + 1) {
+                outOfOrder.incrementAndGet();
+            }
+            lastSeq[cp] = seq;
+            concurrent.decrementAndGet();
+            return ResponseTemplates.heartbeat(context.uniqueId());
+        }
+    }
+
+    /**
+     * 응답이 보낸 순서(uniqueId 1, 2, 3, ...)대로 CallResult로 오는지 검사하는 충전기
+     * (onMessage는 클라이언트마다 한 스레드에서만 호출)
+     */
+    private static class ChargePointClient extends WebSocketClient {
+
+        private final CountDownLatch opened;
+        private final CountDownLatch done;
+        private final AtomicInteger outOfOrder;
+        private int expectedSeq = 1;
+
+        ChargePointClient(URI uri, CountDownLatch opened, CountDownLatch done, AtomicInteger outOfOrder) {
+            super(uri);
+            this.opened = opened;
+            this.done = done;
+            this.outOfOrder = outOfOrder;
+        }
+
+        @Override
+        public void onOpen(ServerHandshake handshake) {
+            opened.countDown();
+        }
+
+        @Override
+        public void onMessage(String message) {
+            JsonArray frame = JsonParser.parseString(message).getAsJsonArray();
+            if (frame.get(0).getAsInt() != MessageType.CALL_RESULT.getId()
+                    || Integer.parseInt(frame.get(1).getAsString()) != expectedSeq) {
+                outOfOrder.incrementAndGet();
+            }
+            expectedSeq++;
+            done.countDown();
+        }
+
+        @Override
+        public void onClose(int code, String reason, boolean remote) {
+        }
+
+        @Override
+        public void onError(Exception ex) {
+        }
+    }
+}
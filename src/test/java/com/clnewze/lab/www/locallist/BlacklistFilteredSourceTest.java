@@ -0,0 +1,50 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagBlacklist;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlacklistFilteredSourceTest {
+
+    @Test
+    void testCall_BlockedTagsOverridden() throws Exception {
+        // Given
+        Map<String, IdTagInfo> tags = Map.of("A1", IdTagInfo.ACCEPTED, "A2", IdTagInfo.ACCEPTED);
+        IdTagBlacklist blacklist = IdTagBlacklist.of(List.of("A2", "OTHER"), IdTagBlacklist.DEFAULT_BITS_PER_ENTRY);
+        BlacklistFilteredSource source = new BlacklistFilteredSource(() -> tags, () -> blacklist);
+
+        // When
+        Map<String, IdTagInfo> filtered = source.call();
+
+        // Then: 원본에 없는 차단 태그는 넣지 않음
+        assertEquals(Map.of("A1", IdTagInfo.ACCEPTED, "A2", IdTagInfo.BLOCKED), filtered);
+    }
+
+    @Test
+    void testCall_NewInstanceOnlyWhenSourceOrBlacklistChanges() throws Exception {
+        // Given
+        AtomicReference<Map<String, IdTagInfo>> tags = new AtomicReference<>(Map.of("A1", IdTagInfo.ACCEPTED));
+        AtomicReference<IdTagBlacklist> blacklist = new AtomicReference<>(IdTagBlacklist.empty());
+        BlacklistFilteredSource source = new BlacklistFilteredSource(tags::get, blacklist::get);
+        Map<String, IdTagInfo> first = source.call();
+
+        // When
+        Map<String, IdTagInfo> unchanged = source.call();
+        blacklist.set(IdTagBlacklist.of(List.of("A1"), IdTagBlacklist.DEFAULT_BITS_PER_ENTRY));
+        Map<String, IdTagInfo> reloaded = source.call();
+        tags.set(Map.of("A1", IdTagInfo.ACCEPTED, "B1", IdTagInfo.ACCEPTED));
+        Map<String, IdTagInfo> edited = source.call();
+
+        // Then
+        assertSame(first, unchanged);
+        assertNotSame(first, reloaded);
+        assertEquals(IdTagInfo.BLOCKED, reloaded.get("A1"));
+        assertEquals(Map.of("A1", IdTagInfo.BLOCKED, "B1", IdTagInfo.ACCEPTED), edited);
+    }
+}
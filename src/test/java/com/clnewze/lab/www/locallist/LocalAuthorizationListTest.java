@@ -0,0 +1,234 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.AuthorizationStatus;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalAuthorizationListTest {
+
+    @Test
+    void testUpdatesSince_OnlyLatestChangePerTag() {
+        // Given
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        list.put("A", IdTagInfo.ACCEPTED);                              // v1
+        list.put("B", IdTagInfo.ACCEPTED);                              // v2
+        list.put("A", IdTagInfo.of(AuthorizationStatus.BLOCKED));       // v3
+        list.remove("B");                                               // v4
+        list.put("C", IdTagInfo.ACCEPTED);                              // v5
+
+        // When
+        List<LocalListUpdate> updates = list.updatesSince(2, 500);
+
+        // Then
+        assertEquals(5, list.getVersion());
+        assertEquals(1, updates.size());
+        LocalListUpdate update = updates.get(0);
+        assertEquals(5, update.listVersion());
+        assertEquals(UpdateType.DIFFERENTIAL, update.updateType());
+        assertEquals(List.of(
+                new LocalListEntry("A", IdTagInfo.of(AuthorizationStatus.BLOCKED)),
+                new LocalListEntry("B", null),
+                new LocalListEntry("C", IdTagInfo.ACCEPTED)), update.entries());
+        assertEquals("Differential", update.payload().get("updateType").getAsString());
+        assertFalse(update.payload().getAsJsonArray("localAuthorizationList").get(1)
+                .getAsJsonObject().has("idTagInfo"));
+        assertTrue(list.updatesSince(5, 500).isEmpty());
+    }
+
+    @Test
+    void testUpdate_NoOpDoesNotBumpVersion() {
+        // Given
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        list.put("A", IdTagInfo.ACCEPTED);
+
+        // When
+        int afterSame = list.put("A", IdTagInfo.ACCEPTED);
+        int afterMissingRemove = list.remove("Z");
+
+        // Then
+        assertEquals(1, afterSame);
+        assertEquals(1, afterMissingRemove);
+        assertEquals(1, list.getLogSize());
+    }
+
+    @Test
+    void testUpdatesSince_SplitsAtMaxEntries() {
+        // Given: 버전마다 3개씩 10번
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        for (int v = 0; v < 10; v++) {
+            Map<String, IdTagInfo> changes = new HashMap<>();
+            for (int i = 0; i < 3; i++) {
+                changes.put("TAG" + v + "-" + i, IdTagInfo.ACCEPTED);
+            }
+            list.update(changes);
+        }
+
+        // When
+        List<LocalListUpdate> updates = list.updatesSince(0, 5);
+
+        // Then: 버전 중간에서도 5개씩, 조각마다 새 버전 (v11 ~ v16), 마지막 조각 버전이 새 현재 버전
+        assertEquals(6, updates.size());
+        int total = 0;
+        int previous = 0;
+        for (LocalListUpdate update : updates) {
+            assertEquals(5, update.entries().size());
+            assertTrue(update.listVersion() > previous, "listVersion must strictly increase");
+            previous = update.listVersion();
+            total += update.entries().size();
+        }
+        assertEquals(30, total);
+        assertEquals(11, updates.get(0).listVersion());
+        assertEquals(16, updates.get(updates.size() - 1).listVersion());
+        assertEquals(16, list.getVersion());
+        assertSame(updates, list.updatesSince(0, 5), "같은 출발 버전은 메모 공유");
+    }
+
+    @Test
+    void testUpdatesSince_LargeSnapshotRespectsMaxEntries() {
+        // Given: 한 버전에 1200개 (파일 전체 교체)
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        list.put("OLD", IdTagInfo.ACCEPTED);
+        Map<String, IdTagInfo> snapshot = new HashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            snapshot.put("TAG" + i, IdTagInfo.ACCEPTED);
+        }
+        list.replaceAll(snapshot);
+
+        // When
+        List<LocalListUpdate> differential = list.updatesSince(1, 500);
+        List<LocalListUpdate> full = list.updatesSince(-1, 500);
+
+        // Then: Differential은 500개씩, 조각마다 충전기 버전(1)보다 큰 새 버전
+        assertEquals(List.of(500, 500, 201), differential.stream().map(u -> u.entries().size()).toList());
+        assertEquals(List.of(3, 4, 5), differential.stream().map(LocalListUpdate::listVersion).toList());
+
+        // Full은 첫 조각만 Full, 나머지 Differential도 0이 아닌 새 버전으로 계속 증가
+        assertEquals(List.of(500, 500, 200), full.stream().map(u -> u.entries().size()).toList());
+        assertEquals(List.of(UpdateType.FULL, UpdateType.DIFFERENTIAL, UpdateType.DIFFERENTIAL),
+                full.stream().map(LocalListUpdate::updateType).toList());
+        assertEquals(List.of(6, 7, 8), full.stream().map(LocalListUpdate::listVersion).toList());
+        assertEquals(8, list.getVersion());
+    }
+
+    @Test
+    void testUpdatesSince_ResumesFromIntermediateVersion() {
+        // Given: 3조각 Differential 중 첫 조각(v3)까지만 받은 충전기
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        list.put("OLD", IdTagInfo.ACCEPTED);
+        Map<String, IdTagInfo> snapshot = new HashMap<>();
+        for (int i = 0; i < 1200; i++) {
+            snapshot.put("TAG" + i, IdTagInfo.ACCEPTED);
+        }
+        list.replaceAll(snapshot);
+        List<LocalListUpdate> differential = list.updatesSince(1, 500);
+        int intermediate = differential.get(0).listVersion();
+
+        // When
+        List<LocalListUpdate> resumed = list.updatesSince(intermediate, 500);
+        List<LocalListUpdate> forgotten = new LocalAuthorizationList("site-b").updatesSince(intermediate, 500);
+
+        // Then: 남은 조각만, 버전은 중간 버전보다 큼
+        assertEquals(differential.subList(1, 3), resumed);
+        assertTrue(resumed.get(0).listVersion() > intermediate);
+        // 모르는 버전이면 Full
+        assertEquals(UpdateType.FULL, forgotten.get(0).updateType());
+    }
+
+    @Test
+    void testUpdatesSince_FullWhenNotDifferentiable() {
+        // Given
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        list.put("A", IdTagInfo.ACCEPTED);
+        list.put("B", IdTagInfo.ACCEPTED);
+        list.remove("A");
+
+        // When
+        List<LocalListUpdate> unknown = list.updatesSince(-1, 500);
+        List<LocalListUpdate> ahead = list.updatesSince(7, 500);
+
+        // Then
+        for (List<LocalListUpdate> updates : List.of(unknown, ahead)) {
+            assertEquals(1, updates.size());
+            assertEquals(UpdateType.FULL, updates.get(0).updateType());
+            assertEquals(3, updates.get(0).listVersion());
+            assertEquals(List.of(new LocalListEntry("B", IdTagInfo.ACCEPTED)), updates.get(0).entries());
+        }
+    }
+
+    @Test
+    void testCompaction_KeepsDiffsCorrect() {
+        // Given: 같은 100개 태그를 여러 번 바꿔 로그 압축 유도
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 100; i++) {
+                IdTagInfo info = round % 2 == 0 ? IdTagInfo.ACCEPTED : IdTagInfo.of(AuthorizationStatus.EXPIRED);
+                list.put("TAG" + i, info);
+            }
+        }
+
+        // When
+        List<LocalListUpdate> updates = list.updatesSince(1000, 10_000);
+
+        // Then
+        assertTrue(list.getLogSize() <= 2 * 100 + 64);
+        assertEquals(2000, list.getVersion());
+        assertEquals(1, updates.size());
+        assertEquals(UpdateType.DIFFERENTIAL, updates.get(0).updateType());
+        assertEquals(100, updates.get(0).entries().size());
+        for (LocalListEntry entry : updates.get(0).entries()) {
+            assertEquals(IdTagInfo.of(AuthorizationStatus.EXPIRED), entry.idTagInfo());
+        }
+    }
+
+    @Test
+    void testCompaction_DroppedTombstonesForceFull() {
+        // Given: 톰스톤 상한 10
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a", 10);
+        for (int i = 0; i < 100; i++) {
+            list.put("TAG" + i, IdTagInfo.ACCEPTED);
+        }
+        for (int i = 0; i < 90; i++) {
+            list.remove("TAG" + i);
+        }
+        for (int i = 0; i < 200; i++) {
+            list.put("KEEP", i % 2 == 0 ? IdTagInfo.ACCEPTED : IdTagInfo.INVALID);
+        }
+
+        // When
+        List<LocalListUpdate> old = list.updatesSince(100, 500);
+        List<LocalListUpdate> recent = list.updatesSince(list.getVersion() - 1, 500);
+
+        // Then
+        assertEquals(11, list.size());
+        assertEquals(UpdateType.FULL, old.get(0).updateType());
+        assertEquals(11, old.get(0).entries().size());
+        assertEquals(UpdateType.DIFFERENTIAL, recent.get(0).updateType());
+        assertEquals(List.of(new LocalListEntry("KEEP", IdTagInfo.INVALID)), recent.get(0).entries());
+    }
+
+    @Test
+    void testReplaceAll_RecordsOnlyDifferences() {
+        // Given
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a");
+        list.update(Map.of("A", IdTagInfo.ACCEPTED, "B", IdTagInfo.ACCEPTED, "C", IdTagInfo.ACCEPTED));
+
+        // When
+        int version = list.replaceAll(Map.of("A", IdTagInfo.ACCEPTED, "C", IdTagInfo.INVALID, "D", IdTagInfo.ACCEPTED));
+
+        // Then
+        assertEquals(2, version);
+        assertEquals(3, list.size());
+        List<LocalListEntry> entries = list.updatesSince(1, 500).get(0).entries();
+        assertEquals(3, entries.size());
+        assertTrue(entries.contains(new LocalListEntry("B", null)));
+        assertTrue(entries.contains(new LocalListEntry("C", IdTagInfo.INVALID)));
+        assertTrue(entries.contains(new LocalListEntry("D", IdTagInfo.ACCEPTED)));
+        assertEquals(2, list.replaceAll(Map.of("A", IdTagInfo.ACCEPTED, "C", IdTagInfo.INVALID, "D", IdTagInfo.ACCEPTED)));
+    }
+}
@@ -0,0 +1,243 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagBlacklist;
+import com.clnewze.lab.www.auth.IdTagInfo;
+import com.clnewze.lab.www.pending.HashedWheelTimer;
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.Call;
+import com.clnewze.lab.www.protocol.OcppFrameDecoder;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.session.SessionManager;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalListSyncServiceTest {
+
+    /** 가짜 충전기: 5ms 후 응답 */
+    private final ScheduledExecutorService chargePoints = Executors.newScheduledThreadPool(4);
+
+    /** 충전기 ID → 로컬 목록 버전 (-1이면 미지원) */
+    private final Map<String, Integer> versions = new ConcurrentHashMap<>();
+    /** 충전기 ID → 받은 SendLocalList payload */
+    private final Map<String, List<JsonObject>> received = new ConcurrentHashMap<>();
+    /** 다음 SendLocalList(Differential)에 돌려줄 status (null이면 Accepted) */
+    private volatile String differentialStatus;
+
+    private SessionManager sessionManager;
+    private PendingRequestManager pendingRequests;
+    private LocalListSyncService service;
+
+    @BeforeEach
+    void setUp() {
+        sessionManager = new SessionManager();
+        for (int i = 0; i < 20; i++) {
+            sessionManager.addSession(new ChargePointSession("CP" + i, null));
+            versions.put("CP" + i, 0);
+        }
+        pendingRequests = new PendingRequestManager(this::respondLater,
+                new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64), 300);
+        service = new LocalListSyncService(sessionManager, pendingRequests,
+                session -> session.getChargePointId().compareTo("CP5") < 0 ? "site-a" : "site-b", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+        pendingRequests.shutdown();
+        chargePoints.shutdownNow();
+    }
+
+    @Test
+    void testSyncAll_SendsOnlyMissingVersions() {
+        // Given
+        LocalAuthorizationList siteA = service.list("site-a");
+        siteA.put("A1", IdTagInfo.ACCEPTED);
+        siteA.put("A2", IdTagInfo.ACCEPTED);
+        siteA.put("A3", IdTagInfo.ACCEPTED);
+        versions.put("CP0", 2);
+        versions.put("CP1", 3);
+
+        // When
+        List<LocalListSyncResult> results = service.syncAll(session -> true, 4)
+                .orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(20, results.size());
+        LocalListSyncResult cp0 = find(results, "CP0");
+        assertEquals(SyncStatus.UPDATED, cp0.status());
+        assertEquals(2, cp0.fromVersion());
+        // 먼저 끝난 다른 충전기의 조각 전송이 버전을 올렸으면 (내용은 같은) 그 버전
+        assertTrue(cp0.toVersion() == 3 || cp0.toVersion() == siteA.getVersion());
+        assertEquals(1, cp0.messages());
+        assertEquals(1, received.get("CP0").get(0).getAsJsonArray("localAuthorizationList").size());
+        assertEquals(SyncStatus.UP_TO_DATE, find(results, "CP1").status());
+        assertNull(received.get("CP1"));
+
+        // 버전 0 → 3, 메시지당 2개씩 → 2개 (조각마다 새 버전 v4, v5)
+        LocalListSyncResult cp2 = find(results, "CP2");
+        assertEquals(SyncStatus.UPDATED, cp2.status());
+        assertEquals(2, cp2.messages());
+        assertEquals(5, versions.get("CP2"));
+
+        // site-b는 빈 목록(버전 0)
+        assertEquals(SyncStatus.UP_TO_DATE, find(results, "CP7").status());
+    }
+
+    @Test
+    void testSync_NotSupported() {
+        // Given
+        service.list("site-a").put("A1", IdTagInfo.ACCEPTED);
+        versions.put("CP0", -1);
+
+        // When
+        LocalListSyncResult result = service.sync(sessionManager.getSession("CP0"))
+                .orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(SyncStatus.NOT_SUPPORTED, result.status());
+        assertEquals(0, result.messages());
+    }
+
+    @Test
+    void testSync_VersionMismatchFallsBackToFull() {
+        // Given
+        LocalAuthorizationList siteA = service.list("site-a");
+        siteA.put("A1", IdTagInfo.ACCEPTED);
+        siteA.put("A2", IdTagInfo.ACCEPTED);
+        versions.put("CP0", 1);
+        differentialStatus = "VersionMismatch";
+
+        // When
+        LocalListSyncResult result = service.sync(sessionManager.getSession("CP0"))
+                .orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(SyncStatus.UPDATED, result.status());
+        assertEquals(2, result.messages());
+        assertEquals(2, result.toVersion());
+        JsonObject full = received.get("CP0").get(1);
+        assertEquals("Full", full.get("updateType").getAsString());
+        assertEquals(2, full.getAsJsonArray("localAuthorizationList").size());
+    }
+
+    @Test
+    void testSync_TimeoutFails() {
+        // Given
+        service.list("site-a").put("A1", IdTagInfo.ACCEPTED);
+        versions.remove("CP0");  // 응답 없음
+
+        // When
+        LocalListSyncResult result = service.sync(sessionManager.getSession("CP0"))
+                .orTimeout(10, TimeUnit.SECONDS).join();
+
+        // Then
+        assertEquals(SyncStatus.FAILED, result.status());
+        assertEquals(-1, result.toVersion());
+    }
+
+    @Test
+    void testFollow_ReplacesListAndSyncsGroup() throws Exception {
+        // Given
+        Map<String, IdTagInfo> tags = Map.of("A1", IdTagInfo.ACCEPTED, "A2", IdTagInfo.ACCEPTED);
+
+        // When
+        service.follow("site-a", () -> tags, 20, 4);
+
+        // Then: site-a 충전기(CP0~CP4)만 새 목록을 받음
+        for (int i = 0; i < 500 && versions.get("CP4") != 1; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(2, service.list("site-a").size());
+        assertEquals(1, versions.get("CP0"));
+        assertEquals(1, versions.get("CP4"));
+        assertNull(received.get("CP7"));
+        Thread.sleep(100);
+        assertEquals(1, received.get("CP0").size());   // 같은 목록이면 다시 보내지 않음
+    }
+
+    @Test
+    void testFollow_BlacklistReloadResyncsAsBlocked() throws Exception {
+        // Given: 원본에서는 둘 다 Accepted, 차단 목록은 처음에 비어 있음
+        Map<String, IdTagInfo> tags = Map.of("A1", IdTagInfo.ACCEPTED, "A2", IdTagInfo.ACCEPTED);
+        AtomicReference<IdTagBlacklist> blacklist = new AtomicReference<>(IdTagBlacklist.empty());
+        service.follow("site-a", new BlacklistFilteredSource(() -> tags, blacklist::get), 20, 4);
+        for (int i = 0; i < 500 && versions.get("CP0") != 1; i++) {
+            Thread.sleep(10);
+        }
+
+        // When: 차단 목록을 다시 읽음
+        blacklist.set(IdTagBlacklist.of(List.of("A2"), IdTagBlacklist.DEFAULT_BITS_PER_ENTRY));
+
+        // Then: 목록에서 A2가 Blocked로 바뀌고 충전기에 다시 보냄
+        for (int i = 0; i < 500 && versions.get("CP0") != 2; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(IdTagInfo.BLOCKED, service.list("site-a").get("A2"));
+        assertEquals(2, versions.get("CP0"));
+        JsonObject resent = received.get("CP0").get(1).getAsJsonArray("localAuthorizationList")
+                .get(0).getAsJsonObject();
+        assertEquals("A2", resent.get("idTag").getAsString());
+        assertEquals("Blocked", resent.getAsJsonObject("idTagInfo").get("status").getAsString());
+    }
+
+    @Test
+    void testSyncAfterBoot_SendsToBootedSession() throws Exception {
+        // Given
+        service.list("site-a").put("A1", IdTagInfo.ACCEPTED);
+
+        // When
+        service.syncAfterBoot(sessionManager.getSession("CP0"));
+        service.syncAfterBoot(new ChargePointSession("CP1", null));   // 이미 다른 연결로 교체된 세션
+
+        // Then
+        for (int i = 0; i < 500 && versions.get("CP0") != 1; i++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, versions.get("CP0"));
+        Thread.sleep(100);
+        assertNull(received.get("CP1"));
+    }
+
+    private static LocalListSyncResult find(List<LocalListSyncResult> results, String chargePointId) {
+        return results.stream().filter(r -> r.chargePointId().equals(chargePointId)).findFirst().orElseThrow();
+    }
+
+    private void respondLater(ChargePointSession session, OcppMessage message) {
+        String chargePointId = session.getChargePointId();
+        Call call = (Call) message;
+        Integer version = versions.get(chargePointId);
+        if (version == null) {
+            return;
+        }
+        String payload;
+        if ("GetLocalListVersion".equals(call.getAction())) {
+            payload = "{\"listVersion\":" + version + "}";
+        } else {
+            JsonObject request = call.getPayload();
+            received.computeIfAbsent(chargePointId, id -> new CopyOnWriteArrayList<>()).add(request);
+            String status = differentialStatus;
+            if (status == null || "Full".equals(request.get("updateType").getAsString())) {
+                status = "Accepted";
+                versions.put(chargePointId, request.get("listVersion").getAsInt());
+            }
+            payload = "{\"status\":\"" + status + "\"}";
+        }
+        String response = "[3,\"" + call.getUniqueId() + "\"," + payload + "]";
+        chargePoints.schedule(() -> pendingRequests.complete(chargePointId, OcppFrameDecoder.decode(response)),
+                5, TimeUnit.MILLISECONDS);
+    }
+}
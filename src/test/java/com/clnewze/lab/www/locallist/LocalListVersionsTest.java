@@ -0,0 +1,71 @@
+package com.clnewze.lab.www.locallist;
+
+import com.clnewze.lab.www.auth.IdTagInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalListVersionsTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testOpen_NextRunStartsAboveEveryIssuedVersion() throws Exception {
+        // Given: 첫 실행에서 블록(10)을 넘겨 버전 사용
+        Path file = dir.resolve("local-list.version");
+        LocalListVersions first = LocalListVersions.open(file, 10);
+        LocalAuthorizationList list = new LocalAuthorizationList("site-a", 100, first);
+        for (int i = 0; i < 25; i++) {
+            list.put("TAG" + i, IdTagInfo.ACCEPTED);
+        }
+        int lastVersion = list.getVersion();
+
+        // When: 재시작
+        LocalListVersions second = LocalListVersions.open(file, 10);
+
+        // Then
+        assertEquals(1, first.base());
+        assertEquals(26, lastVersion);
+        assertTrue(second.base() > lastVersion, "base=" + second.base());
+        assertTrue(Integer.parseInt(Files.readString(file).trim()) >= second.base());
+    }
+
+    @Test
+    void testRestart_OldVersionGetsFull() throws Exception {
+        // Given: 이전 실행에서 v3까지 받은 충전기
+        Path file = dir.resolve("local-list.version");
+        LocalAuthorizationList before = new LocalAuthorizationList("site-a", 100, LocalListVersions.open(file, 10));
+        before.put("A", IdTagInfo.ACCEPTED);
+        before.put("B", IdTagInfo.ACCEPTED);
+        int chargerVersion = before.getVersion();
+
+        // When: 재시작 후 다른 내용으로 같은 횟수만큼 변경
+        LocalAuthorizationList after = new LocalAuthorizationList("site-a", 100, LocalListVersions.open(file, 10));
+        after.put("C", IdTagInfo.ACCEPTED);
+        after.put("D", IdTagInfo.ACCEPTED);
+        List<LocalListUpdate> updates = after.updatesSince(chargerVersion, 500);
+
+        // Then: 이전 실행의 버전과 겹치지 않고 Full
+        assertTrue(after.getVersion() > chargerVersion);
+        assertEquals(1, updates.size());
+        assertEquals(UpdateType.FULL, updates.get(0).updateType());
+        assertEquals(2, updates.get(0).entries().size());
+    }
+
+    @Test
+    void testOpen_MalformedFileRejected() throws Exception {
+        // Given
+        Path file = dir.resolve("local-list.version");
+        Files.writeString(file, "v37");
+
+        // When & Then
+        assertThrows(IOException.class, () -> LocalListVersions.open(file));
+    }
+}
@@ -0,0 +1,72 @@
+package com.clnewze.lab.www.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FrameLogTest {
+
+    private final Logger frames = (Logger) LoggerFactory.getLogger("ocpp.frames");
+    private Level previous;
+
+    @BeforeEach
+    void setUp() {
+        previous = frames.getLevel();
+        frames.setLevel(Level.INFO);
+        FrameLog.setSampleEvery(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        frames.setLevel(previous);
+        FrameLog.setSampleEvery(0);
+        FrameLog.disable("CP001");
+    }
+
+    @Test
+    void testShouldLog_OnlyTracedChargePoints() {
+        // When
+        FrameLog.enable("CP001");
+
+        // Then
+        assertTrue(FrameLog.shouldLog("CP001"));
+        assertFalse(FrameLog.shouldLog("CP002"));
+
+        FrameLog.disable("CP001");
+        assertFalse(FrameLog.shouldLog("CP001"));
+    }
+
+    @Test
+    void testShouldLog_Sampling() {
+        // Given
+        FrameLog.setSampleEvery(10);
+
+        // When
+        int logged = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (FrameLog.shouldLog("CP002")) {
+                logged++;
+            }
+        }
+
+        // Then: 약 1/10
+        assertTrue(logged > 8_000 && logged < 12_000, "logged: " + logged);
+    }
+
+    @Test
+    void testShouldLog_LevelControlsAll() {
+        // DEBUG → 전체
+        frames.setLevel(Level.DEBUG);
+        assertTrue(FrameLog.shouldLog("CP003"));
+
+        // OFF → 추적 대상이어도 끔
+        frames.setLevel(Level.OFF);
+        FrameLog.enable("CP001");
+        assertFalse(FrameLog.shouldLog("CP001"));
+    }
+}
@@ -0,0 +1,179 @@
+package com.clnewze.lab.www.meter;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeterJournalTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testAppendScan_FiltersByChargePointAndRange() throws Exception {
+        // Given
+        long cp1 = MeterJournal.keyOf("CP001");
+        long cp2 = MeterJournal.keyOf("CP002");
+        try (MeterJournal journal = new MeterJournal(dir)) {
+            journal.append(cp1, 1, 7, 1_000L, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, 5000.0);
+            journal.append(cp1, 1, 7, 2_000L, Measurand.VOLTAGE, 230.5);
+            journal.append(cp2, 2, 8, 2_000L, Measurand.SOC, 42.0);
+            journal.append(cp1, 1, 7, 3_000L, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, 5100.0);
+
+            // When
+            List<String> records = new ArrayList<>();
+            long visited = journal.scan(cp1, 1_500L, 3_000L, (key, timestamp, connectorId, transactionId, measurand,
+                                                             value) -> records.add(timestamp + ":" + connectorId + ":"
+                    + transactionId + ":" + measurand + ":" + value));
+
+            // Then
+            assertEquals(1, visited);
+            assertEquals(List.of("2000:1:7:VOLTAGE:230.5"), records);
+            assertEquals(3, journal.scan(0, 2_000L, 3_001L, (k, t, c, tx, m, v) -> { }));
+            assertEquals(4, journal.getRecordCount());
+        }
+    }
+
+    @Test
+    void testRoll_BySize() throws Exception {
+        // Given: 세그먼트당 레코드 10개
+        long segmentBytes = MeterSegment.HEADER_BYTES + 10L * MeterSegment.RECORD_BYTES;
+        try (MeterJournal journal = new MeterJournal(dir, segmentBytes, 0)) {
+            // When
+            for (int i = 0; i < 25; i++) {
+                journal.append(1, 1, 1, i, Measurand.POWER_ACTIVE_IMPORT, i);
+            }
+
+            // Then
+            assertEquals(3, journal.getSegmentCount());
+            assertEquals(25, journal.getRecordCount());
+            List<Double> values = new ArrayList<>();
+            journal.scan(1, 0, Long.MAX_VALUE, (k, t, c, tx, m, v) -> values.add(v));
+            assertEquals(25, values.size());
+            assertEquals(24.0, values.get(24));
+        }
+    }
+
+    @Test
+    void testAppendBatch_WholeBatchInOneSegment() throws Exception {
+        // Given: 세그먼트당 레코드 4개, 3개를 쓴 상태
+        long segmentBytes = MeterSegment.HEADER_BYTES + 4L * MeterSegment.RECORD_BYTES;
+        try (MeterJournal journal = new MeterJournal(dir, segmentBytes, 0)) {
+            for (int i = 0; i < 3; i++) {
+                journal.append(1, 1, 1, i, Measurand.POWER_ACTIVE_IMPORT, i);
+            }
+            MeterBatch batch = new MeterBatch(1);
+            batch.add(10, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, 5000.0);
+            batch.add(10, Measurand.POWER_ACTIVE_IMPORT, 7400.0);
+
+            // When: 남은 자리(1)가 모자라면 나누지 않고 새 세그먼트에
+            journal.append(1, 1, 1, batch);
+
+            // Then
+            assertEquals(2, journal.getSegmentCount());
+            assertEquals(5, journal.getRecordCount());
+            List<Double> values = new ArrayList<>();
+            journal.scan(1, 10, 11, (k, t, c, tx, m, v) -> values.add(v));
+            assertEquals(List.of(5000.0, 7400.0), values);
+        }
+    }
+
+    @Test
+    void testAppendBatch_RejectedBatchWritesNothing() throws Exception {
+        // Given: 세그먼트 하나보다 큰 묶음
+        long segmentBytes = MeterSegment.HEADER_BYTES + 2L * MeterSegment.RECORD_BYTES;
+        MeterBatch batch = new MeterBatch();
+        for (int i = 0; i < 3; i++) {
+            batch.add(i, Measurand.POWER_ACTIVE_IMPORT, i);
+        }
+        MeterBatch small = new MeterBatch();
+        small.add(1, Measurand.SOC, 42.0);
+        MeterJournal journal = new MeterJournal(dir, segmentBytes, 0);
+
+        // When & Then: 너무 큰 묶음, 닫힌 저널
+        assertThrows(IOException.class, () -> journal.append(1, 1, 1, batch));
+        assertEquals(0, journal.getRecordCount());
+        journal.close();
+        assertThrows(IOException.class, () -> journal.append(1, 1, 1, small));
+        assertEquals(0, journal.getRecordCount());
+    }
+
+    @Test
+    void testRoll_ByTime() throws Exception {
+        try (MeterJournal journal = new MeterJournal(dir, MeterJournal.DEFAULT_SEGMENT_BYTES, 1)) {
+            // When
+            journal.append(1, 1, 1, 1L, Measurand.VOLTAGE, 1);
+            Thread.sleep(5);
+            journal.append(1, 1, 1, 2L, Measurand.VOLTAGE, 2);
+
+            // Then
+            assertEquals(2, journal.getSegmentCount());
+        }
+    }
+
+    @Test
+    void testReopen_KeepsOldSegmentsReadable() throws Exception {
+        // Given
+        try (MeterJournal journal = new MeterJournal(dir)) {
+            journal.append(MeterJournal.keyOf("CP001"), 1, 7, 1_000L, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, 10);
+        }
+
+        // When
+        try (MeterJournal journal = new MeterJournal(dir)) {
+            journal.append(MeterJournal.keyOf("CP001"), 1, 7, 2_000L, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, 20);
+
+            // Then
+            List<Double> values = new ArrayList<>();
+            journal.scan(MeterJournal.keyOf("CP001"), 0, Long.MAX_VALUE, (k, t, c, tx, m, v) -> values.add(v));
+            assertEquals(List.of(10.0, 20.0), values);
+            assertEquals(2, journal.getSegmentCount());
+        }
+    }
+
+    @Test
+    void testScan_WhileAppending() throws Exception {
+        // Given
+        try (MeterJournal journal = new MeterJournal(dir, MeterSegment.HEADER_BYTES + 1000L * MeterSegment.RECORD_BYTES, 0)) {
+            AtomicBoolean done = new AtomicBoolean();
+            AtomicReference<String> failure = new AtomicReference<>();
+            Thread reader = new Thread(() -> {
+                while (!done.get()) {
+                    // 읽은 레코드는 항상 완전해야 함 (value = timestamp * 2)
+                    journal.scan(0, 0, Long.MAX_VALUE, (k, t, c, tx, m, v) -> {
+                        if (v != t * 2.0 || m != Measurand.CURRENT_IMPORT) {
+                            failure.compareAndSet(null, t + " -> " + v);
+                        }
+                    });
+                }
+            });
+            reader.start();
+
+            // When
+            for (int i = 1; i <= 20_000; i++) {
+                journal.append(5, 1, 1, i, Measurand.CURRENT_IMPORT, i * 2.0);
+            }
+            done.set(true);
+            reader.join();
+
+            // Then
+            assertNull(failure.get());
+            assertEquals(20_000, journal.getRecordCount());
+        }
+    }
+
+    @Test
+    void testMeasurand_FromValue() {
+        assertEquals(Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, Measurand.fromValue(null));
+        assertEquals(Measurand.SOC, Measurand.fromValue("SoC"));
+        assertEquals(Measurand.UNKNOWN, Measurand.fromValue("Custom.Thing"));
+        assertEquals(Measurand.UNKNOWN, Measurand.fromOrdinal(999));
+    }
+}
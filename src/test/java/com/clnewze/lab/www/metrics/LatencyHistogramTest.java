@@ -0,0 +1,108 @@
+package com.clnewze.lab.www.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    void testIndexOf_ValueWithinBucketBounds() {
+        // Given
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = random.nextLong(1L << 40);
+
+            // When
+            int index = LatencyHistogram.indexOf(value);
+
+            // Then: 이전 버킷 상한 < 값 <= 현재 버킷 상한
+            assertTrue(value <= LatencyHistogram.upperBoundOf(index), "value " + value);
+            if (index > 0) {
+                assertTrue(value > LatencyHistogram.upperBoundOf(index - 1), "value " + value);
+            }
+        }
+    }
+
+    @Test
+    void testQuantile_WithinRelativeError() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        Random random = new Random(7);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + random.nextInt(10_000_000);  // 1µs ~ 10ms
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+
+        // When
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // Then
+        assertEquals(values.length, snapshot.count());
+        assertEquals(values[values.length - 1], snapshot.maxNanos());
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long estimate = snapshot.quantile(q);
+            assertTrue(estimate >= exact, "q=" + q);
+            assertTrue(estimate <= exact * 1.07, "q=" + q + " exact=" + exact + " estimate=" + estimate);
+        }
+    }
+
+    @Test
+    void testCountAtOrBelow_Cumulative() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(500);             // 0.5µs
+        histogram.record(200_000);         // 0.2ms
+        histogram.record(3_000_000_000L);  // 3s
+
+        // When
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // Then
+        assertEquals(1, snapshot.countAtOrBelow(1_000));
+        assertEquals(2, snapshot.countAtOrBelow(1_000_000));
+        assertEquals(3, snapshot.countAtOrBelow(10_000_000_000L));
+        assertEquals(3_000_200_500L, snapshot.sumNanos());
+    }
+
+    @Test
+    void testBucketUpperBound_CountsStraddlingBucket() {
+        // Given: 5ms 경계에 걸친 버킷 안의 값 (5ms보다 작음)
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(4_990_000);
+
+        // When
+        long bound = LatencyHistogram.bucketUpperBound(5_000_000);
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        // Then: 경계는 버킷 상한 → 걸친 버킷이 통째로 포함되고 다음 버킷과는 겹치지 않음
+        assertTrue(bound >= 5_000_000);
+        assertEquals(LatencyHistogram.indexOf(5_000_000), LatencyHistogram.indexOf(bound));
+        assertNotEquals(LatencyHistogram.indexOf(bound), LatencyHistogram.indexOf(bound + 1));
+        assertEquals(0, snapshot.countAtOrBelow(5_000_000));
+        assertEquals(1, snapshot.countAtOrBelow(bound));
+    }
+
+    @Test
+    void testRecord_NegativeAndHugeValuesClamped() {
+        // Given
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // When
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        // Then
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+        assertEquals(2, snapshot.count());
+        assertEquals(0, snapshot.quantile(0.5));
+        assertEquals(Long.MAX_VALUE, snapshot.quantile(1.0));
+    }
+}
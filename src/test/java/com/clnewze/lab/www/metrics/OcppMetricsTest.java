@@ -0,0 +1,145 @@
+package com.clnewze.lab.www.metrics;
+
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.MessageType;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OcppMetricsTest {
+
+    @Test
+    void testCounters_ByTypeAndErrorCode() {
+        // Given
+        OcppMetrics metrics = new OcppMetrics();
+
+        // When
+        metrics.recordInbound(MessageType.CALL);
+        metrics.recordInbound(MessageType.CALL);
+        metrics.recordInbound(MessageType.CALL_RESULT);
+        metrics.recordOutbound(new CallResult("1", new JsonObject()));
+        metrics.recordOutbound(new CallError("2", ErrorCode.NOT_IMPLEMENTED, "Unknown"));
+
+        // Then
+        assertEquals(2, metrics.getInboundFrames(MessageType.CALL));
+        assertEquals(1, metrics.getInboundFrames(MessageType.CALL_RESULT));
+        assertEquals(1, metrics.getOutboundFrames(MessageType.CALL_RESULT));
+        assertEquals(1, metrics.getOutboundFrames(MessageType.CALL_ERROR));
+        assertEquals(1, metrics.getCallErrors(ErrorCode.NOT_IMPLEMENTED));
+        assertEquals(0, metrics.getCallErrors(ErrorCode.INTERNAL_ERROR));
+    }
+
+    @Test
+    void testFormat_PrometheusText() {
+        // Given
+        OcppMetrics metrics = new OcppMetrics();
+        metrics.recordInbound(MessageType.CALL);
+        metrics.recordOutbound(new CallError("1", ErrorCode.INTERNAL_ERROR, "boom"));
+        metrics.recordLatency("Heartbeat", TimeUnit.MICROSECONDS.toNanos(80));
+        metrics.recordLatency("Heartbeat", TimeUnit.MILLISECONDS.toNanos(3));
+        metrics.registerGauge("ocpp_sessions", "Connected sessions", () -> 5);
+        metrics.registerGauge("ocpp_session_state", "Sessions by state", "state",
+                () -> Map.of("AVAILABLE", 3L, "CHARGING", 2L));
+        metrics.registerCounter("ocpp_dispatch_rejected_frames_total", "Rejected frames", () -> 7);
+        metrics.registerCounter("ocpp_energy_anomalies_total", "Anomalies", "kind", () -> Map.of("gap", 2L));
+
+        // When
+        String text = PrometheusFormatter.format(metrics);
+
+        // Then
+        assertTrue(text.contains("ocpp_frames_total{direction=\"inbound\",type=\"Call\"} 1\n"));
+        assertTrue(text.contains("ocpp_call_errors_total{code=\"InternalError\"} 1\n"));
+        assertTrue(text.contains("# TYPE ocpp_action_latency_seconds histogram\n"));
+        assertTrue(text.contains("ocpp_action_latency_seconds_bucket{action=\"Heartbeat\",le=\"0.000102399\"} 1\n"));
+        assertTrue(text.contains("ocpp_action_latency_seconds_bucket{action=\"Heartbeat\",le=\"0.005242879\"} 2\n"));
+        assertTrue(text.contains("ocpp_action_latency_seconds_bucket{action=\"Heartbeat\",le=\"+Inf\"} 2\n"));
+        assertTrue(text.contains("ocpp_action_latency_seconds_count{action=\"Heartbeat\"} 2\n"));
+        assertTrue(text.contains("ocpp_sessions 5\n"));
+        assertTrue(text.contains("ocpp_session_state{state=\"AVAILABLE\"} 3\n"));
+        assertTrue(text.contains("ocpp_session_state{state=\"CHARGING\"} 2\n"));
+        assertTrue(text.contains("# TYPE ocpp_sessions gauge\n"));
+        assertTrue(text.contains("# TYPE ocpp_dispatch_rejected_frames_total counter\n"
+                + "ocpp_dispatch_rejected_frames_total 7\n"));
+        assertTrue(text.contains("# TYPE ocpp_energy_anomalies_total counter\n"));
+        assertTrue(text.contains("ocpp_energy_anomalies_total{kind=\"gap\"} 2\n"));
+    }
+
+    @Test
+    void testFormat_BucketBoundariesIncludeStraddlingValues() {
+        // Given: 5ms 바로 아래 값 (5ms 경계에 걸친 히스토그램 버킷 [4.98ms, 5.24ms]에 들어감)
+        OcppMetrics metrics = new OcppMetrics();
+        metrics.recordLatency("Heartbeat", 4_990_000);
+
+        // When
+        String text = PrometheusFormatter.format(metrics);
+
+        // Then: 경계를 버킷 상한에 맞춰 이 값도 5ms 근처 버킷에 누적됨
+        assertTrue(text.contains("ocpp_action_latency_seconds_bucket{action=\"Heartbeat\",le=\"0.005242879\"} 1\n"));
+        assertTrue(text.contains("ocpp_action_latency_seconds_bucket{action=\"Heartbeat\",le=\"0.002621439\"} 0\n"));
+    }
+
+    @Test
+    void testHttpServer_ServesMetrics() throws Exception {
+        // Given
+        OcppMetrics metrics = new OcppMetrics();
+        metrics.recordInbound(MessageType.CALL);
+        MetricsHttpServer server = new MetricsHttpServer(new InetSocketAddress("127.0.0.1", 0), metrics);
+        server.start();
+
+        try {
+            // When
+            HttpURLConnection connection = (HttpURLConnection)
+                    new URL("http://127.0.0.1:" + server.getPort() + "/metrics").openConnection();
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+
+            // Then
+            assertEquals(200, connection.getResponseCode());
+            assertTrue(connection.getContentType().startsWith("text/plain"));
+            assertTrue(body.contains("ocpp_frames_total{direction=\"inbound\",type=\"Call\"} 1"));
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    void testRecordingOverhead_WithinBudget() {
+        // Given: 메시지 1개당 수신 + 처리 시간 + 송신 기록
+        OcppMetrics metrics = new OcppMetrics();
+        CallResult response = new CallResult("1", new JsonObject());
+        int iterations = 1_000_000;
+        for (int i = 0; i < iterations; i++) {
+            recordMessage(metrics, response, i);
+        }
+
+        // When
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            recordMessage(metrics, response, i);
+        }
+        long perMessageNanos = (System.nanoTime() - start) / iterations;
+
+        // Then: 여유 있게 1µs 이하 (실측은 수십 ns)
+        assertTrue(perMessageNanos < 1_000, "per message: " + perMessageNanos + "ns");
+        assertEquals(2L * iterations, metrics.getLatency("Heartbeat").snapshot().count());
+    }
+
+    private static void recordMessage(OcppMetrics metrics, CallResult response, int i) {
+        metrics.recordInbound(MessageType.CALL);
+        metrics.recordLatency("Heartbeat", 10_000 + (i & 0xFFFF));
+        metrics.recordOutbound(response);
+    }
+}
@@ -0,0 +1,76 @@
+package com.clnewze.lab.www.pending;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @BeforeEach
+    void setUp() {
+        // 8칸 × 10ms = 한 바퀴 80ms → 더 긴 지연은 여러 바퀴를 돈다
+        timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void testSchedule_ExpiresAfterDelay() throws InterruptedException {
+        // Given
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // When
+        HashedWheelTimer.Timeout timeout = timer.schedule(fired::countDown, 200, TimeUnit.MILLISECONDS);
+
+        // Then
+        assertTrue(fired.await(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+        assertTrue(timeout.isExpired());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testCancel_TaskNeverRuns() throws InterruptedException {
+        // Given
+        AtomicInteger runs = new AtomicInteger();
+        HashedWheelTimer.Timeout timeout = timer.schedule(runs::incrementAndGet, 50, TimeUnit.MILLISECONDS);
+
+        // When
+        assertTrue(timeout.cancel());
+        Thread.sleep(150);
+
+        // Then
+        assertEquals(0, runs.get());
+        assertTrue(timeout.isCancelled());
+        assertFalse(timeout.cancel());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testSchedule_ManyTimeoutsAllFire() throws InterruptedException {
+        // Given
+        int count = 100_000;
+        CountDownLatch fired = new CountDownLatch(count);
+
+        // When
+        for (int i = 0; i < count; i++) {
+            timer.schedule(fired::countDown, 20 + (i % 300), TimeUnit.MILLISECONDS);
+        }
+
+        // Then
+        assertTrue(fired.await(10, TimeUnit.SECONDS));
+        assertEquals(0, timer.pendingTimeouts());
+    }
+}
@@ -0,0 +1,193 @@
+package com.clnewze.lab.www.pending;
+
+import com.clnewze.lab.www.protocol.Call;
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppException;
+import com.clnewze.lab.www.protocol.OcppFrameDecoder;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PendingRequestManagerTest {
+
+    private final List<Call> sent = Collections.synchronizedList(new ArrayList<>());
+    private HashedWheelTimer timer;
+    private PendingRequestManager manager;
+    private ChargePointSession session;
+
+    @BeforeEach
+    void setUp() {
+        timer = new HashedWheelTimer(10, TimeUnit.MILLISECONDS, 64);
+        manager = new PendingRequestManager((s, message) -> sent.add((Call) message), timer, 200);
+        session = new ChargePointSession("CP001", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.shutdown();
+    }
+
+    @Test
+    void testCall_CompletedByCallResult() {
+        // Given
+        CompletableFuture<OcppMessage> future = manager.call(session, "Reset", new JsonObject());
+        String uniqueId = sent.get(0).getUniqueId();
+
+        // When
+        boolean matched = manager.complete("CP001",
+                OcppFrameDecoder.decode("[3,\"" + uniqueId + "\",{\"status\":\"Accepted\"}]"));
+
+        // Then
+        assertTrue(matched);
+        CallResult result = assertInstanceOf(CallResult.class, future.join());
+        assertEquals("Accepted", result.getPayload().get("status").getAsString());
+        assertEquals(0, manager.getPendingCount());
+        assertEquals(0, manager.getPendingCount("CP001"));
+    }
+
+    @Test
+    void testCall_CompletedByCallError() {
+        // Given
+        CompletableFuture<OcppMessage> future = manager.call(session, "Reset", new JsonObject());
+        String uniqueId = sent.get(0).getUniqueId();
+
+        // When
+        manager.complete("CP001",
+                OcppFrameDecoder.decode("[4,\"" + uniqueId + "\",\"NotSupported\",\"no reset\",{}]"));
+
+        // Then
+        CallError error = assertInstanceOf(CallError.class, future.join());
+        assertEquals(ErrorCode.NOT_SUPPORTED, error.getErrorCode());
+        assertEquals("no reset", error.getErrorDescription());
+    }
+
+    @Test
+    void testCall_MalformedResponseFailsImmediately() {
+        // Given
+        CompletableFuture<OcppMessage> future = manager.call(session, "Reset", new JsonObject());
+        String uniqueId = sent.get(0).getUniqueId();
+
+        // When: payload 뒤에 원소가 더 있음
+        assertThrows(OcppException.class, () -> manager.complete("CP001",
+                OcppFrameDecoder.decode("[3,\"" + uniqueId + "\",{\"status\":\"Accepted\"},\"junk\"]")));
+
+        // Then: 타임아웃을 기다리지 않고 실패
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        OcppException cause = assertInstanceOf(OcppException.class, e.getCause());
+        assertEquals(ErrorCode.FORMATION_VIOLATION, cause.getErrorCode());
+        assertEquals(0, manager.getPendingCount());
+    }
+
+    @Test
+    void testCall_TimesOutAndCleansUp() {
+        // When
+        CompletableFuture<OcppMessage> future = manager.call(session, "Reset", new JsonObject());
+
+        // Then
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertEquals(0, manager.getPendingCount());
+        assertEquals(1, manager.getTimedOutCount());
+        assertEquals(0, timer.pendingTimeouts());
+    }
+
+    @Test
+    void testComplete_LateResponseIsUnmatched() {
+        // Given: 타임아웃 이후 도착한 응답
+        CompletableFuture<OcppMessage> future = manager.call(session, "Reset", new JsonObject());
+        String uniqueId = sent.get(0).getUniqueId();
+        assertThrows(CompletionException.class, () -> future.orTimeout(5, TimeUnit.SECONDS).join());
+
+        // When
+        boolean matched = manager.complete("CP001", OcppFrameDecoder.decode("[3,\"" + uniqueId + "\",{}]"));
+
+        // Then
+        assertFalse(matched);
+        assertEquals(1, manager.getUnmatchedCount());
+    }
+
+    @Test
+    void testRemoveSession_FailsPendingRequests() {
+        // Given
+        CompletableFuture<OcppMessage> first = manager.call(session, "Reset", new JsonObject());
+        CompletableFuture<OcppMessage> second = manager.call(session, "ChangeConfiguration", new JsonObject());
+
+        // When
+        int removed = manager.removeSession("CP001");
+
+        // Then
+        assertEquals(2, removed);
+        CompletionException e = assertThrows(CompletionException.class, first::join);
+        assertInstanceOf(OcppException.class, e.getCause());
+        assertTrue(second.isCompletedExceptionally());
+        assertEquals(0, manager.getPendingCount());
+    }
+
+    @Test
+    void testSendFailure_RemovesRequest() {
+        // Given
+        PendingRequestManager failing = new PendingRequestManager((s, message) -> {
+            throw new IllegalStateException("closed");
+        }, timer, 200);
+
+        // When
+        CompletableFuture<OcppMessage> future = failing.call(session, "Reset", new JsonObject());
+
+        // Then
+        assertTrue(future.isCompletedExceptionally());
+        assertEquals(0, failing.getPendingCount());
+    }
+
+    @Test
+    void testManyInFlight_AllResolvedWithoutLeak() {
+        // Given: 충전기 1000대 × 200건 = 20만 건 대기 (등록 중 만료되지 않도록 기한 2초)
+        PendingRequestManager manager = new PendingRequestManager((s, message) -> sent.add((Call) message), timer, 2_000);
+        int chargePoints = 1000;
+        int perChargePoint = 200;
+        List<CompletableFuture<OcppMessage>> futures = new ArrayList<>();
+        for (int cp = 0; cp < chargePoints; cp++) {
+            ChargePointSession s = new ChargePointSession("CP" + cp, null);
+            for (int i = 0; i < perChargePoint; i++) {
+                futures.add(manager.call(s, "Reset", new JsonObject()));
+            }
+        }
+        assertEquals(chargePoints * perChargePoint, manager.getPendingCount());
+
+        // When: 절반은 응답, 나머지는 타임아웃
+        for (int i = 0; i < sent.size(); i += 2) {
+            Call call = sent.get(i);
+            String chargePointId = "CP" + (i / perChargePoint);
+            manager.complete(chargePointId, OcppFrameDecoder.decode("[3,\"" + call.getUniqueId() + "\",{}]"));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]))
+                .exceptionally(e -> null)
+                .orTimeout(10, TimeUnit.SECONDS)
+                .join();
+        for (CompletableFuture<OcppMessage> future : futures) {
+            assertTrue(future.isDone());
+        }
+
+        // Then
+        assertEquals(0, manager.getPendingCount());
+        assertEquals(chargePoints * perChargePoint / 2, manager.getCompletedCount());
+        assertEquals(chargePoints * perChargePoint / 2, manager.getTimedOutCount());
+        assertEquals(0, manager.getPendingCount("CP0"));
+        assertEquals(0, timer.pendingTimeouts());
+    }
+}
@@ -0,0 +1,133 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OcppFrameDecoderTest {
+
+    @Test
+    void testDecode_Call() {
+        // Given
+        String raw = "[2,\"boot-001\",\"BootNotification\",{\"chargePointVendor\":\"V\",\"chargePointModel\":\"M\"}]";
+
+        // When
+        OcppFrame frame = OcppFrameDecoder.decode(raw);
+
+        // Then
+        assertEquals(MessageType.CALL, frame.getType());
+        assertEquals("boot-001", frame.getUniqueId());
+        assertEquals("BootNotification", frame.getAction());
+
+        JsonObject payload = frame.getPayload();
+        assertEquals("V", payload.get("chargePointVendor").getAsString());
+        assertSame(payload, frame.getPayload()); // 재파싱하지 않음
+    }
+
+    @Test
+    void testDecode_CallResult() {
+        // When
+        OcppFrame frame = OcppFrameDecoder.decode("[3,\"res-001\",{\"status\":\"Accepted\"}]");
+
+        // Then
+        assertEquals(MessageType.CALL_RESULT, frame.getType());
+        assertEquals("res-001", frame.getUniqueId());
+        assertNull(frame.getAction());
+        assertEquals("Accepted", frame.getPayload().get("status").getAsString());
+    }
+
+    @Test
+    void testDecode_CallError() {
+        // When
+        OcppFrame frame = OcppFrameDecoder.decode("[4,\"err-001\",\"NotImplemented\",\"Unknown\",{}]");
+
+        // Then
+        assertEquals(MessageType.CALL_ERROR, frame.getType());
+        assertEquals("NotImplemented", frame.getErrorCode());
+        assertEquals("Unknown", frame.getErrorDescription());
+        assertEquals(0, frame.getPayload().size());
+    }
+
+    @Test
+    void testPayloadReader_StreamsWithoutTree() throws IOException {
+        // Given
+        OcppFrame frame = OcppFrameDecoder.decode("[2,\"auth-001\",\"Authorize\",{\"idTag\":\"RFID1\"}]");
+
+        // When
+        JsonReader in = frame.payloadReader();
+        in.beginObject();
+        String name = in.nextName();
+        String value = in.nextString();
+
+        // Then
+        assertEquals("idTag", name);
+        assertEquals("RFID1", value);
+        assertThrows(IllegalStateException.class, frame::getPayload); // 한 번만 소비 가능
+    }
+
+    @Test
+    void testDecode_Malformed() {
+        assertThrows(JsonParseException.class, () -> OcppFrameDecoder.decode("{\"not\":\"array\"}"));
+        assertThrows(JsonParseException.class, () -> OcppFrameDecoder.decode("[9,\"x\",\"A\",{}]"));
+        assertThrows(JsonParseException.class, () -> OcppFrameDecoder.decode("[2,\"x\",\"A\",[]]"));
+    }
+
+    @Test
+    void testGetPayload_TruncatedFrame_FormationViolation() {
+        // Given: 닫는 ]가 없음
+        OcppFrame frame = OcppFrameDecoder.decode("[2,\"hb-001\",\"Heartbeat\",{}");
+
+        // When & Then
+        OcppException e = assertThrows(OcppException.class, frame::getPayload);
+        assertEquals(ErrorCode.FORMATION_VIOLATION, e.getErrorCode());
+    }
+
+    @Test
+    void testGetPayload_ExtraElementOrTrailingData_FormationViolation() {
+        for (String raw : new String[] {
+                "[2,\"hb-001\",\"Heartbeat\",{},\"junk\"]",
+                "[3,\"res-001\",{},{}]",
+                "[2,\"hb-001\",\"Heartbeat\",{}] junk",
+                "[2,\"hb-001\",\"Heartbeat\",{}][2,\"hb-002\",\"Heartbeat\",{}]"}) {
+            // Given
+            OcppFrame frame = OcppFrameDecoder.decode(raw);
+
+            // When & Then
+            OcppException e = assertThrows(OcppException.class, frame::getPayload, raw);
+            assertEquals(ErrorCode.FORMATION_VIOLATION, e.getErrorCode(), raw);
+        }
+    }
+
+    @Test
+    void testEndFrame_AfterPayloadReader() throws IOException {
+        // Given
+        OcppFrame complete = OcppFrameDecoder.decode("[2,\"hb-001\",\"Heartbeat\",{}] ");
+        OcppFrame extra = OcppFrameDecoder.decode("[2,\"hb-002\",\"Heartbeat\",{},1]");
+        assertThrows(IllegalStateException.class, complete::endFrame); // payload를 읽기 전
+
+        // When
+        complete.payloadReader().skipValue();
+        extra.payloadReader().skipValue();
+
+        // Then
+        assertDoesNotThrow(complete::endFrame);
+        assertEquals(ErrorCode.FORMATION_VIOLATION,
+                assertThrows(OcppException.class, extra::endFrame).getErrorCode());
+    }
+
+    @Test
+    void testCallFromJson_UsesDecoder() {
+        // When
+        Call call = Call.fromJson("[2,\"hb-001\",\"Heartbeat\",{}]");
+
+        // Then
+        assertEquals("hb-001", call.getUniqueId());
+        assertEquals("Heartbeat", call.getAction());
+        assertEquals(0, call.getPayload().size());
+    }
+}
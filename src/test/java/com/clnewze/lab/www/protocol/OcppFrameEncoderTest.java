@@ -0,0 +1,79 @@
+package com.clnewze.lab.www.protocol;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OcppFrameEncoderTest {
+
+    @Test
+    void testEncode_EmptyCallResult() {
+        // When
+        String json = OcppFrameEncoder.encodeToString(new CallResult("meter-001", new JsonObject()));
+
+        // Then
+        assertEquals("[3,\"meter-001\",{}]", json);
+    }
+
+    @Test
+    void testEncode_HeartbeatShape() {
+        // Given
+        JsonObject payload = new JsonObject();
+        payload.addProperty("currentTime", "2024-01-15T10:00:00Z");
+
+        // When
+        String json = OcppFrameEncoder.encodeToString(new CallResult("hb-001", payload));
+
+        // Then
+        assertEquals("[3,\"hb-001\",{\"currentTime\":\"2024-01-15T10:00:00Z\"}]", json);
+    }
+
+    @Test
+    void testEncode_MatchesJsonArrayOutput() {
+        // Given
+        JsonObject idTagInfo = new JsonObject();
+        idTagInfo.addProperty("status", "Accepted");
+        JsonObject payload = new JsonObject();
+        payload.addProperty("transactionId", 42);
+        payload.add("idTagInfo", idTagInfo);
+        CallResult result = new CallResult("start-\"001\"", payload);
+
+        JsonArray expected = new JsonArray();
+        expected.add(3);
+        expected.add("start-\"001\"");
+        expected.add(payload);
+
+        // When / Then
+        assertEquals(expected.toString(), result.toJson());
+    }
+
+    @Test
+    void testEncode_CallErrorAndCall() {
+        // Given
+        CallError error = new CallError("x-001", ErrorCode.NOT_IMPLEMENTED, "Unknown action: Foo");
+        Call call = new Call("cs-001", "Reset", new JsonObject());
+
+        // When / Then
+        assertEquals("[4,\"x-001\",\"NotImplemented\",\"Unknown action: Foo\",{}]", error.toJson());
+        assertEquals("[2,\"cs-001\",\"Reset\",{}]", call.toJson());
+    }
+
+    @Test
+    void testEncode_Utf8Bytes() {
+        // Given
+        JsonObject payload = new JsonObject();
+        payload.addProperty("info", "충전기 오류 🔌");
+        CallResult result = new CallResult("u-001", payload);
+
+        // When
+        ByteBuffer bytes = OcppFrameEncoder.encode(result);
+
+        // Then
+        assertEquals(result.toJson(), StandardCharsets.UTF_8.decode(bytes).toString());
+    }
+}
@@ -0,0 +1,53 @@
+package com.clnewze.lab.www.protocol;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseTemplatesTest {
+
+    @Test
+    void testEmptyAck() {
+        // When
+        CallResult result = ResponseTemplates.emptyAck("status-001");
+
+        // Then
+        assertEquals("[3,\"status-001\",{}]", result.toJson());
+        assertEquals("[3,\"status-001\",{}]",
+                StandardCharsets.UTF_8.decode(OcppFrameEncoder.encode(result)).toString());
+        assertEquals(0, result.getPayload().size());
+    }
+
+    @Test
+    void testHeartbeat() {
+        // When
+        CallResult result = ResponseTemplates.heartbeat("hb-001");
+
+        // Then
+        String currentTime = result.getPayload().get("currentTime").getAsString();
+        assertNotNull(Instant.parse(currentTime));
+        assertEquals("[3,\"hb-001\",{\"currentTime\":\"" + currentTime + "\"}]", result.toJson());
+    }
+
+    @Test
+    void testUniqueIdNeedingEscape_FallsBackToEncoder() {
+        // When
+        CallResult result = ResponseTemplates.emptyAck("id\"1");
+
+        // Then
+        assertEquals("[3,\"id\\\"1\",{}]", result.toJson());
+    }
+
+    @Test
+    void testClockCache_SameMillisReusesString() {
+        // When
+        String first = ClockCache.currentTime();
+        String second = ClockCache.currentTime();
+
+        // Then
+        assertFalse(Instant.parse(second).isBefore(Instant.parse(first)));
+    }
+}
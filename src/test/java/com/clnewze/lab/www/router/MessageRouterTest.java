@@ -0,0 +1,254 @@
+package com.clnewze.lab.www.router;
+
+import com.clnewze.lab.www.action.AsyncActionHandler;
+import com.clnewze.lab.www.action.CallContext;
+import com.clnewze.lab.www.action.PayloadReader;
+import com.clnewze.lab.www.metrics.OcppMetrics;
+import com.clnewze.lab.www.pending.PendingRequestManager;
+import com.clnewze.lab.www.protocol.CallError;
+import com.clnewze.lab.www.protocol.CallResult;
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppMessage;
+import com.clnewze.lab.www.session.ChargePointSession;
+import com.clnewze.lab.www.state.ChargePointState;
+import com.google.gson.JsonObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MessageRouterTest {
+
+    private MessageRouter router;
+    private ChargePointSession session;
+
+    @BeforeEach
+    void setUp() {
+        router = new MessageRouter();
+        session = new ChargePointSession("CP001", null);
+    }
+
+    @Test
+    void testRoute_TypedHandler() {
+        // When
+        OcppMessage result = router.route(session,
+                "[2,\"boot-001\",\"BootNotification\",{\"chargePointVendor\":\"V\",\"chargePointModel\":\"M\"}]");
+
+        // Then
+        assertInstanceOf(CallResult.class, result);
+        assertEquals("boot-001", result.getUniqueId());
+        assertEquals("V", session.getVendor());
+        assertEquals(ChargePointState.AVAILABLE, session.getState());
+    }
+
+    @Test
+    void testRoute_MissingRequiredField_FormationViolation() {
+        // When
+        OcppMessage result = router.route(session,
+                "[2,\"boot-002\",\"BootNotification\",{\"chargePointVendor\":\"V\"}]");
+
+        // Then
+        CallError error = assertInstanceOf(CallError.class, result);
+        assertEquals("boot-002", error.getUniqueId());
+        assertEquals(ErrorCode.FORMATION_VIOLATION, error.getErrorCode());
+    }
+
+    @Test
+    void testRoute_MalformedFrame_FormationViolation() {
+        // When
+        OcppMessage extra = router.route(session, "[2,\"hb-010\",\"Heartbeat\",{},\"junk\"]");
+        OcppMessage truncated = router.route(session, "[2,\"hb-011\",\"Heartbeat\",{}");
+        OcppMessage notArray = router.route(session, "{\"not\":\"array\"}");
+
+        // Then: 헤더를 읽었으면 그 uniqueId로 응답
+        CallError extraError = assertInstanceOf(CallError.class, extra);
+        assertEquals("hb-010", extraError.getUniqueId());
+        assertEquals(ErrorCode.FORMATION_VIOLATION, extraError.getErrorCode());
+        CallError truncatedError = assertInstanceOf(CallError.class, truncated);
+        assertEquals("hb-011", truncatedError.getUniqueId());
+        assertEquals(ErrorCode.FORMATION_VIOLATION, truncatedError.getErrorCode());
+        assertEquals(ErrorCode.FORMATION_VIOLATION, assertInstanceOf(CallError.class, notArray).getErrorCode());
+    }
+
+    @Test
+    void testRoute_WrongFieldType_TypeConstraintViolation() {
+        // When
+        OcppMessage result = router.route(session,
+                "[2,\"status-001\",\"StatusNotification\",{\"connectorId\":\"one\",\"errorCode\":\"NoError\",\"status\":\"Available\"}]");
+
+        // Then
+        CallError error = assertInstanceOf(CallError.class, result);
+        assertEquals("status-001", error.getUniqueId());
+        assertEquals(ErrorCode.TYPE_CONSTRAINT_VIOLATION, error.getErrorCode());
+    }
+
+    @Test
+    void testRoute_UnknownAction_NotImplemented() {
+        // When
+        OcppMessage result = router.route(session, "[2,\"x-001\",\"DataTransfer\",{}]");
+
+        // Then
+        CallError error = assertInstanceOf(CallError.class, result);
+        assertEquals(ErrorCode.NOT_IMPLEMENTED, error.getErrorCode());
+    }
+
+    @Test
+    void testRoute_MeterValuesNestedArrays() {
+        // When
+        OcppMessage result = router.route(session,
+                "[2,\"meter-001\",\"MeterValues\",{\"connectorId\":1,\"transactionId\":7,\"meterValue\":"
+                        + "[{\"timestamp\":\"2024-01-15T10:00:00Z\",\"sampledValue\":[{\"value\":\"5000\",\"unit\":\"Wh\"}]}]}]");
+
+        // Then
+        assertInstanceOf(CallResult.class, result);
+        assertEquals("meter-001", result.getUniqueId());
+    }
+
+    @Test
+    void testRouteAsync_CompletesWhenStageCompletes() {
+        // Given
+        CompletableFuture<OcppMessage> pending = new CompletableFuture<>();
+        router.register(asyncHandler("DataTransfer", pending));
+
+        // When
+        CompletableFuture<OcppMessage> result = router.routeAsync(session, "[2,\"dt-001\",\"DataTransfer\",{}]");
+
+        // Then
+        assertFalse(result.isDone());
+        pending.complete(new CallResult("dt-001", new JsonObject()));
+        assertInstanceOf(CallResult.class, result.join());
+    }
+
+    @Test
+    void testRouteAsync_DeadlineExceeded_InternalError() {
+        // Given
+        router.register(asyncHandler("DataTransfer", new CompletableFuture<>()));
+        router.setDeadline("DataTransfer", 50, TimeUnit.MILLISECONDS);
+
+        // When
+        OcppMessage result = router.routeAsync(session, "[2,\"dt-002\",\"DataTransfer\",{}]")
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        // Then
+        CallError error = assertInstanceOf(CallError.class, result);
+        assertEquals("dt-002", error.getUniqueId());
+        assertEquals(ErrorCode.INTERNAL_ERROR, error.getErrorCode());
+    }
+
+    @Test
+    void testRouteAsync_FailedStage_InternalError() {
+        // Given
+        router.register(asyncHandler("DataTransfer",
+                CompletableFuture.failedFuture(new IllegalStateException("backend down"))));
+
+        // When
+        OcppMessage result = router.route(session, "[2,\"dt-003\",\"DataTransfer\",{}]");
+
+        // Then
+        CallError error = assertInstanceOf(CallError.class, result);
+        assertEquals(ErrorCode.INTERNAL_ERROR, error.getErrorCode());
+        assertEquals("backend down", error.getErrorDescription());
+    }
+
+    @Test
+    void testRouteAsync_SyncHandlerCompletesImmediately() {
+        // When
+        CompletableFuture<OcppMessage> result = router.routeAsync(session, "[2,\"hb-001\",\"Heartbeat\",{}]");
+
+        // Then
+        assertTrue(result.isDone());
+        assertInstanceOf(CallResult.class, result.join());
+    }
+
+    @Test
+    void testRouteAsync_UsesGivenReceiveTime() {
+        // Given: WebSocket 스레드에서 이미 잰 수신 시각
+        List<CallContext> contexts = new ArrayList<>();
+        router.register(new AsyncActionHandler<JsonObject>() {
+            @Override
+            public String getAction() {
+                return "DataTransfer";
+            }
+
+            @Override
+            public PayloadReader<JsonObject> getPayloadReader() {
+                return PayloadReader.JSON_OBJECT;
+            }
+
+            @Override
+            public CompletionStage<OcppMessage> handleAsync(CallContext context, JsonObject request) {
+                contexts.add(context);
+                return CompletableFuture.completedFuture(new CallResult(context.uniqueId(), new JsonObject()));
+            }
+        });
+        long receivedNanos = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(50);
+
+        // When
+        router.routeAsync(session, "[2,\"dt-001\",\"DataTransfer\",{}]", 1_700_000_000_000L, receivedNanos).join();
+
+        // Then: 디코딩 시점이 아니라 전달받은 수신 시각 기준
+        assertEquals(1, contexts.size());
+        assertEquals(1_700_000_000_000L, contexts.get(0).receivedAtMillis());
+        assertEquals(receivedNanos, contexts.get(0).receivedNanos());
+        assertTrue(contexts.get(0).elapsedNanos() >= TimeUnit.MILLISECONDS.toNanos(50));
+    }
+
+    private static AsyncActionHandler<JsonObject> asyncHandler(String action, CompletionStage<OcppMessage> stage) {
+        return new AsyncActionHandler<>() {
+            @Override
+            public String getAction() {
+                return action;
+            }
+
+            @Override
+            public PayloadReader<JsonObject> getPayloadReader() {
+                return PayloadReader.JSON_OBJECT;
+            }
+
+            @Override
+            public CompletionStage<OcppMessage> handleAsync(CallContext context, JsonObject request) {
+                return stage;
+            }
+        };
+    }
+
+    @Test
+    void testRoute_CallResultCompletesPendingRequest() {
+        // Given: 서버가 보낸 Reset 요청
+        List<OcppMessage> sent = new ArrayList<>();
+        PendingRequestManager pending = new PendingRequestManager((s, message) -> sent.add(message));
+        MessageRouter routerWithPending = new MessageRouter(pending, new OcppMetrics());
+        CompletableFuture<OcppMessage> reset = pending.call(session, "Reset", new JsonObject());
+
+        // When
+        OcppMessage result = routerWithPending.route(session,
+                "[3,\"" + sent.get(0).getUniqueId() + "\",{\"status\":\"Accepted\"}]");
+
+        // Then
+        assertNull(result);  // 응답에는 응답하지 않음
+        assertInstanceOf(CallResult.class, reset.join());
+        pending.shutdown();
+    }
+
+    @Test
+    void testRoute_StartTransactionAcceptedWhileFaulted() {
+        // Given: 충전기가 고장을 보고한 뒤에도 이미 시작된 충전은 보고됨
+        session.setState(ChargePointState.FAULTED);
+
+        // When
+        OcppMessage result = router.route(session,
+                "[2,\"start-002\",\"StartTransaction\",{\"connectorId\":1,\"idTag\":\"RFID1\",\"meterStart\":0,"
+                        + "\"timestamp\":\"2024-01-15T10:00:00Z\"}]");
+
+        // Then
+        CallResult callResult = assertInstanceOf(CallResult.class, result);
+        assertTrue(callResult.getPayload().get("transactionId").getAsInt() > 0);
+    }
+}
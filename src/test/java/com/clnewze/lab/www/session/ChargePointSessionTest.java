@@ -0,0 +1,202 @@
+package com.clnewze.lab.www.session;
+
+import com.clnewze.lab.www.protocol.ErrorCode;
+import com.clnewze.lab.www.protocol.OcppException;
+import com.clnewze.lab.www.state.ChargePointState;
+import com.clnewze.lab.www.state.StateTransition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChargePointSessionTest {
+
+    private ChargePointSession session;
+
+    @BeforeEach
+    void setUp() {
+        session = new ChargePointSession("CP001", null);
+        session.setState(ChargePointState.AVAILABLE);
+    }
+
+    @Test
+    void testConnectorStates_Independent() {
+        // When
+        session.setConnectorState(1, ChargePointState.CHARGING);
+        session.setConnectorState(2, ChargePointState.AVAILABLE);
+
+        // Then
+        assertEquals(ChargePointState.CHARGING, session.getConnectorState(1));
+        assertEquals(ChargePointState.AVAILABLE, session.getConnectorState(2));
+        assertNull(session.getConnectorState(3));
+        assertEquals(2, session.getConnectorCount());
+    }
+
+    @Test
+    void testDerivedState_MostActiveConnector() {
+        // Given
+        session.setConnectorState(1, ChargePointState.FAULTED);
+        session.setConnectorState(2, ChargePointState.AVAILABLE);
+        assertEquals(ChargePointState.AVAILABLE, session.getState());
+
+        // When
+        session.setConnectorState(2, ChargePointState.PREPARING);
+
+        // Then: 커넥터 1이 고장이어도 2가 사용 중이면 충전기는 PREPARING
+        assertEquals(ChargePointState.PREPARING, session.getState());
+    }
+
+    @Test
+    void testDerivedState_AllConnectorsFaulted() {
+        // When
+        session.setConnectorState(1, ChargePointState.FAULTED);
+        session.setConnectorState(2, ChargePointState.FAULTED);
+
+        // Then
+        assertEquals(ChargePointState.FAULTED, session.getState());
+    }
+
+    @Test
+    void testDerivedState_MainControllerOverrides() {
+        // Given
+        session.setConnectorState(1, ChargePointState.CHARGING);
+
+        // When: connectorId 0 = 충전기 본체
+        session.setConnectorState(0, ChargePointState.UNAVAILABLE);
+
+        // Then
+        assertEquals(ChargePointState.UNAVAILABLE, session.getState());
+        assertEquals(ChargePointState.CHARGING, session.getConnectorState(1));
+    }
+
+    @Test
+    void testTransactions_PerConnector() {
+        // Given
+        session.startTransaction(1, 100);
+        session.startTransaction(2, 200);
+
+        // When
+        int stopped = session.stopTransaction(200);
+
+        // Then
+        assertEquals(2, stopped);
+        assertEquals(100, session.getTransactionId(1));
+        assertEquals(0, session.getTransactionId(2));
+        assertEquals(ChargePointState.AVAILABLE, session.getConnectorState(2));
+        assertEquals(ChargePointState.CHARGING, session.getState());
+        assertEquals(1, session.findConnector(100));
+        assertEquals(-1, session.stopTransaction(999));
+    }
+
+    @Test
+    void testConnectorId_OutOfRange() {
+        // When
+        OcppException e = assertThrows(OcppException.class,
+                () -> session.setConnectorState(ChargePointSession.MAX_CONNECTOR_ID + 1, ChargePointState.AVAILABLE));
+
+        // Then
+        assertEquals(ErrorCode.PROPERTY_CONSTRAINT_VIOLATION, e.getErrorCode());
+        assertThrows(OcppException.class, () -> session.startTransaction(0, 1));
+        assertEquals(0, session.getConnectorCount());
+    }
+
+    @Test
+    void testConnectorChange_UpdatesSessionIndex() {
+        // Given
+        SessionManager sessionManager = new SessionManager();
+        sessionManager.addSession(session);
+
+        // When
+        session.startTransaction(1, 100);
+
+        // Then
+        assertEquals(1, sessionManager.getStateCount(ChargePointState.CHARGING));
+        assertEquals(0, sessionManager.getStateCount(ChargePointState.AVAILABLE));
+    }
+
+    @Test
+    void testTransitionTo_InvalidRejected() {
+        // Given
+        session.setState(ChargePointState.FINISHING);
+        long before = StateTransition.getRejectedCount(ChargePointState.FINISHING, ChargePointState.CHARGING);
+
+        // When
+        boolean moved = session.transitionTo(ChargePointState.CHARGING);
+
+        // Then
+        assertFalse(moved);
+        assertEquals(ChargePointState.FINISHING, session.getState());
+        assertEquals(before + 1, StateTransition.getRejectedCount(ChargePointState.FINISHING, ChargePointState.CHARGING));
+        assertTrue(session.transitionTo(ChargePointState.AVAILABLE));
+    }
+
+    @Test
+    void testSetConnectorState_UnexpectedTransitionAppliedAndCounted() {
+        // Given
+        session.setConnectorState(1, ChargePointState.CHARGING);
+        long before = StateTransition.getUnexpectedCount(ChargePointState.CHARGING, ChargePointState.PREPARING);
+
+        // When: CHARGING → PREPARING은 전이표에 없음
+        boolean expected = session.setConnectorState(1, ChargePointState.PREPARING);
+
+        // Then: 충전기가 보고한 상태를 그대로 반영하고 집계
+        assertFalse(expected);
+        assertEquals(ChargePointState.PREPARING, session.getConnectorState(1));
+        assertEquals(ChargePointState.PREPARING, session.getState());
+        assertEquals(before + 1, StateTransition.getUnexpectedCount(ChargePointState.CHARGING, ChargePointState.PREPARING));
+    }
+
+    @Test
+    void testConnectorChange_DoesNotReviveDisconnected() {
+        // Given
+        session.setConnectorState(1, ChargePointState.AVAILABLE);
+        session.transitionTo(ChargePointState.DISCONNECTED);
+
+        // When: 연결 끊긴 뒤 늦게 처리된 메시지
+        session.setConnectorState(1, ChargePointState.PREPARING);
+
+        // Then
+        assertEquals(ChargePointState.DISCONNECTED, session.getState());
+    }
+
+    @Test
+    void testTransitionTo_ConcurrentSingleWinner() throws InterruptedException {
+        // Given
+        session.setState(ChargePointState.CHARGING);
+        int threads = 4;
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            ChargePointState target = i % 2 == 0 ? ChargePointState.FINISHING : ChargePointState.DISCONNECTED;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                // 비교 기준 상태가 바뀌면 CAS 실패 → 다시 검증
+                if (session.transitionTo(target) && target == ChargePointState.DISCONNECTED) {
+                    winners.incrementAndGet();
+                }
+            });
+            thread.start();
+            workers.add(thread);
+        }
+
+        // When
+        start.countDown();
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        // Then: DISCONNECTED 이후 FINISHING으로는 못 감
+        assertTrue(winners.get() >= 1);
+        assertEquals(ChargePointState.DISCONNECTED, session.getState());
+    }
+}
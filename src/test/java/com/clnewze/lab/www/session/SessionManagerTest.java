@@ -0,0 +1,243 @@
+package com.clnewze.lab.www.session;
+
+import com.clnewze.lab.www.state.ChargePointState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SessionManagerTest {
+
+    private SessionManager sessionManager;
+
+    @BeforeEach
+    void setUp() {
+        sessionManager = new SessionManager();
+    }
+
+    @Test
+    void testAddGetRemove() {
+        // Given
+        ChargePointSession session = new ChargePointSession("CP001", null);
+
+        // When
+        sessionManager.addSession(session);
+
+        // Then
+        assertSame(session, sessionManager.getSession("CP001"));
+        assertEquals(1, sessionManager.getSessionCount());
+        assertEquals(1, sessionManager.getStateCount(ChargePointState.CONNECTED));
+
+        // When
+        sessionManager.removeSession("CP001");
+
+        // Then
+        assertNull(sessionManager.getSession("CP001"));
+        assertEquals(0, sessionManager.getSessionCount());
+        assertEquals(0, sessionManager.getStateCount(ChargePointState.CONNECTED));
+    }
+
+    @Test
+    void testSetState_MovesStateIndex() {
+        // Given
+        ChargePointSession session = new ChargePointSession("CP001", null);
+        sessionManager.addSession(session);
+
+        // When
+        session.setState(ChargePointState.FAULTED);
+
+        // Then
+        assertEquals(0, sessionManager.getStateCount(ChargePointState.CONNECTED));
+        assertEquals(1, sessionManager.getStateCount(ChargePointState.FAULTED));
+        assertEquals(List.of(session), collectInState(ChargePointState.FAULTED));
+        assertEquals(1L, sessionManager.getStateCounts().get(ChargePointState.FAULTED));
+    }
+
+    @Test
+    void testVendorModelIndex() {
+        // Given
+        ChargePointSession a = new ChargePointSession("CP-A", null);
+        ChargePointSession b = new ChargePointSession("CP-B", null);
+        a.setVendor("Alpha");
+        sessionManager.addSession(a);
+        sessionManager.addSession(b);
+
+        // When
+        b.setVendor("Alpha");
+        b.setModel("AC-22K");
+        a.setVendor("Beta");
+
+        // Then
+        List<ChargePointSession> alpha = new ArrayList<>();
+        sessionManager.forEachByVendor("Alpha", alpha::add);
+        List<ChargePointSession> beta = new ArrayList<>();
+        sessionManager.forEachByVendor("Beta", beta::add);
+        List<ChargePointSession> model = new ArrayList<>();
+        sessionManager.forEachByModel("AC-22K", model::add);
+        assertEquals(List.of(b), alpha);
+        assertEquals(List.of(a), beta);
+        assertEquals(List.of(b), model);
+    }
+
+    @Test
+    void testAddSession_ReplacesSameId() {
+        // Given: 재연결 → 같은 ID의 새 세션
+        ChargePointSession old = new ChargePointSession("CP001", null);
+        sessionManager.addSession(old);
+        old.setState(ChargePointState.CHARGING);
+        ChargePointSession fresh = new ChargePointSession("CP001", null);
+
+        // When
+        sessionManager.addSession(fresh);
+        old.setState(ChargePointState.FAULTED);  // 교체된 세션의 변경은 인덱스에 반영되지 않음
+
+        // Then
+        assertSame(fresh, sessionManager.getSession("CP001"));
+        assertEquals(1, sessionManager.getSessionCount());
+        assertEquals(0, sessionManager.getStateCount(ChargePointState.CHARGING));
+        assertEquals(0, sessionManager.getStateCount(ChargePointState.FAULTED));
+        assertEquals(1, sessionManager.getStateCount(ChargePointState.CONNECTED));
+    }
+
+    @Test
+    void testRemoveSession_IgnoresReplacedSession() {
+        // Given: 재연결 후 이전 연결의 종료가 늦게 도착
+        ChargePointSession old = new ChargePointSession("CP001", null);
+        sessionManager.addSession(old);
+        ChargePointSession fresh = new ChargePointSession("CP001", null);
+        sessionManager.addSession(fresh);
+
+        // When
+        boolean removedOld = sessionManager.removeSession("CP001", old);
+
+        // Then
+        assertFalse(removedOld);
+        assertSame(fresh, sessionManager.getSession("CP001"));
+        assertEquals(1, sessionManager.getSessionCount());
+        assertTrue(sessionManager.removeSession("CP001", fresh));
+        assertEquals(0, sessionManager.getSessionCount());
+    }
+
+    @Test
+    void testManySessions_CountsMatchStates() {
+        // Given
+        int total = 100_000;
+        ChargePointState[] states = ChargePointState.values();
+        Random random = new Random(1);
+        int[] expected = new int[states.length];
+        List<ChargePointSession> sessions = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            ChargePointSession session = new ChargePointSession("CP" + i, null);
+            sessionManager.addSession(session);
+            sessions.add(session);
+        }
+
+        // When
+        for (ChargePointSession session : sessions) {
+            ChargePointState state = states[random.nextInt(states.length)];
+            session.setState(state);
+        }
+        for (int i = 0; i < total; i += 2) {
+            sessionManager.removeSession("CP" + i);
+        }
+        for (int i = 1; i < total; i += 2) {
+            expected[sessions.get(i).getState().ordinal()]++;
+        }
+
+        // Then
+        assertEquals(total / 2, sessionManager.getSessionCount());
+        for (ChargePointState state : states) {
+            assertEquals(expected[state.ordinal()], sessionManager.getStateCount(state), state.name());
+            for (ChargePointSession session : collectInState(state)) {
+                assertEquals(state, session.getState());
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentStateChanges_IndexConverges() throws InterruptedException {
+        // Given
+        int total = 20_000;
+        List<ChargePointSession> sessions = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            ChargePointSession session = new ChargePointSession("CP" + i, null);
+            sessionManager.addSession(session);
+            sessions.add(session);
+        }
+        ChargePointState[] states = ChargePointState.values();
+        int threads = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+
+        // When: 같은 세션들의 상태를 여러 스레드가 동시에 변경, 동시에 순회
+        for (int t = 0; t < threads; t++) {
+            int seed = t;
+            executor.execute(() -> {
+                Random random = new Random(seed);
+                for (int i = 0; i < 100_000; i++) {
+                    sessions.get(random.nextInt(total)).setState(states[random.nextInt(states.length)]);
+                    if (i % 10_000 == 0) {
+                        sessionManager.forEachInState(ChargePointState.FAULTED, s -> { });
+                    }
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        // Then: 모든 세션이 정확히 현재 상태 목록 1곳에만 있음
+        int sum = 0;
+        Set<ChargePointSession> seen = new HashSet<>();
+        for (ChargePointState state : states) {
+            List<ChargePointSession> inState = collectInState(state);
+            assertEquals(inState.size(), sessionManager.getStateCount(state));
+            for (ChargePointSession session : inState) {
+                assertEquals(state, session.getState());
+                assertTrue(seen.add(session));
+            }
+            sum += inState.size();
+        }
+        assertEquals(total, sum);
+    }
+
+    @Test
+    void testForEach_NoSessionMissedDuringRemoval() {
+        // Given
+        for (int i = 0; i < 1_000; i++) {
+            sessionManager.addSession(new ChargePointSession("CP" + i, null));
+        }
+        Set<String> kept = new HashSet<>();
+        for (int i = 0; i < 1_000; i += 3) {
+            kept.add("CP" + i);
+        }
+
+        // When: 순회 중에 유지 대상이 아닌 세션 제거
+        Set<String> visited = new HashSet<>();
+        sessionManager.forEach(session -> {
+            visited.add(session.getChargePointId());
+            for (int i = 1; i < 1_000; i += 3) {
+                sessionManager.removeSession("CP" + i);
+            }
+        });
+
+        // Then
+        assertTrue(visited.containsAll(kept));
+    }
+
+    private List<ChargePointSession> collectInState(ChargePointState state) {
+        List<ChargePointSession> sessions = new ArrayList<>();
+        sessionManager.forEachInState(state, sessions::add);
+        return sessions;
+    }
+}
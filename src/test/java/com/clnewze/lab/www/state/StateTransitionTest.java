@@ -0,0 +1,56 @@
+package com.clnewze.lab.www.state;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StateTransitionTest {
+
+    @Test
+    void testCanTransition_ChargingFlow() {
+        // Then
+        assertTrue(StateTransition.canTransition(ChargePointState.DISCONNECTED, ChargePointState.CONNECTED));
+        assertTrue(StateTransition.canTransition(ChargePointState.CONNECTED, ChargePointState.AVAILABLE));
+        assertTrue(StateTransition.canTransition(ChargePointState.AVAILABLE, ChargePointState.PREPARING));
+        assertTrue(StateTransition.canTransition(ChargePointState.PREPARING, ChargePointState.CHARGING));
+        assertTrue(StateTransition.canTransition(ChargePointState.CHARGING, ChargePointState.FINISHING));
+        assertTrue(StateTransition.canTransition(ChargePointState.FINISHING, ChargePointState.AVAILABLE));
+        assertTrue(StateTransition.canTransition(ChargePointState.AVAILABLE, ChargePointState.CHARGING));
+    }
+
+    @Test
+    void testCanTransition_Rejected() {
+        // Then
+        assertFalse(StateTransition.canTransition(ChargePointState.DISCONNECTED, ChargePointState.AVAILABLE));
+        assertFalse(StateTransition.canTransition(ChargePointState.CHARGING, ChargePointState.PREPARING));
+        assertFalse(StateTransition.canTransition(ChargePointState.FINISHING, ChargePointState.CHARGING));
+        assertFalse(StateTransition.canTransition(ChargePointState.AVAILABLE, ChargePointState.FINISHING));
+        assertFalse(StateTransition.canTransition(ChargePointState.AVAILABLE, ChargePointState.CONNECTED));
+    }
+
+    @Test
+    void testCanTransition_SameStateFaultedAndDisconnectedAlwaysAllowed() {
+        for (ChargePointState from : ChargePointState.values()) {
+            assertTrue(StateTransition.canTransition(from, from), from.name());
+            assertTrue(StateTransition.canTransition(from, ChargePointState.DISCONNECTED), from.name());
+            if (from != ChargePointState.DISCONNECTED) {
+                assertTrue(StateTransition.canTransition(from, ChargePointState.FAULTED), from.name());
+            }
+        }
+    }
+
+    @Test
+    void testRejected_Counted() {
+        // Given
+        long before = StateTransition.getRejectedCount(ChargePointState.FINISHING, ChargePointState.CHARGING);
+        long total = StateTransition.getRejectedTotal();
+
+        // When
+        StateTransition.rejected("CP001", 1, ChargePointState.FINISHING, ChargePointState.CHARGING);
+        StateTransition.rejected("CP001", 1, ChargePointState.FINISHING, ChargePointState.CHARGING);
+
+        // Then
+        assertEquals(before + 2, StateTransition.getRejectedCount(ChargePointState.FINISHING, ChargePointState.CHARGING));
+        assertTrue(StateTransition.getRejectedTotal() >= total + 2);
+    }
+}
@@ -0,0 +1,88 @@
+package com.clnewze.lab.www.transaction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryTransactionStoreTest {
+
+    private InMemoryTransactionStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryTransactionStore(2);
+    }
+
+    @Test
+    void testStartStop() {
+        // Given
+        Transaction started = store.start("CP001", 1, "RFID1", 1000, 10L);
+
+        // When
+        Transaction stopped = store.stop("CP001", started.transactionId(), 6000, 20L, "Local");
+
+        // Then
+        assertTrue(started.isOpen());
+        assertFalse(stopped.isOpen());
+        assertEquals(5000, stopped.energyWh());
+        assertEquals("RFID1", stopped.idTag());
+        assertEquals(20L, stopped.stopTimestamp());
+        assertEquals(0, store.getOpenCount());
+        assertEquals(stopped, store.get(started.transactionId()));
+    }
+
+    @Test
+    void testStop_UnknownOrOtherChargePoint() {
+        // Given
+        Transaction started = store.start("CP001", 1, "RFID1", 0, 10L);
+
+        // Then
+        assertNull(store.stop("CP001", 999, 0, 20L, "Local"));
+        assertNull(store.stop("CP002", started.transactionId(), 0, 20L, "Local"));
+        assertTrue(store.get(started.transactionId()).isOpen());
+    }
+
+    @Test
+    void testStop_DuplicateReturnsFirstStop() {
+        // Given
+        Transaction started = store.start("CP001", 1, "RFID1", 0, 10L);
+        Transaction first = store.stop("CP001", started.transactionId(), 500, 20L, "Local");
+
+        // When: 충전기 재전송
+        Transaction again = store.stop("CP001", started.transactionId(), 700, 30L, "Remote");
+
+        // Then
+        assertEquals(first, again);
+    }
+
+    @Test
+    void testStart_SameConnectorClosesPrevious() {
+        // Given
+        Transaction lost = store.start("CP001", 1, "RFID1", 100, 10L);
+
+        // When
+        Transaction next = store.start("CP001", 1, "RFID2", 200, 20L);
+
+        // Then
+        assertEquals(1, store.getOpenCount());
+        assertFalse(store.get(lost.transactionId()).isOpen());
+        assertTrue(store.get(next.transactionId()).isOpen());
+        assertTrue(next.transactionId() > lost.transactionId());
+    }
+
+    @Test
+    void testClosed_BoundedRetention() {
+        // When
+        int[] ids = new int[3];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = store.start("CP001", 1, "RFID1", 0, 10L).transactionId();
+            store.stop("CP001", ids[i], 1, 20L, "Local");
+        }
+
+        // Then: 최근 2건만 보관
+        assertNull(store.get(ids[0]));
+        assertNotNull(store.get(ids[1]));
+        assertNotNull(store.get(ids[2]));
+    }
+}
@@ -0,0 +1,219 @@
+package com.clnewze.lab.www.transaction;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBehindTransactionStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRestart_RestoresOpenTransactionsAndIds() throws Exception {
+        // Given
+        Path file = dir.resolve("transactions.journal");
+        int openId;
+        int closedId;
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(new FileTransactionJournal(file))) {
+            openId = store.start("CP001", 1, "RFID1", 100, 10L).transactionId();
+            closedId = store.start("CP001", 2, "RFID2", 200, 11L).transactionId();
+            store.stop("CP001", closedId, 900, 12L, "Local");
+        }
+
+        // When
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(new FileTransactionJournal(file))) {
+
+            // Then
+            assertEquals(1, store.getOpenCount());
+            assertEquals(100, store.get(openId).meterStart());
+            assertEquals(700, store.get(closedId).energyWh());
+            assertEquals("RFID2", store.get(closedId).idTag());
+            assertTrue(store.start("CP002", 1, "RFID3", 0, 13L).transactionId() > closedId);
+            Transaction stopped = store.stop("CP001", openId, 300, 14L, "Remote");
+            assertNotNull(stopped);
+            assertEquals(200, stopped.energyWh());
+        }
+    }
+
+    @Test
+    void testReplay_TruncatesIncompleteTail() throws Exception {
+        // Given
+        Path file = dir.resolve("transactions.journal");
+        int id;
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(new FileTransactionJournal(file))) {
+            id = store.start("CP001", 1, "RFID1", 100, 10L).transactionId();
+        }
+        long validSize = Files.size(file);
+        Files.write(file, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);  // 쓰다 죽은 레코드
+
+        // When
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(new FileTransactionJournal(file))) {
+            store.stop("CP001", id, 500, 20L, "Local");
+            store.flush();
+
+            // Then
+            assertEquals(0, store.getOpenCount());
+        }
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(new FileTransactionJournal(file))) {
+            assertFalse(store.get(id).isOpen());
+            assertTrue(Files.size(file) > validSize);
+        }
+    }
+
+    @Test
+    void testReplay_CompactsRepeatedRecords() throws Exception {
+        // Given: 같은 커넥터에서 시작/종료 반복 → 트랜잭션당 2개 레코드 (4000개)
+        Path file = dir.resolve("transactions.journal");
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(new FileTransactionJournal(file))) {
+            for (int i = 0; i < 2_000; i++) {
+                int id = store.start("CP001", 1, "RFID1", i, 10L).transactionId();
+                store.stop("CP001", id, i + 1, 20L, "Local");
+            }
+        }
+
+        // When
+        FileTransactionJournal journal = new FileTransactionJournal(file);
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(journal)) {
+
+            // Then: 이전 레코드는 압축으로 빠짐
+            assertTrue(journal.getRecords() < 4_000, "records=" + journal.getRecords());
+            assertEquals(1, store.get(2_000).energyWh());
+            assertEquals(0, store.getOpenCount());
+            assertEquals(2_001, store.start("CP001", 1, "RFID1", 0, 30L).transactionId());
+        }
+    }
+
+    @Test
+    void testCompaction_DropsClosedBeyondRetentionWhileRunning() throws Exception {
+        // Given: 종료 트랜잭션 10건만 보관
+        Path file = dir.resolve("transactions.journal");
+        FileTransactionJournal journal = new FileTransactionJournal(file, false, 10);
+        int openId;
+        int lastId = 0;
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(journal, 64, 10)) {
+            openId = store.start("CP000", 1, "RFID0", 0, 1L).transactionId();
+
+            // When: 재시작 없이 1만 건 시작/종료
+            for (int i = 0; i < 10_000; i++) {
+                lastId = store.start("CP001", 1, "RFID1", i, 10L).transactionId();
+                store.stop("CP001", lastId, i + 1, 20L, "Local");
+            }
+            store.flush();
+
+            // Then: 실행 중에도 파일은 보관 건수 수준으로 유지
+            assertTrue(journal.getRecords() < 2_100, "records=" + journal.getRecords());
+        }
+
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(
+                new FileTransactionJournal(file, false, 10), 64, 10)) {
+            // Then: 열린 트랜잭션과 최근 종료분만 복원, 다음 ID는 이어짐
+            assertEquals(1, store.getOpenCount());
+            assertTrue(store.get(openId).isOpen());
+            assertNotNull(store.get(lastId));
+            assertNull(store.get(lastId - 100));
+            assertEquals(lastId + 1, store.start("CP001", 1, "RFID1", 0, 30L).transactionId());
+        }
+    }
+
+    @Test
+    void testCompaction_KeepsNewestIdWhenClosedEvicted() throws Exception {
+        // Given: 종료 보관 0건 → 마지막 트랜잭션도 보관 대상이 아님
+        Path file = dir.resolve("transactions.journal");
+        int lastId = 0;
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(
+                new FileTransactionJournal(file, false, 0), 64, 0)) {
+            for (int i = 0; i < 2_000; i++) {
+                lastId = store.start("CP001", 1, "RFID1", i, 10L).transactionId();
+                store.stop("CP001", lastId, i + 1, 20L, "Local");
+            }
+        }
+
+        // When
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(
+                new FileTransactionJournal(file, false, 0), 64, 0)) {
+
+            // Then: ID가 재사용되지 않음
+            assertEquals(lastId + 1, store.start("CP001", 1, "RFID1", 0, 30L).transactionId());
+        }
+    }
+
+    @Test
+    void testHandlersDoNotWaitForJournal() throws Exception {
+        // Given: append가 막혀 있는 저널
+        CountDownLatch release = new CountDownLatch(1);
+        TransactionJournal slow = new TransactionJournal() {
+            @Override
+            public void replay(Consumer<Transaction> consumer) {
+            }
+
+            @Override
+            public void append(List<Transaction> batch) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(slow)) {
+            // When
+            long start = System.nanoTime();
+            for (int i = 0; i < 1_000; i++) {
+                store.start("CP" + i, 1, "RFID1", 0, 10L);
+            }
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            // Then
+            assertTrue(elapsedMillis < 1_000, "start blocked for " + elapsedMillis + "ms");
+            assertEquals(1_000, store.getOpenCount());
+            assertTrue(store.getPendingRecords() > 0);
+            release.countDown();
+            store.flush();
+            assertEquals(0, store.getPendingRecords());
+        }
+    }
+
+    @Test
+    void testJournalFailure_Counted() throws Exception {
+        // Given
+        TransactionJournal broken = new TransactionJournal() {
+            @Override
+            public void replay(Consumer<Transaction> consumer) {
+            }
+
+            @Override
+            public void append(List<Transaction> batch) throws IOException {
+                throw new IOException("disk full");
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+
+        try (WriteBehindTransactionStore store = new WriteBehindTransactionStore(broken)) {
+            // When
+            store.start("CP001", 1, "RFID1", 0, 10L);
+            store.flush();
+
+            // Then: 메모리 상태는 유지
+            assertEquals(1, store.getFailedRecords());
+            assertEquals(1, store.getOpenCount());
+        }
+    }
+}
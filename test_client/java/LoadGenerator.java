@@ -0,0 +1,707 @@
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OCPP 부하 생성기 (헤드리스, localhost 전용)
+ *
+ * 충전기 N대를 WebSocket으로 동시에 연결하고 시나리오를 목표 속도로 실행한 뒤
+ * 처리량과 왕복 지연 p50/p99/p999를 주기적으로 출력한다.
+ * 연결은 JDK HttpClient WebSocket(비동기, 연결당 스레드 없음)을 사용한다.
+ *
+ * 실행 방법:
+ * cd test_client/java
+ * ./gradlew loadGenerator --args="--chargers 10000 --rate 5000 --ramp-up 30 --duration 120"
+ * ./gradlew loadGenerator --args="--chargers 2000 --scenario mixed --soak"   (Ctrl+C로 종료)
+ */
+public class LoadGenerator {
+
+    private static final Pattern TRANSACTION_ID = Pattern.compile("\"transactionId\"\\s*:\\s*(\\d+)");
+
+    private final Config config;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final Charger[] chargers;
+    private volatile int created;  // chargers[0, created)만 생성됨
+
+    private final AtomicInteger connected = new AtomicInteger();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder received = new LongAdder();
+    private final LongAdder callErrors = new LongAdder();
+    private final LongAdder timeouts = new LongAdder();
+    private final LongAdder missed = new LongAdder();
+    private final LongAdder connectFailures = new LongAdder();
+    private final LongAdder disconnects = new LongAdder();
+
+    private final Histogram total = new Histogram();
+    private final AtomicReference<Histogram> interval = new AtomicReference<>(new Histogram());
+    private final Map<String, Histogram> byAction = new ConcurrentHashMap<>();
+
+    private volatile boolean running = true;
+    private final CountDownLatch finished = new CountDownLatch(1);
+    private long startNanos;
+
+    public LoadGenerator(Config config) {
+        this.config = config;
+        this.chargers = new Charger[config.chargers];
+        this.executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread t = new Thread(r, "loadgen-io");
+            t.setDaemon(true);
+            return t;
+        });
+        this.httpClient = HttpClient.newBuilder()
+                .executor(executor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        Config config = Config.parse(args);
+        InetAddress host = InetAddress.getByName(config.url.getHost());
+        if (!host.isLoopbackAddress()) {
+            System.err.println("Refusing to run against " + config.url.getHost() + ": localhost only");
+            System.exit(2);
+        }
+        new LoadGenerator(config).run();
+    }
+
+    public void run() throws InterruptedException {
+        System.out.println(config);
+        startNanos = System.nanoTime();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::stop));
+
+        Thread ramp = new Thread(this::rampUp, "loadgen-ramp");
+        ramp.setDaemon(true);
+        ramp.start();
+
+        if (config.rate > 0) {
+            Thread pacer = new Thread(this::pace, "loadgen-pacer");
+            pacer.setDaemon(true);
+            pacer.start();
+        }
+
+        long deadline = config.soak ? Long.MAX_VALUE : startNanos + TimeUnit.SECONDS.toNanos(config.durationSeconds);
+        long nextReport = startNanos + TimeUnit.SECONDS.toNanos(config.reportIntervalSeconds);
+        long lastReport = startNanos;
+        long lastSent = 0;
+        long lastReceived = 0;
+        while (running && System.nanoTime() < deadline) {
+            long wakeUp = Math.min(Math.min(nextReport, deadline), System.nanoTime() + TimeUnit.SECONDS.toNanos(1));
+            LockSupport.parkNanos(wakeUp - System.nanoTime());
+            long now = System.nanoTime();
+            expireTimeouts(now);
+            if (now >= nextReport) {
+                long sentNow = sent.sum();
+                long receivedNow = received.sum();
+                report(now, (now - lastReport) / 1e9, sentNow - lastSent, receivedNow - lastReceived);
+                lastReport = now;
+                lastSent = sentNow;
+                lastReceived = receivedNow;
+                nextReport += TimeUnit.SECONDS.toNanos(config.reportIntervalSeconds);
+            }
+        }
+        stop();
+        finished.await();
+    }
+
+    /**
+     * 종료 (기간 종료 또는 Ctrl+C) → 연결 종료 후 최종 요약 출력
+     */
+    private void stop() {
+        synchronized (this) {
+            if (!running) {
+                return;
+            }
+            running = false;
+        }
+        for (int i = 0, n = created; i < n; i++) {
+            chargers[i].close();
+        }
+        printSummary();
+        finished.countDown();
+    }
+
+    // 연결
+
+    /**
+     * ramp-up 동안 균등한 간격으로 연결 (0이면 한꺼번에)
+     */
+    private void rampUp() {
+        long rampNanos = TimeUnit.SECONDS.toNanos(config.rampUpSeconds);
+        for (int i = 0; i < config.chargers && running; i++) {
+            long due = startNanos + rampNanos * i / config.chargers;
+            long wait = due - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Charger charger = new Charger(String.format("%s%06d", config.idPrefix, i + 1));
+            chargers[i] = charger;
+            created = i + 1;
+            charger.connect();
+        }
+    }
+
+    // 전송 속도 제어
+
+    /**
+     * 목표 속도(전체 Call/s)로 대기 중인 충전기에 다음 Call 전송 (open loop)
+     * 응답을 기다리는 충전기만 남아 보낼 수 없으면 missed로 집계 (서버 처리 지연 신호)
+     */
+    private void pace() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(1);
+        long last = System.nanoTime();
+        double tokens = 0;
+        int cursor = 0;
+        while (running) {
+            LockSupport.parkNanos(tickNanos);
+            long now = System.nanoTime();
+            // ramp-up 중에는 연결된 비율만큼 목표 속도 적용
+            tokens += config.rate * (now - last) / 1e9 * connected.get() / config.chargers;
+            last = now;
+
+            int n = created;
+            for (int scanned = 0; tokens >= 1 && scanned < n; scanned++) {
+                if (cursor >= n) {
+                    cursor = 0;
+                }
+                if (chargers[cursor++].trySendNext()) {
+                    tokens--;
+                }
+            }
+            if (tokens >= 1) {
+                missed.add((long) tokens);
+                tokens -= (long) tokens;
+            }
+        }
+    }
+
+    private void expireTimeouts(long now) {
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(config.timeoutSeconds);
+        for (int i = 0, n = created; i < n; i++) {
+            chargers[i].expireIfOlderThan(now - timeoutNanos);
+        }
+    }
+
+    // 출력
+
+    private void report(long now, double seconds, long sentDelta, long receivedDelta) {
+        Histogram.Snapshot s = interval.getAndSet(new Histogram()).snapshot();
+        System.out.printf(Locale.ROOT,
+                "[%5ds] conn %d/%d  sent %,.0f/s  recv %,.0f/s  err %d  timeout %d  missed %d"
+                        + "  p50 %s  p99 %s  p999 %s  max %s%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - startNanos), connected.get(), config.chargers,
+                sentDelta / seconds, receivedDelta / seconds, callErrors.sum(), timeouts.sum(), missed.sum(),
+                millis(s.quantile(0.5)), millis(s.quantile(0.99)), millis(s.quantile(0.999)), millis(s.max()));
+    }
+
+    private void printSummary() {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        Histogram.Snapshot s = total.snapshot();
+        System.out.println("==================================================");
+        System.out.printf(Locale.ROOT, "Duration %.1fs, sent %d, received %d (%,.0f/s)%n",
+                seconds, sent.sum(), received.sum(), received.sum() / seconds);
+        System.out.printf(Locale.ROOT,
+                "CallError %d, timeout %d, missed %d, connect failures %d, disconnects %d%n",
+                callErrors.sum(), timeouts.sum(), missed.sum(), connectFailures.sum(), disconnects.sum());
+        System.out.printf(Locale.ROOT, "%-20s %10s %10s %10s %10s %10s%n", "Action", "count", "p50", "p99", "p999", "max");
+        printRow("(all)", s);
+        new TreeMap<>(byAction).forEach((action, histogram) -> printRow(action, histogram.snapshot()));
+    }
+
+    private static void printRow(String name, Histogram.Snapshot s) {
+        System.out.printf(Locale.ROOT, "%-20s %10d %10s %10s %10s %10s%n", name, s.count(),
+                millis(s.quantile(0.5)), millis(s.quantile(0.99)), millis(s.quantile(0.999)), millis(s.max()));
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2fms", nanos / 1e6);
+    }
+
+    private void recordLatency(String action, long nanos) {
+        total.record(nanos);
+        interval.get().record(nanos);
+        byAction.computeIfAbsent(action, a -> new Histogram()).record(nanos);
+    }
+
+    // 충전기 1대
+
+    /**
+     * 시뮬레이션 충전기 (응답 대기 Call은 최대 1개, OCPP 1.6 규칙)
+     */
+    private final class Charger implements WebSocket.Listener {
+
+        private final String id;
+        private final String idTag;
+        private final StringBuilder partial = new StringBuilder();
+
+        // this로 동기화
+        private WebSocket webSocket;
+        private CompletableFuture<?> lastSend = CompletableFuture.completedFuture(null);
+        private Scenario.Step[] script;
+        private int step;
+        private long sequence;
+        private String inFlightId;
+        private String inFlightAction;
+        private long inFlightSince;
+        private int transactionId;
+        private long meterWh;
+
+        Charger(String id) {
+            this.id = id;
+            this.idTag = "TAG" + Integer.toHexString(id.hashCode()).toUpperCase(Locale.ROOT);
+        }
+
+        void connect() {
+            URI uri = URI.create(config.url.toString().replaceAll("/$", "") + "/" + id);
+            httpClient.newWebSocketBuilder()
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .buildAsync(uri, this)
+                    .whenComplete((ws, error) -> {
+                        if (error != null) {
+                            connectFailures.increment();
+                            scheduleReconnect();
+                        }
+                    });
+        }
+
+        private void scheduleReconnect() {
+            if (running) {
+                CompletableFuture.delayedExecutor(1, TimeUnit.SECONDS, executor).execute(this::connect);
+            }
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            synchronized (this) {
+                this.webSocket = webSocket;
+                this.script = Scenario.BOOT_SEQUENCE;
+                this.step = 0;
+                this.inFlightId = null;
+            }
+            connected.incrementAndGet();
+            webSocket.request(1);
+            // 부팅 순서(BootNotification → StatusNotification)는 속도 제한 없이 전송
+            sendNext();
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String message = partial.toString();
+                partial.setLength(0);
+                onFrame(message);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            disconnected();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            disconnected();
+        }
+
+        private void disconnected() {
+            synchronized (this) {
+                if (webSocket == null) {
+                    return;
+                }
+                webSocket = null;
+                inFlightId = null;
+            }
+            connected.decrementAndGet();
+            if (running) {
+                disconnects.increment();
+                scheduleReconnect();
+            }
+        }
+
+        void close() {
+            WebSocket ws;
+            synchronized (this) {
+                ws = webSocket;
+            }
+            if (ws != null) {
+                ws.sendClose(WebSocket.NORMAL_CLOSURE, "done");
+            }
+        }
+
+        private void onFrame(String message) {
+            // [type, "uniqueId", ...] 헤더만 읽음
+            int type = message.length() > 1 ? message.charAt(1) - '0' : -1;
+            int idStart = message.indexOf('"');
+            int idEnd = idStart < 0 ? -1 : message.indexOf('"', idStart + 1);
+            if (idEnd < 0) {
+                return;
+            }
+            String uniqueId = message.substring(idStart + 1, idEnd);
+
+            if (type == 2) {
+                // 서버 → 충전기 요청 (RemoteStart, Reset 등): 모두 수락
+                send("[3,\"" + uniqueId + "\",{\"status\":\"Accepted\"}]");
+                return;
+            }
+
+            String action;
+            long latency;
+            boolean sendNow;
+            synchronized (this) {
+                if (!uniqueId.equals(inFlightId)) {
+                    return;  // 타임아웃 처리된 응답
+                }
+                action = inFlightAction;
+                latency = System.nanoTime() - inFlightSince;
+                inFlightId = null;
+                if ("StartTransaction".equals(action)) {
+                    Matcher matcher = TRANSACTION_ID.matcher(message);
+                    transactionId = matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+                }
+                if (script == Scenario.BOOT_SEQUENCE && step >= script.length) {
+                    script = config.scenario.steps;
+                    step = 0;
+                }
+                // 부팅 순서와 closed loop는 응답 즉시 다음 Call, 그 외는 페이서가 보냄
+                sendNow = config.rate == 0 || script == Scenario.BOOT_SEQUENCE;
+            }
+            received.increment();
+            if (type == 4) {
+                callErrors.increment();
+            }
+            recordLatency(action, latency);
+            if (sendNow) {
+                sendNext();
+            }
+        }
+
+        /**
+         * 페이서에서 호출: 부팅이 끝났고 응답 대기 중이 아니면 다음 Call 전송
+         */
+        boolean trySendNext() {
+            synchronized (this) {
+                if (webSocket == null || inFlightId != null || script == Scenario.BOOT_SEQUENCE) {
+                    return false;
+                }
+            }
+            return sendNext();
+        }
+
+        private boolean sendNext() {
+            String frame;
+            synchronized (this) {
+                if (webSocket == null || inFlightId != null || !running) {
+                    return false;
+                }
+                if (step >= script.length) {
+                    script = config.scenario.steps;
+                    step = 0;
+                }
+                Scenario.Step next = script[step++];
+                inFlightId = id + "-" + (++sequence);
+                inFlightAction = next.action();
+                inFlightSince = System.nanoTime();
+                frame = "[2,\"" + inFlightId + "\",\"" + next.action() + "\"," + payload(next) + "]";
+            }
+            sent.increment();
+            send(frame);
+            return true;
+        }
+
+        void expireIfOlderThan(long limitNanos) {
+            boolean expired;
+            synchronized (this) {
+                expired = inFlightId != null && inFlightSince < limitNanos;
+                if (expired) {
+                    inFlightId = null;
+                }
+            }
+            if (expired) {
+                timeouts.increment();
+                if (config.rate == 0) {
+                    sendNext();
+                }
+            }
+        }
+
+        /**
+         * JDK WebSocket은 이전 전송이 끝나야 다음 전송 가능 → 충전기별로 순서대로 연결
+         */
+        private void send(String frame) {
+            synchronized (this) {
+                WebSocket ws = webSocket;
+                if (ws == null) {
+                    return;
+                }
+                lastSend = lastSend.handle((r, e) -> null)
+                        .thenCompose(ignored -> ws.sendText(frame, true));
+            }
+        }
+
+        private String payload(Scenario.Step step) {
+            String now = Instant.now().toString();
+            return switch (step) {
+                case BOOT -> "{\"chargePointVendor\":\"LoadGen\",\"chargePointModel\":\"Sim-22K\","
+                        + "\"chargePointSerialNumber\":\"" + id + "\",\"firmwareVersion\":\"1.0.0\"}";
+                case HEARTBEAT -> "{}";
+                case STATUS_AVAILABLE -> status("Available", now);
+                case STATUS_CHARGING -> status("Charging", now);
+                case AUTHORIZE -> "{\"idTag\":\"" + idTag + "\"}";
+                case START -> "{\"connectorId\":1,\"idTag\":\"" + idTag + "\",\"meterStart\":" + meterWh
+                        + ",\"timestamp\":\"" + now + "\"}";
+                case METER -> meterValues(now);
+                case STOP -> "{\"transactionId\":" + transactionId + ",\"idTag\":\"" + idTag + "\",\"meterStop\":"
+                        + meterWh + ",\"timestamp\":\"" + now + "\",\"reason\":\"Local\"}";
+            };
+        }
+
+        private String status(String status, String now) {
+            return "{\"connectorId\":1,\"errorCode\":\"NoError\",\"status\":\"" + status + "\",\"timestamp\":\""
+                    + now + "\"}";
+        }
+
+        /**
+         * 측정 시점 config.meterBatch개 (에너지/전력/전압/전류)
+         */
+        private String meterValues(String now) {
+            StringBuilder sb = new StringBuilder(128 + config.meterBatch * 400);
+            sb.append("{\"connectorId\":1,\"transactionId\":").append(transactionId).append(",\"meterValue\":[");
+            for (int i = 0; i < config.meterBatch; i++) {
+                meterWh += 90;
+                if (i > 0) {
+                    sb.append(',');
+                }
+                sb.append("{\"timestamp\":\"").append(now).append("\",\"sampledValue\":[")
+                        .append("{\"value\":\"").append(meterWh)
+                        .append("\",\"measurand\":\"Energy.Active.Import.Register\",\"unit\":\"Wh\"},")
+                        .append("{\"value\":\"11040\",\"measurand\":\"Power.Active.Import\",\"unit\":\"W\"},")
+                        .append("{\"value\":\"230.1\",\"measurand\":\"Voltage\",\"unit\":\"V\"},")
+                        .append("{\"value\":\"16.0\",\"measurand\":\"Current.Import\",\"unit\":\"A\"}]}");
+            }
+            return sb.append("]}").toString();
+        }
+    }
+
+    // 시나리오
+
+    /**
+     * 연결 후 BOOT_SEQUENCE를 1번 실행하고, 이후 steps를 반복
+     */
+    enum Scenario {
+        BOOT(Step.BOOT),
+        HEARTBEAT(Step.HEARTBEAT),
+        TRANSACTION(Step.AUTHORIZE, Step.START, Step.STATUS_CHARGING, Step.METER, Step.METER, Step.METER,
+                Step.METER, Step.METER, Step.STOP, Step.STATUS_AVAILABLE),
+        METER(Step.METER),
+        MIXED(Step.HEARTBEAT, Step.AUTHORIZE, Step.START, Step.STATUS_CHARGING, Step.METER, Step.HEARTBEAT,
+                Step.METER, Step.METER, Step.HEARTBEAT, Step.METER, Step.METER, Step.STOP, Step.STATUS_AVAILABLE);
+
+        static final Step[] BOOT_SEQUENCE = {Step.BOOT, Step.STATUS_AVAILABLE};
+
+        enum Step {
+            BOOT("BootNotification"),
+            HEARTBEAT("Heartbeat"),
+            STATUS_AVAILABLE("StatusNotification"),
+            STATUS_CHARGING("StatusNotification"),
+            AUTHORIZE("Authorize"),
+            START("StartTransaction"),
+            METER("MeterValues"),
+            STOP("StopTransaction");
+
+            private final String action;
+
+            Step(String action) {
+                this.action = action;
+            }
+
+            String action() {
+                return action;
+            }
+        }
+
+        final Step[] steps;
+
+        Scenario(Step... steps) {
+            this.steps = steps;
+        }
+    }
+
+    // 설정
+
+    static final class Config {
+
+        URI url = URI.create("ws://127.0.0.1:8081/ocpp");
+        int chargers = 1000;
+        Scenario scenario = Scenario.MIXED;
+        double rate = 1000;
+        int rampUpSeconds = 10;
+        int durationSeconds = 60;
+        boolean soak;
+        int reportIntervalSeconds = 10;
+        int timeoutSeconds = 30;
+        int meterBatch = 1;
+        String idPrefix = "LOAD";
+
+        static Config parse(String[] args) {
+            Config config = new Config();
+            for (int i = 0; i < args.length; i++) {
+                String name = args[i];
+                if ("--soak".equals(name)) {
+                    config.soak = true;
+                    continue;
+                }
+                if ("--help".equals(name) || i + 1 >= args.length) {
+                    usage();
+                }
+                String value = args[++i];
+                switch (name) {
+                    case "--url" -> config.url = URI.create(value);
+                    case "--chargers" -> config.chargers = Integer.parseInt(value);
+                    case "--scenario" -> config.scenario = Scenario.valueOf(value.toUpperCase(Locale.ROOT));
+                    case "--rate" -> config.rate = Double.parseDouble(value);
+                    case "--ramp-up" -> config.rampUpSeconds = Integer.parseInt(value);
+                    case "--duration" -> config.durationSeconds = Integer.parseInt(value);
+                    case "--report-interval" -> config.reportIntervalSeconds = Integer.parseInt(value);
+                    case "--timeout" -> config.timeoutSeconds = Integer.parseInt(value);
+                    case "--meter-batch" -> config.meterBatch = Integer.parseInt(value);
+                    case "--id-prefix" -> config.idPrefix = value;
+                    default -> usage();
+                }
+            }
+            if (config.chargers <= 0 || config.rate < 0 || config.meterBatch <= 0 || config.reportIntervalSeconds <= 0) {
+                usage();
+            }
+            return config;
+        }
+
+        private static void usage() {
+            System.err.println("""
+                    Usage: LoadGenerator [options]
+                      --url <ws://127.0.0.1:8081/ocpp>  server base URL (localhost only); charger ID is appended
+                      --chargers <1000>                 concurrent charge point connections
+                      --scenario <mixed>                boot | heartbeat | transaction | meter | mixed
+                      --rate <1000>                     target Calls/s across all chargers (0 = closed loop, max speed)
+                      --ramp-up <10>                    seconds to open all connections
+                      --duration <60>                   test length in seconds (ignored with --soak)
+                      --soak                            run until Ctrl+C, reconnecting dropped chargers
+                      --report-interval <10>            seconds between progress lines
+                      --timeout <30>                    seconds before an unanswered Call counts as timeout
+                      --meter-batch <1>                 meterValue entries per MeterValues
+                      --id-prefix <LOAD>                charge point ID prefix""");
+            System.exit(1);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT,
+                    "Load: %d chargers -> %s, scenario %s, rate %s, ramp-up %ds, %s",
+                    chargers, url, scenario.name().toLowerCase(Locale.ROOT),
+                    rate > 0 ? String.format(Locale.ROOT, "%.0f/s", rate) : "closed loop",
+                    rampUpSeconds, soak ? "soak (Ctrl+C to stop)" : "duration " + durationSeconds + "s");
+        }
+    }
+
+    // 지연 시간 히스토그램
+
+    /**
+     * 로그-선형 버킷 히스토그램 (2의 거듭제곱 구간마다 16칸, 상대 오차 약 6%, 락 없음)
+     */
+    static final class Histogram {
+
+        private static final int SUB_BUCKET_BITS = 4;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+        private static final int MAX_EXPONENT = 40;
+        private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+        private final LongAdder count = new LongAdder();
+        private final AtomicLong max = new AtomicLong();
+
+        void record(long nanos) {
+            long value = Math.max(0, nanos);
+            counts.incrementAndGet(indexOf(value));
+            count.increment();
+            long current = max.get();
+            while (value > current && !max.compareAndSet(current, value)) {
+                current = max.get();
+            }
+        }
+
+        Snapshot snapshot() {
+            long[] copy = new long[BUCKET_COUNT];
+            long n = 0;
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy[i] = counts.get(i);
+                n += copy[i];
+            }
+            return new Snapshot(copy, n, max.get());
+        }
+
+        private static int indexOf(long value) {
+            if (value < SUB_BUCKETS) {
+                return (int) value;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(value);
+            if (exponent > MAX_EXPONENT) {
+                return BUCKET_COUNT - 1;
+            }
+            int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+            return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+        }
+
+        private static long upperBoundOf(int index) {
+            if (index < SUB_BUCKETS) {
+                return index;
+            }
+            if (index == BUCKET_COUNT - 1) {
+                return Long.MAX_VALUE;
+            }
+            int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+            int sub = index % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + sub + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+        }
+
+        record Snapshot(long[] counts, long count, long max) {
+
+            long quantile(double q) {
+                if (count == 0) {
+                    return 0;
+                }
+                long rank = Math.max(1, (long) Math.ceil(q * count));
+                long seen = 0;
+                for (int i = 0; i < counts.length; i++) {
+                    seen += counts[i];
+                    if (seen >= rank) {
+                        return Math.min(upperBoundOf(i), max);
+                    }
+                }
+                return max;
+            }
+        }
+    }
+}